@@ -0,0 +1,79 @@
+package de.bcxp.challenge.benchmark;
+
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.service.CountryAnalyzer;
+import de.bcxp.challenge.service.WeatherAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the analyzers over in-memory lists, isolating analysis cost from
+ * parsing. The {@code stream*} benchmarks reproduce the original
+ * {@code Stream.min}/{@code max} implementation as a reference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AnalyzerBenchmark {
+
+    /** Number of records per list. */
+    @Param({"30", "100000", "1000000"})
+    public int rows;
+
+    private List<WeatherDay> days;
+    private List<Country> countries;
+    private final WeatherAnalyzer weatherAnalyzer = new WeatherAnalyzer();
+    private final CountryAnalyzer countryAnalyzer = new CountryAnalyzer();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        days = new ArrayList<>(rows);
+        countries = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            double min = random.nextInt(60);
+            days.add(new WeatherDay(i + 1, min + random.nextInt(40), min));
+            countries.add(new Country("Country " + i, random.nextInt(100_000_000), 1 + random.nextInt(500_000)));
+        }
+    }
+
+    @Benchmark
+    public Optional<WeatherDay> weatherAnalyze() {
+        return weatherAnalyzer.analyze(days);
+    }
+
+    @Benchmark
+    public Optional<WeatherDay> weatherStreamMin() {
+        return days.stream().min(Comparator.comparingDouble(WeatherDay::getTemperatureDifference));
+    }
+
+    @Benchmark
+    public Optional<Country> countryAnalyze() {
+        return countryAnalyzer.analyze(countries);
+    }
+
+    @Benchmark
+    public Optional<Country> countryStreamMax() {
+        return countries.stream().max(Comparator.comparingDouble(Country::getPopulationDensity));
+    }
+}
@@ -0,0 +1,106 @@
+package de.bcxp.challenge.benchmark;
+
+import de.bcxp.challenge.generator.CountryDataGenerator;
+import de.bcxp.challenge.generator.CsvDataGenerator;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import io.airlift.compress.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Provides input files of a requested size for the benchmarks.
+ *
+ * <p>A row count of {@code 0} selects the CSV file shipped with the
+ * application. Larger inputs are written to a temporary file by the
+ * seeded dataset generators, so every run measures identical data.</p>
+ */
+final class BenchmarkData {
+    static final Path WEATHER = Path.of("src/main/resources/de/bcxp/challenge/weather.csv");
+    static final Path COUNTRIES = Path.of("src/main/resources/de/bcxp/challenge/countries.csv");
+
+    private static final long SEED = 42L;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Returns a weather file with the given number of data rows.
+     *
+     * @param rows number of data rows, or {@code 0} for the shipped file
+     * @return the file path
+     */
+    static Path weatherFile(int rows) {
+        if (rows == 0) return WEATHER;
+        return generate(new WeatherDataGenerator(SEED, 0.0), rows);
+    }
+
+    /**
+     * Returns a country file with the given number of data rows.
+     *
+     * @param rows number of data rows, or {@code 0} for the shipped file
+     * @return the file path
+     */
+    static Path countryFile(int rows) {
+        if (rows == 0) return COUNTRIES;
+        return generate(new CountryDataGenerator(SEED, 0.0), rows);
+    }
+
+    /**
+     * Writes a compressed copy of the given file to a temporary file.
+     *
+     * @param source      the file to compress
+     * @param compression {@code gzip} or {@code zstd}
+     * @return the path of the compressed copy
+     */
+    static Path compress(Path source, String compression) {
+        try {
+            Path target = Files.createTempFile("bench-", ".csv." + compression);
+            try (OutputStream out = compressing(compression, Files.newOutputStream(target))) {
+                Files.copy(source, out);
+            }
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static OutputStream compressing(String compression, OutputStream out) throws IOException {
+        switch (compression) {
+            case "gzip":
+                return new GZIPOutputStream(out, 64 * 1024);
+            case "zstd":
+                return new ZstdOutputStream(out);
+            default:
+                throw new IllegalArgumentException("Unknown compression: " + compression);
+        }
+    }
+
+    /**
+     * Deletes a file created by this class; shipped files are left alone.
+     *
+     * @param file the file to delete
+     */
+    static void delete(Path file) {
+        if (file.equals(WEATHER) || file.equals(COUNTRIES)) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path generate(CsvDataGenerator generator, int rows) {
+        try {
+            Path target = Files.createTempFile("bench-" + rows + "-", ".csv");
+            generator.generate(target, rows);
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
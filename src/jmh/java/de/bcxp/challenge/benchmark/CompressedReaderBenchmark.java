@@ -0,0 +1,104 @@
+package de.bcxp.challenge.benchmark;
+
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.CsvWeatherReader;
+import de.bcxp.challenge.reader.InputFiles;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.service.WeatherAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock cost of reading compressed weather files compared with the
+ * uncompressed file.
+ *
+ * <p>{@code compression=none} is the baseline. The {@code drain*}
+ * benchmarks only decompress, isolating the decompression cost from
+ * parsing. {@code drainInline} decompresses on the calling thread,
+ * {@code drainPipelined} on a separate one; the readers always use the
+ * pipelined variant, so comparing their scores with {@code drainInline}
+ * shows how much decompression is hidden behind parsing.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CompressedReaderBenchmark {
+
+    /** Data rows per file. */
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"none", "gzip", "zstd"})
+    public String compression;
+
+    private Path plain;
+    private Path file;
+    private String path;
+    private final WeatherAnalyzer analyzer = new WeatherAnalyzer();
+
+    @Setup
+    public void setUp() {
+        plain = BenchmarkData.weatherFile(rows);
+        file = "none".equals(compression) ? plain : BenchmarkData.compress(plain, compression);
+        path = file.toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkData.delete(file);
+        BenchmarkData.delete(plain);
+    }
+
+    @Benchmark
+    public long drainPipelined() throws IOException {
+        return drain(InputFiles.open(file, true));
+    }
+
+    @Benchmark
+    public long drainInline() throws IOException {
+        return drain(InputFiles.open(file, false));
+    }
+
+    @Benchmark
+    public List<WeatherDay> lineBased() {
+        return new CsvWeatherReader().readData(path);
+    }
+
+    @Benchmark
+    public Optional<WeatherDay> mappedStreamingAnalyze() {
+        return analyzer.analyze(new MappedCsvReader<>(CsvFormat.weather()), path);
+    }
+
+    private static long drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        try (in) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                total += read;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,119 @@
+package de.bcxp.challenge.benchmark;
+
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.parser.AmbiguityPolicy;
+import de.bcxp.challenge.parser.NumberParser;
+import de.bcxp.challenge.reader.CsvCountryReader;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.CsvSchema;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.reader.ParallelCsvReader;
+import de.bcxp.challenge.reader.PipelinedCsvReader;
+import de.bcxp.challenge.reader.SchemaCsvReader;
+import de.bcxp.challenge.service.CountryAnalyzer;
+import de.bcxp.challenge.table.CountryTable;
+import de.bcxp.challenge.table.CountryTableReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads {@code countries.csv}-shaped files with every reader implementation.
+ *
+ * <p>Scores are files per second; multiply by the row count for rows per
+ * second. Run with {@code -prof gc} to see the allocation rate per row.
+ * Generated files mix German and English numbers, so every reader opts in
+ * to mixed number detection.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CountryReaderBenchmark {
+    private static final NumberParser MIXED = NumberParser.mixed(AmbiguityPolicy.REJECT);
+
+    /** Data rows per file; 0 selects the shipped countries.csv. */
+    @Param({"0", "100000", "1000000"})
+    public int rows;
+
+    private Path file;
+    private String path;
+    private final CountryAnalyzer analyzer = new CountryAnalyzer();
+
+    @Setup
+    public void setUp() {
+        file = BenchmarkData.countryFile(rows);
+        path = file.toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkData.delete(file);
+    }
+
+    @Benchmark
+    public List<Country> lineBased() {
+        return new CsvCountryReader(MIXED, MIXED).readData(path);
+    }
+
+    @Benchmark
+    public List<Country> mapped() {
+        return new MappedCsvReader<>(CsvFormat.countries(MIXED, MIXED)).readData(path);
+    }
+
+    @Benchmark
+    public List<Country> parallel() {
+        return new ParallelCsvReader<>(CsvFormat.countries(MIXED, MIXED)).readData(path);
+    }
+
+    @Benchmark
+    public List<Country> pipelined() {
+        return new PipelinedCsvReader<>(CsvFormat.countries(MIXED, MIXED)).readData(path);
+    }
+
+    @Benchmark
+    public List<Country> schemaProjected() {
+        return new SchemaCsvReader<>(CsvSchema.countries(MIXED, MIXED)).readData(path);
+    }
+
+    @Benchmark
+    public Optional<Country> lineBasedListThenAnalyze() {
+        return analyzer.analyze(new CsvCountryReader(MIXED, MIXED).readData(path));
+    }
+
+    @Benchmark
+    public Optional<Country> mappedStreamingAnalyze() {
+        return analyzer.analyze(new MappedCsvReader<>(CsvFormat.countries(MIXED, MIXED)), path);
+    }
+
+    @Benchmark
+    public Optional<Country> parallelStreamingAnalyze() {
+        return analyzer.analyze(new ParallelCsvReader<>(CsvFormat.countries(MIXED, MIXED)), path);
+    }
+
+    @Benchmark
+    public CountryTable columnar() {
+        return new CountryTableReader(1, MIXED, MIXED).readTable(path);
+    }
+
+    @Benchmark
+    public Optional<Country> columnarAnalyze() {
+        return analyzer.analyzeTable(new CountryTableReader(1, MIXED, MIXED).readTable(path));
+    }
+}
@@ -0,0 +1,90 @@
+package de.bcxp.challenge.benchmark;
+
+import de.bcxp.challenge.parser.AmbiguityPolicy;
+import de.bcxp.challenge.parser.NumberParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link NumberParser} with the former country reader
+ * normalization ({@code replace(".", "").replace(",", ".")} followed by
+ * {@link Double#parseDouble}). Scores are values per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class NumberParserBenchmark {
+    private static final int VALUES = 10_000;
+
+    private final NumberParser parser = NumberParser.mixed(AmbiguityPolicy.REJECT);
+    private String[] values;
+    private ByteBuffer bytes;
+    private int[] offsets;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new String[VALUES];
+        StringBuilder joined = new StringBuilder();
+        offsets = new int[VALUES + 1];
+        for (int i = 0; i < VALUES; i++) {
+            long population = 100_000 + random.nextInt(90_000_000);
+            // Every tenth value uses German grouping, as in countries.csv
+            values[i] = i % 10 == 0
+                    ? String.format(Locale.GERMANY, "%,d,00", population)
+                    : Long.toString(population);
+            offsets[i] = joined.length();
+            joined.append(values[i]);
+        }
+        offsets[VALUES] = joined.length();
+        bytes = ByteBuffer.wrap(joined.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public double replaceAndParseDouble() {
+        double sum = 0;
+        for (String value : values) {
+            sum += Double.parseDouble(value.trim().replace(".", "").replace(",", "."));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public double numberParserChars() {
+        double sum = 0;
+        for (String value : values) {
+            sum += parser.parse(value);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public double numberParserBytes() {
+        double sum = 0;
+        for (int i = 0; i < VALUES; i++) {
+            sum += parser.parse(bytes, offsets[i], offsets[i + 1]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,124 @@
+package de.bcxp.challenge.benchmark;
+
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.CsvRow;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the word-at-a-time tokenizer with {@code readLine} followed by
+ * {@code String.split} on both file shapes.
+ *
+ * <p>Both variants locate every line and field of the file and touch each
+ * field once, without parsing values. The {@code bytes} counter is the
+ * tokenizing throughput in bytes per second; divide by 10^9 for GB/s. The
+ * file is read once in setup, so both variants run from the page cache.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TokenizerBenchmark {
+
+    /** {@code weather} splits on {@code ','}, {@code countries} on {@code ';'}. */
+    @Param({"weather", "countries"})
+    public String shape;
+
+    /** Data rows per file; 0 selects the shipped file. */
+    @Param({"1000000"})
+    public int rows;
+
+    private Path file;
+    private String path;
+    private String delimiter;
+    private MappedCsvReader<?> reader;
+    private long size;
+
+    @Setup
+    public void setUp() throws IOException {
+        boolean weather = "weather".equals(shape);
+        file = weather ? BenchmarkData.weatherFile(rows) : BenchmarkData.countryFile(rows);
+        path = file.toString();
+        delimiter = weather ? "," : ";";
+        reader = weather
+                ? new MappedCsvReader<>(CsvFormat.weather())
+                : new MappedCsvReader<>(CsvFormat.countries());
+        size = Files.size(file);
+        Files.readAllBytes(file);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkData.delete(file);
+    }
+
+    /**
+     * Counts processed bytes, reported by JMH as a rate.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Benchmark
+    public long readLineSplit(Throughput throughput) throws IOException {
+        long fields = 0;
+        try (BufferedReader lines = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                for (String field : line.split(delimiter)) {
+                    fields += field.length();
+                }
+            }
+        }
+        throughput.bytes += size;
+        return fields;
+    }
+
+    @Benchmark
+    public long swar(Throughput throughput) {
+        long[] fields = new long[1];
+        reader.scan(path, row -> {
+            fields[0] += touch(row);
+            return true;
+        });
+        throughput.bytes += size;
+        return fields[0];
+    }
+
+    private static long touch(CsvRow row) {
+        long length = 0;
+        for (int i = 0; i < row.fieldCount(); i++) {
+            length += row.fieldEnd(i) - row.fieldStart(i);
+        }
+        return length;
+    }
+}
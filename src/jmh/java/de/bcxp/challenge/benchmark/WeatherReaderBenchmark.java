@@ -0,0 +1,114 @@
+package de.bcxp.challenge.benchmark;
+
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.CsvSchema;
+import de.bcxp.challenge.reader.CsvWeatherReader;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.reader.ParallelCsvReader;
+import de.bcxp.challenge.reader.PipelinedCsvReader;
+import de.bcxp.challenge.reader.SchemaCsvReader;
+import de.bcxp.challenge.service.WeatherAnalyzer;
+import de.bcxp.challenge.table.WeatherTable;
+import de.bcxp.challenge.table.WeatherTableReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads {@code weather.csv}-shaped files with every reader implementation.
+ *
+ * <p>Scores are files per second; multiply by the row count for rows per
+ * second. Run with {@code -prof gc} to see the allocation rate per row.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WeatherReaderBenchmark {
+
+    /** Data rows per file; 0 selects the shipped weather.csv. */
+    @Param({"0", "100000", "1000000"})
+    public int rows;
+
+    private Path file;
+    private String path;
+    private final WeatherAnalyzer analyzer = new WeatherAnalyzer();
+
+    @Setup
+    public void setUp() {
+        file = BenchmarkData.weatherFile(rows);
+        path = file.toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkData.delete(file);
+    }
+
+    @Benchmark
+    public List<WeatherDay> lineBased() {
+        return new CsvWeatherReader().readData(path);
+    }
+
+    @Benchmark
+    public List<WeatherDay> mapped() {
+        return new MappedCsvReader<>(CsvFormat.weather()).readData(path);
+    }
+
+    @Benchmark
+    public List<WeatherDay> parallel() {
+        return new ParallelCsvReader<>(CsvFormat.weather()).readData(path);
+    }
+
+    @Benchmark
+    public List<WeatherDay> pipelined() {
+        return new PipelinedCsvReader<>(CsvFormat.weather()).readData(path);
+    }
+
+    @Benchmark
+    public List<WeatherDay> schemaProjected() {
+        return new SchemaCsvReader<>(CsvSchema.weather()).readData(path);
+    }
+
+    @Benchmark
+    public Optional<WeatherDay> lineBasedListThenAnalyze() {
+        return analyzer.analyze(new CsvWeatherReader().readData(path));
+    }
+
+    @Benchmark
+    public Optional<WeatherDay> mappedStreamingAnalyze() {
+        return analyzer.analyze(new MappedCsvReader<>(CsvFormat.weather()), path);
+    }
+
+    @Benchmark
+    public Optional<WeatherDay> parallelStreamingAnalyze() {
+        return analyzer.analyze(new ParallelCsvReader<>(CsvFormat.weather()), path);
+    }
+
+    @Benchmark
+    public WeatherTable columnar() {
+        return new WeatherTableReader().readTable(path);
+    }
+
+    @Benchmark
+    public Optional<WeatherDay> columnarAnalyze() {
+        return analyzer.analyzeTable(new WeatherTableReader().readTable(path));
+    }
+}
@@ -1,14 +1,41 @@
 package de.bcxp.challenge;
 
+import de.bcxp.challenge.api.DataReader;
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.batch.BatchAnalyzer;
+import de.bcxp.challenge.batch.BatchResult;
+import de.bcxp.challenge.batch.FileResult;
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.metrics.MetricsRegistry;
 import de.bcxp.challenge.model.Country;
 import de.bcxp.challenge.model.WeatherDay;
-import de.bcxp.challenge.reader.CsvCountryReader;
-import de.bcxp.challenge.reader.CsvWeatherReader;
+import de.bcxp.challenge.outofcore.MemoryBudget;
+import de.bcxp.challenge.outofcore.OutOfCoreExecutor;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.server.AnalysisServer;
+import de.bcxp.challenge.service.Aggregations;
+import de.bcxp.challenge.service.CompositeAnalyzer;
+import de.bcxp.challenge.service.CompositeAnalyzer.Slot;
 import de.bcxp.challenge.service.CountryAnalyzer;
 import de.bcxp.challenge.service.WeatherAnalyzer;
+import de.bcxp.challenge.snapshot.SnapshotTableReader;
+import de.bcxp.challenge.stats.ColumnStatistics;
+import de.bcxp.challenge.stats.Statistics;
+import de.bcxp.challenge.stats.StatisticsResult;
+import de.bcxp.challenge.table.CountryTable;
+import de.bcxp.challenge.table.CountryTableReader;
+import de.bcxp.challenge.table.WeatherTable;
+import de.bcxp.challenge.table.WeatherTableReader;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.function.Function;
 
 /**
  * The entry class for your solution. This class is only aimed as starting point and not intended as baseline for your software
@@ -16,36 +43,159 @@ import java.util.Optional;
  */
 public final class App {
 
+    /** System property selecting a metrics report: {@code json} or {@code prometheus}. */
+    static final String METRICS_PROPERTY = "bcxp.metrics";
+
+    /** System property selecting the snapshot directory, or {@code off} to parse on every run. */
+    static final String SNAPSHOTS_PROPERTY = "bcxp.snapshots";
+
+    private static final String BATCH_USAGE =
+            "Usage: App [weather|countries <directory|glob> [ioWaitRatio] | serve [port] [dir]"
+                    + " | external weather|countries <file> <memoryBudget>]"
+                    + System.lineSeparator()
+                    + "Without arguments, snapshots in -D" + SNAPSHOTS_PROPERTY + "=<directory|off> (default "
+                    + SnapshotTableReader.DEFAULT_DIRECTORY + ") are reused while size, modification time and"
+                    + " a CRC32C of the first and last 64 KiB of the source match; other changes go unnoticed.";
+
+    private static final String EXTERNAL_USAGE = "Usage: App external weather|countries <file> <memoryBudget>";
+
     /**
      * This is the main entry method of your program.
+     *
+     * <p>Without arguments, the bundled files are analyzed. Batch mode is
+     * selected with {@code weather|countries <directory|glob> [ioWaitRatio]}
+     * and analyzes every matching file plus all files together.
+     * {@code serve [port] [dataDirectory]} starts an {@link AnalysisServer}
+     * answering the same queries over HTTP.
+     * {@code external weather|countries <file> <memoryBudget>} analyzes a
+     * file larger than the heap within a budget such as {@code 64m}.</p>
+     *
+     * <p>The bundled files are reloaded from binary snapshots in
+     * {@link SnapshotTableReader#DEFAULT_DIRECTORY}, or in the directory
+     * given with {@code -Dbcxp.snapshots=<directory>}; {@code off} parses
+     * them on every run. A snapshot is only checked against the size,
+     * modification time and a sampled checksum of the first and last
+     * bytes of its source, not against a checksum of the whole file.</p>
+     *
+     * <p>With {@code -Dbcxp.metrics=json} or {@code -Dbcxp.metrics=prometheus},
+     * read and analyze phases are measured and reported at the end.</p>
+     *
      * @param args The CLI arguments passed
      */
     public static void main(String... args) {
+        String report = System.getProperty(METRICS_PROPERTY);
+        MetricsRegistry metrics = new MetricsRegistry(report != null);
 
-        runWeatherAnalysis("src/main/resources/de/bcxp/challenge/weather.csv");
-        runCountryAnalysis("src/main/resources/de/bcxp/challenge/countries.csv");
+        if (args.length >= 1 && "serve".equals(args[0])) {
+            try {
+                AnalysisServer.main(Arrays.copyOfRange(args, 1, args.length));
+            } catch (IOException e) {
+                System.err.println("Cannot start server: " + e.getMessage());
+            }
+            return;
+        }
+
+        if (args.length >= 1 && "external".equals(args[0])) {
+            if (args.length < 4) {
+                System.err.println(EXTERNAL_USAGE);
+                return;
+            }
+            MemoryBudget budget;
+            try {
+                budget = MemoryBudget.parse(args[3]);
+            } catch (IllegalArgumentException e) {
+                System.err.println(EXTERNAL_USAGE);
+                return;
+            }
+            if ("weather".equals(args[1])) {
+                runWeatherOutOfCore(args[2], budget, metrics);
+            } else if ("countries".equals(args[1])) {
+                runCountryOutOfCore(args[2], budget, metrics);
+            } else {
+                System.err.println(EXTERNAL_USAGE);
+                return;
+            }
+        } else if (args.length >= 2) {
+            double ioWaitRatio = args.length > 2 ? parseRatio(args[2]) : 0;
+            if (Double.isNaN(ioWaitRatio)) {
+                System.err.println(BATCH_USAGE);
+                return;
+            }
+            switch (args[0]) {
+                case "weather":
+                    runWeatherBatch(args[1], ioWaitRatio, metrics);
+                    break;
+                case "countries":
+                    runCountryBatch(args[1], ioWaitRatio, metrics);
+                    break;
+                default:
+                    System.err.println(BATCH_USAGE);
+                    return;
+            }
+        } else {
+            runWeatherAnalysis("src/main/resources/de/bcxp/challenge/weather.csv", metrics);
+            runCountryAnalysis("src/main/resources/de/bcxp/challenge/countries.csv", metrics);
+        }
+
+        if ("prometheus".equals(report)) {
+            System.out.print(metrics.snapshot().toPrometheus());
+        } else if (report != null) {
+            System.out.println(metrics.snapshot().toJson());
+        }
     }
 
-    private static void runWeatherAnalysis(String filePath) {
-        CsvWeatherReader weatherReader = new CsvWeatherReader();
-        List<WeatherDay> weatherDays = weatherReader.readData(filePath);
+    /**
+     * Parses the wait-to-compute ratio of batch mode.
+     *
+     * @return the ratio, or {@code NaN} unless it is a finite, non-negative number
+     */
+    private static double parseRatio(String text) {
+        try {
+            double ratio = Double.parseDouble(text);
+            return ratio >= 0 && !Double.isInfinite(ratio) ? ratio : Double.NaN;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
 
-        WeatherAnalyzer weatherAnalyzer = new WeatherAnalyzer();
-        Optional<WeatherDay> result = weatherAnalyzer.analyze(weatherDays);
+    private static void runWeatherAnalysis(String filePath, MetricsRegistry metrics) {
+        // All questions are answered in a single pass over the table
+        CompositeAnalyzer.Builder<WeatherDay> analyses = CompositeAnalyzer.builder();
+        Slot<Optional<WeatherDay>> minSpread = analyses.add(new WeatherAnalyzer());
+        Slot<Optional<WeatherDay>> maxSpread = analyses.add(Aggregations.maxBy(WeatherDay::getTemperatureDifference));
+        Slot<OptionalDouble> meanSpread = analyses.add(Aggregations.average(WeatherDay::getTemperatureDifference));
+        Slot<StatisticsResult> statistics = analyses.add(Statistics.weather());
 
-        result.ifPresentOrElse(
+        ErrorReport errors = new ErrorReport();
+        DataReader<WeatherDay> reader = weatherTables(metrics.errors("weather.read", errors));
+        List<WeatherDay> days = metrics.reader("weather.read", reader).readData(filePath);
+        printErrors(filePath, errors);
+        CompositeAnalyzer<WeatherDay> analyzer = analyses.build();
+        CompositeAnalyzer.Results results = metrics.time("weather.analyze", days.size(), () -> analyzer.analyze(days));
+
+        results.get(minSpread).ifPresentOrElse(
                 day -> System.out.printf("Day with smallest temperature spread: %d (Δ=%.1f)%n",
                         day.getDay(), day.getTemperatureDifference()),
                 () -> System.out.println("No weather data found.")
         );
+        results.get(maxSpread).ifPresent(
+                day -> System.out.printf("Day with largest temperature spread: %d (Δ=%.1f)%n",
+                        day.getDay(), day.getTemperatureDifference()));
+        results.get(meanSpread).ifPresent(
+                mean -> System.out.printf("Mean temperature spread: %.1f%n", mean));
+        ColumnStatistics spread = results.get(statistics).get("spread");
+        if (spread.getMoments().getCount() > 0) {
+            System.out.printf("Temperature spread: median %.1f, p95 %.1f, standard deviation %.1f%n",
+                    spread.getMedian(), spread.quantile(0.95), spread.getMoments().getStandardDeviation());
+        }
     }
 
-    private static void runCountryAnalysis(String filePath) {
-        CsvCountryReader countryReader = new CsvCountryReader();
-        List<Country> countries = countryReader.readData(filePath);
-
-        CountryAnalyzer analyzer = new CountryAnalyzer();
-        Optional<Country> result = analyzer.analyze(countries);
+    private static void runCountryAnalysis(String filePath, MetricsRegistry metrics) {
+        ErrorReport errors = new ErrorReport();
+        DataReader<Country> reader = countryTables(metrics.errors("countries.read", errors));
+        List<Country> countries = metrics.reader("countries.read", reader).readData(filePath);
+        printErrors(filePath, errors);
+        Optional<Country> result = metrics.analyzer("countries.analyze", new CountryAnalyzer()).analyze(countries);
 
         result.ifPresentOrElse(
                 c -> System.out.printf("Country with highest population density: %s (%.2f population/km²)%n",
@@ -53,4 +203,129 @@ public final class App {
                 () -> System.out.println("No country data found.")
         );
     }
+
+    /**
+     * Reads weather tables, reloading the binary snapshot of an unchanged
+     * file instead of parsing it unless snapshots are switched off.
+     */
+    private static DataReader<WeatherDay> weatherTables(ErrorSink errors) {
+        Optional<Path> snapshots = snapshotDirectory();
+        if (snapshots.isEmpty()) {
+            WeatherTableReader tables = new WeatherTableReader();
+            return path -> tables.readTable(path, errors).asList();
+        }
+        SnapshotTableReader<WeatherTable, WeatherDay> tables =
+                SnapshotTableReader.weather(snapshots.get(), App::printSnapshotFailure);
+        return path -> tables.readTable(path, errors).asList();
+    }
+
+    /**
+     * Reads country tables, reloading the binary snapshot of an unchanged
+     * file instead of parsing it unless snapshots are switched off.
+     */
+    private static DataReader<Country> countryTables(ErrorSink errors) {
+        Optional<Path> snapshots = snapshotDirectory();
+        if (snapshots.isEmpty()) {
+            CountryTableReader tables = new CountryTableReader();
+            return path -> tables.readTable(path, errors).asList();
+        }
+        SnapshotTableReader<CountryTable, Country> tables =
+                SnapshotTableReader.countries(snapshots.get(), App::printSnapshotFailure);
+        return path -> tables.readTable(path, errors).asList();
+    }
+
+    /**
+     * Returns the configured snapshot directory, or empty if snapshots are off.
+     */
+    private static Optional<Path> snapshotDirectory() {
+        String directory = System.getProperty(SNAPSHOTS_PROPERTY, "");
+        if ("off".equals(directory)) {
+            return Optional.empty();
+        }
+        return Optional.of(directory.isEmpty() ? SnapshotTableReader.DEFAULT_DIRECTORY : Path.of(directory));
+    }
+
+    private static void printSnapshotFailure(Path snapshot, IOException e) {
+        System.err.println("Could not use snapshot " + snapshot + ": " + e.getMessage());
+    }
+
+    private static void printErrors(String filePath, ErrorReport errors) {
+        if (errors.getTotal() == 0) {
+            return;
+        }
+        System.err.printf("%s: %s%n", filePath, errors);
+        for (ErrorReport.Sample sample : errors.getSamples()) {
+            System.err.println("  " + sample);
+        }
+    }
+
+    private static void runWeatherOutOfCore(String filePath, MemoryBudget budget, MetricsRegistry metrics) {
+        OutOfCoreExecutor<WeatherDay> executor = new OutOfCoreExecutor<>(
+                metrics.reader("weather.read", new MappedCsvReader<>(CsvFormat.weather())), budget);
+
+        executor.aggregate(filePath, new WeatherAnalyzer()).ifPresentOrElse(
+                day -> System.out.printf("Day with smallest temperature spread: %d (Δ=%.1f)%n",
+                        day.getDay(), day.getTemperatureDifference()),
+                () -> System.out.println("No weather data found.")
+        );
+        double[] spread = executor.quantiles(filePath, WeatherDay::getTemperatureDifference, 0.5, 0.99);
+        System.out.printf("Temperature spread: median %.1f, p99 %.1f (exact, within %s)%n",
+                spread[0], spread[1], budget);
+    }
+
+    private static void runCountryOutOfCore(String filePath, MemoryBudget budget, MetricsRegistry metrics) {
+        OutOfCoreExecutor<Country> executor = new OutOfCoreExecutor<>(
+                metrics.reader("countries.read", new MappedCsvReader<>(CsvFormat.countries())), budget);
+
+        executor.aggregate(filePath, new CountryAnalyzer()).ifPresentOrElse(
+                c -> System.out.printf("Country with highest population density: %s (%.2f population/km²)%n",
+                        c.getName(), c.getPopulationDensity()),
+                () -> System.out.println("No country data found.")
+        );
+        double[] density = executor.quantiles(filePath, Country::getPopulationDensity, 0.5, 0.99);
+        System.out.printf("Population density: median %.2f, p99 %.2f (exact, within %s)%n",
+                density[0], density[1], budget);
+    }
+
+    private static void runWeatherBatch(String input, double ioWaitRatio, MetricsRegistry metrics) {
+        StreamingDataReader<WeatherDay> reader =
+                metrics.reader("weather.read", new MappedCsvReader<>(CsvFormat.weather()));
+        BatchResult<Optional<WeatherDay>> result = BatchAnalyzer
+                .builder(reader, new WeatherAnalyzer())
+                .ioWaitRatio(ioWaitRatio)
+                .build()
+                .analyze(input);
+
+        printBatch(result, day -> String.format("day %d (Δ=%.1f)", day.getDay(), day.getTemperatureDifference()),
+                "Day with smallest temperature spread");
+    }
+
+    private static void runCountryBatch(String input, double ioWaitRatio, MetricsRegistry metrics) {
+        StreamingDataReader<Country> reader =
+                metrics.reader("countries.read", new MappedCsvReader<>(CsvFormat.countries()));
+        BatchResult<Optional<Country>> result = BatchAnalyzer
+                .builder(reader, new CountryAnalyzer())
+                .ioWaitRatio(ioWaitRatio)
+                .build()
+                .analyze(input);
+
+        printBatch(result, c -> String.format("%s (%.2f population/km²)", c.getName(), c.getPopulationDensity()),
+                "Country with highest population density");
+    }
+
+    private static <T> void printBatch(BatchResult<Optional<T>> result, Function<T, String> format, String title) {
+        for (FileResult<Optional<T>> file : result.getFiles()) {
+            if (file.isFailed()) {
+                System.out.printf("%s: failed (%s)%n", file.getPath(), file.getFailure().getMessage());
+            } else {
+                System.out.printf("%s: %s, %d records, %s%n", file.getPath(),
+                        file.getResult().map(format).orElse("no data"), file.getRecords(), file.getErrors());
+            }
+        }
+        System.out.printf("%s over %d files: %s%n", title, result.getFiles().size(),
+                result.getGlobal().map(format).orElse("no data"));
+        System.out.printf("%d records, %d rejected rows, %d failed files, %d tasks, %.1f ms%n",
+                result.getRecords(), result.getRejectedRows(), result.getFailedFiles(), result.getTasks(),
+                result.getElapsedNanos() / 1e6);
+    }
 }
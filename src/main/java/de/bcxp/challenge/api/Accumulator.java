@@ -0,0 +1,71 @@
+package de.bcxp.challenge.api;
+
+/**
+ * A mutable, single-pass fold over a sequence of records.
+ *
+ * <p>Accumulators are the streaming counterpart of {@link Analyzer}: instead
+ * of receiving a fully materialized list, they are fed one record at a time
+ * via {@link #accept(Object)} and keep only the state needed to produce their
+ * result. This allows analyses to run in constant memory while the input is
+ * still being parsed.</p>
+ *
+ * <p>Instances are not thread-safe and are meant to be used by a single
+ * producer. A new accumulator should be created for every analysis run.
+ * Parallel readers give each worker its own accumulator and combine them
+ * afterwards via {@link #merge(Accumulator)}, provided the accumulator
+ * declares that capability with {@link #isMergeable()}.</p>
+ *
+ * @param <T> the type of records consumed
+ * @param <R> the type of the analysis result
+ */
+public interface Accumulator<T, R> {
+
+    /**
+     * Folds the next record into the accumulated state.
+     *
+     * <p>{@code null} records are ignored to mirror the lenient behaviour of
+     * the list-based analyzers.</p>
+     *
+     * @param item the next record, may be {@code null}
+     */
+    void accept(T item);
+
+    /**
+     * Returns the result for all records accepted so far.
+     *
+     * <p>The method may be called repeatedly; accepting further records
+     * afterwards continues the fold.</p>
+     *
+     * @return the current analysis result
+     */
+    R result();
+
+    /**
+     * Tells whether {@link #merge(Accumulator)} is supported. Callers that
+     * combine partial accumulators check this before reading any records.
+     *
+     * @return {@code true} if accumulators of this kind can be merged
+     */
+    default boolean isMergeable() {
+        return false;
+    }
+
+    /**
+     * Combines the state of another accumulator into this one.
+     *
+     * <p>{@code other} must have been created by the same analyzer and must
+     * have consumed records that come <em>after</em> all records consumed by
+     * this accumulator. Implementations use this ordering to resolve ties
+     * deterministically, exactly as a sequential pass would.</p>
+     *
+     * <p>Accumulators that cannot be combined keep this default and
+     * {@link #isMergeable()}, which makes them usable with sequential
+     * folds only.</p>
+     *
+     * @param other an accumulator holding the subsequent records
+     * @throws UnsupportedOperationException unless {@link #isMergeable()}
+     */
+    default void merge(Accumulator<T, R> other) {
+        throw new UnsupportedOperationException(getClass().getName() + " cannot be merged");
+    }
+}
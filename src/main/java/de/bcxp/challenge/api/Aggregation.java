@@ -0,0 +1,23 @@
+package de.bcxp.challenge.api;
+
+/**
+ * A single-pass analysis described by the accumulators it creates.
+ *
+ * <p>An aggregation is the reusable, stateless part of a fold: every
+ * analysis run asks it for a fresh {@link Accumulator}. Because aggregations
+ * only hand out accumulators, several of them can be evaluated over the
+ * same traversal of the data, e.g. by a composite analyzer.</p>
+ *
+ * @param <T> the type of records consumed
+ * @param <R> the type of the analysis result
+ */
+@FunctionalInterface
+public interface Aggregation<T, R> {
+
+    /**
+     * Creates a fresh accumulator for a single analysis run.
+     *
+     * @return a new, empty accumulator
+     */
+    Accumulator<T, R> newAccumulator();
+}
@@ -0,0 +1,74 @@
+package de.bcxp.challenge.api;
+
+import de.bcxp.challenge.error.ErrorSink;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An {@link Analyzer} that can evaluate its rule incrementally.
+ *
+ * <p>Implementations provide an {@link Accumulator} that selects the
+ * resulting record in a single pass. The list-based {@link #analyze(List)}
+ * method is kept as an adapter on top of the accumulator, so callers that
+ * already hold a list keep working unchanged, while large inputs can be
+ * pushed directly from a {@link StreamingDataReader} without building a
+ * list first.</p>
+ *
+ * <p>As an {@link Aggregation}, a streaming analyzer can also be combined
+ * with other aggregations and evaluated in a single pass.</p>
+ *
+ * @param <T> the type of objects to analyze
+ */
+public interface StreamingAnalyzer<T> extends Analyzer<T>, Aggregation<T, Optional<T>> {
+
+    /**
+     * Folds the given list through a new accumulator.
+     *
+     * @param data the data to analyze, may be {@code null}
+     * @return the analysis result, or {@code Optional.empty()} if no result
+     *         can be determined
+     */
+    @Override
+    default Optional<T> analyze(List<T> data) {
+        if (data == null || data.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Accumulator<T, Optional<T>> accumulator = newAccumulator();
+        for (T item : data) {
+            accumulator.accept(item);
+        }
+        return accumulator.result();
+    }
+
+    /**
+     * Reads the given file and analyzes its records while they are parsed.
+     *
+     * <p>No intermediate list is created; memory usage is bounded by the
+     * accumulator state, independent of the file size. Parallel readers fold
+     * parts of the file concurrently with one accumulator each.</p>
+     *
+     * @param reader   the reader producing the records
+     * @param filePath the path to the file to read
+     * @return the analysis result, or {@code Optional.empty()} if the file
+     *         contains no valid records
+     */
+    default Optional<T> analyze(StreamingDataReader<T> reader, String filePath) {
+        return analyze(reader, filePath, ErrorSink.standardError());
+    }
+
+    /**
+     * Reads the given file and analyzes its records while they are parsed,
+     * reporting skipped rows to the given sink.
+     *
+     * @param reader   the reader producing the records
+     * @param filePath the path to the file to read
+     * @param errors   receives the skipped rows
+     * @return the analysis result, or {@code Optional.empty()} if the file
+     *         contains no valid records
+     */
+    default Optional<T> analyze(StreamingDataReader<T> reader, String filePath, ErrorSink errors) {
+        return reader.aggregate(filePath, this::newAccumulator, errors);
+    }
+}
@@ -0,0 +1,127 @@
+package de.bcxp.challenge.api;
+
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.error.ReadResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A {@link DataReader} that pushes parsed records to a consumer instead of
+ * collecting them.
+ *
+ * <p>Pushing records as soon as they are parsed allows downstream
+ * {@link Accumulator accumulators} to fold arbitrarily large files without
+ * holding all records on the heap. The list-based {@link #readData(String)}
+ * method is provided as an adapter that simply collects the pushed
+ * records.</p>
+ *
+ * <p>Rows that cannot be turned into records are skipped and reported to an
+ * {@link ErrorSink}; the overloads without one print the first of them to
+ * {@code System.err}, see {@link ErrorSink#standardError()}.</p>
+ *
+ * @param <T> the type of objects produced from the file contents
+ */
+public interface StreamingDataReader<T> extends DataReader<T> {
+
+    /**
+     * Reads and parses data from the given file path, handing every valid
+     * record to the given consumer in file order.
+     *
+     * @param filePath the path to the file to read
+     * @param sink     receives each parsed record
+     * @param errors   receives each skipped row
+     * @return the number of records passed to the sink
+     */
+    long readData(String filePath, Consumer<? super T> sink, ErrorSink errors);
+
+    /**
+     * Reads and parses data from the given file path, handing every valid
+     * record to the given consumer in file order and printing the first
+     * skipped rows to {@code System.err}.
+     *
+     * @param filePath the path to the file to read
+     * @param sink     receives each parsed record
+     * @return the number of records passed to the sink
+     */
+    default long readData(String filePath, Consumer<? super T> sink) {
+        return readData(filePath, sink, ErrorSink.standardError());
+    }
+
+    /**
+     * Folds all records of the given file into an accumulator.
+     *
+     * <p>The default implementation pushes records sequentially into a single
+     * accumulator. Parallel readers override this to fold independent parts of
+     * the file concurrently and merge the partial results in file order.</p>
+     *
+     * @param filePath the path to the file to read
+     * @param factory  creates the accumulator(s) to fold into
+     * @param <R>      the type of the analysis result
+     * @return the result of the fold
+     */
+    default <R> R aggregate(String filePath, Supplier<? extends Accumulator<T, R>> factory) {
+        return aggregate(filePath, factory, ErrorSink.standardError());
+    }
+
+    /**
+     * Folds all records of the given file into an accumulator, reporting
+     * skipped rows to the given sink.
+     *
+     * @param filePath the path to the file to read
+     * @param factory  creates the accumulator(s) to fold into
+     * @param errors   receives each skipped row
+     * @param <R>      the type of the analysis result
+     * @return the result of the fold
+     * @see #aggregate(String, Supplier)
+     */
+    default <R> R aggregate(String filePath, Supplier<? extends Accumulator<T, R>> factory, ErrorSink errors) {
+        Accumulator<T, R> accumulator = factory.get();
+        readData(filePath, accumulator::accept, errors);
+        return accumulator.result();
+    }
+
+    /**
+     * Folds all records of the given file into an accumulator and returns
+     * the result together with a summary of the skipped rows.
+     *
+     * @param filePath the path to the file to read
+     * @param factory  creates the accumulator(s) to fold into
+     * @param <R>      the type of the analysis result
+     * @return the result of the fold and an {@link ErrorReport} with the
+     *         default sample size
+     */
+    default <R> ReadResult<R> aggregateReporting(String filePath, Supplier<? extends Accumulator<T, R>> factory) {
+        ErrorReport errors = new ErrorReport();
+        R result = aggregate(filePath, factory, errors);
+        return new ReadResult<>(result, errors);
+    }
+
+    /**
+     * Reads all records into a list, printing the first skipped rows to
+     * {@code System.err}.
+     *
+     * @param filePath the path to the file to read
+     * @return a list of parsed objects; never {@code null}
+     */
+    @Override
+    default List<T> readData(String filePath) {
+        return readData(filePath, ErrorSink.standardError());
+    }
+
+    /**
+     * Reads all records into a list, reporting skipped rows to the given sink.
+     *
+     * @param filePath the path to the file to read
+     * @param errors   receives each skipped row
+     * @return a list of parsed objects; never {@code null}
+     */
+    default List<T> readData(String filePath, ErrorSink errors) {
+        List<T> records = new ArrayList<>();
+        readData(filePath, records::add, errors);
+        return records;
+    }
+}
@@ -0,0 +1,269 @@
+package de.bcxp.challenge.batch;
+
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.api.Aggregation;
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.exception.DataReadException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Analyzes many files concurrently and aggregates their results.
+ *
+ * <p>Files are parsed on a fixed pool of threads, each file with the
+ * configured sequential reader and its own accumulator. Small files are
+ * grouped into tasks of at least {@code groupBytes}, so scheduling costs
+ * stay small compared to parsing; larger files form a task of their own.
+ * The pool size follows the usual sizing rule
+ * {@code cores * (1 + wait time / compute time)}: a ratio of {@code 0}
+ * suits files served from the page cache, larger ratios suit storage where
+ * threads mostly wait for reads.</p>
+ *
+ * <p>The global result merges the per-file accumulators in path order, so
+ * it equals the result of a sequential pass over the concatenated files,
+ * ties included. The aggregation must therefore be
+ * {@link Accumulator#isMergeable() mergeable}; {@link Builder#build()}
+ * rejects one that is not. A file that cannot be read or analyzed is
+ * recorded as failed and left out of the global result.</p>
+ *
+ * @param <T> the type of objects to analyze
+ * @param <R> the type of the analysis result
+ */
+public class BatchAnalyzer<T, R> {
+
+    /** Default minimum number of bytes per task. */
+    public static final long DEFAULT_GROUP_BYTES = 1L << 20;
+
+    private final StreamingDataReader<T> reader;
+    private final Aggregation<T, R> aggregation;
+    private final int threads;
+    private final long groupBytes;
+
+    private BatchAnalyzer(StreamingDataReader<T> reader, Aggregation<T, R> aggregation, int threads, long groupBytes) {
+        this.reader = reader;
+        this.aggregation = aggregation;
+        this.threads = threads;
+        this.groupBytes = groupBytes;
+    }
+
+    /**
+     * Creates a builder for a batch analyzer.
+     *
+     * @param reader      reads a single file; called concurrently for
+     *                    different files
+     * @param aggregation the analysis applied to every file and to all files
+     * @param <T>         the type of objects to analyze
+     * @param <R>         the type of the analysis result
+     * @return a builder with one thread per core and the default group size
+     */
+    public static <T, R> Builder<T, R> builder(StreamingDataReader<T> reader, Aggregation<T, R> aggregation) {
+        return new Builder<>(reader, aggregation);
+    }
+
+    /**
+     * Analyzes the files matching the given input.
+     *
+     * @param input a file, a directory or a glob pattern, as accepted by
+     *              {@link BatchFiles#resolve}
+     * @return the per-file and global results
+     */
+    public BatchResult<R> analyze(String input) {
+        return analyze(BatchFiles.resolve(input));
+    }
+
+    /**
+     * Analyzes the given files.
+     *
+     * @param files the files, in the order their records are aggregated
+     * @return the per-file and global results
+     */
+    public BatchResult<R> analyze(List<Path> files) {
+        long start = System.nanoTime();
+        List<List<Path>> groups = group(files);
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, groups.size())), runnable -> {
+            Thread thread = new Thread(runnable, "batch-analyzer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Group>> tasks = new ArrayList<>(groups.size());
+            for (List<Path> group : groups) {
+                tasks.add(pool.submit(() -> analyzeGroup(group)));
+            }
+
+            List<FileResult<R>> results = new ArrayList<>(files.size());
+            Accumulator<T, R> global = aggregation.newAccumulator();
+            for (Future<Group> task : tasks) {
+                Group group = task.get();
+                results.addAll(group.files);
+                global.merge(group.accumulator);
+            }
+            return new BatchResult<>(results, global.result(), groups.size(), System.nanoTime() - start);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataReadException("Interrupted while analyzing files", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Splits the files into consecutive groups of at least
+     * {@code groupBytes}, preserving their order.
+     */
+    private List<List<Path>> group(List<Path> files) {
+        List<List<Path>> groups = new ArrayList<>();
+        List<Path> current = new ArrayList<>();
+        long bytes = 0;
+        for (Path file : files) {
+            current.add(file);
+            bytes += sizeOf(file);
+            if (bytes >= groupBytes) {
+                groups.add(current);
+                current = new ArrayList<>();
+                bytes = 0;
+            }
+        }
+        if (!current.isEmpty()) {
+            groups.add(current);
+        }
+        return groups;
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            // The read fails as well and is recorded there
+            return 0;
+        }
+    }
+
+    /**
+     * Analyzes the files of a group in order and merges their accumulators.
+     */
+    private Group analyzeGroup(List<Path> files) {
+        Group group = new Group(aggregation.newAccumulator());
+        for (Path file : files) {
+            Accumulator<T, R> accumulator = aggregation.newAccumulator();
+            ErrorReport errors = new ErrorReport();
+            try {
+                long records = reader.readData(file.toString(), accumulator::accept, errors);
+                R result = accumulator.result();
+                group.accumulator.merge(accumulator);
+                group.files.add(new FileResult<>(file, result, records, errors, null));
+            } catch (DataReadException e) {
+                group.files.add(new FileResult<>(file, null, 0, errors, e));
+            } catch (RuntimeException e) {
+                // A failing reader or accumulator fails this file, not its group
+                DataReadException failure = new DataReadException("Error analyzing file: " + file, e);
+                group.files.add(new FileResult<>(file, null, 0, errors, failure));
+            }
+        }
+        return group;
+    }
+
+    private final class Group {
+        final List<FileResult<R>> files = new ArrayList<>();
+        final Accumulator<T, R> accumulator;
+
+        Group(Accumulator<T, R> accumulator) {
+            this.accumulator = accumulator;
+        }
+    }
+
+    /**
+     * Configures a {@link BatchAnalyzer}.
+     *
+     * @param <T> the type of objects to analyze
+     * @param <R> the type of the analysis result
+     */
+    public static final class Builder<T, R> {
+        private final StreamingDataReader<T> reader;
+        private final Aggregation<T, R> aggregation;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private long groupBytes = DEFAULT_GROUP_BYTES;
+
+        private Builder(StreamingDataReader<T> reader, Aggregation<T, R> aggregation) {
+            this.reader = reader;
+            this.aggregation = aggregation;
+        }
+
+        /**
+         * Sets the pool size explicitly.
+         *
+         * @param threads the number of threads parsing files
+         * @return this builder
+         */
+        public Builder<T, R> threads(int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("Thread count must be positive: " + threads);
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Sizes the pool from the ratio of time a thread waits for I/O to the
+         * time it spends parsing.
+         *
+         * @param waitToCompute {@code 0} for CPU-bound parsing; e.g.
+         *                      {@code 3} if reads take three times as long
+         *                      as parsing
+         * @return this builder
+         */
+        public Builder<T, R> ioWaitRatio(double waitToCompute) {
+            if (!(waitToCompute >= 0)) {
+                throw new IllegalArgumentException("Wait ratio must not be negative: " + waitToCompute);
+            }
+            int cores = Runtime.getRuntime().availableProcessors();
+            return threads((int) Math.min(Integer.MAX_VALUE, Math.max(1, Math.round(cores * (1 + waitToCompute)))));
+        }
+
+        /**
+         * Sets the minimum number of bytes per task; smaller files are
+         * grouped with their successors.
+         *
+         * @param groupBytes the minimum task size; {@code 1} gives every file
+         *                   its own task
+         * @return this builder
+         */
+        public Builder<T, R> groupBytes(long groupBytes) {
+            if (groupBytes <= 0) {
+                throw new IllegalArgumentException("Group size must be positive: " + groupBytes);
+            }
+            this.groupBytes = groupBytes;
+            return this;
+        }
+
+        /**
+         * Creates the analyzer. The builder may be reused afterwards.
+         *
+         * @return the analyzer
+         * @throws IllegalArgumentException if the accumulators of the
+         *                                  aggregation are not mergeable
+         */
+        public BatchAnalyzer<T, R> build() {
+            if (!aggregation.newAccumulator().isMergeable()) {
+                throw new IllegalArgumentException("Batch analysis requires a mergeable aggregation");
+            }
+            return new BatchAnalyzer<>(reader, aggregation, threads, groupBytes);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package de.bcxp.challenge.batch;
+
+import de.bcxp.challenge.exception.DataReadException;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Resolves the input of a batch run to a sorted list of files.
+ *
+ * <p>An input is either a single file, a directory, whose regular files are
+ * taken (without descending into subdirectories), or a glob pattern such as
+ * {@code data/stations/*.csv} or {@code data/**}{@code /weather.csv} in the
+ * syntax of {@link FileSystems#getPathMatcher}. Files are returned in path
+ * order, so batch results do not depend on directory listing order.</p>
+ */
+public final class BatchFiles {
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    private BatchFiles() {
+    }
+
+    /**
+     * Lists the files of the given input.
+     *
+     * @param input a file, a directory or a glob pattern
+     * @return the matching regular files in path order; empty if a pattern
+     *         matches nothing
+     * @throws DataReadException if a file or directory cannot be listed
+     */
+    public static List<Path> resolve(String input) {
+        int glob = firstGlobCharacter(input);
+        if (glob < 0) {
+            Path path = Path.of(input);
+            if (!Files.isDirectory(path)) {
+                if (!Files.isRegularFile(path)) {
+                    throw new DataReadException("No such file or directory: " + input);
+                }
+                return List.of(path);
+            }
+            return list(path, 1, file -> true, input);
+        }
+
+        // Walk from the deepest directory that precedes the first wildcard
+        int separator = input.lastIndexOf('/', glob);
+        Path base = separator < 0 ? Path.of("") : Path.of(input.substring(0, separator + 1));
+        String rest = input.substring(separator + 1);
+        int depth = rest.contains("**") ? Integer.MAX_VALUE : rest.split("/").length;
+        return list(base, depth, base.getFileSystem().getPathMatcher("glob:" + input), input);
+    }
+
+    private static List<Path> list(Path base, int depth, PathMatcher matcher, String input) {
+        try (Stream<Path> paths = Files.walk(base, depth)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(matcher::matches)
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new DataReadException("Error listing files: " + input, e);
+        }
+    }
+
+    private static int firstGlobCharacter(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if (GLOB_CHARACTERS.indexOf(input.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
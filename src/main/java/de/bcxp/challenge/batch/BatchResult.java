@@ -0,0 +1,82 @@
+package de.bcxp.challenge.batch;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-file results of a batch run and their aggregate over all files.
+ *
+ * @param <R> the type of the analysis result
+ */
+public final class BatchResult<R> {
+    private final List<FileResult<R>> files;
+    private final R global;
+    private final int tasks;
+    private final long elapsedNanos;
+
+    BatchResult(List<FileResult<R>> files, R global, int tasks, long elapsedNanos) {
+        this.files = Collections.unmodifiableList(files);
+        this.global = global;
+        this.tasks = tasks;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the outcome of every file.
+     *
+     * @return the outcomes in path order
+     */
+    public List<FileResult<R>> getFiles() {
+        return files;
+    }
+
+    /**
+     * Returns the result over the records of all readable files, as if they
+     * had been concatenated in path order.
+     *
+     * @return the aggregate result
+     */
+    public R getGlobal() {
+        return global;
+    }
+
+    /**
+     * Returns the number of tasks the files were grouped into.
+     *
+     * @return the task count
+     */
+    public int getTasks() {
+        return tasks;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the number of records over all files.
+     *
+     * @return the record count
+     */
+    public long getRecords() {
+        return files.stream().mapToLong(FileResult::getRecords).sum();
+    }
+
+    /**
+     * Returns the number of rows skipped over all files.
+     *
+     * @return the rejected row count
+     */
+    public long getRejectedRows() {
+        return files.stream().mapToLong(file -> file.getErrors().getTotal()).sum();
+    }
+
+    /**
+     * Returns the number of files that could not be read.
+     *
+     * @return the failed file count
+     */
+    public long getFailedFiles() {
+        return files.stream().filter(FileResult::isFailed).count();
+    }
+}
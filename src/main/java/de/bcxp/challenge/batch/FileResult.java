@@ -0,0 +1,74 @@
+package de.bcxp.challenge.batch;
+
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.exception.DataReadException;
+
+import java.nio.file.Path;
+
+/**
+ * The outcome of analyzing a single file of a batch.
+ *
+ * <p>A file that could not be read or analyzed does not fail the batch;
+ * its outcome carries the exception instead of a result.</p>
+ *
+ * @param <R> the type of the analysis result
+ */
+public final class FileResult<R> {
+    private final Path path;
+    private final R result;
+    private final long records;
+    private final ErrorReport errors;
+    private final DataReadException failure;
+
+    FileResult(Path path, R result, long records, ErrorReport errors, DataReadException failure) {
+        this.path = path;
+        this.result = result;
+        this.records = records;
+        this.errors = errors;
+        this.failure = failure;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the analysis result of the file.
+     *
+     * @return the result, or {@code null} if the file could not be read
+     */
+    public R getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the number of records the file contributed.
+     *
+     * @return the record count
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Returns the rows skipped in this file.
+     *
+     * @return the report; line numbers refer to this file
+     */
+    public ErrorReport getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns why the file could not be read.
+     *
+     * @return the exception, or {@code null} if the file was analyzed
+     */
+    public DataReadException getFailure() {
+        return failure;
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+}
@@ -0,0 +1,86 @@
+package de.bcxp.challenge.cache;
+
+/**
+ * Immutable snapshot of the counters of a {@link CachingDataReader}.
+ */
+public final class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long loadCount;
+    private final long loadFailures;
+    private final long totalLoadTimeNanos;
+    private final long entryCount;
+    private final long weightedSize;
+
+    CacheStats(long hits, long misses, long evictions, long loadCount, long loadFailures,
+               long totalLoadTimeNanos, long entryCount, long weightedSize) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.loadCount = loadCount;
+        this.loadFailures = loadFailures;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.entryCount = entryCount;
+        this.weightedSize = weightedSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    public long getLoadFailures() {
+        return loadFailures;
+    }
+
+    public long getTotalLoadTimeNanos() {
+        return totalLoadTimeNanos;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public long getWeightedSize() {
+        return weightedSize;
+    }
+
+    /**
+     * Returns the fraction of requests answered from the cache.
+     *
+     * @return the hit rate, or {@code 0} if there were no requests
+     */
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /**
+     * Returns the average time spent parsing a file on a miss.
+     *
+     * @return the average load time in nanoseconds, or {@code 0} if nothing was loaded
+     */
+    public double averageLoadTimeNanos() {
+        return loadCount == 0 ? 0 : (double) totalLoadTimeNanos / loadCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+                + ", loads=" + loadCount + ", loadFailures=" + loadFailures
+                + ", totalLoadTimeNanos=" + totalLoadTimeNanos + ", entries=" + entryCount
+                + ", weightedSize=" + weightedSize + '}';
+    }
+}
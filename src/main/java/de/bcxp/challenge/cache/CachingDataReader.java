@@ -0,0 +1,221 @@
+package de.bcxp.challenge.cache;
+
+import de.bcxp.challenge.api.DataReader;
+import de.bcxp.challenge.exception.DataReadException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link DataReader} decorator that keeps parsed results in memory.
+ *
+ * <p>Entries are keyed by the file's path, modification time and size, so a
+ * changed file is parsed again. The cache is bounded by an estimated byte
+ * budget; when it is exceeded, the least recently used entries are evicted.
+ * Concurrent requests for the same file version share a single load, so the
+ * file is parsed once no matter how many threads ask for it.</p>
+ *
+ * <p>The returned lists are shared between callers and therefore
+ * unmodifiable. Failed loads are not cached.</p>
+ *
+ * @param <T> the type of objects produced from the file contents
+ */
+public class CachingDataReader<T> implements DataReader<T> {
+
+    private final DataReader<T> delegate;
+    private final long maxWeight;
+    private final ToLongFunction<? super List<T>> weigher;
+
+    // Access-ordered, so iteration starts with the least recently used entry
+    private final Map<Path, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weightedSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long loadCount;
+    private long loadFailures;
+    private long totalLoadTimeNanos;
+
+    /**
+     * Creates a cache estimating every record with the same number of bytes.
+     *
+     * @param delegate       the reader used on cache misses
+     * @param maxBytes       the estimated byte budget of all cached entries
+     * @param bytesPerRecord the estimated retained size of one record,
+     *                       including its list slot
+     */
+    public CachingDataReader(DataReader<T> delegate, long maxBytes, long bytesPerRecord) {
+        this(delegate, maxBytes, data -> data.size() * bytesPerRecord);
+    }
+
+    /**
+     * Creates a cache with a custom size estimate.
+     *
+     * @param delegate the reader used on cache misses
+     * @param maxBytes the estimated byte budget of all cached entries
+     * @param weigher  estimates the retained size of a parsed result in bytes
+     */
+    public CachingDataReader(DataReader<T> delegate, long maxBytes, ToLongFunction<? super List<T>> weigher) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Byte budget must not be negative: " + maxBytes);
+        }
+        this.delegate = delegate;
+        this.maxWeight = maxBytes;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the cached result for the current version of the file, or
+     * parses it with the delegate.
+     *
+     * @param filePath the path to the file to read
+     * @return an unmodifiable list of parsed objects; never {@code null}
+     */
+    @Override
+    public List<T> readData(String filePath) {
+        FileKey key;
+        try {
+            key = FileKey.of(filePath);
+        } catch (IOException e) {
+            throw new DataReadException("Error reading file: " + filePath, e);
+        }
+
+        Entry<T> entry;
+        boolean owner = false;
+        synchronized (this) {
+            entry = entries.get(key.getPath());
+            if (entry != null && entry.key.equals(key)) {
+                hits++;
+            } else {
+                // Absent or stale: the new version replaces the old one
+                if (entry != null) {
+                    remove(entry);
+                }
+                misses++;
+                entry = new Entry<>(key);
+                entries.put(key.getPath(), entry);
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            return load(filePath, entry);
+        }
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private List<T> load(String filePath, Entry<T> entry) {
+        long start = System.nanoTime();
+        List<T> data;
+        long weight;
+        try {
+            data = Collections.unmodifiableList(delegate.readData(filePath));
+            weight = weigher.applyAsLong(data);
+        } catch (Throwable e) {
+            // Waiting threads must never be left with an incomplete future
+            synchronized (this) {
+                loadFailures++;
+                totalLoadTimeNanos += System.nanoTime() - start;
+                if (entries.get(entry.key.getPath()) == entry) {
+                    entries.remove(entry.key.getPath());
+                }
+            }
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+
+        synchronized (this) {
+            loadCount++;
+            totalLoadTimeNanos += System.nanoTime() - start;
+            // The entry may have been replaced or invalidated meanwhile
+            if (entries.get(entry.key.getPath()) == entry) {
+                entry.weight = weight;
+                weightedSize += weight;
+                evictOverBudget();
+            }
+        }
+        entry.future.complete(data);
+        return data;
+    }
+
+    private void evictOverBudget() {
+        Iterator<Entry<T>> it = entries.values().iterator();
+        while (weightedSize > maxWeight && it.hasNext()) {
+            Entry<T> candidate = it.next();
+            // Entries still loading have no weight yet
+            if (candidate.weight >= 0) {
+                it.remove();
+                weightedSize -= candidate.weight;
+                evictions++;
+            }
+        }
+    }
+
+    private void remove(Entry<T> entry) {
+        entries.remove(entry.key.getPath());
+        if (entry.weight > 0) {
+            weightedSize -= entry.weight;
+        }
+    }
+
+    /**
+     * Removes all entries. Loads in progress complete for their callers but
+     * are not cached.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weightedSize = 0;
+    }
+
+    /**
+     * Zeroes the hit, miss, eviction and load counters; cached entries are
+     * kept.
+     */
+    public synchronized void resetStats() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        loadCount = 0;
+        loadFailures = 0;
+        totalLoadTimeNanos = 0;
+    }
+
+    /**
+     * Returns a consistent snapshot of the cache counters.
+     *
+     * @return the current statistics
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, loadCount, loadFailures,
+                totalLoadTimeNanos, entries.size(), weightedSize);
+    }
+
+    private static final class Entry<T> {
+        final FileKey key;
+        final CompletableFuture<List<T>> future = new CompletableFuture<>();
+        // -1 while loading
+        long weight = -1;
+
+        Entry(FileKey key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package de.bcxp.challenge.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * Identity of a file version: normalized absolute path, last modification
+ * time and size.
+ *
+ * <p>Obtaining the key costs a single attribute lookup, so it is cheap
+ * enough to be checked on every read. A file rewritten in place with the
+ * same size within the file system's timestamp granularity is not
+ * detected.</p>
+ */
+final class FileKey {
+    private final Path path;
+    private final long lastModified;
+    private final long size;
+
+    private FileKey(Path path, long lastModified, long size) {
+        this.path = path;
+        this.lastModified = lastModified;
+        this.size = size;
+    }
+
+    /**
+     * Reads the current identity of the given file.
+     *
+     * @param filePath the path to the file
+     * @return the key
+     * @throws IOException if the file attributes cannot be read
+     */
+    static FileKey of(String filePath) throws IOException {
+        Path path = Path.of(filePath).toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return new FileKey(path, attributes.lastModifiedTime().toMillis(), attributes.size());
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FileKey)) {
+            return false;
+        }
+        FileKey other = (FileKey) o;
+        return lastModified == other.lastModified && size == other.size && path.equals(other.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, lastModified, size);
+    }
+}
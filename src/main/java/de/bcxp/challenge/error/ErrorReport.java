@@ -0,0 +1,139 @@
+package de.bcxp.challenge.error;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * {@link ErrorSink} that counts rejected rows by reason and keeps a bounded
+ * sample of them.
+ *
+ * <p>Only the first {@code maxSamples} rejects are kept with their line
+ * number and text, so memory stays constant however dirty the input is.
+ * {@link #toString()} renders a one-line summary for logs.</p>
+ *
+ * <p>Instances are not thread-safe; readers report from a single
+ * thread.</p>
+ */
+public class ErrorReport implements ErrorSink {
+
+    /** Number of samples kept by default. */
+    public static final int DEFAULT_MAX_SAMPLES = 20;
+
+    private final int maxSamples;
+    private final long[] counts = new long[RejectReason.values().length];
+    private final List<Sample> samples = new ArrayList<>();
+
+    /**
+     * Creates a report keeping {@value #DEFAULT_MAX_SAMPLES} samples.
+     */
+    public ErrorReport() {
+        this(DEFAULT_MAX_SAMPLES);
+    }
+
+    /**
+     * Creates a report.
+     *
+     * @param maxSamples the number of rejected lines to keep
+     */
+    public ErrorReport(int maxSamples) {
+        if (maxSamples < 0) {
+            throw new IllegalArgumentException("Sample size must not be negative: " + maxSamples);
+        }
+        this.maxSamples = maxSamples;
+    }
+
+    @Override
+    public void reject(RejectReason reason, long lineNumber, Supplier<String> line) {
+        counts[reason.ordinal()]++;
+        if (samples.size() < maxSamples) {
+            samples.add(new Sample(reason, lineNumber, line.get()));
+        }
+    }
+
+    /**
+     * Returns the number of rows rejected for the given reason.
+     *
+     * @param reason the reason
+     * @return the count
+     */
+    public long getCount(RejectReason reason) {
+        return counts[reason.ordinal()];
+    }
+
+    /**
+     * Returns the number of rejected rows.
+     *
+     * @return the count over all reasons
+     */
+    public long getTotal() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the first rejected rows in file order.
+     *
+     * @return a read-only view of at most {@code maxSamples} entries
+     */
+    public List<Sample> getSamples() {
+        return Collections.unmodifiableList(samples);
+    }
+
+    /**
+     * Summarizes the counts, e.g.
+     * {@code 3 rejected rows (TOO_FEW_COLUMNS=1, MALFORMED_NUMBER=2)}.
+     */
+    @Override
+    public String toString() {
+        StringJoiner reasons = new StringJoiner(", ", " (", ")").setEmptyValue("");
+        for (RejectReason reason : RejectReason.values()) {
+            if (counts[reason.ordinal()] > 0) {
+                reasons.add(reason + "=" + counts[reason.ordinal()]);
+            }
+        }
+        return getTotal() + " rejected rows" + reasons;
+    }
+
+    /**
+     * A rejected line kept by the report.
+     */
+    public static final class Sample {
+        private final RejectReason reason;
+        private final long lineNumber;
+        private final String line;
+
+        Sample(RejectReason reason, long lineNumber, String line) {
+            this.reason = reason;
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+
+        public RejectReason getReason() {
+            return reason;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * Returns the text of the line.
+         *
+         * @return the line, or {@code null} if the reader did not retain it
+         */
+        public String getLine() {
+            return line;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + " (" + reason + "): " + line;
+        }
+    }
+}
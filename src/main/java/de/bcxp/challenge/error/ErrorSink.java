@@ -0,0 +1,56 @@
+package de.bcxp.challenge.error;
+
+import java.util.function.Supplier;
+
+/**
+ * Receives the data rows a reader skips.
+ *
+ * <p>Readers report every rejected row with its reason and its one-based
+ * line number in the file, the header being line 1. The line text is
+ * passed lazily, so rejecting a row costs no decoding or string building
+ * unless the sink actually keeps the text. The supplier is only valid
+ * during the call.</p>
+ *
+ * <p>Readers call the sink from the thread that started the read, in file
+ * order. Parallel readers collect rejects per chunk and report them once
+ * the line numbers are known; they retain the text of the first
+ * {@value #RETAINED_LINES} rejects of each chunk only, and supply
+ * {@code null} for the others.</p>
+ */
+@FunctionalInterface
+public interface ErrorSink {
+
+    /** Rejected lines per chunk whose text parallel readers retain. */
+    int RETAINED_LINES = 64;
+
+    /**
+     * Reports a skipped row.
+     *
+     * @param reason     why the row was skipped
+     * @param lineNumber one-based line number in the file
+     * @param line       supplies the text of the line, or {@code null} if
+     *                   it was not retained
+     */
+    void reject(RejectReason reason, long lineNumber, Supplier<String> line);
+
+    /**
+     * Returns a sink that discards all reports.
+     *
+     * @return the sink
+     */
+    static ErrorSink ignore() {
+        return (reason, lineNumber, line) -> {
+        };
+    }
+
+    /**
+     * Returns a sink that prints the first {@value ErrorReport#DEFAULT_MAX_SAMPLES}
+     * rejected rows to {@code System.err}, followed by one note if there are
+     * more. Reader overloads without a sink use a new one for every read.
+     *
+     * @return the sink
+     */
+    static ErrorSink standardError() {
+        return new PrintingErrorSink(System.err, ErrorReport.DEFAULT_MAX_SAMPLES);
+    }
+}
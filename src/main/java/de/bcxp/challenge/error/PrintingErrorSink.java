@@ -0,0 +1,34 @@
+package de.bcxp.challenge.error;
+
+import java.io.PrintStream;
+import java.util.function.Supplier;
+
+/**
+ * {@link ErrorSink} that prints the first rejected rows of a read and then
+ * a single note that further rows are not printed.
+ *
+ * <p>The number of printed lines is bounded, so a dirty file cannot flood
+ * the console or slow down the read with synchronized writes.</p>
+ */
+final class PrintingErrorSink implements ErrorSink {
+    private final PrintStream out;
+    private final int maxLines;
+    private long rejected;
+
+    PrintingErrorSink(PrintStream out, int maxLines) {
+        this.out = out;
+        this.maxLines = maxLines;
+    }
+
+    @Override
+    public void reject(RejectReason reason, long lineNumber, Supplier<String> line) {
+        rejected++;
+        if (rejected <= maxLines) {
+            String text = line.get();
+            out.println("Skipping invalid line " + lineNumber + " (" + reason + "): "
+                    + (text == null ? "(text not retained)" : text));
+        } else if (rejected == maxLines + 1) {
+            out.println("Skipping further invalid lines without printing them");
+        }
+    }
+}
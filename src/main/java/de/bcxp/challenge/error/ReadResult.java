@@ -0,0 +1,30 @@
+package de.bcxp.challenge.error;
+
+/**
+ * The result of reading a file together with the rows that were skipped.
+ *
+ * @param <R> the type of the result
+ */
+public final class ReadResult<R> {
+    private final R result;
+    private final ErrorReport errors;
+
+    /**
+     * Creates a result.
+     *
+     * @param result the result computed from the valid rows
+     * @param errors the rows skipped while reading
+     */
+    public ReadResult(R result, ErrorReport errors) {
+        this.result = result;
+        this.errors = errors;
+    }
+
+    public R getResult() {
+        return result;
+    }
+
+    public ErrorReport getErrors() {
+        return errors;
+    }
+}
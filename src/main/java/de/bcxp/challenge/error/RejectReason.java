@@ -0,0 +1,33 @@
+package de.bcxp.challenge.error;
+
+import de.bcxp.challenge.parser.AmbiguousNumberException;
+
+/**
+ * Why a data row was skipped by a reader.
+ */
+public enum RejectReason {
+
+    /** The row has fewer columns than the format requires. */
+    TOO_FEW_COLUMNS,
+
+    /** A required value is not a number. */
+    MALFORMED_NUMBER,
+
+    /** A number could be read in more than one way, e.g. {@code 1.234}. */
+    AMBIGUOUS_NUMBER,
+
+    /** The values were parsed but rejected by the record, e.g. a negative population. */
+    INVALID_VALUE;
+
+    /**
+     * Classifies an exception thrown while parsing or mapping a row.
+     *
+     * @param e the exception
+     * @return the matching reason
+     */
+    public static RejectReason of(IllegalArgumentException e) {
+        if (e instanceof AmbiguousNumberException) return AMBIGUOUS_NUMBER;
+        if (e instanceof NumberFormatException) return MALFORMED_NUMBER;
+        return INVALID_VALUE;
+    }
+}
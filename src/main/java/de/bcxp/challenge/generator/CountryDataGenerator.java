@@ -0,0 +1,102 @@
+package de.bcxp.challenge.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates files in the layout of {@code countries.csv}: all 8 columns,
+ * semicolon-separated.
+ *
+ * <p>Population and area values use a random mix of plain
+ * ({@code 4036355}), German ({@code 4.036.355,00}) and English
+ * ({@code 4,036,355.00}) formatting. Grouped values always carry decimals,
+ * so none of them is ambiguous. Malformed rows lack columns, carry a
+ * non-numeric value or a negative population.</p>
+ */
+public class CountryDataGenerator extends CsvDataGenerator {
+    private static final String HEADER = "Name;Capital;Accession;Population;Area (km²);GDP (US$ M);HDI;MEPs";
+    private static final String[] SYLLABLES = {"ar", "be", "ca", "do", "el", "fi", "ga", "ho", "is", "ju",
+            "ka", "lo", "ma", "ni", "or", "pe", "ra", "si", "to", "va"};
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed              seed of the random number generator
+     * @param malformedFraction fraction of malformed rows, between 0 and 1
+     */
+    public CountryDataGenerator(long seed, double malformedFraction) {
+        super(seed, malformedFraction);
+    }
+
+    @Override
+    protected String header() {
+        return HEADER;
+    }
+
+    @Override
+    protected void appendRow(StringBuilder line, long row, SplittableRandom random) {
+        appendName(line, row);
+        line.append(';');
+        appendName(line, row + 7919);
+        line.append(';');
+        if (random.nextInt(10) == 0) {
+            line.append("Founder");
+        } else {
+            line.append(1958 + random.nextInt(66));
+        }
+        line.append(';');
+        appendNumber(line, 100_000 + random.nextInt(90_000_000), random);
+        line.append(';');
+        appendNumber(line, 300 + random.nextInt(700_000), random);
+        line.append(';')
+                .append(10_000 + random.nextInt(4_000_000)).append(";0.")
+                .append(800 + random.nextInt(160)).append(';')
+                .append(6 + random.nextInt(91));
+    }
+
+    @Override
+    protected void appendMalformedRow(StringBuilder line, long row, SplittableRandom random) {
+        appendName(line, row);
+        switch (random.nextInt(3)) {
+            case 0:
+                line.append(";Nowhere;2004");                            // too few columns
+                break;
+            case 1:
+                line.append(";Nowhere;2004;unknown;").append(300 + random.nextInt(700_000))
+                        .append(";1000;0.9;6");                          // bad number
+                break;
+            default:
+                line.append(";Nowhere;2004;-").append(100_000 + random.nextInt(90_000_000)).append(';')
+                        .append(300 + random.nextInt(700_000)).append(";1000;0.9;6"); // negative value
+                break;
+        }
+    }
+
+    /**
+     * Appends a unique, pronounceable name derived from the row index.
+     */
+    private static void appendName(StringBuilder line, long index) {
+        int start = line.length();
+        long value = index;
+        do {
+            line.append(SYLLABLES[(int) (value % SYLLABLES.length)]);
+            value /= SYLLABLES.length;
+        } while (value > 0);
+        line.setCharAt(start, Character.toUpperCase(line.charAt(start)));
+    }
+
+    private static void appendNumber(StringBuilder line, long value, SplittableRandom random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                line.append(value);
+                break;
+            case 1:
+                appendGrouped(line, value, '.');
+                line.append(",00");
+                break;
+            default:
+                appendGrouped(line, value, ',');
+                line.append(".00");
+                break;
+        }
+    }
+}
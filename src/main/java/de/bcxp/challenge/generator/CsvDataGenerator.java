@@ -0,0 +1,149 @@
+package de.bcxp.challenge.generator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Base class for seeded, reproducible generators of synthetic CSV files.
+ *
+ * <p>Rows are formatted into a single reused buffer and streamed to disk,
+ * so memory usage stays flat regardless of the number of rows. The same
+ * seed, row count and malformed fraction always produce byte-identical
+ * files.</p>
+ */
+public abstract class CsvDataGenerator {
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final long seed;
+    private final double malformedFraction;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed              seed of the random number generator
+     * @param malformedFraction fraction of rows, between 0 and 1, that are
+     *                          written in a malformed way
+     */
+    protected CsvDataGenerator(long seed, double malformedFraction) {
+        if (malformedFraction < 0 || malformedFraction > 1) {
+            throw new IllegalArgumentException("Malformed fraction must be between 0 and 1: " + malformedFraction);
+        }
+        this.seed = seed;
+        this.malformedFraction = malformedFraction;
+    }
+
+    /**
+     * Writes a header and the given number of data rows to the target file,
+     * replacing any existing content.
+     *
+     * @param target the file to write
+     * @param rows   the number of data rows
+     * @return the number of rows that were written malformed
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public long generate(Path target, long rows) {
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(target), StandardCharsets.UTF_8), WRITE_BUFFER_SIZE)) {
+            return generate(writer, rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing file: " + target, e);
+        }
+    }
+
+    /**
+     * Writes a header and the given number of data rows to the writer.
+     *
+     * @param writer the destination; not closed by this method
+     * @param rows   the number of data rows
+     * @return the number of rows that were written malformed
+     * @throws IOException if writing fails
+     */
+    public long generate(Writer writer, long rows) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder line = new StringBuilder(256);
+
+        writer.write(header());
+        writer.write('\n');
+
+        long malformed = 0;
+        for (long row = 0; row < rows; row++) {
+            line.setLength(0);
+            if (random.nextDouble() < malformedFraction) {
+                appendMalformedRow(line, row, random);
+                malformed++;
+            } else {
+                appendRow(line, row, random);
+            }
+            line.append('\n');
+            writer.append(line);
+        }
+        return malformed;
+    }
+
+    /**
+     * Returns the header line, without line terminator.
+     *
+     * @return the header
+     */
+    protected abstract String header();
+
+    /**
+     * Appends a valid data row, without line terminator.
+     *
+     * @param line   the buffer to append to
+     * @param row    zero-based row index
+     * @param random the generator's random source
+     */
+    protected abstract void appendRow(StringBuilder line, long row, SplittableRandom random);
+
+    /**
+     * Appends a data row that readers must reject, without line terminator.
+     *
+     * @param line   the buffer to append to
+     * @param row    zero-based row index
+     * @param random the generator's random source
+     */
+    protected abstract void appendMalformedRow(StringBuilder line, long row, SplittableRandom random);
+
+    /**
+     * Appends a value with one decimal digit, e.g. {@code 74.3}, dropping a
+     * trailing {@code .0}.
+     *
+     * @param line   the buffer to append to
+     * @param tenths the value multiplied by ten
+     */
+    protected static void appendTenths(StringBuilder line, long tenths) {
+        if (tenths < 0) {
+            line.append('-');
+            tenths = -tenths;
+        }
+        line.append(tenths / 10);
+        if (tenths % 10 != 0) {
+            line.append('.').append(tenths % 10);
+        }
+    }
+
+    /**
+     * Appends a non-negative integer with a grouping separator every three
+     * digits, e.g. {@code 4.036.355}.
+     *
+     * @param line     the buffer to append to
+     * @param value    the value to format
+     * @param grouping the grouping separator
+     */
+    protected static void appendGrouped(StringBuilder line, long value, char grouping) {
+        String digits = Long.toString(value);
+        int firstGroup = digits.length() % 3 == 0 ? 3 : digits.length() % 3;
+        line.append(digits, 0, firstGroup);
+        for (int i = firstGroup; i < digits.length(); i += 3) {
+            line.append(grouping).append(digits, i, i + 3);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package de.bcxp.challenge.generator;
+
+import java.nio.file.Path;
+
+/**
+ * Command line entry point for writing synthetic datasets.
+ *
+ * <p>Usage: {@code DatasetGenerator <weather|countries> <rows> <file> [seed] [malformedFraction]}</p>
+ */
+public final class DatasetGenerator {
+
+    private DatasetGenerator() {
+    }
+
+    /**
+     * Generates a dataset as described by the arguments.
+     *
+     * @param args dataset kind, row count, target file, and optionally seed
+     *             and malformed fraction
+     */
+    public static void main(String... args) {
+        if (args.length < 3) {
+            System.err.println("Usage: DatasetGenerator <weather|countries> <rows> <file> [seed] [malformedFraction]");
+            System.exit(1);
+        }
+
+        long rows = Long.parseLong(args[1]);
+        Path target = Path.of(args[2]);
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+        double malformedFraction = args.length > 4 ? Double.parseDouble(args[4]) : 0.0;
+
+        CsvDataGenerator generator = forKind(args[0], seed, malformedFraction);
+        long malformed = generator.generate(target, rows);
+
+        System.out.printf("Wrote %d rows (%d malformed) to %s%n", rows, malformed, target);
+    }
+
+    /**
+     * Creates the generator for the given dataset kind.
+     *
+     * @param kind              {@code weather} or {@code countries}
+     * @param seed              seed of the random number generator
+     * @param malformedFraction fraction of malformed rows, between 0 and 1
+     * @return the generator
+     */
+    public static CsvDataGenerator forKind(String kind, long seed, double malformedFraction) {
+        switch (kind) {
+            case "weather":
+                return new WeatherDataGenerator(seed, malformedFraction);
+            case "countries":
+                return new CountryDataGenerator(seed, malformedFraction);
+            default:
+                throw new IllegalArgumentException("Unknown dataset: " + kind);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package de.bcxp.challenge.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates files in the layout of {@code weather.csv}: all 14 columns,
+ * comma-separated, one row per consecutive day.
+ *
+ * <p>Malformed rows either lack columns or carry a non-numeric
+ * temperature.</p>
+ */
+public class WeatherDataGenerator extends CsvDataGenerator {
+    private static final String HEADER =
+            "Day,MxT,MnT,AvT,AvDP,1HrP TPcpn,PDir,AvSp,Dir,MxS,SkyC,MxR,Mn,R AvSLP";
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed              seed of the random number generator
+     * @param malformedFraction fraction of malformed rows, between 0 and 1
+     */
+    public WeatherDataGenerator(long seed, double malformedFraction) {
+        super(seed, malformedFraction);
+    }
+
+    @Override
+    protected String header() {
+        return HEADER;
+    }
+
+    @Override
+    protected void appendRow(StringBuilder line, long row, SplittableRandom random) {
+        int minTemp = 30 + random.nextInt(40);
+        int maxTemp = minTemp + 1 + random.nextInt(35);
+
+        line.append(row + 1).append(',')
+                .append(maxTemp).append(',')
+                .append(minTemp).append(',')
+                .append((maxTemp + minTemp) / 2).append(',');
+        appendTenths(line, 200 + random.nextInt(400));               // AvDP
+        line.append(',');
+        appendTenths(line, random.nextInt(4) == 0 ? random.nextInt(30) : 0); // 1HrP TPcpn
+        line.append(',')
+                .append(10 * random.nextInt(37)).append(',');       // PDir
+        appendTenths(line, 20 + random.nextInt(150));               // AvSp
+        line.append(',')
+                .append(10 * random.nextInt(37)).append(',')        // Dir
+                .append(5 + random.nextInt(30)).append(',');        // MxS
+        appendTenths(line, random.nextInt(90));                     // SkyC
+        line.append(',')
+                .append(50 + random.nextInt(51)).append(',')        // MxR
+                .append(10 + random.nextInt(40)).append(',');       // Mn
+        appendTenths(line, 9900 + random.nextInt(300));             // R AvSLP
+    }
+
+    @Override
+    protected void appendMalformedRow(StringBuilder line, long row, SplittableRandom random) {
+        line.append(row + 1).append(',');
+        if (random.nextBoolean()) {
+            line.append(50 + random.nextInt(40));                    // too few columns
+        } else {
+            line.append("n/a,").append(30 + random.nextInt(40)).append(",55,40.1,0"); // bad number
+        }
+    }
+}
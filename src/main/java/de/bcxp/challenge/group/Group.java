@@ -0,0 +1,72 @@
+package de.bcxp.challenge.group;
+
+import java.util.List;
+
+/**
+ * The aggregates of one group: the number of records and, per measure,
+ * their sum, minimum, maximum and mean.
+ *
+ * <p>Measures are addressed by their position in the {@link GroupBy}
+ * definition, see {@link GroupByResult#getMeasureNames()}.</p>
+ *
+ * @param <K> the key type
+ */
+public final class Group<K> {
+    private final K key;
+    private final List<String> measureNames;
+    private final long count;
+    private final double[] sums;
+    private final double[] mins;
+    private final double[] maxs;
+
+    Group(K key, List<String> measureNames, long count, double[] sums, double[] mins, double[] maxs) {
+        this.key = key;
+        this.measureNames = measureNames;
+        this.count = count;
+        this.sums = sums;
+        this.mins = mins;
+        this.maxs = maxs;
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum(int measure) {
+        return sums[measure];
+    }
+
+    public double getMin(int measure) {
+        return mins[measure];
+    }
+
+    public double getMax(int measure) {
+        return maxs[measure];
+    }
+
+    /**
+     * Returns the arithmetic mean of a measure over the group's records.
+     *
+     * @param measure the measure's position
+     * @return the mean
+     */
+    public double getMean(int measure) {
+        return sums[measure] / count;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder().append(key).append(" [count=").append(count);
+        for (int m = 0; m < sums.length; m++) {
+            text.append(", ").append(measureNames.get(m))
+                    .append("(sum=").append(sums[m])
+                    .append(", min=").append(mins[m])
+                    .append(", max=").append(maxs[m]).append(')');
+        }
+        return text.append(']').toString();
+    }
+}
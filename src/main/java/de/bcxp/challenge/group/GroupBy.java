@@ -0,0 +1,254 @@
+package de.bcxp.challenge.group;
+
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.api.Aggregation;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Aggregates records per key: the record count and the sum, minimum,
+ * maximum and mean of any number of measures.
+ *
+ * <p>Groups live in an open-addressing hash table over primitive arrays
+ * that maps each key to a dense id; counts and per-measure aggregates are
+ * columns indexed by that id. Adding a record to an existing group thus
+ * allocates nothing, and {@code long} keys are never boxed.</p>
+ *
+ * <p>As an {@link Aggregation} a group-by runs on every reader: parallel
+ * readers build partial tables per chunk and merge them group by group,
+ * and it can be combined with other aggregations in a
+ * {@link de.bcxp.challenge.service.CompositeAnalyzer}. For example, the
+ * temperature spread per 30-day bucket:</p>
+ *
+ * <pre>{@code
+ * GroupBy<WeatherDay, Long> byMonth = GroupBy.byLong((WeatherDay day) -> (day.getDay() - 1) / 30)
+ *         .measure("spread", WeatherDay::getTemperatureDifference)
+ *         .build();
+ * GroupByResult<Long> result = reader.aggregate(file, byMonth::newAccumulator);
+ * }</pre>
+ *
+ * <p>Columns outside the domain models, such as the accession year of a
+ * country, can be grouped by reading them with a
+ * {@link de.bcxp.challenge.reader.CsvSchema}.</p>
+ *
+ * <p>If a memory budget is set and an accumulator holds more groups than
+ * fit, it spills them to hash-partitioned files and starts over with an
+ * empty table. The estimate per group includes the characters of string
+ * keys. The {@link GroupByResult} later combines one partition at a time
+ * and splits partitions that exceed the budget further, so memory is
+ * bounded by the budget, not by the number of distinct keys.</p>
+ *
+ * @param <T> the type of records grouped
+ * @param <K> the key type
+ */
+public final class GroupBy<T, K extends Comparable<K>> implements Aggregation<T, GroupByResult<K>> {
+
+    /** Number of partitions spilled groups are first hashed into. */
+    public static final int SPILL_PARTITIONS = 16;
+
+    private final Function<KeyIndex<K>, KeyFunction<T>> keys;
+    private final KeyIndex<K> prototype;
+    private final List<String> measureNames;
+    private final List<ToDoubleFunction<? super T>> measures;
+    private final long memoryBudget;
+    private final long maxGroups;
+    private final Path spillDirectory;
+
+    private GroupBy(Builder<T, K> builder) {
+        this.keys = builder.keys;
+        this.prototype = builder.prototype;
+        this.measureNames = List.copyOf(builder.measureNames);
+        this.measures = List.copyOf(builder.measures);
+        this.memoryBudget = builder.memoryBudget;
+        this.maxGroups = Math.max(1, memoryBudget / GroupTable.groupBytes(measures.size()));
+        this.spillDirectory = builder.spillDirectory;
+    }
+
+    /**
+     * Starts a group-by over a {@code long} key, e.g. a year or a bucket
+     * number.
+     *
+     * @param key extracts the key of a record
+     * @param <T> the type of records grouped
+     * @return a builder
+     */
+    public static <T> Builder<T, Long> byLong(ToLongFunction<? super T> key) {
+        return new Builder<>(new LongKeyIndex(), index -> {
+            LongKeyIndex longs = (LongKeyIndex) index;
+            return record -> longs.intern(key.applyAsLong(record));
+        });
+    }
+
+    /**
+     * Starts a group-by over a string key, e.g. a category column.
+     *
+     * @param key extracts the key of a record; must not return {@code null}
+     * @param <T> the type of records grouped
+     * @return a builder
+     */
+    public static <T> Builder<T, String> byString(Function<? super T, String> key) {
+        return new Builder<>(new StringKeyIndex(), index ->
+                record -> index.intern(Objects.requireNonNull(key.apply(record), "Group key")));
+    }
+
+    /**
+     * Returns the maximum number of groups an accumulator holds in memory;
+     * fewer if their keys are large.
+     *
+     * @return the group limit derived from the memory budget
+     */
+    public long getMaxGroups() {
+        return maxGroups;
+    }
+
+    @Override
+    public Accumulator<T, GroupByResult<K>> newAccumulator() {
+        return new GroupAccumulator();
+    }
+
+    /**
+     * Interns the key of a record into the index it was created for.
+     */
+    @FunctionalInterface
+    private interface KeyFunction<T> {
+        int groupOf(T record);
+    }
+
+    private final class GroupAccumulator implements Accumulator<T, GroupByResult<K>> {
+        private final GroupTable<K> table = new GroupTable<>(prototype.newIndex(), measures.size());
+        private final KeyFunction<T> key = keys.apply(table.index());
+        private final double[] values = new double[measures.size()];
+        private final List<SpillRun> runs = new ArrayList<>();
+        private SpillRun run;
+
+        @Override
+        public void accept(T item) {
+            if (item == null) return;
+            // Evaluate all measures first, so a failing one leaves the groups unchanged
+            for (int m = 0; m < values.length; m++) {
+                values[m] = measures.get(m).applyAsDouble(item);
+            }
+            table.add(key.groupOf(item), values);
+            if (isFull()) {
+                spill();
+            }
+        }
+
+        @Override
+        public boolean isMergeable() {
+            return true;
+        }
+
+        @Override
+        public void merge(Accumulator<T, GroupByResult<K>> other) {
+            GroupAccumulator partial = (GroupAccumulator) other;
+            runs.addAll(partial.runs);
+            for (int group = 0; group < partial.table.size(); group++) {
+                table.combine(partial.table, group);
+                if (isFull()) {
+                    spill();
+                }
+            }
+        }
+
+        @Override
+        public GroupByResult<K> result() {
+            GroupTable<K> snapshot = new GroupTable<>(prototype.newIndex(), measures.size());
+            for (int group = 0; group < table.size(); group++) {
+                snapshot.combine(table, group);
+            }
+            return new GroupByResult<>(measureNames, snapshot, runs, memoryBudget);
+        }
+
+        private boolean isFull() {
+            return table.size() >= maxGroups || table.bytes() >= memoryBudget;
+        }
+
+        private void spill() {
+            if (run == null) {
+                run = SpillRun.create(spillDirectory, 0, SPILL_PARTITIONS);
+                runs.add(run);
+            }
+            run.write(table);
+            table.clear();
+        }
+    }
+
+    /**
+     * Configures a {@link GroupBy}.
+     *
+     * @param <T> the type of records grouped
+     * @param <K> the key type
+     */
+    public static final class Builder<T, K extends Comparable<K>> {
+        private final KeyIndex<K> prototype;
+        private final Function<KeyIndex<K>, KeyFunction<T>> keys;
+        private final List<String> measureNames = new ArrayList<>();
+        private final List<ToDoubleFunction<? super T>> measures = new ArrayList<>();
+        private long memoryBudget = Long.MAX_VALUE;
+        private Path spillDirectory = Path.of(System.getProperty("java.io.tmpdir"));
+
+        private Builder(KeyIndex<K> prototype, Function<KeyIndex<K>, KeyFunction<T>> keys) {
+            this.prototype = prototype;
+            this.keys = keys;
+        }
+
+        /**
+         * Adds a measure aggregated per group.
+         *
+         * @param name  the measure name
+         * @param value extracts the measure's value of a record
+         * @return this builder
+         */
+        public Builder<T, K> measure(String name, ToDoubleFunction<? super T> value) {
+            if (measureNames.contains(name)) {
+                throw new IllegalArgumentException("Duplicate measure: " + name);
+            }
+            measureNames.add(name);
+            measures.add(value);
+            return this;
+        }
+
+        /**
+         * Limits the memory an accumulator spends on groups; beyond it,
+         * groups are spilled to disk.
+         *
+         * @param bytes the budget per accumulator
+         * @return this builder
+         */
+        public Builder<T, K> memoryBudget(long bytes) {
+            if (bytes <= 0) {
+                throw new IllegalArgumentException("Memory budget must be positive: " + bytes);
+            }
+            this.memoryBudget = bytes;
+            return this;
+        }
+
+        /**
+         * Sets where spill files are created; defaults to the system's
+         * temporary directory.
+         *
+         * @param directory the parent directory of spill files
+         * @return this builder
+         */
+        public Builder<T, K> spillDirectory(Path directory) {
+            this.spillDirectory = Objects.requireNonNull(directory);
+            return this;
+        }
+
+        /**
+         * Creates the group-by. The builder may be reused afterwards.
+         *
+         * @return the group-by
+         */
+        public GroupBy<T, K> build() {
+            return new GroupBy<>(this);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package de.bcxp.challenge.group;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The groups of a {@link GroupBy} run.
+ *
+ * <p>Without spilling, all groups are held in memory and {@link #forEach}
+ * visits them in key order. After a spill, groups are combined one spill
+ * partition at a time; a partition whose estimated size exceeds the memory
+ * budget is first split into smaller partitions on disk, recursively, so
+ * memory stays bounded by the budget instead of the total number of
+ * groups. {@link #forEach} then visits the partitions one after another,
+ * each in key order. {@link #toList()} always returns all groups in key
+ * order.</p>
+ *
+ * <p>A result is a snapshot: groups added by the accumulator afterwards are
+ * not included. {@link #close()} deletes the spill files; the result and
+ * the accumulator must not be used afterwards.</p>
+ *
+ * @param <K> the key type
+ */
+public final class GroupByResult<K extends Comparable<K>> implements AutoCloseable {
+    // Splitting further cannot separate keys whose hashes collide
+    private static final int MAX_LEVEL = 4;
+    // Each partition of a split holds an open file while it is written
+    private static final int MAX_SPLIT_PARTITIONS = 256;
+
+    private final List<String> measureNames;
+    private final GroupTable<K> memory;
+    private final List<SpillRun> runs;
+    private final List<long[]> spilled;
+    private final List<long[]> spilledKeyBytes;
+    private final long memoryBudget;
+
+    GroupByResult(List<String> measureNames, GroupTable<K> memory, List<SpillRun> runs, long memoryBudget) {
+        this.measureNames = measureNames;
+        this.memory = memory;
+        this.runs = List.copyOf(runs);
+        this.spilled = new ArrayList<>(runs.size());
+        this.spilledKeyBytes = new ArrayList<>(runs.size());
+        for (SpillRun run : runs) {
+            spilled.add(run.groups());
+            spilledKeyBytes.add(run.keyBytes());
+        }
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Returns the names of the measures, in the order used by
+     * {@link Group#getSum(int)} and the other accessors.
+     *
+     * @return the measure names
+     */
+    public List<String> getMeasureNames() {
+        return measureNames;
+    }
+
+    /**
+     * Returns the position of a measure.
+     *
+     * @param name the measure name
+     * @return the position
+     * @throws IllegalArgumentException if there is no such measure
+     */
+    public int measure(String name) {
+        int measure = measureNames.indexOf(name);
+        if (measure < 0) {
+            throw new IllegalArgumentException("Unknown measure: " + name);
+        }
+        return measure;
+    }
+
+    /**
+     * Returns whether groups were spilled to disk.
+     *
+     * @return {@code true} if the groups exceeded the memory budget
+     */
+    public boolean isSpilled() {
+        return !runs.isEmpty();
+    }
+
+    /**
+     * Visits every group once.
+     *
+     * @param action receives the groups
+     */
+    public void forEach(Consumer<? super Group<K>> action) {
+        if (runs.isEmpty()) {
+            emitSorted(memory, measureNames, action);
+            return;
+        }
+        forEach(memory, runs, spilled, spilledKeyBytes, action);
+    }
+
+    /**
+     * Visits the groups of runs of the same level and the groups of the
+     * table that belong to their partitions.
+     */
+    private void forEach(GroupTable<K> memory, List<SpillRun> runs, List<long[]> spilled, List<long[]> keyBytes,
+                         Consumer<? super Group<K>> action) {
+        KeyIndex<K> keys = memory.index();
+        int level = runs.get(0).level();
+        int partitions = runs.get(0).partitions();
+        for (int partition = 0; partition < partitions; partition++) {
+            // Keys spilled more than once are counted more than once, so the estimate is an upper bound
+            long groups = 0;
+            long bytes = 0;
+            for (int group = 0; group < memory.size(); group++) {
+                if (keys.partition(group, level, partitions) == partition) {
+                    groups++;
+                    bytes += keys.keyBytes(group);
+                }
+            }
+            for (int run = 0; run < runs.size(); run++) {
+                groups += spilled.get(run)[partition];
+                bytes += keyBytes.get(run)[partition];
+            }
+            bytes += groups * GroupTable.groupBytes(measureNames.size());
+
+            GroupTable<K> table = new GroupTable<>(keys.newIndex(), measureNames.size());
+            if (bytes <= memoryBudget || level == MAX_LEVEL) {
+                combine(memory, runs, spilled, level, partitions, partition, table, () -> { });
+                emitSorted(table, measureNames, action);
+                continue;
+            }
+
+            int splitPartitions = (int) Math.min(MAX_SPLIT_PARTITIONS, bytes / memoryBudget + 1);
+            SpillRun split = runs.get(0).split(splitPartitions);
+            try {
+                combine(memory, runs, spilled, level, partitions, partition, table, () -> {
+                    if (table.bytes() >= memoryBudget) {
+                        split.write(table);
+                        table.clear();
+                    }
+                });
+                split.write(table);
+                table.clear();
+                forEach(table, List.of(split), List.of(split.groups()), List.of(split.keyBytes()), action);
+            } finally {
+                split.delete();
+            }
+        }
+    }
+
+    /**
+     * Combines the groups of one partition into the table.
+     */
+    private void combine(GroupTable<K> memory, List<SpillRun> runs, List<long[]> spilled, int level,
+                         int partitions, int partition, GroupTable<K> table, Runnable afterEach) {
+        KeyIndex<K> keys = memory.index();
+        for (int group = 0; group < memory.size(); group++) {
+            if (keys.partition(group, level, partitions) == partition) {
+                table.combine(memory, group);
+                afterEach.run();
+            }
+        }
+        for (int run = 0; run < runs.size(); run++) {
+            runs.get(run).read(partition, spilled.get(run)[partition], table, afterEach);
+        }
+    }
+
+    /**
+     * Collects all groups.
+     *
+     * @return the groups in key order
+     */
+    public List<Group<K>> toList() {
+        List<Group<K>> groups = new ArrayList<>();
+        forEach(groups::add);
+        groups.sort(Comparator.comparing(Group::getKey));
+        return groups;
+    }
+
+    /**
+     * Deletes the spill files of the run. Spill files are not registered
+     * for deletion on exit, so results that spilled must be closed.
+     */
+    @Override
+    public void close() {
+        runs.forEach(SpillRun::delete);
+    }
+
+    private static <K extends Comparable<K>> void emitSorted(GroupTable<K> table, List<String> measureNames,
+                                                             Consumer<? super Group<K>> action) {
+        List<Group<K>> groups = new ArrayList<>(table.size());
+        for (int group = 0; group < table.size(); group++) {
+            groups.add(table.toGroup(group, measureNames));
+        }
+        groups.sort(Comparator.comparing(Group::getKey));
+        groups.forEach(action);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        forEach(group -> text.append(group).append('\n'));
+        return text.toString();
+    }
+}
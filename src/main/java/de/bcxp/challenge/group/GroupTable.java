@@ -0,0 +1,176 @@
+package de.bcxp.challenge.group;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aggregates per group in primitive columns indexed by a {@link KeyIndex}
+ * id: one count per group and a sum, minimum and maximum per group and
+ * measure.
+ *
+ * <p>Instances are not thread-safe.</p>
+ *
+ * @param <K> the key type
+ */
+final class GroupTable<K extends Comparable<K>> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Estimated heap cost of a group: key, hash, slots at half load and count,
+    // plus sum, minimum and maximum per measure
+    private static final long GROUP_BYTES = 48;
+    private static final long MEASURE_BYTES = 24;
+
+    private final KeyIndex<K> index;
+    private final int measures;
+    private long[] counts = new long[INITIAL_CAPACITY];
+    private double[] sums;
+    private double[] mins;
+    private double[] maxs;
+    private int groups;
+    private long keyBytes;
+
+    GroupTable(KeyIndex<K> index, int measures) {
+        this.index = index;
+        this.measures = measures;
+        this.sums = new double[INITIAL_CAPACITY * measures];
+        this.mins = new double[INITIAL_CAPACITY * measures];
+        this.maxs = new double[INITIAL_CAPACITY * measures];
+    }
+
+    KeyIndex<K> index() {
+        return index;
+    }
+
+    int size() {
+        return groups;
+    }
+
+    /**
+     * Returns the estimated heap cost of the groups, including the
+     * variable part of their keys.
+     *
+     * @return the estimate in bytes
+     */
+    long bytes() {
+        return groups * groupBytes(measures) + keyBytes;
+    }
+
+    /**
+     * Returns the estimated heap cost of a group, without the variable part
+     * of its key.
+     *
+     * @param measures the number of measures
+     * @return the estimate in bytes
+     */
+    static long groupBytes(int measures) {
+        return GROUP_BYTES + MEASURE_BYTES * measures;
+    }
+
+    /**
+     * Adds one record to a group.
+     *
+     * @param id     the group id returned by the index
+     * @param values the record's value of every measure
+     */
+    void add(int id, double[] values) {
+        int group = slot(id);
+        counts[group]++;
+        int base = group * measures;
+        for (int m = 0; m < measures; m++) {
+            double value = values[m];
+            sums[base + m] += value;
+            mins[base + m] = Math.min(mins[base + m], value);
+            maxs[base + m] = Math.max(maxs[base + m], value);
+        }
+    }
+
+    /**
+     * Combines a group of another table into the group with the same key.
+     *
+     * @param other the other table
+     * @param id    the group's id in {@code other}
+     */
+    void combine(GroupTable<K> other, int id) {
+        int group = slot(index.intern(other.index, id));
+        counts[group] += other.counts[id];
+        int base = group * measures;
+        int otherBase = id * measures;
+        for (int m = 0; m < measures; m++) {
+            sums[base + m] += other.sums[otherBase + m];
+            mins[base + m] = Math.min(mins[base + m], other.mins[otherBase + m]);
+            maxs[base + m] = Math.max(maxs[base + m], other.maxs[otherBase + m]);
+        }
+    }
+
+    /**
+     * Reads a group written by {@link #write} and combines it into the group
+     * with the same key.
+     *
+     * @param in the input
+     * @throws IOException if the group cannot be read
+     */
+    void read(DataInput in) throws IOException {
+        int group = slot(index.read(in));
+        counts[group] += in.readLong();
+        int base = group * measures;
+        for (int m = 0; m < measures; m++) {
+            sums[base + m] += in.readDouble();
+            mins[base + m] = Math.min(mins[base + m], in.readDouble());
+            maxs[base + m] = Math.max(maxs[base + m], in.readDouble());
+        }
+    }
+
+    void write(DataOutput out, int group) throws IOException {
+        index.write(out, group);
+        out.writeLong(counts[group]);
+        int base = group * measures;
+        for (int m = 0; m < measures; m++) {
+            out.writeDouble(sums[base + m]);
+            out.writeDouble(mins[base + m]);
+            out.writeDouble(maxs[base + m]);
+        }
+    }
+
+    Group<K> toGroup(int group, List<String> measureNames) {
+        int from = group * measures;
+        int to = from + measures;
+        return new Group<>(index.key(group), measureNames, counts[group], Arrays.copyOfRange(sums, from, to),
+                Arrays.copyOfRange(mins, from, to), Arrays.copyOfRange(maxs, from, to));
+    }
+
+    /**
+     * Removes all groups, keeping the allocated capacity.
+     */
+    void clear() {
+        index.clear();
+        groups = 0;
+        keyBytes = 0;
+    }
+
+    /**
+     * Returns the row of a group id, initializing the row of a new group.
+     */
+    private int slot(int id) {
+        if (id < groups) {
+            return id;
+        }
+        if (id == counts.length) {
+            int capacity = counts.length * 2;
+            counts = Arrays.copyOf(counts, capacity);
+            sums = Arrays.copyOf(sums, capacity * measures);
+            mins = Arrays.copyOf(mins, capacity * measures);
+            maxs = Arrays.copyOf(maxs, capacity * measures);
+        }
+        counts[id] = 0;
+        int base = id * measures;
+        Arrays.fill(sums, base, base + measures, 0);
+        Arrays.fill(mins, base, base + measures, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxs, base, base + measures, Double.NEGATIVE_INFINITY);
+        keyBytes += index.keyBytes(id);
+        groups++;
+        return id;
+    }
+}
@@ -0,0 +1,103 @@
+package de.bcxp.challenge.group;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Maps group keys to dense ids {@code 0..size-1} in first-seen order.
+ *
+ * <p>Implementations are open-addressing hash tables over primitive
+ * arrays; the dense ids index the aggregate columns of a
+ * {@link GroupTable}. Instances are not thread-safe.</p>
+ *
+ * @param <K> the key type
+ */
+abstract class KeyIndex<K extends Comparable<K>> {
+
+    /**
+     * Returns the id of the given key, adding it if absent.
+     *
+     * @param key the key, not {@code null}
+     * @return the dense id
+     */
+    abstract int intern(K key);
+
+    /**
+     * Returns the id of a key of another index of the same kind, adding it
+     * if absent.
+     *
+     * @param other the other index
+     * @param id    the key's id in {@code other}
+     * @return the dense id in this index
+     */
+    int intern(KeyIndex<K> other, int id) {
+        return intern(other.key(id));
+    }
+
+    /**
+     * Reads a key written by {@link #write} and returns its id, adding it if
+     * absent.
+     *
+     * @param in the input
+     * @return the dense id
+     * @throws IOException if the key cannot be read
+     */
+    abstract int read(DataInput in) throws IOException;
+
+    abstract void write(DataOutput out, int id) throws IOException;
+
+    abstract K key(int id);
+
+    /**
+     * Returns the estimated heap cost of a key beyond the fixed cost per
+     * group, e.g. of a string's characters.
+     *
+     * @param id the key's id
+     * @return the estimate in bytes
+     */
+    long keyBytes(int id) {
+        return 0;
+    }
+
+    /**
+     * Assigns a key to one of {@code partitions} spill partitions. The
+     * partition depends on the key and level only, so equal keys of
+     * different indexes land in the same partition.
+     *
+     * @param id         the key's id
+     * @param level      how often the keys were partitioned before
+     * @param partitions the number of partitions
+     * @return the partition
+     */
+    abstract int partition(int id, int level, int partitions);
+
+    abstract int size();
+
+    /**
+     * Removes all keys, keeping the allocated capacity.
+     */
+    abstract void clear();
+
+    /**
+     * Creates an empty index of the same kind.
+     *
+     * @return the new index
+     */
+    abstract KeyIndex<K> newIndex();
+
+    /**
+     * Spreads a hash code over all bits; the table uses the low bits, the
+     * partitioning the high bits.
+     */
+    static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int partitionOf(int hash, int level, int partitions) {
+        // Rehash per level, so keys sharing a partition spread over the partitions of the next level
+        int h = level == 0 ? hash : mix(hash ^ level * 0x27D4EB2F);
+        return (int) (((h * 0x85EBCA6BL) & 0xFFFFFFFFL) * partitions >>> 32);
+    }
+}
@@ -0,0 +1,108 @@
+package de.bcxp.challenge.group;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * {@link KeyIndex} over {@code long} keys, without boxing.
+ */
+final class LongKeyIndex extends KeyIndex<Long> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /** Open-addressing table of {@code id + 1}; zero marks an empty slot. */
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    /**
+     * Returns the id of the given key, adding it if absent.
+     *
+     * @param key the key
+     * @return the dense id
+     */
+    int intern(long key) {
+        int hash = mix(Long.hashCode(key));
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        for (int entry = slots[slot]; entry != 0; entry = slots[slot]) {
+            if (keys[entry - 1] == key) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        keys[size] = key;
+        hashes[size] = hash;
+        slots[slot] = ++size;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    @Override
+    int intern(Long key) {
+        return intern(key.longValue());
+    }
+
+    @Override
+    int intern(KeyIndex<Long> other, int id) {
+        return intern(((LongKeyIndex) other).keys[id]);
+    }
+
+    @Override
+    int read(DataInput in) throws IOException {
+        return intern(in.readLong());
+    }
+
+    @Override
+    void write(DataOutput out, int id) throws IOException {
+        out.writeLong(keys[id]);
+    }
+
+    @Override
+    Long key(int id) {
+        return keys[id];
+    }
+
+    @Override
+    int partition(int id, int level, int partitions) {
+        return partitionOf(hashes[id], level, partitions);
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    void clear() {
+        Arrays.fill(slots, 0);
+        size = 0;
+    }
+
+    @Override
+    KeyIndex<Long> newIndex() {
+        return new LongKeyIndex();
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package de.bcxp.challenge.group;
+
+import de.bcxp.challenge.exception.DataReadException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+/**
+ * The groups one accumulator spilled to disk, hash-partitioned into one
+ * file per partition.
+ *
+ * <p>Every spill appends the accumulator's groups to the partition files,
+ * so a key may occur once per spill; readers combine them. The number of
+ * groups and the key bytes written per partition are tracked, so a reader
+ * can stop at the state of an earlier snapshot and tell whether a
+ * partition fits the memory budget. A partition that does not is split
+ * into a run of the next level, which hashes the keys differently.</p>
+ */
+final class SpillRun {
+    private final Path directory;
+    private final int level;
+    private final long[] groups;
+    private final long[] keyBytes;
+
+    private SpillRun(Path directory, int level, int partitions) {
+        this.directory = directory;
+        this.level = level;
+        this.groups = new long[partitions];
+        this.keyBytes = new long[partitions];
+    }
+
+    /**
+     * Creates an empty run in a new directory.
+     *
+     * @param parent     the directory to create the run in
+     * @param level      how often the keys were partitioned before
+     * @param partitions the number of partitions
+     * @return the run
+     */
+    static SpillRun create(Path parent, int level, int partitions) {
+        try {
+            Files.createDirectories(parent);
+            return new SpillRun(Files.createTempDirectory(parent, "groupby-"), level, partitions);
+        } catch (IOException e) {
+            throw new DataReadException("Error creating spill directory in: " + parent, e);
+        }
+    }
+
+    /**
+     * Creates an empty run of the next level next to this one.
+     *
+     * @param partitions the number of partitions
+     * @return the run
+     */
+    SpillRun split(int partitions) {
+        return create(directory.getParent(), level + 1, partitions);
+    }
+
+    /**
+     * Appends all groups of the table to their partition files.
+     *
+     * @param table the table to spill
+     */
+    <K extends Comparable<K>> void write(GroupTable<K> table) {
+        DataOutputStream[] outputs = new DataOutputStream[groups.length];
+        try {
+            for (int group = 0; group < table.size(); group++) {
+                int partition = table.index().partition(group, level, groups.length);
+                if (outputs[partition] == null) {
+                    outputs[partition] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(
+                            file(partition), StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+                }
+                table.write(outputs[partition], group);
+                groups[partition]++;
+                keyBytes[partition] += table.index().keyBytes(group);
+            }
+        } catch (IOException e) {
+            throw new DataReadException("Error writing file: " + directory, e);
+        } finally {
+            close(outputs);
+        }
+    }
+
+    /**
+     * Combines the first {@code count} groups of a partition into the table.
+     *
+     * @param partition the partition
+     * @param count     the number of groups to read
+     * @param table     the table to combine into
+     * @param afterEach runs after every group, e.g. to spill a full table
+     */
+    <K extends Comparable<K>> void read(int partition, long count, GroupTable<K> table, Runnable afterEach) {
+        if (count == 0) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file(partition))))) {
+            for (long i = 0; i < count; i++) {
+                table.read(in);
+                afterEach.run();
+            }
+        } catch (IOException e) {
+            throw new DataReadException("Error reading file: " + file(partition), e);
+        }
+    }
+
+    /**
+     * Returns the number of groups written per partition so far.
+     *
+     * @return a copy of the counts
+     */
+    long[] groups() {
+        return groups.clone();
+    }
+
+    /**
+     * Returns the estimated key bytes written per partition so far, see
+     * {@link KeyIndex#keyBytes}.
+     *
+     * @return a copy of the estimates
+     */
+    long[] keyBytes() {
+        return keyBytes.clone();
+    }
+
+    int level() {
+        return level;
+    }
+
+    int partitions() {
+        return groups.length;
+    }
+
+    /**
+     * Deletes the run's files.
+     */
+    void delete() {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException | UncheckedIOException e) {
+            // Best effort; the files live in the spill directory
+        }
+    }
+
+    private Path file(int partition) {
+        return directory.resolve("partition-" + partition);
+    }
+
+    private void close(DataOutputStream[] outputs) {
+        IOException failure = null;
+        for (DataOutputStream output : outputs) {
+            if (output == null) continue;
+            try {
+                output.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw new DataReadException("Error writing file: " + directory, failure);
+        }
+    }
+}
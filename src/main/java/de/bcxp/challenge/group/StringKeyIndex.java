@@ -0,0 +1,105 @@
+package de.bcxp.challenge.group;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * {@link KeyIndex} over {@link String} keys.
+ *
+ * <p>Hash codes are kept in a primitive array, so probing compares ints
+ * and calls {@link String#equals} only on a hash match.</p>
+ */
+final class StringKeyIndex extends KeyIndex<String> {
+    private static final int INITIAL_CAPACITY = 16;
+    // String object and array header; the content is counted at two bytes per char
+    private static final long STRING_BYTES = 40;
+
+    private String[] keys = new String[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /** Open-addressing table of {@code id + 1}; zero marks an empty slot. */
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    @Override
+    int intern(String key) {
+        int hash = mix(key.hashCode());
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        for (int entry = slots[slot]; entry != 0; entry = slots[slot]) {
+            if (hashes[entry - 1] == hash && keys[entry - 1].equals(key)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        keys[size] = key;
+        hashes[size] = hash;
+        slots[slot] = ++size;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    @Override
+    int read(DataInput in) throws IOException {
+        return intern(in.readUTF());
+    }
+
+    @Override
+    void write(DataOutput out, int id) throws IOException {
+        out.writeUTF(keys[id]);
+    }
+
+    @Override
+    String key(int id) {
+        return keys[id];
+    }
+
+    @Override
+    long keyBytes(int id) {
+        return STRING_BYTES + 2L * keys[id].length();
+    }
+
+    @Override
+    int partition(int id, int level, int partitions) {
+        return partitionOf(hashes[id], level, partitions);
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    void clear() {
+        Arrays.fill(slots, 0);
+        // Drop references so spilled keys can be collected
+        Arrays.fill(keys, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    KeyIndex<String> newIndex() {
+        return new StringKeyIndex();
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+}
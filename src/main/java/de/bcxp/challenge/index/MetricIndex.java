@@ -0,0 +1,270 @@
+package de.bcxp.challenge.index;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Immutable sorted secondary index over a derived, numeric metric of a
+ * table, such as the temperature spread or the population density.
+ *
+ * <p>The index stores the metric values in ascending order next to the row
+ * they belong to, in two primitive arrays. Building it costs one sort,
+ * O(n log n); afterwards range, threshold, rank and nearest-value queries
+ * run in O(log n + k) for k matching rows, instead of a linear scan per
+ * query. Equal values are ordered by row, so all results are
+ * deterministic. Values are compared with {@link Double#compare}, i.e.
+ * {@code NaN} sorts after positive infinity.</p>
+ *
+ * <p>Range results are returned in ascending metric order.</p>
+ */
+public final class MetricIndex {
+    private final double[] keys;
+    private final int[] rows;
+
+    private MetricIndex(double[] keys, int[] rows) {
+        this.keys = keys;
+        this.rows = rows;
+    }
+
+    /**
+     * Builds an index by evaluating the metric for every row.
+     *
+     * @param size   the number of rows
+     * @param metric the metric of a row
+     * @return the index
+     */
+    public static MetricIndex build(int size, IntToDoubleFunction metric) {
+        double[] values = new double[size];
+        int[] order = new int[size];
+        for (int row = 0; row < size; row++) {
+            values[row] = metric.applyAsDouble(row);
+            order[row] = row;
+        }
+        // Stable merge sort keeps equal values in row order
+        mergeSort(order, new int[size], 0, size, values);
+
+        double[] keys = new double[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = values[order[i]];
+        }
+        return new MetricIndex(keys, order);
+    }
+
+    /**
+     * Creates an index from previously stored arrays without copying them.
+     *
+     * @param keys the metric values in ascending order
+     * @param rows the row of each value
+     * @return the index
+     * @throws IllegalArgumentException if the arrays differ in length, the
+     *                                  keys are not sorted or the rows are
+     *                                  not a permutation of
+     *                                  {@code [0, keys.length)}
+     */
+    public static MetricIndex wrap(double[] keys, int[] rows) {
+        if (keys.length != rows.length) {
+            throw new IllegalArgumentException("Keys and rows must have equal length.");
+        }
+        for (int i = 1; i < keys.length; i++) {
+            if (Double.compare(keys[i - 1], keys[i]) > 0) {
+                throw new IllegalArgumentException("Keys are not sorted at position " + i);
+            }
+        }
+        // Every row exactly once, so queries never index outside the table
+        boolean[] seen = new boolean[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            if (row < 0 || row >= rows.length || seen[row]) {
+                throw new IllegalArgumentException("Invalid or repeated row " + row + " at position " + i);
+            }
+            seen[row] = true;
+        }
+        return new MetricIndex(keys, rows);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the metric value at the given rank.
+     *
+     * @param rank zero-based position in ascending order
+     * @return the value
+     */
+    public double key(int rank) {
+        return keys[rank];
+    }
+
+    /**
+     * Returns the row at the given rank.
+     *
+     * @param rank zero-based position in ascending order
+     * @return the row index
+     */
+    public int row(int rank) {
+        return rows[rank];
+    }
+
+    /**
+     * Returns a copy of the sorted metric values, e.g. for persisting.
+     *
+     * @return the keys in ascending order
+     */
+    public double[] keys() {
+        return keys.clone();
+    }
+
+    /**
+     * Returns a copy of the rows in index order, e.g. for persisting.
+     *
+     * @return the row of each key
+     */
+    public int[] rows() {
+        return rows.clone();
+    }
+
+    /**
+     * Counts the rows whose value is smaller than the given value.
+     *
+     * @param value the value
+     * @return the rank the value would have in the index
+     */
+    public int rank(double value) {
+        return lowerBound(value);
+    }
+
+    /**
+     * Returns the rows with {@code from <= value <= to}.
+     *
+     * @param from the lower bound, inclusive
+     * @param to   the upper bound, inclusive
+     * @return the matching rows in ascending metric order
+     */
+    public int[] between(double from, double to) {
+        return slice(lowerBound(from), upperBound(to));
+    }
+
+    /**
+     * Returns the rows with {@code value < threshold}.
+     *
+     * @param threshold the exclusive upper bound
+     * @return the matching rows in ascending metric order
+     */
+    public int[] lessThan(double threshold) {
+        return slice(0, lowerBound(threshold));
+    }
+
+    /**
+     * Returns the rows with {@code value <= threshold}.
+     *
+     * @param threshold the inclusive upper bound
+     * @return the matching rows in ascending metric order
+     */
+    public int[] atMost(double threshold) {
+        return slice(0, upperBound(threshold));
+    }
+
+    /**
+     * Returns the rows with {@code value > threshold}.
+     *
+     * @param threshold the exclusive lower bound
+     * @return the matching rows in ascending metric order
+     */
+    public int[] greaterThan(double threshold) {
+        return slice(upperBound(threshold), keys.length);
+    }
+
+    /**
+     * Returns the rows with {@code value >= threshold}.
+     *
+     * @param threshold the inclusive lower bound
+     * @return the matching rows in ascending metric order
+     */
+    public int[] atLeast(double threshold) {
+        return slice(lowerBound(threshold), keys.length);
+    }
+
+    /**
+     * Finds the row whose value is closest to the given value. If two values
+     * are equally close, the smaller one wins; among equal values the
+     * smallest row wins.
+     *
+     * @param value the target value
+     * @return the row index, or {@code -1} if the index is empty
+     */
+    public int nearest(double value) {
+        if (keys.length == 0) {
+            return -1;
+        }
+        int upper = lowerBound(value);
+        if (upper == keys.length) {
+            // Return the first row of the run of equal largest values
+            return rows[lowerBound(keys[keys.length - 1])];
+        }
+        if (upper == 0) {
+            return rows[0];
+        }
+        double below = keys[upper - 1];
+        if (Math.abs(value - below) <= Math.abs(keys[upper] - value)) {
+            return rows[lowerBound(below)];
+        }
+        return rows[upper];
+    }
+
+    private int[] slice(int from, int to) {
+        return from >= to ? new int[0] : Arrays.copyOfRange(rows, from, to);
+    }
+
+    /** First position with {@code key >= value}. */
+    private int lowerBound(double value) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(keys[mid], value) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** First position with {@code key > value}. */
+    private int upperBound(double value) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(keys[mid], value) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static void mergeSort(int[] order, int[] buffer, int from, int to, double[] values) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(order, buffer, from, mid, values);
+        mergeSort(order, buffer, mid, to, values);
+        if (Double.compare(values[order[mid - 1]], values[order[mid]]) <= 0) {
+            return;
+        }
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && Double.compare(values[buffer[left]], values[buffer[right]]) <= 0)) {
+                order[i] = buffer[left++];
+            } else {
+                order[i] = buffer[right++];
+            }
+        }
+    }
+}
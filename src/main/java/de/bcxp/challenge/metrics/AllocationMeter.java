@@ -0,0 +1,40 @@
+package de.bcxp.challenge.metrics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reads the number of bytes allocated by the current thread.
+ *
+ * <p>Relies on the HotSpot extension of {@link java.lang.management.ThreadMXBean};
+ * on JVMs without it, allocation is reported as unavailable. Allocations
+ * of other threads, e.g. the workers of parallel readers, are not
+ * included.</p>
+ */
+final class AllocationMeter {
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private AllocationMeter() {
+    }
+
+    /**
+     * Returns the bytes allocated by the current thread so far.
+     *
+     * @return the allocated bytes, or {@code -1} if not supported
+     */
+    static long allocatedBytes() {
+        if (THREADS == null) return -1;
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) return null;
+        if (!threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        return threads;
+    }
+}
@@ -0,0 +1,68 @@
+package de.bcxp.challenge.metrics;
+
+import de.bcxp.challenge.api.Accumulator;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the records passed to an accumulator.
+ *
+ * <p>Each accumulator counts in a plain field and adds its count to the
+ * shared total once, when it is merged or its result is taken, so
+ * parallel readers do not contend per record.</p>
+ */
+final class CountingAccumulator<T, R> implements Accumulator<T, R> {
+    private final Accumulator<T, R> delegate;
+    private final Total total;
+    private long count;
+
+    CountingAccumulator(Accumulator<T, R> delegate, Total total) {
+        this.delegate = delegate;
+        this.total = total;
+    }
+
+    @Override
+    public void accept(T item) {
+        count++;
+        delegate.accept(item);
+    }
+
+    @Override
+    public R result() {
+        flush();
+        return delegate.result();
+    }
+
+    @Override
+    public boolean isMergeable() {
+        return delegate.isMergeable();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void merge(Accumulator<T, R> other) {
+        CountingAccumulator<T, R> counting = (CountingAccumulator<T, R>) other;
+        counting.flush();
+        delegate.merge(counting.delegate);
+    }
+
+    private void flush() {
+        total.add(count);
+        count = 0;
+    }
+
+    /**
+     * The records counted by all accumulators of one call.
+     */
+    static final class Total {
+        private final LongAdder records = new LongAdder();
+
+        void add(long count) {
+            records.add(count);
+        }
+
+        long get() {
+            return records.sum();
+        }
+    }
+}
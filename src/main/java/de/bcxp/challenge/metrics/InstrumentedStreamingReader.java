@@ -0,0 +1,70 @@
+package de.bcxp.challenge.metrics;
+
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.error.ErrorSink;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Records the calls of a {@link StreamingDataReader} in a phase.
+ *
+ * <p>Both entry points are forwarded to the delegate, so readers that
+ * override {@link StreamingDataReader#aggregate(String, Supplier, ErrorSink)}
+ * keep their parallel implementation.</p>
+ */
+final class InstrumentedStreamingReader<T> implements StreamingDataReader<T> {
+    private final MetricsRegistry registry;
+    private final String phase;
+    private final StreamingDataReader<T> delegate;
+
+    InstrumentedStreamingReader(MetricsRegistry registry, String phase, StreamingDataReader<T> delegate) {
+        this.registry = registry;
+        this.phase = phase;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public long readData(String filePath, Consumer<? super T> sink, ErrorSink errors) {
+        if (!registry.isEnabled()) {
+            return delegate.readData(filePath, sink, errors);
+        }
+        PhaseMetrics.Measurement measurement = registry.phase(phase).start();
+        long count = 0;
+        try {
+            count = delegate.readData(filePath, sink, counting(measurement, errors));
+            return count;
+        } catch (Throwable e) {
+            measurement.fail();
+            throw e;
+        } finally {
+            measurement.stop(count, MetricsRegistry.bytesOf(filePath));
+        }
+    }
+
+    @Override
+    public <R> R aggregate(String filePath, Supplier<? extends Accumulator<T, R>> factory, ErrorSink errors) {
+        if (!registry.isEnabled()) {
+            return delegate.aggregate(filePath, factory, errors);
+        }
+        PhaseMetrics.Measurement measurement = registry.phase(phase).start();
+        CountingAccumulator.Total total = new CountingAccumulator.Total();
+        try {
+            return delegate.aggregate(filePath, () -> new CountingAccumulator<>(factory.get(), total),
+                    counting(measurement, errors));
+        } catch (Throwable e) {
+            measurement.fail();
+            throw e;
+        } finally {
+            measurement.stop(total.get(), MetricsRegistry.bytesOf(filePath));
+        }
+    }
+
+    private static ErrorSink counting(PhaseMetrics.Measurement measurement, ErrorSink errors) {
+        return (reason, lineNumber, line) -> {
+            measurement.reject();
+            errors.reject(reason, lineNumber, line);
+        };
+    }
+}
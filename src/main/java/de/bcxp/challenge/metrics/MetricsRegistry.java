@@ -0,0 +1,201 @@
+package de.bcxp.challenge.metrics;
+
+import de.bcxp.challenge.api.Analyzer;
+import de.bcxp.challenge.api.DataReader;
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.error.ErrorSink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Collects timing and volume metrics of named phases, such as reading and
+ * analyzing a dataset.
+ *
+ * <p>Readers and analyzers are instrumented by wrapping them with
+ * {@link #reader} and {@link #analyzer}; the wrappers implement the same
+ * interfaces, so callers are unaware of them. Readers that take their error
+ * sink outside these interfaces count rejects through {@link #errors}.
+ * Every call records wall-clock time, bytes read, records, rejected rows
+ * and the bytes allocated by the calling thread; calls that throw are
+ * recorded as well and counted as failures. Measurements are taken once
+ * per call, not per row, and a disabled registry passes calls straight
+ * through, so the overhead is negligible either way.</p>
+ *
+ * <p>Allocation is measured on the calling thread only. Parallel and
+ * pipelined readers parse on worker threads, so their allocated bytes
+ * cover little more than the records handed to the caller.</p>
+ *
+ * <p>Instances are thread-safe.</p>
+ */
+public class MetricsRegistry {
+    private final Map<String, PhaseMetrics> phases = new LinkedHashMap<>();
+    private volatile boolean enabled;
+
+    /**
+     * Creates a registry.
+     *
+     * @param enabled whether measurements are taken
+     */
+    public MetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Switches measurements on or off; instrumented objects follow
+     * immediately.
+     *
+     * @param enabled whether measurements are taken
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Instruments a streaming reader. Rejected rows are counted as they are
+     * reported, records are counted by the accumulators of aggregations.
+     *
+     * @param phase  the phase name, e.g. {@code weather.read}
+     * @param reader the reader to instrument
+     * @param <T>    the type of records
+     * @return a reader recording every call
+     */
+    public <T> StreamingDataReader<T> reader(String phase, StreamingDataReader<T> reader) {
+        return new InstrumentedStreamingReader<>(this, phase, reader);
+    }
+
+    /**
+     * Instruments a list-based reader.
+     *
+     * @param phase  the phase name, e.g. {@code weather.read}
+     * @param reader the reader to instrument
+     * @param <T>    the type of records
+     * @return a reader recording every call
+     */
+    public <T> DataReader<T> reader(String phase, DataReader<T> reader) {
+        if (reader instanceof StreamingDataReader) {
+            return reader(phase, (StreamingDataReader<T>) reader);
+        }
+        return filePath -> {
+            if (!enabled) return reader.readData(filePath);
+            return measure(phase, bytesOf(filePath), () -> reader.readData(filePath), List::size);
+        };
+    }
+
+    /**
+     * Instruments an error sink, for list-based readers that report their
+     * rejects to a sink of their own: every reported row is counted as
+     * rejected in the phase before it is passed on.
+     *
+     * @param phase  the phase name, e.g. {@code weather.read}
+     * @param errors the sink to instrument
+     * @return a sink counting every reject
+     */
+    public ErrorSink errors(String phase, ErrorSink errors) {
+        return (reason, lineNumber, line) -> {
+            if (enabled) phase(phase).reject();
+            errors.reject(reason, lineNumber, line);
+        };
+    }
+
+    /**
+     * Instruments an analyzer; the records of a call are the list size.
+     *
+     * @param phase    the phase name, e.g. {@code weather.analyze}
+     * @param analyzer the analyzer to instrument
+     * @param <T>      the type of records
+     * @return an analyzer recording every call
+     */
+    public <T> Analyzer<T> analyzer(String phase, Analyzer<T> analyzer) {
+        return data -> {
+            if (!enabled) return analyzer.analyze(data);
+            long records = data == null ? 0 : data.size();
+            return measure(phase, 0, () -> analyzer.analyze(data), result -> records);
+        };
+    }
+
+    /**
+     * Measures arbitrary work as a phase, for code that is not behind one
+     * of the instrumented interfaces.
+     *
+     * @param phase   the phase name
+     * @param records the number of records the work processes
+     * @param work    the work to measure
+     * @param <R>     the type of the result
+     * @return the result of the work
+     */
+    public <R> R time(String phase, long records, Supplier<R> work) {
+        if (!enabled) return work.get();
+        return measure(phase, 0, work, result -> records);
+    }
+
+    /**
+     * Returns the current values of all phases.
+     *
+     * @return the snapshot
+     */
+    public MetricsSnapshot snapshot() {
+        synchronized (phases) {
+            List<PhaseSnapshot> snapshots = new ArrayList<>(phases.size());
+            for (PhaseMetrics phase : phases.values()) {
+                snapshots.add(phase.snapshot());
+            }
+            return new MetricsSnapshot(snapshots);
+        }
+    }
+
+    /**
+     * Discards all phases, so later snapshots only cover calls made from
+     * now on. Calls in progress are recorded into the discarded phases.
+     */
+    public void reset() {
+        synchronized (phases) {
+            phases.clear();
+        }
+    }
+
+    PhaseMetrics phase(String name) {
+        synchronized (phases) {
+            return phases.computeIfAbsent(name, PhaseMetrics::new);
+        }
+    }
+
+    private <R> R measure(String phase, long bytes, Supplier<R> work, ToLongFunction<R> records) {
+        PhaseMetrics.Measurement measurement = phase(phase).start();
+        long count = 0;
+        try {
+            R result = work.get();
+            count = records.applyAsLong(result);
+            return result;
+        } catch (Throwable e) {
+            measurement.fail();
+            throw e;
+        } finally {
+            measurement.stop(count, bytes);
+        }
+    }
+
+    /**
+     * Returns the size of the input file, which for compressed files is the
+     * compressed size.
+     */
+    static long bytesOf(String filePath) {
+        try {
+            return Files.size(Path.of(filePath));
+        } catch (IOException | RuntimeException e) {
+            // The reader reports the problem
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package de.bcxp.challenge.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable copy of all phases of a {@link MetricsRegistry}, exportable as
+ * JSON or in the Prometheus text exposition format.
+ */
+public final class MetricsSnapshot {
+    private final List<PhaseSnapshot> phases;
+
+    MetricsSnapshot(List<PhaseSnapshot> phases) {
+        this.phases = Collections.unmodifiableList(phases);
+    }
+
+    /**
+     * Returns all phases.
+     *
+     * @return the phases in the order they were first measured
+     */
+    public List<PhaseSnapshot> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Returns the phase with the given name.
+     *
+     * @param name the phase name
+     * @return the phase, or empty if it was never measured
+     */
+    public Optional<PhaseSnapshot> get(String name) {
+        return phases.stream().filter(phase -> phase.getName().equals(name)).findFirst();
+    }
+
+    /**
+     * Renders the snapshot as a JSON object with a {@code phases} array.
+     *
+     * @return the JSON text
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"phases\":[");
+        for (int i = 0; i < phases.size(); i++) {
+            PhaseSnapshot phase = phases.get(i);
+            if (i > 0) json.append(',');
+            json.append("{\"name\":\"").append(escape(phase.getName(), false)).append('"')
+                    .append(",\"calls\":").append(phase.getCalls())
+                    .append(",\"records\":").append(phase.getRecords())
+                    .append(",\"rejectedRows\":").append(phase.getRejectedRows())
+                    .append(",\"bytesRead\":").append(phase.getBytesRead())
+                    .append(",\"nanos\":").append(phase.getNanos())
+                    .append(",\"nanosPerRecord\":")
+                    .append(String.format(Locale.ROOT, "%.1f", phase.getNanosPerRecord()))
+                    .append(",\"allocatedBytes\":").append(phase.getAllocatedBytes())
+                    .append(",\"failures\":").append(phase.getFailures())
+                    .append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Renders the snapshot in the Prometheus text exposition format, with
+     * one counter family per metric and the phase as label.
+     *
+     * @return the exposition text, ending with a line feed
+     */
+    public String toPrometheus() {
+        StringBuilder text = new StringBuilder();
+        counter(text, "bcxp_phase_calls_total", "Number of measured calls.", PhaseSnapshot::getCalls);
+        counter(text, "bcxp_phase_failures_total", "Measured calls that threw.", PhaseSnapshot::getFailures);
+        counter(text, "bcxp_phase_records_total", "Records produced or consumed.", PhaseSnapshot::getRecords);
+        counter(text, "bcxp_phase_rejected_rows_total", "Rows skipped as invalid.", PhaseSnapshot::getRejectedRows);
+        counter(text, "bcxp_phase_read_bytes_total", "Bytes of input files read.", PhaseSnapshot::getBytesRead);
+        counter(text, "bcxp_phase_allocated_bytes_total", "Bytes allocated by the calling thread.",
+                PhaseSnapshot::getAllocatedBytes);
+
+        text.append("# HELP bcxp_phase_duration_seconds_total Wall-clock time spent in the phase.\n")
+                .append("# TYPE bcxp_phase_duration_seconds_total counter\n");
+        for (PhaseSnapshot phase : phases) {
+            text.append("bcxp_phase_duration_seconds_total{phase=\"").append(escape(phase.getName(), true))
+                    .append("\"} ").append(String.format(Locale.ROOT, "%.9f", phase.getNanos() / 1e9)).append('\n');
+        }
+        return text.toString();
+    }
+
+    private void counter(StringBuilder text, String metric, String help, ToLongFunction<PhaseSnapshot> value) {
+        text.append("# HELP ").append(metric).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(metric).append(" counter\n");
+        for (PhaseSnapshot phase : phases) {
+            text.append(metric).append("{phase=\"").append(escape(phase.getName(), true)).append("\"} ")
+                    .append(value.applyAsLong(phase)).append('\n');
+        }
+    }
+
+    /**
+     * Escapes backslashes, quotes and line feeds, which covers Prometheus
+     * label values; JSON additionally needs other control characters
+     * escaped.
+     */
+    private static String escape(String value, boolean prometheus) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                escaped.append('\\').append(c);
+            } else if (c == '\n') {
+                escaped.append("\\n");
+            } else if (c < 0x20 && !prometheus) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
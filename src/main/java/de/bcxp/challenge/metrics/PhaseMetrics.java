@@ -0,0 +1,80 @@
+package de.bcxp.challenge.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counters of one named phase.
+ */
+final class PhaseMetrics {
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder records = new LongAdder();
+    private final LongAdder rejectedRows = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    PhaseMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Starts measuring a call on the current thread.
+     */
+    Measurement start() {
+        return new Measurement();
+    }
+
+    /**
+     * Counts a skipped row reported outside of a measured call.
+     */
+    void reject() {
+        rejectedRows.increment();
+    }
+
+    PhaseSnapshot snapshot() {
+        return new PhaseSnapshot(name, calls.sum(), failures.sum(), records.sum(), rejectedRows.sum(), bytesRead.sum(),
+                nanos.sum(), allocatedBytes.sum());
+    }
+
+    /**
+     * A single call being measured.
+     */
+    final class Measurement {
+        private final long startNanos = System.nanoTime();
+        private final long startAllocated = AllocationMeter.allocatedBytes();
+
+        /**
+         * Counts a skipped row; may be called during the measurement.
+         */
+        void reject() {
+            PhaseMetrics.this.reject();
+        }
+
+        /**
+         * Counts the call as failed; {@link #stop} must still be called, so
+         * the time spent until the failure is recorded.
+         */
+        void fail() {
+            failures.increment();
+        }
+
+        /**
+         * Ends the measurement and adds it to the phase.
+         *
+         * @param recordCount the records produced or consumed by the call
+         * @param bytes       the bytes read by the call
+         */
+        void stop(long recordCount, long bytes) {
+            nanos.add(System.nanoTime() - startNanos);
+            long allocated = AllocationMeter.allocatedBytes();
+            if (startAllocated >= 0 && allocated >= 0) {
+                allocatedBytes.add(allocated - startAllocated);
+            }
+            calls.increment();
+            records.add(recordCount);
+            bytesRead.add(bytes);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package de.bcxp.challenge.metrics;
+
+/**
+ * Immutable counters of one phase, such as reading or analyzing a dataset.
+ */
+public final class PhaseSnapshot {
+    private final String name;
+    private final long calls;
+    private final long failures;
+    private final long records;
+    private final long rejectedRows;
+    private final long bytesRead;
+    private final long nanos;
+    private final long allocatedBytes;
+
+    PhaseSnapshot(String name, long calls, long failures, long records, long rejectedRows, long bytesRead,
+                  long nanos, long allocatedBytes) {
+        this.name = name;
+        this.calls = calls;
+        this.failures = failures;
+        this.records = records;
+        this.rejectedRows = rejectedRows;
+        this.bytesRead = bytesRead;
+        this.nanos = nanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Returns the number of calls that threw; they are included in
+     * {@link #getCalls()} and the time, but add no records.
+     *
+     * @return the failed calls
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Returns the bytes allocated by the calling threads during the phase,
+     * not counting worker threads of parallel or pipelined readers.
+     *
+     * @return the allocated bytes; 0 if the JVM cannot measure allocation
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the average time per record.
+     *
+     * @return nanoseconds per record, or 0 if there were no records
+     */
+    public double getNanosPerRecord() {
+        return records == 0 ? 0 : (double) nanos / records;
+    }
+}
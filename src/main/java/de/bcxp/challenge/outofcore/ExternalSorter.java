@@ -0,0 +1,272 @@
+package de.bcxp.challenge.outofcore;
+
+import de.bcxp.challenge.exception.DataReadException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Sorts more records than fit into memory with an external merge sort.
+ *
+ * <p>Records are collected in batches sized from the {@link MemoryBudget};
+ * each full batch is sorted and written to a run file. Sorting finishes with
+ * a k-way merge over the runs. If there are more runs than buffers fit into
+ * the budget, groups of runs are merged into longer runs first. Run files
+ * are written and read strictly sequentially through large buffers.</p>
+ *
+ * <p>The sort is stable: records that compare equal keep their input
+ * order, as with {@link List#sort}. If all records fit into one batch,
+ * nothing is written to disk.</p>
+ *
+ * <p>Instances are not thread-safe and sort a single input.</p>
+ *
+ * @param <T> the record type
+ */
+public final class ExternalSorter<T> {
+
+    /** Size of the buffer of each run file being written or merged. */
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private final RecordCodec<T> codec;
+    private final Comparator<? super T> order;
+    private final Path tempDirectory;
+    private final int batchSize;
+    private final int fanIn;
+    private final List<T> batch = new ArrayList<>();
+    private final List<Run> runs = new ArrayList<>();
+    private Path directory;
+    private long count;
+    private int mergePasses;
+
+    /**
+     * Creates a sorter.
+     *
+     * @param codec         writes records to run files
+     * @param order         the sort order
+     * @param budget        bounds the records buffered in memory
+     * @param tempDirectory the parent directory of run files
+     */
+    public ExternalSorter(RecordCodec<T> codec, Comparator<? super T> order, MemoryBudget budget,
+                          Path tempDirectory) {
+        this.codec = codec;
+        this.order = order;
+        this.tempDirectory = tempDirectory;
+        this.batchSize = (int) Math.min(Integer.MAX_VALUE - 8, budget.items(codec.heapBytes()));
+        this.fanIn = (int) Math.max(2, Math.min(1024, budget.getBytes() / BUFFER_SIZE));
+    }
+
+    /**
+     * Adds a record.
+     *
+     * @param record the record
+     */
+    public void add(T record) {
+        batch.add(record);
+        count++;
+        if (batch.size() >= batchSize) {
+            spill();
+        }
+    }
+
+    /**
+     * Finishes the input and returns the records in sorted order.
+     *
+     * @return the sorted records; close it to delete the run files
+     */
+    public SortedRecords<T> finish() {
+        if (runs.isEmpty()) {
+            batch.sort(order);
+            return new SortedRecords<>(this, count, 0, 0, Collections.unmodifiableList(batch), List.of());
+        }
+        spill();
+        // Reduce the runs until a single merge can read all of them within the budget
+        while (runs.size() > fanIn) {
+            List<Run> merged = new ArrayList<>();
+            for (int from = 0; from < runs.size(); from += fanIn) {
+                List<Run> group = runs.subList(from, Math.min(runs.size(), from + fanIn));
+                if (group.size() == 1) {
+                    merged.add(group.get(0));
+                    continue;
+                }
+                Run run = newRun();
+                try (DataOutputStream out = open(run)) {
+                    run.count = merge(group, record -> write(out, record));
+                } catch (IOException e) {
+                    throw new DataReadException("Error writing file: " + run.file, e);
+                }
+                group.forEach(Run::delete);
+                merged.add(run);
+            }
+            runs.clear();
+            runs.addAll(merged);
+            mergePasses++;
+        }
+        return new SortedRecords<>(this, count, runs.size(), mergePasses, List.of(), List.copyOf(runs));
+    }
+
+    /**
+     * Sorts the current batch into a new run file.
+     */
+    private void spill() {
+        if (batch.isEmpty()) return;
+        batch.sort(order);
+        Run run = newRun();
+        try (DataOutputStream out = open(run)) {
+            for (T record : batch) {
+                codec.write(out, record);
+            }
+        } catch (IOException e) {
+            throw new DataReadException("Error writing file: " + run.file, e);
+        }
+        run.count = batch.size();
+        runs.add(run);
+        batch.clear();
+    }
+
+    /**
+     * Merges sorted runs in order. Equal records are taken from the earlier
+     * run first, which keeps the sort stable.
+     */
+    long merge(List<Run> inputs, Consumer<? super T> sink) {
+        List<Cursor> cursors = new ArrayList<>(inputs.size());
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(Math.max(1, inputs.size()), (a, b) -> {
+            int comparison = order.compare(a.current, b.current);
+            return comparison != 0 ? comparison : Integer.compare(a.index, b.index);
+        });
+        try {
+            for (int i = 0; i < inputs.size(); i++) {
+                Cursor cursor = new Cursor(i, inputs.get(i));
+                cursors.add(cursor);
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+            long merged = 0;
+            while (!queue.isEmpty()) {
+                Cursor cursor = queue.poll();
+                sink.accept(cursor.current);
+                merged++;
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+            return merged;
+        } finally {
+            cursors.forEach(Cursor::close);
+        }
+    }
+
+    private Run newRun() {
+        try {
+            if (directory == null) {
+                Files.createDirectories(tempDirectory);
+                directory = Files.createTempDirectory(tempDirectory, "sort-");
+            }
+            return new Run(Files.createTempFile(directory, "run-", ".bin"));
+        } catch (IOException e) {
+            throw new DataReadException("Error creating spill file in: " + tempDirectory, e);
+        }
+    }
+
+    private static DataOutputStream open(Run run) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run.file), BUFFER_SIZE));
+    }
+
+    private void write(DataOutputStream out, T record) {
+        try {
+            codec.write(out, record);
+        } catch (IOException e) {
+            throw new DataReadException("Error writing file: " + directory, e);
+        }
+    }
+
+    /**
+     * Deletes all run files, including those of an unfinished merge pass.
+     */
+    void delete() {
+        runs.clear();
+        if (directory == null) return;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException | UncheckedIOException e) {
+            // Best effort; the files live in the temporary directory
+        }
+    }
+
+    /**
+     * A sorted run file.
+     */
+    static final class Run {
+        final Path file;
+        long count;
+
+        Run(Path file) {
+            this.file = file;
+        }
+
+        void delete() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // Best effort; the sorter deletes its directory when closed
+            }
+        }
+    }
+
+    /**
+     * Reads a run sequentially, one record ahead.
+     */
+    private final class Cursor {
+        final int index;
+        private final Run run;
+        private final DataInputStream in;
+        private long remaining;
+        T current;
+
+        Cursor(int index, Run run) {
+            this.index = index;
+            this.run = run;
+            this.remaining = run.count;
+            try {
+                this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.file), BUFFER_SIZE));
+            } catch (IOException e) {
+                throw new DataReadException("Error reading file: " + run.file, e);
+            }
+        }
+
+        boolean advance() {
+            if (remaining == 0) return false;
+            try {
+                current = codec.read(in);
+            } catch (IOException e) {
+                throw new DataReadException("Error reading file: " + run.file, e);
+            }
+            remaining--;
+            return true;
+        }
+
+        void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // Read-only; nothing to flush
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package de.bcxp.challenge.outofcore;
+
+import java.util.Locale;
+
+/**
+ * The heap an out-of-core run may spend on buffered records and
+ * aggregation state.
+ *
+ * <p>The budget is an estimate, not enforced by the JVM: operators size
+ * their in-memory batches from it and spill the rest to disk. It should be
+ * well below {@code -Xmx}, leaving room for the reader's buffers and the
+ * garbage collector.</p>
+ */
+public final class MemoryBudget {
+    private final long bytes;
+
+    private MemoryBudget(long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + bytes);
+        }
+        this.bytes = bytes;
+    }
+
+    /**
+     * Creates a budget of the given size.
+     *
+     * @param bytes the budget in bytes
+     * @return the budget
+     */
+    public static MemoryBudget of(long bytes) {
+        return new MemoryBudget(bytes);
+    }
+
+    /**
+     * Parses a size such as {@code 512k}, {@code 64m} or {@code 2g}; a plain
+     * number is a byte count.
+     *
+     * @param size the size, with an optional binary unit suffix
+     * @return the budget
+     * @throws IllegalArgumentException if the size cannot be parsed
+     */
+    public static MemoryBudget parse(String size) {
+        String text = size.trim().toLowerCase(Locale.ROOT);
+        long unit = 1;
+        if (text.endsWith("k")) {
+            unit = 1L << 10;
+        } else if (text.endsWith("m")) {
+            unit = 1L << 20;
+        } else if (text.endsWith("g")) {
+            unit = 1L << 30;
+        }
+        if (unit > 1) {
+            text = text.substring(0, text.length() - 1);
+        }
+        try {
+            return of(Math.multiplyExact(Long.parseLong(text), unit));
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid memory size: " + size);
+        }
+    }
+
+    /**
+     * Creates a budget as a fraction of the maximum heap size.
+     *
+     * @param fraction between 0 (exclusive) and 1 (inclusive)
+     * @return the budget
+     */
+    public static MemoryBudget fractionOfHeap(double fraction) {
+        if (!(fraction > 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("Fraction must be in (0, 1]: " + fraction);
+        }
+        return of(Math.max(1, (long) (Runtime.getRuntime().maxMemory() * fraction)));
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns how many items of the given size fit into the budget.
+     *
+     * @param bytesPerItem the estimated heap size of an item
+     * @return the item count, at least {@code 1}
+     */
+    public long items(long bytesPerItem) {
+        return Math.max(1, bytes / Math.max(1, bytesPerItem));
+    }
+
+    @Override
+    public String toString() {
+        if (bytes % (1L << 20) == 0) return (bytes >> 20) + " MiB";
+        if (bytes % (1L << 10) == 0) return (bytes >> 10) + " KiB";
+        return bytes + " bytes";
+    }
+}
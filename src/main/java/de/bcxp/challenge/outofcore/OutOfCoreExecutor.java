@@ -0,0 +1,177 @@
+package de.bcxp.challenge.outofcore;
+
+import de.bcxp.challenge.api.Aggregation;
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.group.GroupBy;
+import de.bcxp.challenge.group.GroupByResult;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Runs analyses over files larger than the heap within an explicit
+ * {@link MemoryBudget}.
+ *
+ * <p>Unlike {@link de.bcxp.challenge.api.DataReader#readData(String)}, no
+ * list of all records is ever built. Records stream from the reader in
+ * file order and are either folded into bounded aggregation state or
+ * buffered in batches that spill to temporary files:</p>
+ *
+ * <ul>
+ *   <li>{@link #aggregate}: folds, e.g. the min-spread or top-K analyzers
+ *       or {@link de.bcxp.challenge.stats.Statistics}, whose state does not
+ *       grow with the input</li>
+ *   <li>{@link #groupBy}: spills groups beyond the budget to
+ *       hash-partitioned files</li>
+ *   <li>{@link #sort} and {@link #quantiles}: external merge sort with
+ *       sorted runs of budget size</li>
+ * </ul>
+ *
+ * <p>Results equal those of the in-memory analyzers over the same records,
+ * ties included. Spill files go to the temporary directory and are
+ * deleted when the results are closed, or right away if the operation
+ * fails.</p>
+ *
+ * @param <T> the record type
+ */
+public class OutOfCoreExecutor<T> {
+    private final StreamingDataReader<T> reader;
+    private final MemoryBudget budget;
+    private final Path tempDirectory;
+
+    /**
+     * Creates an executor spilling to the system's temporary directory.
+     *
+     * @param reader a streaming reader
+     * @param budget the heap available for buffered records and state
+     */
+    public OutOfCoreExecutor(StreamingDataReader<T> reader, MemoryBudget budget) {
+        this(reader, budget, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Creates an executor.
+     *
+     * @param reader        a streaming reader
+     * @param budget        the heap available for buffered records and state
+     * @param tempDirectory the parent directory of spill files
+     */
+    public OutOfCoreExecutor(StreamingDataReader<T> reader, MemoryBudget budget, Path tempDirectory) {
+        this.reader = reader;
+        this.budget = budget;
+        this.tempDirectory = tempDirectory;
+    }
+
+    public MemoryBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Folds the records of a file while they are read.
+     *
+     * <p>Memory is bounded by the aggregation's state, which should not grow
+     * with the input; aggregations that collect records, such as window
+     * lists, do not belong here.</p>
+     *
+     * @param filePath    the path to the file
+     * @param aggregation the analysis
+     * @param <R>         the result type
+     * @return the result
+     */
+    public <R> R aggregate(String filePath, Aggregation<T, R> aggregation) {
+        return reader.aggregate(filePath, aggregation::newAccumulator);
+    }
+
+    /**
+     * Groups the records of a file, spilling groups beyond the budget.
+     *
+     * @param filePath the path to the file
+     * @param groupBy  the grouping; its memory budget and spill directory
+     *                 are set by the executor
+     * @param <K>      the key type
+     * @return the groups; close it to delete spill files
+     */
+    public <K extends Comparable<K>> GroupByResult<K> groupBy(String filePath, GroupBy.Builder<T, K> groupBy) {
+        return aggregate(filePath, groupBy.memoryBudget(budget.getBytes()).spillDirectory(tempDirectory).build());
+    }
+
+    /**
+     * Sorts the records of a file.
+     *
+     * @param filePath the path to the file
+     * @param codec    writes records to run files
+     * @param order    the sort order; ties keep file order
+     * @return the sorted records; close it to delete run files
+     */
+    public SortedRecords<T> sort(String filePath, RecordCodec<T> codec, Comparator<? super T> order) {
+        ExternalSorter<T> sorter = new ExternalSorter<>(codec, order, budget, tempDirectory);
+        return finish(sorter, () -> reader.readData(filePath, sorter::add));
+    }
+
+    /**
+     * Computes exact quantiles of a value by sorting the values externally.
+     *
+     * <p>The quantile {@code q} is the value of nearest rank
+     * {@code ceil(q · n)}, as the smallest value whose rank reaches
+     * {@code q · n}. Unlike a sketch, the result is exact, at the cost of
+     * sorting all values.</p>
+     *
+     * @param filePath  the path to the file
+     * @param value     extracts the value; {@code NaN} values are ignored
+     * @param quantiles the quantiles between {@code 0} and {@code 1}, in any
+     *                  order
+     * @return the values at the quantiles, in argument order; {@code NaN}
+     *         if the file has no values
+     */
+    public double[] quantiles(String filePath, ToDoubleFunction<? super T> value, double... quantiles) {
+        for (double q : quantiles) {
+            if (!(q >= 0 && q <= 1)) {
+                throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+            }
+        }
+
+        ExternalSorter<Double> sorter = new ExternalSorter<>(RecordCodec.doubles(), Comparator.naturalOrder(),
+                budget, tempDirectory);
+        SortedRecords<Double> values = finish(sorter, () -> reader.readData(filePath, record -> {
+            double v = value.applyAsDouble(record);
+            if (!Double.isNaN(v)) {
+                sorter.add(v);
+            }
+        }));
+
+        double[] result = new double[quantiles.length];
+        try (SortedRecords<Double> sorted = values) {
+            long n = sorted.getCount();
+            long[] ranks = new long[quantiles.length];
+            for (int i = 0; i < quantiles.length; i++) {
+                result[i] = Double.NaN;
+                ranks[i] = Math.max(1, (long) Math.ceil(quantiles[i] * n));
+            }
+            long[] position = {0};
+            sorted.forEach(v -> {
+                position[0]++;
+                for (int i = 0; i < ranks.length; i++) {
+                    if (ranks[i] == position[0]) {
+                        result[i] = v;
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Feeds the sorter and finishes it. If either fails, no result owns the
+     * run files yet, so they are deleted before the failure propagates.
+     */
+    private static <R> SortedRecords<R> finish(ExternalSorter<R> sorter, Runnable input) {
+        try {
+            input.run();
+            return sorter.finish();
+        } catch (Throwable e) {
+            sorter.delete();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package de.bcxp.challenge.outofcore;
+
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes records to and reads them from spill files.
+ *
+ * @param <T> the record type
+ */
+public interface RecordCodec<T> {
+
+    void write(DataOutput out, T record) throws IOException;
+
+    T read(DataInput in) throws IOException;
+
+    /**
+     * Returns the estimated heap size of a record held in a batch,
+     * including the reference to it.
+     *
+     * @return the size in bytes
+     */
+    long heapBytes();
+
+    /**
+     * Codec of weather days.
+     *
+     * @return the codec
+     */
+    static RecordCodec<WeatherDay> weather() {
+        return new RecordCodec<>() {
+            @Override
+            public void write(DataOutput out, WeatherDay day) throws IOException {
+                out.writeInt(day.getDay());
+                out.writeDouble(day.getMaxTemp());
+                out.writeDouble(day.getMinTemp());
+            }
+
+            @Override
+            public WeatherDay read(DataInput in) throws IOException {
+                return new WeatherDay(in.readInt(), in.readDouble(), in.readDouble());
+            }
+
+            @Override
+            public long heapBytes() {
+                // Object header and fields, plus the array slot
+                return 40;
+            }
+        };
+    }
+
+    /**
+     * Codec of countries.
+     *
+     * @return the codec
+     */
+    static RecordCodec<Country> countries() {
+        return new RecordCodec<>() {
+            @Override
+            public void write(DataOutput out, Country country) throws IOException {
+                out.writeUTF(country.getName());
+                out.writeDouble(country.getPopulation());
+                out.writeDouble(country.getArea());
+            }
+
+            @Override
+            public Country read(DataInput in) throws IOException {
+                return new Country(in.readUTF(), in.readDouble(), in.readDouble());
+            }
+
+            @Override
+            public long heapBytes() {
+                // The country and a short name string
+                return 112;
+            }
+        };
+    }
+
+    /**
+     * Codec of boxed doubles, e.g. the values of a column being sorted.
+     *
+     * @return the codec
+     */
+    static RecordCodec<Double> doubles() {
+        return new RecordCodec<>() {
+            @Override
+            public void write(DataOutput out, Double value) throws IOException {
+                out.writeDouble(value);
+            }
+
+            @Override
+            public Double read(DataInput in) throws IOException {
+                return in.readDouble();
+            }
+
+            @Override
+            public long heapBytes() {
+                return 24;
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package de.bcxp.challenge.outofcore;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The output of an {@link ExternalSorter}: the records in sorted order,
+ * either in memory or as run files merged while iterating.
+ *
+ * <p>{@link #forEach} may be called repeatedly; each call merges the runs
+ * again. {@link #close()} deletes the run files.</p>
+ *
+ * @param <T> the record type
+ */
+public final class SortedRecords<T> implements AutoCloseable {
+    private final ExternalSorter<T> sorter;
+    private final long count;
+    private final int runCount;
+    private final int mergePasses;
+    private final List<T> memory;
+    private final List<ExternalSorter.Run> runs;
+
+    SortedRecords(ExternalSorter<T> sorter, long count, int runCount, int mergePasses, List<T> memory,
+                  List<ExternalSorter.Run> runs) {
+        this.sorter = sorter;
+        this.count = count;
+        this.runCount = runCount;
+        this.mergePasses = mergePasses;
+        this.memory = memory;
+        this.runs = runs;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of run files the final merge reads.
+     *
+     * @return the run count; {@code 0} if the records fit into memory
+     */
+    public int getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * Returns the number of intermediate merge passes that were needed
+     * because there were more runs than merge buffers fit into the budget.
+     *
+     * @return the pass count
+     */
+    public int getMergePasses() {
+        return mergePasses;
+    }
+
+    /**
+     * Passes all records to the action in sorted order.
+     *
+     * @param action receives the records
+     */
+    public void forEach(Consumer<? super T> action) {
+        if (runs.isEmpty()) {
+            memory.forEach(action);
+        } else {
+            sorter.merge(runs, action);
+        }
+    }
+
+    /**
+     * Deletes the run files.
+     */
+    @Override
+    public void close() {
+        sorter.delete();
+    }
+}
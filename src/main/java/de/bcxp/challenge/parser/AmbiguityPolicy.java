@@ -0,0 +1,18 @@
+package de.bcxp.challenge.parser;
+
+/**
+ * Decides how a {@link NumberParser} with mixed locale detection treats
+ * values whose separator could be read either way, such as {@code 1.234}
+ * (one thousand two hundred thirty-four, or one point two three four).
+ */
+public enum AmbiguityPolicy {
+
+    /** Reject the value with an {@link AmbiguousNumberException}. */
+    REJECT,
+
+    /** Read the separator as a grouping separator: {@code 1.234 → 1234}. */
+    AS_GROUPING,
+
+    /** Read the separator as a decimal separator: {@code 1.234 → 1.234}. */
+    AS_DECIMAL
+}
@@ -0,0 +1,22 @@
+package de.bcxp.challenge.parser;
+
+/**
+ * Signals that a number could not be parsed unambiguously, e.g.
+ * {@code 1.234} in a column mixing German and English number formats.
+ *
+ * <p>Extends {@link NumberFormatException} so existing malformed-value
+ * handling applies, while callers interested in the distinction can catch
+ * it separately.</p>
+ */
+public class AmbiguousNumberException extends NumberFormatException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new exception with the given message.
+     *
+     * @param message description of the ambiguous value
+     */
+    public AmbiguousNumberException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,380 @@
+package de.bcxp.challenge.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Allocation-free parser for decimal numbers with configurable grouping and
+ * decimal separators.
+ *
+ * <p>A parser instance describes the number format of a column, for example
+ * German ({@code 4.036.355,00}), English ({@code 4,036,355.00}) or plain
+ * ({@code 4036355.00}). The {@link #mixed(AmbiguityPolicy) mixed} profile
+ * detects the format per value: if both separators occur, the last one is
+ * the decimal separator; a separator occurring several times is a grouping
+ * separator and must form groups of three digits; a single separator
+ * followed by exactly three digits (as in {@code 1.234}) is ambiguous and
+ * handled by the configured {@link AmbiguityPolicy}. Fixed profiles accept
+ * grouping separators anywhere in the integer part.</p>
+ *
+ * <p>Values are parsed straight from a {@link CharSequence} or a byte range
+ * into a primitive {@code double}. Plain decimal values with up to 18
+ * digits take an exact fast path; anything else (exponents, overlong
+ * mantissas, malformed input) falls back to {@link Double#parseDouble}
+ * on a normalized string, so accepted values and error behaviour match the
+ * JDK. Surrounding whitespace is ignored like {@link String#trim()}.</p>
+ *
+ * <p>Instances are immutable and thread-safe.</p>
+ */
+public final class NumberParser {
+
+    private static final NumberParser PLAIN = new NumberParser((char) 0, '.', false, AmbiguityPolicy.REJECT);
+    private static final NumberParser GERMAN = new NumberParser('.', ',', false, AmbiguityPolicy.REJECT);
+    private static final NumberParser ENGLISH = new NumberParser(',', '.', false, AmbiguityPolicy.REJECT);
+
+    /** Exactly representable powers of ten, used by the fast path. */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /** Largest mantissa that converts to a double without rounding. */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private static final int MAX_FAST_DIGITS = 18;
+
+    private final char grouping;
+    private final char decimal;
+    private final boolean detect;
+    private final AmbiguityPolicy policy;
+
+    private NumberParser(char grouping, char decimal, boolean detect, AmbiguityPolicy policy) {
+        this.grouping = grouping;
+        this.decimal = decimal;
+        this.detect = detect;
+        this.policy = policy;
+    }
+
+    /**
+     * Plain numbers with {@code '.'} as decimal separator and no grouping,
+     * equivalent to {@link Double#parseDouble(String)} on the trimmed text.
+     *
+     * @return the plain profile
+     */
+    public static NumberParser plain() {
+        return PLAIN;
+    }
+
+    /**
+     * German numbers: {@code '.'} groups, {@code ','} is the decimal separator.
+     *
+     * @return the German profile
+     */
+    public static NumberParser german() {
+        return GERMAN;
+    }
+
+    /**
+     * English numbers: {@code ','} groups, {@code '.'} is the decimal separator.
+     *
+     * @return the English profile
+     */
+    public static NumberParser english() {
+        return ENGLISH;
+    }
+
+    /**
+     * Numbers in either German or English format, detected per value.
+     *
+     * @param policy how to treat values that fit both formats
+     * @return the mixed profile
+     */
+    public static NumberParser mixed(AmbiguityPolicy policy) {
+        return new NumberParser((char) 0, (char) 0, true, policy);
+    }
+
+    /**
+     * Numbers with custom separators.
+     *
+     * @param grouping the grouping separator, or {@code 0} for none
+     * @param decimal  the decimal separator
+     * @return a fixed profile
+     */
+    public static NumberParser of(char grouping, char decimal) {
+        if (grouping == decimal || isDigitOrSign(grouping) || isDigitOrSign(decimal)) {
+            throw new IllegalArgumentException("Invalid separators: '" + grouping + "', '" + decimal + "'");
+        }
+        return new NumberParser(grouping, decimal, false, AmbiguityPolicy.REJECT);
+    }
+
+    /**
+     * Parses the complete text.
+     *
+     * @param text the text to parse
+     * @return the parsed value
+     * @throws NumberFormatException    if the text is not a valid number
+     * @throws AmbiguousNumberException if the value is ambiguous and the
+     *                                  policy is {@link AmbiguityPolicy#REJECT}
+     */
+    public double parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parses the characters in {@code [from, to)}.
+     *
+     * @param text the source text
+     * @param from start index (inclusive)
+     * @param to   end index (exclusive)
+     * @return the parsed value
+     * @throws NumberFormatException if the range is not a valid number
+     */
+    public double parse(CharSequence text, int from, int to) {
+        return parse(Source.CHARS, text, from, to);
+    }
+
+    /**
+     * Parses the bytes in {@code [from, to)} as ASCII text.
+     *
+     * @param buffer the source bytes; position and limit are ignored
+     * @param from   start index (inclusive)
+     * @param to     end index (exclusive)
+     * @return the parsed value
+     * @throws NumberFormatException if the range is not a valid number
+     */
+    public double parse(ByteBuffer buffer, int from, int to) {
+        return parse(Source.BYTES, buffer, from, to);
+    }
+
+    /**
+     * Tells whether the characters in {@code [from, to)} fit both the German
+     * and the English format. Only parsers created via
+     * {@link #mixed(AmbiguityPolicy)} consider values ambiguous.
+     *
+     * @param text the source text
+     * @param from start index (inclusive)
+     * @param to   end index (exclusive)
+     * @return {@code true} if the value is ambiguous
+     */
+    public boolean isAmbiguous(CharSequence text, int from, int to) {
+        return detect && detectDecimal(Source.CHARS, text, from, to) == AMBIGUOUS;
+    }
+
+    /**
+     * Tells whether the bytes in {@code [from, to)} fit both the German and
+     * the English format.
+     *
+     * @param buffer the source bytes
+     * @param from   start index (inclusive)
+     * @param to     end index (exclusive)
+     * @return {@code true} if the value is ambiguous
+     * @see #isAmbiguous(CharSequence, int, int)
+     */
+    public boolean isAmbiguous(ByteBuffer buffer, int from, int to) {
+        return detect && detectDecimal(Source.BYTES, buffer, from, to) == AMBIGUOUS;
+    }
+
+    /** Marker returned by {@link #detectDecimal} for ambiguous values. */
+    private static final int AMBIGUOUS = -1;
+
+    private double parse(Source source, Object data, int from, int to) {
+        int start = from;
+        int end = to;
+        while (start < end && source.at(data, start) <= ' ') start++;
+        while (end > start && source.at(data, end - 1) <= ' ') end--;
+
+        char groupingSeparator = grouping;
+        char decimalSeparator = decimal;
+        if (detect) {
+            int detected = detectDecimal(source, data, start, end);
+            if (detected == AMBIGUOUS) {
+                if (policy == AmbiguityPolicy.REJECT) {
+                    throw new AmbiguousNumberException("Ambiguous number: \"" + source.text(data, start, end) + "\"");
+                }
+                detected = separatorIn(source, data, start, end);
+                detected = policy == AmbiguityPolicy.AS_DECIMAL ? detected : otherSeparator(detected);
+            }
+            decimalSeparator = (char) detected;
+            groupingSeparator = (char) otherSeparator(detected);
+        }
+
+        int i = start;
+        boolean negative = false;
+        if (i < end) {
+            int first = source.at(data, i);
+            if (first == '-' || first == '+') {
+                negative = first == '-';
+                i++;
+            }
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenDecimal = false;
+        // Detected grouping must be well-formed, otherwise "1,2,3" would read as 123
+        int groupDigits = 0;
+        boolean grouped = false;
+
+        for (; i < end; i++) {
+            int c = source.at(data, i);
+            int digit = c - '0';
+            if (digit >= 0 && digit <= 9) {
+                if (++digits > MAX_FAST_DIGITS) {
+                    return parseSlow(source, data, start, end, groupingSeparator, decimalSeparator);
+                }
+                mantissa = mantissa * 10 + digit;
+                if (seenDecimal) fractionDigits++;
+                groupDigits++;
+            } else if (groupingSeparator != 0 && c == groupingSeparator) {
+                // Grouping separators carry no value
+                if (detect && !validGroup(grouped, groupDigits, seenDecimal)) {
+                    throw invalidGrouping(source, data, start, end);
+                }
+                grouped = true;
+                groupDigits = 0;
+            } else if (c == decimalSeparator && !seenDecimal) {
+                if (detect && grouped && groupDigits != 3) {
+                    throw invalidGrouping(source, data, start, end);
+                }
+                seenDecimal = true;
+            } else {
+                return parseSlow(source, data, start, end, groupingSeparator, decimalSeparator);
+            }
+        }
+
+        if (detect && grouped && !seenDecimal && groupDigits != 3) {
+            throw invalidGrouping(source, data, start, end);
+        }
+
+        if (digits == 0 || fractionDigits >= POWERS_OF_TEN.length || mantissa > MAX_EXACT_MANTISSA) {
+            return parseSlow(source, data, start, end, groupingSeparator, decimalSeparator);
+        }
+
+        // Both operands are exact, so the division is correctly rounded
+        double value = fractionDigits == 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Determines the decimal separator of a mixed-format value.
+     *
+     * @return {@code '.'} or {@code ','}, or {@link #AMBIGUOUS}
+     */
+    private static int detectDecimal(Source source, Object data, int start, int end) {
+        int dots = 0;
+        int commas = 0;
+        int lastDot = -1;
+        int lastComma = -1;
+        for (int i = start; i < end; i++) {
+            int c = source.at(data, i);
+            if (c == '.') {
+                dots++;
+                lastDot = i;
+            } else if (c == ',') {
+                commas++;
+                lastComma = i;
+            }
+        }
+
+        if (dots > 0 && commas > 0) {
+            return lastDot > lastComma ? '.' : ',';
+        }
+        if (dots + commas != 1) {
+            // No separator at all, or one kind repeated: that kind groups
+            return dots > 1 ? ',' : '.';
+        }
+
+        int separator = dots == 1 ? lastDot : lastComma;
+        int digitsBefore = 0;
+        for (int i = separator - 1; i >= start && isDigit(source.at(data, i)); i--) {
+            digitsBefore++;
+        }
+        int digitsAfter = 0;
+        for (int i = separator + 1; i < end && isDigit(source.at(data, i)); i++) {
+            digitsAfter++;
+        }
+
+        boolean couldGroup = digitsAfter == 3 && separator + 4 == end
+                && digitsBefore >= 1 && digitsBefore <= 3
+                && source.at(data, separator - digitsBefore) != '0';
+        return couldGroup ? AMBIGUOUS : source.at(data, separator);
+    }
+
+    private static boolean validGroup(boolean grouped, int groupDigits, boolean seenDecimal) {
+        if (seenDecimal) return false;
+        return grouped ? groupDigits == 3 : groupDigits >= 1 && groupDigits <= 3;
+    }
+
+    private static NumberFormatException invalidGrouping(Source source, Object data, int start, int end) {
+        return new NumberFormatException("Invalid digit grouping: \"" + source.text(data, start, end) + "\"");
+    }
+
+    private static int separatorIn(Source source, Object data, int start, int end) {
+        for (int i = start; i < end; i++) {
+            int c = source.at(data, i);
+            if (c == '.' || c == ',') return c;
+        }
+        return '.';
+    }
+
+    private static int otherSeparator(int separator) {
+        return separator == '.' ? ',' : '.';
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isDigitOrSign(char c) {
+        return isDigit(c) || c == '-' || c == '+';
+    }
+
+    private static double parseSlow(Source source, Object data, int start, int end, char grouping, char decimal) {
+        String text = source.text(data, start, end);
+        if (grouping != 0) {
+            text = text.replace(String.valueOf(grouping), "");
+        }
+        if (decimal != '.') {
+            text = text.replace(decimal, '.');
+        }
+        return Double.parseDouble(text);
+    }
+
+    /**
+     * Stateless accessor that lets a single parse loop read from both
+     * character sequences and byte buffers without wrapper objects.
+     */
+    private enum Source {
+        CHARS {
+            @Override
+            int at(Object data, int index) {
+                return ((CharSequence) data).charAt(index);
+            }
+
+            @Override
+            String text(Object data, int from, int to) {
+                return ((CharSequence) data).subSequence(from, to).toString();
+            }
+        },
+        BYTES {
+            @Override
+            int at(Object data, int index) {
+                return ((ByteBuffer) data).get(index) & 0xFF;
+            }
+
+            @Override
+            String text(Object data, int from, int to) {
+                byte[] bytes = new byte[to - from];
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = ((ByteBuffer) data).get(from + i);
+                }
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+
+        abstract int at(Object data, int index);
+
+        abstract String text(Object data, int from, int to);
+    }
+}
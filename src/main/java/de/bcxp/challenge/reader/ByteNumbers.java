@@ -0,0 +1,94 @@
+package de.bcxp.challenge.reader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Allocation-free integer parsing, trimming and decoding directly on bytes.
+ *
+ * <p>The integer fast path covers plain ASCII digits. Anything unusual
+ * (non-ASCII digits, overlong values, malformed input) falls back to
+ * {@link Integer#parseInt(String)} on the decoded, trimmed field, so results
+ * and error behaviour are identical. Decimal numbers are handled by
+ * {@link de.bcxp.challenge.parser.NumberParser}.</p>
+ */
+final class ByteNumbers {
+
+    private ByteNumbers() {
+    }
+
+    /**
+     * Parses an {@code int} from the given byte range, ignoring surrounding
+     * whitespace.
+     *
+     * @param buffer the source bytes
+     * @param from   start index (inclusive)
+     * @param to     end index (exclusive)
+     * @return the parsed value
+     * @throws NumberFormatException if the range does not hold a valid int
+     */
+    static int parseInt(ByteBuffer buffer, int from, int to) {
+        int start = trimStart(buffer, from, to);
+        int end = trimEnd(buffer, start, to);
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+
+        // Up to nine digits can never overflow an int
+        int digits = end - i;
+        if (digits <= 0 || digits > 9) {
+            return Integer.parseInt(decode(buffer, start, end));
+        }
+
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.parseInt(decode(buffer, start, end));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Decodes the given range as UTF-8.
+     *
+     * @param buffer the source bytes
+     * @param from   start index (inclusive)
+     * @param to     end index (exclusive)
+     * @return the decoded string
+     */
+    static String decode(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(from + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the first index in the range that is not whitespace, using the
+     * same definition as {@link String#trim()}.
+     */
+    static int trimStart(ByteBuffer buffer, int from, int to) {
+        while (from < to && (buffer.get(from) & 0xFF) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Returns the index after the last non-whitespace byte in the range.
+     */
+    static int trimEnd(ByteBuffer buffer, int from, int to) {
+        while (to > from && (buffer.get(to - 1) & 0xFF) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+}
@@ -0,0 +1,97 @@
+package de.bcxp.challenge.reader;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compression formats recognized by their magic bytes.
+ *
+ * <p>Detection looks at the content, not the file name, so compressed
+ * extracts are read correctly whatever their extension.</p>
+ */
+public enum Compression {
+
+    /** Plain, uncompressed text. */
+    NONE {
+        @Override
+        public InputStream decompress(InputStream in) {
+            return in;
+        }
+    },
+
+    /** gzip (RFC 1952), magic {@code 1f 8b}. */
+    GZIP {
+        @Override
+        public InputStream decompress(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+    },
+
+    /** Zstandard frame, magic {@code 28 b5 2f fd}. */
+    ZSTD {
+        @Override
+        public InputStream decompress(InputStream in) {
+            return new ZstdInputStream(in);
+        }
+    };
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Wraps a stream of compressed data in a decompressing stream.
+     *
+     * @param in the compressed data
+     * @return a stream of the decompressed data
+     * @throws IOException if the compressed header is invalid
+     */
+    public abstract InputStream decompress(InputStream in) throws IOException;
+
+    /**
+     * Detects the compression of the given file.
+     *
+     * @param path the file
+     * @return the detected compression, {@link #NONE} if no magic matches
+     * @throws IOException if the file cannot be read
+     */
+    public static Compression detect(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return detect(channel);
+        }
+    }
+
+    /**
+     * Detects the compression from the first bytes of the channel.
+     */
+    static Compression detect(FileChannel channel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(4);
+        while (magic.hasRemaining() && channel.read(magic, magic.position()) > 0) {
+            // Read up to four bytes
+        }
+        return detect(magic.array(), magic.position());
+    }
+
+    /**
+     * Detects the compression from a file's leading bytes.
+     *
+     * @param header the first bytes of the file
+     * @param length the number of valid bytes in {@code header}
+     * @return the detected compression, {@link #NONE} if no magic matches
+     */
+    static Compression detect(byte[] header, int length) {
+        if (length >= 2 && (header[0] & 0xff) == 0x1f && (header[1] & 0xff) == 0x8b) {
+            return GZIP;
+        }
+        if (length >= 4 && (header[0] & 0xff) == 0x28 && (header[1] & 0xff) == 0xb5
+                && (header[2] & 0xff) == 0x2f && (header[3] & 0xff) == 0xfd) {
+            return ZSTD;
+        }
+        return NONE;
+    }
+}
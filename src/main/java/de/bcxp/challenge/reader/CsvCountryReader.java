@@ -1,39 +1,77 @@
 package de.bcxp.challenge.reader;
 
-import de.bcxp.challenge.api.DataReader;
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.error.RejectReason;
 import de.bcxp.challenge.exception.DataReadException;
 import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.parser.NumberParser;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Path;
+import java.util.function.Consumer;
 
 /**
  * CSV reader for loading country data from the provided dataset.
  *
  * <p>This implementation focuses on the fields required for the population
  * density analysis (name, population, area). It is resilient against malformed
- * lines and performs locale adjustments on numeric values.</p>
+ * lines and parses numeric values according to a per-column
+ * {@link NumberParser} profile.</p>
+ *
+ * <p>Lines are split at every delimiter; quoted fields are not
+ * recognized. For quoted input, use a {@link MappedCsvReader} with
+ * {@link CsvFormat#countries()}, which follows RFC 4180 quoting.</p>
+ *
+ * <p>Files are decoded as UTF-8, like in all other readers, whatever the
+ * platform's default charset. gzip and Zstandard compressed files are
+ * decompressed transparently via {@link InputFiles}.</p>
  */
-public class CsvCountryReader implements DataReader<Country> {
+public class CsvCountryReader implements StreamingDataReader<Country> {
+    private final NumberParser populationFormat;
+    private final NumberParser areaFormat;
+
+    /**
+     * Creates a reader for German formatted numbers such as
+     * {@code 4.036.355,00}, the format of the shipped dataset.
+     */
+    public CsvCountryReader() {
+        this(NumberParser.german(), NumberParser.german());
+    }
+
+    /**
+     * Creates a reader with explicit number formats for the numeric columns,
+     * e.g. {@link NumberParser#mixed} to also accept English formatted
+     * numbers.
+     *
+     * @param populationFormat number format of the population column
+     * @param areaFormat       number format of the area column
+     */
+    public CsvCountryReader(NumberParser populationFormat, NumberParser areaFormat) {
+        this.populationFormat = populationFormat;
+        this.areaFormat = areaFormat;
+    }
 
     /**
      * Reads country data from a semicolon-separated CSV file.
      *
-     * <p>Invalid or non-numeric lines are skipped, while I/O failures are
-     * wrapped in a {@link DataReadException} to provide a unified error
-     * handling strategy.</p>
+     * <p>Invalid or non-numeric lines, and lines with negative values, are
+     * skipped and reported, while I/O failures are wrapped in a
+     * {@link DataReadException} to provide a unified error handling
+     * strategy.</p>
      *
      * @param filePath the path to the CSV file
-     * @return a list of parsed {@link Country} objects
+     * @param sink     receives each parsed {@link Country} in file order
+     * @param errors   receives each skipped row
+     * @return the number of records passed to the sink
      */
     @Override
-    public List<Country> readData(String filePath) {
-        List<Country> countries = new ArrayList<>();
+    public long readData(String filePath, Consumer<? super Country> sink, ErrorSink errors) {
+        long count = 0;
+        long lineNumber = 1;
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+        try (BufferedReader reader = InputFiles.newReader(Path.of(filePath))) {
 
             // Skip header line and validate non-empty file
             String line = reader.readLine();
@@ -43,33 +81,41 @@ public class CsvCountryReader implements DataReader<Country> {
 
             // Process each data row
             while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) continue;
+
                 String[] parts = line.split(";");
-                if (parts.length < 5) continue;
+                if (parts.length < 5) {
+                    String rejected = line;
+                    errors.reject(RejectReason.TOO_FEW_COLUMNS, lineNumber, () -> rejected);
+                    continue;
+                }
 
+                Country country;
                 try {
                     String name = parts[0].trim();
-                    String populationStr = parts[3].trim();
-                    String areaStr = parts[4].trim();
-
-                    // Normalize locale-specific numbers ("4.036.355,00" → "4036355.00")
-                    populationStr = populationStr.replace(".", "").replace(",", ".");
-                    areaStr = areaStr.replace(".", "").replace(",", ".");
 
-                    double population = Double.parseDouble(populationStr);
-                    double area = Double.parseDouble(areaStr);
+                    // Locale-specific numbers ("4.036.355,00") are parsed without normalizing copies
+                    double population = populationFormat.parse(parts[3]);
+                    double area = areaFormat.parse(parts[4]);
+                    country = new Country(name, population, area);
 
-                    countries.add(new Country(name, population, area));
-
-                } catch (NumberFormatException e) {
-                    // Skip malformed numerical entries
-                    System.err.println("Skipping invalid line: " + line);
+                } catch (IllegalArgumentException e) {
+                    // Skip malformed numbers and negative values refused by Country
+                    String rejected = line;
+                    errors.reject(RejectReason.of(e), lineNumber, () -> rejected);
+                    continue;
                 }
+
+                // Outside the try, so failures of the consumer are not taken for malformed rows
+                sink.accept(country);
+                count++;
             }
 
         } catch (IOException e) {
             throw new DataReadException("Error reading file: " + filePath, e);
         }
 
-        return countries;
+        return count;
     }
 }
\ No newline at end of file
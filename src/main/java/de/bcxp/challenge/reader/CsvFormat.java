@@ -0,0 +1,94 @@
+package de.bcxp.challenge.reader;
+
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.parser.NumberParser;
+
+/**
+ * Describes the layout of a delimited file: the field delimiter and how a
+ * row maps to a domain object.
+ *
+ * <p>Formats are immutable and can be shared between readers and threads.
+ * The factory methods describe the two datasets shipped with the
+ * application.</p>
+ *
+ * @param <T> the type of objects produced from the file
+ */
+public final class CsvFormat<T> {
+    private final byte delimiter;
+    private final RowMapper<T> mapper;
+
+    /**
+     * Creates a new format.
+     *
+     * @param delimiter the ASCII field delimiter
+     * @param mapper    converts rows into domain objects
+     */
+    public CsvFormat(char delimiter, RowMapper<T> mapper) {
+        if (delimiter > 0x7F) {
+            throw new IllegalArgumentException("Delimiter must be an ASCII character: " + delimiter);
+        }
+        this.delimiter = (byte) delimiter;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Format of {@code weather.csv}: comma-separated, with day, maximum and
+     * minimum temperature in the first three columns.
+     *
+     * @return the weather format
+     */
+    public static CsvFormat<WeatherDay> weather() {
+        return new CsvFormat<>(',', row -> {
+            if (row.fieldCount() < 3) return null;
+            return new WeatherDay(row.getInt(0), row.getDouble(1), row.getDouble(2));
+        });
+    }
+
+    /**
+     * Format of {@code countries.csv}: semicolon-separated, with name,
+     * population and area in columns 0, 3 and 4, and German formatted
+     * numbers such as {@code 4.036.355,00}.
+     *
+     * @return the country format
+     */
+    public static CsvFormat<Country> countries() {
+        return countries(NumberParser.german(), NumberParser.german());
+    }
+
+    /**
+     * Format of {@code countries.csv} with explicit number formats for the
+     * population and area columns, e.g. {@link NumberParser#mixed} to also
+     * accept English formatted numbers.
+     *
+     * @param populationFormat number format of the population column
+     * @param areaFormat       number format of the area column
+     * @return the country format
+     */
+    public static CsvFormat<Country> countries(NumberParser populationFormat, NumberParser areaFormat) {
+        return new CsvFormat<>(';', row -> {
+            if (row.fieldCount() < 5) return null;
+            // Parse numbers first so malformed rows don't decode the name
+            double population = row.getDouble(3, populationFormat);
+            double area = row.getDouble(4, areaFormat);
+            return new Country(row.getString(0), population, area);
+        });
+    }
+
+    public byte getDelimiter() {
+        return delimiter;
+    }
+
+    public RowMapper<T> getMapper() {
+        return mapper;
+    }
+
+    /**
+     * Creates a new row view for this format's delimiter.
+     *
+     * @return a fresh, reusable row
+     */
+    public CsvRow newRow() {
+        return new CsvRow(delimiter);
+    }
+}
@@ -0,0 +1,316 @@
+package de.bcxp.challenge.reader;
+
+import de.bcxp.challenge.parser.NumberParser;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A reusable view of a single delimited line inside a byte buffer.
+ *
+ * <p>The row only records where each field starts and ends; field values
+ * are parsed on demand straight from the underlying bytes, so tokenizing a
+ * line allocates nothing. A single instance is reset for every line and
+ * must therefore not be retained or shared between threads.</p>
+ *
+ * <p>Delimiters and quotes are located eight bytes at a time, see
+ * {@link Swar}. Quoting follows RFC 4180: a double quote opens a quoted
+ * field only as the first non-blank byte of the field, and elsewhere is
+ * ordinary content. Delimiters inside a quoted field do not split it,
+ * {@code ""} stands for a single quote, and the enclosing quotes are not
+ * part of the content, which is returned untrimmed. Blanks around the
+ * quotes are ignored. Quoted fields cannot span lines, as lines are split
+ * before they are tokenized.</p>
+ */
+public final class CsvRow {
+    private final long delimiters;
+    private final int maxFields;
+
+    private ByteBuffer buffer;
+    private int lineStart;
+    private int lineEnd;
+    private int fieldCount;
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private boolean[] fieldQuoted = new boolean[16];
+    private int quotedFields;
+
+    /**
+     * Creates a row view for the given field delimiter.
+     *
+     * @param delimiter the byte separating fields, e.g. {@code ','}
+     */
+    public CsvRow(byte delimiter) {
+        this(delimiter, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a row view that locates at most {@code maxFields} fields.
+     *
+     * <p>Tokenizing stops after the last field of interest, so the rest of
+     * a wide line is never scanned. Trailing empty fields are then only
+     * ignored if the line ends before the limit.</p>
+     *
+     * @param delimiter the byte separating fields, e.g. {@code ','}
+     * @param maxFields the number of leading fields to locate
+     */
+    public CsvRow(byte delimiter, int maxFields) {
+        if (maxFields <= 0) {
+            throw new IllegalArgumentException("Field limit must be positive: " + maxFields);
+        }
+        this.delimiters = Swar.broadcast(delimiter);
+        this.maxFields = maxFields;
+    }
+
+    /**
+     * Points this row at a new line and locates its fields.
+     *
+     * @param buffer the buffer holding the line
+     * @param start  index of the first byte of the line
+     * @param end    index after the last byte, excluding the line terminator
+     * @return this row
+     */
+    public CsvRow reset(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.lineStart = start;
+        this.lineEnd = end;
+        if (quotedFields > 0) {
+            Arrays.fill(fieldQuoted, false);
+            quotedFields = 0;
+        }
+
+        int count = 0;
+        int fieldStart = start;
+        boolean quoted = false;
+        boolean inQuotes = false;
+        int closedAt = start - 2;
+        // The last word may extend past the line into the terminator or the next line
+        int lastFullWord = buffer.limit() - Long.BYTES;
+        for (int word = start; word < end; word += Long.BYTES) {
+            long bytes = word <= lastFullWord ? Swar.word(buffer, word) : tail(buffer, word, end);
+            long quotes = Swar.matches(bytes, Swar.QUOTES);
+            long found = Swar.matches(bytes, delimiters) | quotes;
+            if (word > end - Long.BYTES) {
+                // Lanes past the end of the line must not match
+                long inLine = (1L << ((end - word) << 3)) - 1;
+                found &= inLine;
+                quotes &= inLine;
+            }
+
+            // Every match of the word is visited once, lowest lane first
+            for (; found != 0; found &= found - 1) {
+                long lane = found & -found;
+                if ((quotes & lane) != 0) {
+                    int i = word + Swar.firstLane(lane);
+                    if (inQuotes) {
+                        inQuotes = false;
+                        closedAt = i;
+                    } else if (i == closedAt + 1 || (!quoted && ByteNumbers.trimStart(buffer, fieldStart, i) == i)) {
+                        // Opens the field, or reenters it after the first quote of an escaped ""
+                        inQuotes = true;
+                        quoted = true;
+                    }
+                } else if (!inQuotes) {
+                    int i = word + Swar.firstLane(lane);
+                    count = addField(count, fieldStart, i, quoted && isEnclosed(fieldStart, i, closedAt));
+                    fieldStart = i + 1;
+                    quoted = false;
+                    if (count == maxFields) {
+                        // Fields of no interest follow; leave them untouched
+                        this.fieldCount = count;
+                        return this;
+                    }
+                }
+            }
+        }
+        count = addField(count, fieldStart, end, quoted && isEnclosed(fieldStart, end, closedAt));
+
+        // Like String.split, trailing empty fields do not count
+        while (count > 0 && fieldStarts[count - 1] == fieldEnds[count - 1] && !quoted(count - 1)) {
+            count--;
+        }
+        this.fieldCount = count;
+        return this;
+    }
+
+    /**
+     * Returns the number of fields, ignoring trailing empty fields in the
+     * same way as {@link String#split(String)}.
+     *
+     * @return the field count
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Returns the buffer holding the current line.
+     *
+     * @return the underlying buffer; only valid until the next reset
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns whether the given field is enclosed in quotes. Its raw range
+     * then still holds escaped quotes as {@code ""}; {@link #getString}
+     * unescapes them.
+     *
+     * @param index zero-based field index
+     * @return {@code true} if the field is quoted
+     */
+    public boolean isQuoted(int index) {
+        checkIndex(index);
+        return quoted(index);
+    }
+
+    /**
+     * Returns the index of the first byte of the given field's content,
+     * ignoring leading whitespace outside quotes. The content of a
+     * {@linkplain #isQuoted quoted} field is still escaped.
+     *
+     * @param index zero-based field index
+     * @return the start index in {@link #buffer()}
+     */
+    public int fieldStart(int index) {
+        checkIndex(index);
+        if (quoted(index)) {
+            return fieldStarts[index];
+        }
+        return ByteNumbers.trimStart(buffer, fieldStarts[index], fieldEnds[index]);
+    }
+
+    /**
+     * Returns the index after the last byte of the given field's content,
+     * ignoring trailing whitespace outside quotes.
+     *
+     * @param index zero-based field index
+     * @return the end index in {@link #buffer()}
+     */
+    public int fieldEnd(int index) {
+        checkIndex(index);
+        if (quoted(index)) {
+            return fieldEnds[index];
+        }
+        return ByteNumbers.trimEnd(buffer, fieldStart(index), fieldEnds[index]);
+    }
+
+    /**
+     * Parses the given field as an {@code int}, ignoring surrounding whitespace.
+     *
+     * @param index zero-based field index
+     * @return the parsed value
+     * @throws NumberFormatException if the field is not a valid int
+     */
+    public int getInt(int index) {
+        checkIndex(index);
+        return ByteNumbers.parseInt(buffer, fieldStarts[index], fieldEnds[index]);
+    }
+
+    /**
+     * Parses the given field as a plain {@code double} with {@code '.'} as
+     * decimal separator, ignoring surrounding whitespace.
+     *
+     * @param index zero-based field index
+     * @return the parsed value
+     * @throws NumberFormatException if the field is not a valid number
+     */
+    public double getDouble(int index) {
+        return getDouble(index, NumberParser.plain());
+    }
+
+    /**
+     * Parses the given field as a {@code double} in the given number format,
+     * e.g. {@link NumberParser#german()} for {@code 4.036.355,00}.
+     *
+     * @param index  zero-based field index
+     * @param parser the number format of the column
+     * @return the parsed value
+     * @throws NumberFormatException if the field is not a valid number
+     */
+    public double getDouble(int index, NumberParser parser) {
+        checkIndex(index);
+        return parser.parse(buffer, fieldStarts[index], fieldEnds[index]);
+    }
+
+    /**
+     * Decodes the given field as a UTF-8 string, trimmed unless it is
+     * quoted.
+     *
+     * @param index zero-based field index
+     * @return the field text
+     */
+    public String getString(int index) {
+        String text = ByteNumbers.decode(buffer, fieldStart(index), fieldEnd(index));
+        return quoted(index) ? text.replace("\"\"", "\"") : text;
+    }
+
+    /**
+     * Decodes the complete line. Intended for error reporting only.
+     *
+     * @return the raw line text
+     */
+    @Override
+    public String toString() {
+        return ByteNumbers.decode(buffer, lineStart, lineEnd);
+    }
+
+    /**
+     * Reads the last, partial word of a buffer; missing lanes are zero.
+     */
+    private static long tail(ByteBuffer buffer, int from, int to) {
+        long word = 0;
+        for (int i = from; i < to; i++) {
+            word |= (buffer.get(i) & 0xFFL) << ((i - from) << 3);
+        }
+        return word;
+    }
+
+    private int addField(int count, int start, int end, boolean quoted) {
+        if (quoted || count == fieldStarts.length) {
+            return addFieldSlow(count, start, end, quoted);
+        }
+        // Kept small so that it is inlined into the tokenizing loop
+        fieldStarts[count] = start;
+        fieldEnds[count] = end;
+        return count + 1;
+    }
+
+    private int addFieldSlow(int count, int start, int end, boolean quoted) {
+        if (count == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, count * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, count * 2);
+            fieldQuoted = Arrays.copyOf(fieldQuoted, count * 2);
+        }
+        if (quoted) {
+            // Drop the blanks around the quotes and the quotes themselves
+            start = ByteNumbers.trimStart(buffer, start, end) + 1;
+            end = ByteNumbers.trimEnd(buffer, start, end) - 1;
+            fieldQuoted[count] = true;
+            quotedFields++;
+        }
+        fieldStarts[count] = start;
+        fieldEnds[count] = end;
+        return count + 1;
+    }
+
+    /**
+     * Returns whether a field that opened a quote ends with its closing
+     * quote, apart from blanks. Otherwise the quote is unterminated or
+     * followed by content, and the field is kept as it is.
+     */
+    private boolean isEnclosed(int start, int end, int closedAt) {
+        return ByteNumbers.trimEnd(buffer, start, end) == closedAt + 1;
+    }
+
+    private boolean quoted(int index) {
+        return quotedFields > 0 && fieldQuoted[index];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " of " + fieldCount);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package de.bcxp.challenge.reader;
+
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.parser.NumberParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Describes a delimited file by the header names of the columns a dataset
+ * needs, instead of by fixed positions.
+ *
+ * <p>A schema lists the required columns in the order the mapping function
+ * accesses them and, for numeric columns, their number format. Column
+ * positions are resolved from each file's header, so files with reordered
+ * or additional columns are read without changes. Only the requested
+ * columns are tokenized and parsed; see {@link SchemaCsvReader}.</p>
+ *
+ * <p>Schemas are immutable and can be shared between readers and
+ * threads.</p>
+ *
+ * @param <T> the type of objects produced from the file
+ */
+public final class CsvSchema<T> {
+    private final byte delimiter;
+    private final List<String> names;
+    private final List<NumberParser> formats;
+    private final Function<ProjectedRow, T> mapping;
+
+    private CsvSchema(byte delimiter, List<String> names, List<NumberParser> formats, Function<ProjectedRow, T> mapping) {
+        this.delimiter = delimiter;
+        this.names = List.copyOf(names);
+        this.formats = List.copyOf(formats);
+        this.mapping = mapping;
+    }
+
+    /**
+     * Starts a schema for files with the given field delimiter.
+     *
+     * @param delimiter the ASCII field delimiter
+     * @return a new builder
+     */
+    public static Builder builder(char delimiter) {
+        return new Builder(delimiter);
+    }
+
+    /**
+     * Schema of {@code weather.csv}: columns {@code Day}, {@code MxT} and
+     * {@code MnT}.
+     *
+     * @return the weather schema
+     */
+    public static CsvSchema<WeatherDay> weather() {
+        return builder(',')
+                .column("Day")
+                .column("MxT")
+                .column("MnT")
+                .mapping(row -> new WeatherDay(row.getInt(0), row.getDouble(1), row.getDouble(2)));
+    }
+
+    /**
+     * Schema of {@code countries.csv}: columns {@code Name},
+     * {@code Population} and {@code Area (km²)}, with German formatted
+     * numbers.
+     *
+     * @return the country schema
+     */
+    public static CsvSchema<Country> countries() {
+        return countries(NumberParser.german(), NumberParser.german());
+    }
+
+    /**
+     * Schema of {@code countries.csv} with explicit number formats for the
+     * population and area columns, e.g. {@link NumberParser#mixed} to also
+     * accept English formatted numbers.
+     *
+     * @param populationFormat number format of the population column
+     * @param areaFormat       number format of the area column
+     * @return the country schema
+     */
+    public static CsvSchema<Country> countries(NumberParser populationFormat, NumberParser areaFormat) {
+        return builder(';')
+                .column("Name")
+                .column("Population", populationFormat)
+                .column("Area (km²)", areaFormat)
+                // Parse numbers first so malformed rows don't decode the name
+                .mapping(row -> {
+                    double population = row.getDouble(1);
+                    double area = row.getDouble(2);
+                    return new Country(row.getString(0), population, area);
+                });
+    }
+
+    public byte getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * Returns the header names of the requested columns.
+     *
+     * @return the column names, in schema order
+     */
+    public List<String> getColumnNames() {
+        return names;
+    }
+
+    List<NumberParser> getFormats() {
+        return formats;
+    }
+
+    Function<ProjectedRow, T> getMapping() {
+        return mapping;
+    }
+
+    /**
+     * Collects the columns of a {@link CsvSchema}.
+     */
+    public static final class Builder {
+        private final byte delimiter;
+        private final List<String> names = new ArrayList<>();
+        private final List<NumberParser> formats = new ArrayList<>();
+
+        private Builder(char delimiter) {
+            if (delimiter > 0x7F) {
+                throw new IllegalArgumentException("Delimiter must be an ASCII character: " + delimiter);
+            }
+            this.delimiter = (byte) delimiter;
+        }
+
+        /**
+         * Adds a column whose numbers, if any, use {@code '.'} as decimal
+         * separator.
+         *
+         * @param headerName the column's name in the header line
+         * @return this builder
+         */
+        public Builder column(String headerName) {
+            return column(headerName, NumberParser.plain());
+        }
+
+        /**
+         * Adds a column with the given number format.
+         *
+         * @param headerName the column's name in the header line
+         * @param format     the number format used by {@link ProjectedRow#getDouble(int)}
+         * @return this builder
+         */
+        public Builder column(String headerName, NumberParser format) {
+            if (names.contains(headerName)) {
+                throw new IllegalArgumentException("Duplicate column: " + headerName);
+            }
+            names.add(headerName);
+            formats.add(format);
+            return this;
+        }
+
+        /**
+         * Completes the schema.
+         *
+         * @param mapping converts a projected row into a domain object;
+         *                columns are addressed by their position in this
+         *                schema. May throw {@link NumberFormatException} for
+         *                malformed values.
+         * @param <T>     the type of objects produced
+         * @return the schema
+         */
+        public <T> CsvSchema<T> mapping(Function<ProjectedRow, T> mapping) {
+            if (names.isEmpty()) {
+                throw new IllegalStateException("A schema needs at least one column.");
+            }
+            return new CsvSchema<>(delimiter, names, formats, mapping);
+        }
+    }
+}
@@ -1,14 +1,16 @@
 package de.bcxp.challenge.reader;
 
-import de.bcxp.challenge.api.DataReader;
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.error.RejectReason;
 import de.bcxp.challenge.exception.DataReadException;
 import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.parser.NumberParser;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Path;
+import java.util.function.Consumer;
 
 /**
  * CSV reader for loading daily weather records used in the
@@ -16,9 +18,18 @@ import java.util.List;
  *
  * <p>This implementation reads comma-separated values containing
  * the day number, maximum temperature, and minimum temperature.
- * Malformed rows are skipped, ensuring robust data loading.</p>
+ * Malformed rows are skipped and reported to an {@link ErrorSink},
+ * ensuring robust data loading.</p>
+ *
+ * <p>Lines are split at every delimiter; quoted fields are not
+ * recognized. For quoted input, use a {@link MappedCsvReader} with
+ * {@link CsvFormat#weather()}, which follows RFC 4180 quoting.</p>
+ *
+ * <p>Files are decoded as UTF-8, like in all other readers, whatever the
+ * platform's default charset. gzip and Zstandard compressed files are
+ * decompressed transparently via {@link InputFiles}.</p>
  */
-public class CsvWeatherReader implements DataReader<WeatherDay> {
+public class CsvWeatherReader implements StreamingDataReader<WeatherDay> {
 
     /**
      * Reads weather data from a CSV file.
@@ -28,13 +39,16 @@ public class CsvWeatherReader implements DataReader<WeatherDay> {
      * consistent error handling across the application.</p>
      *
      * @param filePath the path to the CSV file
-     * @return a list of parsed {@link WeatherDay} objects
+     * @param sink     receives each parsed {@link WeatherDay} in file order
+     * @param errors   receives each skipped row
+     * @return the number of records passed to the sink
      */
     @Override
-    public List<WeatherDay> readData(String filePath) {
-        List<WeatherDay> days = new ArrayList<>();
+    public long readData(String filePath, Consumer<? super WeatherDay> sink, ErrorSink errors) {
+        long count = 0;
+        long lineNumber = 1;
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+        try (BufferedReader reader = InputFiles.newReader(Path.of(filePath))) {
 
             // Read and validate header
             String line = reader.readLine();
@@ -44,26 +58,39 @@ public class CsvWeatherReader implements DataReader<WeatherDay> {
 
             // Read each subsequent data row
             while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) continue;
+
                 String[] parts = line.split(",");
-                if (parts.length < 3) continue;
+                if (parts.length < 3) {
+                    String rejected = line;
+                    errors.reject(RejectReason.TOO_FEW_COLUMNS, lineNumber, () -> rejected);
+                    continue;
+                }
 
+                WeatherDay day;
                 try {
-                    int day = Integer.parseInt(parts[0].trim());
-                    double max = Double.parseDouble(parts[1].trim());
-                    double min = Double.parseDouble(parts[2].trim());
-
-                    days.add(new WeatherDay(day, max, min));
+                    int number = Integer.parseInt(parts[0].trim());
+                    double max = NumberParser.plain().parse(parts[1]);
+                    double min = NumberParser.plain().parse(parts[2]);
+                    day = new WeatherDay(number, max, min);
 
                 } catch (NumberFormatException e) {
                     // Skip invalid temperature or day values
-                    System.err.println("Skipping invalid line: " + line);
+                    String rejected = line;
+                    errors.reject(RejectReason.of(e), lineNumber, () -> rejected);
+                    continue;
                 }
+
+                // Outside the try, so failures of the consumer are not taken for malformed rows
+                sink.accept(day);
+                count++;
             }
 
         } catch (IOException e) {
             throw new DataReadException("Error reading file: " + filePath, e);
         }
 
-        return days;
+        return count;
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package de.bcxp.challenge.reader;
+
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.error.RejectReason;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Collects the rejects of one chunk with chunk-relative line numbers, to be
+ * reported once the lines of all preceding chunks are counted.
+ *
+ * <p>Every reject costs one byte and one {@code long}; the text is
+ * retained for the first {@link ErrorSink#RETAINED_LINES} only.</p>
+ */
+final class DeferredErrors implements ErrorSink {
+    private static final RejectReason[] REASONS = RejectReason.values();
+
+    private byte[] reasons = new byte[16];
+    private long[] lineNumbers = new long[16];
+    private final String[] lines = new String[RETAINED_LINES];
+    private int size;
+
+    @Override
+    public void reject(RejectReason reason, long lineNumber, Supplier<String> line) {
+        if (size == reasons.length) {
+            reasons = Arrays.copyOf(reasons, size * 2);
+            lineNumbers = Arrays.copyOf(lineNumbers, size * 2);
+        }
+        if (size < lines.length) {
+            lines[size] = line.get();
+        }
+        reasons[size] = (byte) reason.ordinal();
+        lineNumbers[size] = lineNumber;
+        size++;
+    }
+
+    /**
+     * Reports the collected rejects to the target, in the order they were
+     * collected.
+     *
+     * @param target     the sink to report to
+     * @param lineOffset the number of lines before the chunk
+     */
+    void replay(ErrorSink target, long lineOffset) {
+        for (int i = 0; i < size; i++) {
+            String line = i < lines.length ? lines[i] : null;
+            target.reject(REASONS[reasons[i]], lineOffset + lineNumbers[i], () -> line);
+        }
+    }
+}
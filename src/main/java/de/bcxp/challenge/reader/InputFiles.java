@@ -0,0 +1,76 @@
+package de.bcxp.challenge.reader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Opens input files, transparently decompressing gzip and Zstandard
+ * content.
+ *
+ * <p>Compressed data is decompressed as a stream, without temporary files.
+ * By default, decompression runs on a separate thread and is pipelined with
+ * the caller's parsing through a small bounded buffer, so both proceed in
+ * parallel on multi-core machines.</p>
+ */
+public final class InputFiles {
+    private static final int PIPELINE_DEPTH = 4;
+
+    private InputFiles() {
+    }
+
+    /**
+     * Opens the file with pipelined decompression.
+     *
+     * @param path the file to open
+     * @return a stream of the (decompressed) content
+     * @throws IOException if the file cannot be opened
+     */
+    public static InputStream open(Path path) throws IOException {
+        return open(path, true);
+    }
+
+    /**
+     * Opens the file as UTF-8 text with pipelined decompression.
+     *
+     * @param path the file to open
+     * @return a buffered reader of the (decompressed) content
+     * @throws IOException if the file cannot be opened
+     */
+    public static BufferedReader newReader(Path path) throws IOException {
+        return new BufferedReader(new InputStreamReader(open(path), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Opens the file.
+     *
+     * @param path      the file to open
+     * @param pipelined whether compressed content is decompressed on a
+     *                  separate thread; plain files are always read directly
+     * @return a stream of the (decompressed) content
+     * @throws IOException if the file cannot be opened
+     */
+    public static InputStream open(Path path, boolean pipelined) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            Compression compression = Compression.detect(channel);
+            InputStream raw = Channels.newInputStream(channel);
+            if (compression == Compression.NONE) {
+                return raw;
+            }
+            InputStream decompressed = compression.decompress(raw);
+            return pipelined
+                    ? new PipelinedInputStream(decompressed, Compression.BUFFER_SIZE, PIPELINE_DEPTH)
+                    : decompressed;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package de.bcxp.challenge.reader;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Callback receiving the byte range of each line found by a scanner.
+ */
+@FunctionalInterface
+interface LineHandler {
+
+    /**
+     * Handles a single line.
+     *
+     * @param buffer the buffer holding the line; only valid during this call
+     * @param start  index of the first byte of the line
+     * @param end    index after the last byte, excluding the line terminator
+     */
+    void onLine(ByteBuffer buffer, int start, int end);
+}
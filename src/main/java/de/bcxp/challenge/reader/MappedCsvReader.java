@@ -0,0 +1,134 @@
+package de.bcxp.challenge.reader;
+
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.exception.DataReadException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Byte-level CSV reader based on memory-mapped files.
+ *
+ * <p>Instead of decoding the file into lines and splitting them with a
+ * regular expression, the file is mapped via {@link FileChannel#map} and
+ * delimiters and numbers are located and parsed directly in the mapped
+ * bytes. Apart from the produced records (and the country name strings
+ * they hold), no objects are allocated per row.</p>
+ *
+ * <p>gzip and Zstandard files are detected by their magic bytes and
+ * decompressed as a stream instead, with the same tokenizer working on a
+ * heap buffer.</p>
+ *
+ * <p>Results are identical to {@link CsvWeatherReader} and
+ * {@link CsvCountryReader} for the respective {@link CsvFormat}: the header
+ * line is skipped, and rows with too few columns, malformed numbers or
+ * rejected values are skipped and reported to the {@link ErrorSink}.</p>
+ *
+ * @param <T> the type of objects produced from the file contents
+ */
+public class MappedCsvReader<T> implements StreamingDataReader<T> {
+    private final CsvFormat<T> format;
+    private final int windowSize;
+
+    /**
+     * Creates a reader for the given format using the default mapping size.
+     *
+     * @param format the file format
+     */
+    public MappedCsvReader(CsvFormat<T> format) {
+        this(format, MappedLineScanner.DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a reader for the given format.
+     *
+     * @param format     the file format
+     * @param windowSize the number of bytes mapped at a time
+     */
+    public MappedCsvReader(CsvFormat<T> format, int windowSize) {
+        this.format = format;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Reads the given file, pushing every valid record to the sink.
+     *
+     * @param filePath the path to the CSV file
+     * @param sink     receives each parsed record in file order
+     * @param errors   receives each skipped row
+     * @return the number of records passed to the sink
+     */
+    @Override
+    public long readData(String filePath, Consumer<? super T> sink, ErrorSink errors) {
+        return scan(filePath, RecordEmitter.mappingSink(format.getMapper(), sink), errors);
+    }
+
+    /**
+     * Reads the given file, handing every data row to the sink without
+     * creating domain objects. Used to fill columnar structures directly.
+     *
+     * @param filePath the path to the CSV file
+     * @param sink     receives each tokenized data row in file order
+     * @return the number of rows accepted by the sink
+     */
+    public long scan(String filePath, RowSink sink) {
+        return scan(filePath, sink, ErrorSink.standardError());
+    }
+
+    /**
+     * Reads the given file, handing every data row to the sink and
+     * reporting skipped rows.
+     *
+     * @param filePath the path to the CSV file
+     * @param sink     receives each tokenized data row in file order
+     * @param errors   receives each skipped row
+     * @return the number of rows accepted by the sink
+     */
+    public long scan(String filePath, RowSink sink, ErrorSink errors) {
+        RecordEmitter emitter = new RecordEmitter(format.newRow(), sink, true, errors, 1);
+        scanLines(filePath, windowSize, emitter);
+        return emitter.getCount();
+    }
+
+    /**
+     * Hands every line of the file to the handler, mapping plain files and
+     * decompressing compressed ones as a stream.
+     *
+     * @throws DataReadException if the file is empty or cannot be read
+     */
+    static void scanLines(String filePath, int windowSize, LineHandler handler) {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+
+            long size = channel.size();
+            if (size == 0) {
+                throw new DataReadException("Empty file: " + filePath);
+            }
+
+            if (Compression.detect(channel) != Compression.NONE) {
+                // Compressed content cannot be mapped; decompress as a stream
+                scanCompressed(filePath, handler);
+            } else {
+                new MappedLineScanner(windowSize).scan(channel, 0, size, handler);
+            }
+
+        } catch (IOException e) {
+            throw new DataReadException("Error reading file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Scans decompressed content with a stream scanner.
+     */
+    static void scanCompressed(String filePath, LineHandler handler) throws IOException {
+        try (InputStream in = InputFiles.open(Path.of(filePath))) {
+            if (new StreamLineScanner(StreamLineScanner.DEFAULT_BUFFER_SIZE).scan(in, handler) == 0) {
+                throw new DataReadException("Empty file: " + filePath);
+            }
+        }
+    }
+}
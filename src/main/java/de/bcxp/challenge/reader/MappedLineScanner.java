@@ -0,0 +1,124 @@
+package de.bcxp.challenge.reader;
+
+import de.bcxp.challenge.exception.DataReadException;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.function.LongConsumer;
+
+/**
+ * Splits a memory-mapped file region into lines.
+ *
+ * <p>Files larger than a single mapping are processed in windows. A line
+ * crossing the end of a window is not split: the next window is mapped
+ * starting at that line. Line terminators follow
+ * {@link java.io.BufferedReader#readLine()}: {@code \n}, {@code \r} or
+ * {@code \r\n}. Terminators are searched eight bytes at a time, see
+ * {@link Swar}.</p>
+ */
+final class MappedLineScanner {
+
+    /** Default size of a single mapping. */
+    static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final int windowSize;
+
+    /**
+     * Creates a scanner mapping at most {@code windowSize} bytes at a time.
+     *
+     * @param windowSize the preferred mapping size in bytes
+     */
+    MappedLineScanner(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+        }
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Scans all lines in {@code [from, to)}.
+     *
+     * <p>{@code from} must be the start of a line and {@code to} must be the
+     * start of a line or the end of the file.</p>
+     *
+     * @param channel the file to scan
+     * @param from    first byte of the region
+     * @param to      end of the region (exclusive)
+     * @param handler receives every line in order
+     * @return the number of lines found
+     * @throws IOException if mapping fails
+     */
+    long scan(FileChannel channel, long from, long to, LineHandler handler) throws IOException {
+        return scan(channel, from, to, handler, lineEnd -> { });
+    }
+
+    /**
+     * Scans all lines in {@code [from, to)} and reports the progress after
+     * each line, e.g. to resume after a handler failure.
+     *
+     * @param channel  the file to scan
+     * @param from     first byte of the region
+     * @param to       end of the region (exclusive)
+     * @param handler  receives every line in order
+     * @param progress receives the file offset after each line and its
+     *                 terminator, once the handler returned
+     * @return the number of lines found
+     * @throws IOException if mapping fails
+     */
+    long scan(FileChannel channel, long from, long to, LineHandler handler, LongConsumer progress)
+            throws IOException {
+        long lines = 0;
+        long position = from;
+        int window = windowSize;
+
+        while (position < to) {
+            int length = (int) Math.min(window, to - position);
+            boolean lastWindow = position + length == to;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+            int lineStart = 0;
+            int i = 0;
+            while (i < length) {
+                i = Swar.indexOfLineEnd(buffer, i, length);
+                if (i == length) break;
+                byte b = buffer.get(i);
+
+                int terminatorLength = 1;
+                if (b == '\r') {
+                    if (i + 1 < length) {
+                        if (buffer.get(i + 1) == '\n') terminatorLength = 2;
+                    } else if (!lastWindow) {
+                        // A "\r\n" pair may straddle the window; rescan it with the next one
+                        break;
+                    }
+                }
+
+                handler.onLine(buffer, lineStart, i);
+                lines++;
+                i += terminatorLength;
+                lineStart = i;
+                progress.accept(position + lineStart);
+            }
+
+            if (lastWindow) {
+                // The final line of the file may lack a terminator
+                if (lineStart < length) {
+                    handler.onLine(buffer, lineStart, length);
+                    lines++;
+                    progress.accept(position + length);
+                }
+                position = to;
+            } else if (lineStart == 0) {
+                // A single line spans the whole window, so map a larger one
+                if (window == Integer.MAX_VALUE) {
+                    throw new DataReadException("Line exceeds maximum mapping size at offset " + position);
+                }
+                window = (int) Math.min(Integer.MAX_VALUE, 2L * window);
+            } else {
+                position += lineStart;
+            }
+        }
+        return lines;
+    }
+}
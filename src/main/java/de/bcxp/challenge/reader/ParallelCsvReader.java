@@ -0,0 +1,400 @@
+package de.bcxp.challenge.reader;
+
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.exception.DataReadException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Memory-mapped CSV reader that parses large files on several cores.
+ *
+ * <p>The file is split into byte ranges whose boundaries are moved to the
+ * next line start, so every line belongs to exactly one chunk. Each chunk
+ * is parsed by a {@link ForkJoinPool} worker with the same byte-level
+ * tokenizer as {@link MappedCsvReader}; only the first chunk skips the
+ * header line.</p>
+ *
+ * <p>Compressed files cannot be split and are parsed as a single chunk,
+ * with decompression pipelined on its own thread.</p>
+ *
+ * <p>Results are deterministic: records are delivered in file order, and
+ * per-chunk accumulators are merged from left to right, so ties resolve to
+ * the first occurrence exactly as in a sequential pass. Skipped rows are
+ * collected per chunk and reported with their line numbers in file order
+ * as soon as the chunk's result is delivered; a chunk's rejects are
+ * dropped once reported.</p>
+ *
+ * <p>{@link #readData(String, Consumer, ErrorSink)} keeps memory bounded:
+ * the file is cut into chunks of about the minimum chunk size, and at most
+ * two chunks per worker are parsed ahead of the sink. The other methods
+ * use fewer, larger chunks, as they keep only one accumulator or sink per
+ * chunk.</p>
+ *
+ * <p>A reader keeps its worker pool across reads, so repeated reads do not
+ * start new threads; idle workers terminate on their own. Readers can also
+ * share a pool passed to the constructor.</p>
+ *
+ * @param <T> the type of objects produced from the file contents
+ */
+public class ParallelCsvReader<T> implements StreamingDataReader<T> {
+
+    /** Files are not split into chunks smaller than this. */
+    public static final long DEFAULT_MIN_CHUNK_SIZE = 4L * 1024 * 1024;
+
+    /** Chunks per worker, to even out differences in chunk parse time. */
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    /** Chunks per worker parsed ahead of a record sink. */
+    private static final int CHUNKS_AHEAD_PER_WORKER = 2;
+
+    private final CsvFormat<T> format;
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final long minChunkSize;
+
+    /**
+     * Creates a reader using all available processors.
+     *
+     * @param format the file format
+     */
+    public ParallelCsvReader(CsvFormat<T> format) {
+        this(format, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a reader with the given number of worker threads.
+     *
+     * @param format      the file format
+     * @param parallelism the number of worker threads
+     */
+    public ParallelCsvReader(CsvFormat<T> format, int parallelism) {
+        this(format, parallelism, DEFAULT_MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a reader with the given number of worker threads and minimum
+     * chunk size.
+     *
+     * @param format       the file format
+     * @param parallelism  the number of worker threads
+     * @param minChunkSize the smallest byte range handed to a worker
+     */
+    public ParallelCsvReader(CsvFormat<T> format, int parallelism, long minChunkSize) {
+        this(format, new ForkJoinPool(checkParallelism(parallelism)), minChunkSize);
+    }
+
+    /**
+     * Creates a reader that parses chunks on the given pool, with as many
+     * chunks in flight as the pool's parallelism.
+     *
+     * @param format       the file format
+     * @param pool         the worker pool; not shut down by the reader
+     * @param minChunkSize the smallest byte range handed to a worker
+     */
+    public ParallelCsvReader(CsvFormat<T> format, ForkJoinPool pool, long minChunkSize) {
+        if (minChunkSize <= 0) {
+            throw new IllegalArgumentException("Minimum chunk size must be positive: " + minChunkSize);
+        }
+        this.format = format;
+        this.pool = pool;
+        this.parallelism = pool.getParallelism();
+        this.minChunkSize = minChunkSize;
+    }
+
+    private static int checkParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        return parallelism;
+    }
+
+    /**
+     * Reads the given file in parallel and pushes every valid record to the
+     * sink in file order.
+     *
+     * <p>The sink is always called from the calling thread. Parsed records
+     * of at most {@code 2 * parallelism} chunks of the minimum chunk size
+     * are held at a time, whatever the file size; compressed files are
+     * streamed to the sink directly.</p>
+     *
+     * @param filePath the path to the CSV file
+     * @param sink     receives each parsed record in file order
+     * @param errors   receives each skipped row
+     * @return the number of records passed to the sink
+     */
+    @Override
+    public long readData(String filePath, Consumer<? super T> sink, ErrorSink errors) {
+        long[] count = new long[1];
+        Consumer<T> counting = record -> {
+            sink.accept(record);
+            count[0]++;
+        };
+        processChunks(filePath, errors, (range) -> {
+            List<T> records = new ArrayList<>();
+            if (range.compressedPath != null) {
+                // Parsed on the calling thread, so records can go to the sink right away
+                range.scan(RecordEmitter.mappingSink(format.getMapper(), counting));
+            } else {
+                range.scan(RecordEmitter.mappingSink(format.getMapper(), records::add));
+            }
+            return records;
+        }, minChunkSize, chunk -> chunk.forEach(counting));
+        return count[0];
+    }
+
+    /**
+     * Hands the rows of every chunk to its own sink, without creating domain
+     * objects. Used to fill columnar structures in parallel.
+     *
+     * @param filePath    the path to the CSV file
+     * @param sinkFactory creates one sink per chunk
+     * @param <S>         the type of sink
+     * @return the sinks in file order; concatenating their contents yields
+     *         the rows in file order
+     */
+    public <S extends RowSink> List<S> scan(String filePath, Supplier<S> sinkFactory) {
+        return scan(filePath, sinkFactory, ErrorSink.standardError());
+    }
+
+    /**
+     * Hands the rows of every chunk to its own sink and reports skipped rows.
+     *
+     * @param filePath    the path to the CSV file
+     * @param sinkFactory creates one sink per chunk
+     * @param errors      receives each skipped row
+     * @param <S>         the type of sink
+     * @return the sinks in file order
+     * @see #scan(String, Supplier)
+     */
+    public <S extends RowSink> List<S> scan(String filePath, Supplier<S> sinkFactory, ErrorSink errors) {
+        return processChunks(filePath, errors, (range) -> {
+            S sink = sinkFactory.get();
+            range.scan(sink);
+            return sink;
+        });
+    }
+
+    /**
+     * Folds every chunk into its own accumulator and merges them in file order.
+     *
+     * <p>Accumulators that are not {@link Accumulator#isMergeable() mergeable}
+     * are detected before reading: chunks are then still parsed in parallel,
+     * but all records are folded into a single accumulator in file order.</p>
+     *
+     * @param filePath the path to the CSV file
+     * @param factory  creates one accumulator per chunk
+     * @param errors   receives each skipped row
+     * @param <R>      the type of the analysis result
+     * @return the merged result
+     */
+    @Override
+    public <R> R aggregate(String filePath, Supplier<? extends Accumulator<T, R>> factory, ErrorSink errors) {
+        Accumulator<T, R> first = factory.get();
+        if (!first.isMergeable()) {
+            readData(filePath, first::accept, errors);
+            return first.result();
+        }
+
+        List<Accumulator<T, R>> partials = processChunks(filePath, errors, (range) -> {
+            Accumulator<T, R> accumulator = factory.get();
+            range.scan(RecordEmitter.mappingSink(format.getMapper(), accumulator::accept));
+            return accumulator;
+        });
+
+        Accumulator<T, R> result = partials.get(0);
+        for (int i = 1; i < partials.size(); i++) {
+            result.merge(partials.get(i));
+        }
+        return result.result();
+    }
+
+    /**
+     * Splits the file into line-aligned chunks, applies the task to each
+     * chunk on the worker pool and returns the results in file order.
+     * Skipped rows are reported chunk by chunk, in file order.
+     */
+    private <P> List<P> processChunks(String filePath, ErrorSink errors, Function<ChunkRange, P> task) {
+        List<P> results = new ArrayList<>();
+        processChunks(filePath, errors, task, Long.MAX_VALUE, results::add);
+        return results;
+    }
+
+    /**
+     * Applies the task to line-aligned chunks of at most about
+     * {@code maxChunkSize} bytes and hands the results to {@code results}
+     * in file order, on the calling thread. With a bounded chunk size, only
+     * a window of chunks is submitted ahead of the one being delivered. The
+     * skipped rows of a chunk are reported right after its result.
+     */
+    private <P> void processChunks(String filePath, ErrorSink errors, Function<ChunkRange, P> task,
+                                   long maxChunkSize, Consumer<? super P> results) {
+        Deque<ForkJoinTask<P>> tasks = new ArrayDeque<>();
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+
+            long size = channel.size();
+            if (size == 0) {
+                throw new DataReadException("Empty file: " + filePath);
+            }
+
+            if (Compression.detect(channel) != Compression.NONE) {
+                // A compressed stream cannot be split; parse it as a single chunk
+                ChunkRange range = new ChunkRange(filePath);
+                results.accept(task.apply(range));
+                range.rejects.replay(errors, 0);
+                return;
+            }
+
+            long[] bounds = chunkBounds(channel, size, maxChunkSize);
+            List<ChunkRange> ranges = new ArrayList<>(bounds.length - 1);
+            for (int i = 0; i < bounds.length - 1; i++) {
+                ranges.add(new ChunkRange(channel, bounds[i], bounds[i + 1], i == 0));
+            }
+
+            long window = maxChunkSize == Long.MAX_VALUE
+                    ? ranges.size() : (long) parallelism * CHUNKS_AHEAD_PER_WORKER;
+            int submitted = 0;
+            long lineOffset = 0;
+            for (int i = 0; i < ranges.size(); i++) {
+                while (submitted < ranges.size() && submitted < i + window) {
+                    ChunkRange range = ranges.get(submitted++);
+                    tasks.add(pool.submit(() -> task.apply(range)));
+                }
+                results.accept(tasks.poll().join());
+
+                // The preceding lines are counted now; shift the chunk-relative line numbers by them
+                ChunkRange range = ranges.set(i, null);
+                range.rejects.replay(errors, lineOffset);
+                lineOffset += range.lineCount;
+            }
+
+        } catch (IOException | UncheckedIOException e) {
+            throw new DataReadException("Error reading file: " + filePath, e);
+        } finally {
+            // After a failure, chunks not yet started are not parsed for nothing
+            for (ForkJoinTask<P> pending : tasks) {
+                pending.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Computes chunk boundaries; every inner boundary is the start of a line.
+     */
+    private long[] chunkBounds(FileChannel channel, long size, long maxChunkSize) throws IOException {
+        long chunkCount = Math.max(1, Math.min((long) parallelism * CHUNKS_PER_WORKER, size / minChunkSize));
+        if (size > maxChunkSize) {
+            // Larger files get more chunks instead of larger ones
+            chunkCount = Math.max(chunkCount, (size - 1) / maxChunkSize + 1);
+        }
+        long chunkSize = size / chunkCount;
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long previous = 0;
+        for (long i = 1; i < chunkCount; i++) {
+            long boundary = nextLineStart(channel, Math.max(previous, i * chunkSize), size);
+            if (boundary >= size) break;
+            if (boundary > previous) {
+                bounds.add(boundary);
+                previous = boundary;
+            }
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Returns the start of the first line beginning after {@code position}.
+     */
+    static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long offset = position;
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) break;
+
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    return offset + i + 1;
+                }
+                if (b == '\r') {
+                    // Keep a "\r\n" pair together, even across buffer refills
+                    long next = offset + i + 1;
+                    if (i + 1 < read) {
+                        return buffer.get(i + 1) == '\n' ? next + 1 : next;
+                    }
+                    ByteBuffer one = ByteBuffer.allocate(1);
+                    if (next < size && channel.read(one, next) == 1 && one.get(0) == '\n') {
+                        return next + 1;
+                    }
+                    return next;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    /**
+     * A line-aligned byte range of the input, parsed by a single worker.
+     */
+    private final class ChunkRange {
+        private final FileChannel channel;
+        private final long from;
+        private final long to;
+        private final boolean first;
+        // Set for compressed files, which are decompressed as a whole
+        private final String compressedPath;
+        // Filled by scan
+        private final DeferredErrors rejects = new DeferredErrors();
+        private long lineCount;
+
+        ChunkRange(FileChannel channel, long from, long to, boolean first) {
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+            this.first = first;
+            this.compressedPath = null;
+        }
+
+        ChunkRange(String compressedPath) {
+            this.channel = null;
+            this.from = 0;
+            this.to = 0;
+            this.first = true;
+            this.compressedPath = compressedPath;
+        }
+
+        void scan(RowSink sink) {
+            RecordEmitter emitter = new RecordEmitter(format.newRow(), sink, first, rejects, 1);
+            try {
+                if (compressedPath != null) {
+                    MappedCsvReader.scanCompressed(compressedPath, emitter);
+                } else {
+                    new MappedLineScanner(MappedLineScanner.DEFAULT_WINDOW_SIZE).scan(channel, from, to, emitter);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            lineCount = emitter.getLineCount();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package de.bcxp.challenge.reader;
+
+/**
+ * Statistics of one {@link PipelinedCsvReader} run: work and waiting time
+ * per stage and the fill level of the queues between them.
+ *
+ * <p>A stage that spends much time waiting to <em>put</em> is throttled by
+ * its successor (backpressure); a stage that spends much time waiting to
+ * <em>take</em> is starved by its predecessor. Queues that are mostly full
+ * point at the slow stage behind them.</p>
+ */
+public final class PipelineStats {
+    private final Stage read;
+    private final Stage parse;
+    private final Stage aggregate;
+    private final Queue rawQueue;
+    private final Queue parsedQueue;
+    private final long wallNanos;
+
+    PipelineStats(Stage read, Stage parse, Stage aggregate, Queue rawQueue, Queue parsedQueue, long wallNanos) {
+        this.read = read;
+        this.parse = parse;
+        this.aggregate = aggregate;
+        this.rawQueue = rawQueue;
+        this.parsedQueue = parsedQueue;
+        this.wallNanos = wallNanos;
+    }
+
+    public Stage getRead() {
+        return read;
+    }
+
+    public Stage getParse() {
+        return parse;
+    }
+
+    public Stage getAggregate() {
+        return aggregate;
+    }
+
+    public Queue getRawQueue() {
+        return rawQueue;
+    }
+
+    public Queue getParsedQueue() {
+        return parsedQueue;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "PipelineStats{wall=" + wallNanos / 1_000_000 + "ms, read=" + read + ", parse=" + parse
+                + ", aggregate=" + aggregate + ", rawQueue=" + rawQueue + ", parsedQueue=" + parsedQueue + '}';
+    }
+
+    /**
+     * Counters of one pipeline stage.
+     */
+    public static final class Stage {
+        private final long batches;
+        private final long bytes;
+        private final long records;
+        private final long busyNanos;
+        private final long waitNanos;
+
+        Stage(long batches, long bytes, long records, long busyNanos, long waitNanos) {
+            this.batches = batches;
+            this.bytes = bytes;
+            this.records = records;
+            this.busyNanos = busyNanos;
+            this.waitNanos = waitNanos;
+        }
+
+        public long getBatches() {
+            return batches;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getRecords() {
+            return records;
+        }
+
+        public long getBusyNanos() {
+            return busyNanos;
+        }
+
+        public long getWaitNanos() {
+            return waitNanos;
+        }
+
+        /**
+         * Returns the stage's throughput while busy.
+         *
+         * @return bytes per second of busy time, or {@code 0} if the stage did no work
+         */
+        public double bytesPerSecond() {
+            return busyNanos == 0 ? 0 : bytes * 1e9 / busyNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "{batches=" + batches + ", bytes=" + bytes + ", records=" + records
+                    + ", busy=" + busyNanos / 1_000_000 + "ms, wait=" + waitNanos / 1_000_000 + "ms}";
+        }
+    }
+
+    /**
+     * Fill level of a bounded queue, sampled whenever a batch is put.
+     */
+    public static final class Queue {
+        private final int capacity;
+        private final int maxDepth;
+        private final double meanDepth;
+
+        Queue(int capacity, int maxDepth, double meanDepth) {
+            this.capacity = capacity;
+            this.maxDepth = maxDepth;
+            this.meanDepth = meanDepth;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        public double getMeanDepth() {
+            return meanDepth;
+        }
+
+        @Override
+        public String toString() {
+            return "{capacity=" + capacity + ", max=" + maxDepth + ", mean=" + String.format("%.1f", meanDepth) + '}';
+        }
+    }
+}
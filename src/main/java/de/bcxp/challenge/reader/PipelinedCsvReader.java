@@ -0,0 +1,427 @@
+package de.bcxp.challenge.reader;
+
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.exception.DataReadException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * CSV reader that overlaps I/O, parsing and aggregation in a pipeline.
+ *
+ * <p>Three stages run concurrently:</p>
+ * <ol>
+ *   <li>a reader thread cuts the (possibly decompressed) input into batches
+ *       of whole lines of about {@code batchSize} bytes,</li>
+ *   <li>{@code workers} parser threads tokenize and map batches into
+ *       records,</li>
+ *   <li>the calling thread, as aggregation stage, hands the records to the
+ *       sink and the skipped rows to the error sink in file order.</li>
+ * </ol>
+ *
+ * <p>Stages are connected by bounded queues, and the number of batches in
+ * flight is capped, so a slow stage throttles its predecessors instead of
+ * letting memory grow (backpressure). Statistics of the last run are
+ * available via {@link #getLastStats()}.</p>
+ *
+ * <p>Results are identical to {@link MappedCsvReader}.</p>
+ *
+ * @param <T> the type of objects produced from the file contents
+ */
+public class PipelinedCsvReader<T> implements StreamingDataReader<T> {
+
+    /** Default bytes per batch. */
+    public static final int DEFAULT_BATCH_SIZE = 1 << 20;
+
+    private static final Batch END = new Batch(-1, new byte[0], 0, false);
+
+    private final CsvFormat<T> format;
+    private final int workers;
+    private final int batchSize;
+    private final int queueCapacity;
+    private volatile PipelineStats lastStats;
+
+    /**
+     * Creates a reader with one parser per available core but one, and the
+     * default batch size.
+     *
+     * @param format the file format
+     */
+    public PipelinedCsvReader(CsvFormat<T> format) {
+        this(format, Math.max(1, Runtime.getRuntime().availableProcessors() - 1), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a reader.
+     *
+     * @param format    the file format
+     * @param workers   the number of parser threads
+     * @param batchSize the approximate number of bytes per batch
+     */
+    public PipelinedCsvReader(CsvFormat<T> format, int workers, int batchSize) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workers);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.format = format;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.queueCapacity = 2 * workers;
+    }
+
+    /**
+     * Reads the given file through the pipeline, pushing every valid record
+     * to the sink in file order.
+     *
+     * <p>The sink is always called from the calling thread.</p>
+     *
+     * @param filePath the path to the CSV file
+     * @param sink     receives each parsed record in file order
+     * @param errors   receives each skipped row
+     * @return the number of records passed to the sink
+     */
+    @Override
+    public long readData(String filePath, Consumer<? super T> sink, ErrorSink errors) {
+        return new Run(filePath).execute(sink, errors);
+    }
+
+    /**
+     * Returns the statistics of the most recently completed run.
+     *
+     * @return the statistics, or {@code null} if no run has completed
+     */
+    public PipelineStats getLastStats() {
+        return lastStats;
+    }
+
+    /**
+     * Whole lines of the input; the last batch may end without terminator.
+     */
+    private static final class Batch {
+        final long sequence;
+        final byte[] bytes;
+        final int length;
+        final boolean last;
+
+        Batch(long sequence, byte[] bytes, int length, boolean last) {
+            this.sequence = sequence;
+            this.bytes = bytes;
+            this.length = length;
+            this.last = last;
+        }
+    }
+
+    private static final class Parsed<T> {
+        final long sequence;
+        final List<T> records;
+        // Rejects with batch-relative line numbers
+        final DeferredErrors rejects;
+        final long lineCount;
+
+        Parsed(long sequence, List<T> records, DeferredErrors rejects, long lineCount) {
+            this.sequence = sequence;
+            this.records = records;
+            this.rejects = rejects;
+            this.lineCount = lineCount;
+        }
+    }
+
+    /**
+     * Mutable counters of a stage, shared by its threads.
+     */
+    private static final class StageCounter {
+        final AtomicLong batches = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+        final AtomicLong records = new AtomicLong();
+        final AtomicLong busyNanos = new AtomicLong();
+        final AtomicLong waitNanos = new AtomicLong();
+
+        PipelineStats.Stage snapshot() {
+            return new PipelineStats.Stage(batches.get(), bytes.get(), records.get(), busyNanos.get(), waitNanos.get());
+        }
+    }
+
+    /**
+     * A bounded queue that samples its depth on every put.
+     */
+    private static final class MeteredQueue<E> {
+        final BlockingQueue<E> queue;
+        final int capacity;
+        final AtomicLong puts = new AtomicLong();
+        final AtomicLong depthSum = new AtomicLong();
+        final AtomicLong maxDepth = new AtomicLong();
+
+        MeteredQueue(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.capacity = capacity;
+        }
+
+        void put(E element, StageCounter counter) throws InterruptedException {
+            long start = System.nanoTime();
+            queue.put(element);
+            counter.waitNanos.addAndGet(System.nanoTime() - start);
+            int depth = queue.size();
+            puts.incrementAndGet();
+            depthSum.addAndGet(depth);
+            maxDepth.accumulateAndGet(depth, Math::max);
+        }
+
+        E take(StageCounter counter) throws InterruptedException {
+            long start = System.nanoTime();
+            E element = queue.take();
+            counter.waitNanos.addAndGet(System.nanoTime() - start);
+            return element;
+        }
+
+        PipelineStats.Queue snapshot() {
+            long n = puts.get();
+            return new PipelineStats.Queue(capacity, (int) maxDepth.get(), n == 0 ? 0 : (double) depthSum.get() / n);
+        }
+    }
+
+    /**
+     * State of a single read.
+     */
+    private final class Run {
+        private final String filePath;
+        private final MeteredQueue<Batch> rawQueue = new MeteredQueue<>(queueCapacity);
+        private final MeteredQueue<Parsed<T>> parsedQueue = new MeteredQueue<>(queueCapacity);
+        // Caps the batches between reader and sink, including reordering
+        private final Semaphore inFlight = new Semaphore(2 * queueCapacity + workers);
+        private final StageCounter read = new StageCounter();
+        private final StageCounter parse = new StageCounter();
+        private final StageCounter aggregate = new StageCounter();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Run(String filePath) {
+            this.filePath = filePath;
+        }
+
+        long execute(Consumer<? super T> sink, ErrorSink errors) {
+            long start = System.nanoTime();
+            ExecutorService pool = Executors.newFixedThreadPool(workers + 1, runnable -> {
+                Thread thread = new Thread(runnable, "csv-pipeline");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                pool.execute(this::readBlocks);
+                for (int i = 0; i < workers; i++) {
+                    pool.execute(this::parseBatches);
+                }
+                long count = deliver(sink, errors);
+                lastStats = new PipelineStats(read.snapshot(), parse.snapshot(), aggregate.snapshot(),
+                        rawQueue.snapshot(), parsedQueue.snapshot(), System.nanoTime() - start);
+                return count;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DataReadException("Interrupted while reading file: " + filePath, e);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        /**
+         * Reader stage: cuts the input into batches ending at a line break.
+         */
+        private void readBlocks() {
+            try (InputStream in = InputFiles.open(Path.of(filePath))) {
+                byte[] buffer = new byte[batchSize];
+                int length = 0;
+                long sequence = 0;
+                boolean eof = false;
+                while (!eof) {
+                    long busy = System.nanoTime();
+                    int read = 0;
+                    while (length < buffer.length && (read = in.read(buffer, length, buffer.length - length)) > 0) {
+                        length += read;
+                    }
+                    eof = read < 0;
+
+                    int cut = eof ? length : lastLineEnd(buffer, length);
+                    if (cut == 0 && !eof) {
+                        // A single line exceeds the batch size
+                        buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+                        continue;
+                    }
+                    if (sequence == 0 && cut == 0) {
+                        throw new DataReadException("Empty file: " + filePath);
+                    }
+                    byte[] next = new byte[Math.max(batchSize, length - cut)];
+                    System.arraycopy(buffer, cut, next, 0, length - cut);
+                    Batch batch = new Batch(sequence++, buffer, cut, eof);
+                    read(batch);
+                    buffer = next;
+                    length -= cut;
+                    this.read.busyNanos.addAndGet(System.nanoTime() - busy);
+
+                    inFlight.acquire();
+                    rawQueue.put(batch, this.read);
+                }
+            } catch (IOException e) {
+                fail(new DataReadException("Error reading file: " + filePath, e));
+            } catch (InterruptedException e) {
+                // Shutting down
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                // One end marker per worker, so the parsers and the sink never wait for a dead reader
+                for (int i = 0; i < workers; i++) {
+                    if (!rawQueue.queue.offer(END)) {
+                        try {
+                            rawQueue.queue.put(END);
+                        } catch (InterruptedException e) {
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        private void read(Batch batch) {
+            read.batches.incrementAndGet();
+            read.bytes.addAndGet(batch.length);
+        }
+
+        /**
+         * Parser stage: maps the lines of each batch into records.
+         */
+        private void parseBatches() {
+            CsvRow row = format.newRow();
+            try {
+                while (true) {
+                    Batch batch = rawQueue.take(parse);
+                    if (batch == END) {
+                        break;
+                    }
+                    long busy = System.nanoTime();
+                    List<T> records = new ArrayList<>();
+                    DeferredErrors rejects = new DeferredErrors();
+                    RecordEmitter emitter = new RecordEmitter(row,
+                            RecordEmitter.mappingSink(format.getMapper(), records::add), batch.sequence == 0, rejects, 1);
+                    scanBatch(batch, emitter);
+                    parse.batches.incrementAndGet();
+                    parse.bytes.addAndGet(batch.length);
+                    parse.records.addAndGet(records.size());
+                    parse.busyNanos.addAndGet(System.nanoTime() - busy);
+
+                    parsedQueue.put(new Parsed<>(batch.sequence, records, rejects, emitter.getLineCount()), parse);
+                }
+            } catch (InterruptedException e) {
+                // Shutting down
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                try {
+                    parsedQueue.queue.put(new Parsed<>(-1, null, null, 0));
+                } catch (InterruptedException e) {
+                    // Shutting down
+                }
+            }
+        }
+
+        /**
+         * Aggregation stage: restores file order and feeds the sink.
+         */
+        private long deliver(Consumer<? super T> sink, ErrorSink errors) throws InterruptedException {
+            Map<Long, Parsed<T>> pending = new HashMap<>();
+            long next = 0;
+            long count = 0;
+            long lineOffset = 0;
+            int finishedWorkers = 0;
+            while (finishedWorkers < workers && failure.get() == null) {
+                Parsed<T> parsed = parsedQueue.take(aggregate);
+                if (parsed.sequence < 0) {
+                    finishedWorkers++;
+                    continue;
+                }
+                pending.put(parsed.sequence, parsed);
+
+                long busy = System.nanoTime();
+                Parsed<T> ready;
+                while ((ready = pending.remove(next)) != null) {
+                    ready.records.forEach(sink);
+                    ready.rejects.replay(errors, lineOffset);
+                    lineOffset += ready.lineCount;
+                    count += ready.records.size();
+                    aggregate.batches.incrementAndGet();
+                    aggregate.records.addAndGet(ready.records.size());
+                    inFlight.release();
+                    next++;
+                }
+                aggregate.busyNanos.addAndGet(System.nanoTime() - busy);
+            }
+
+            Throwable error = failure.get();
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            if (error instanceof Error) {
+                throw (Error) error;
+            }
+            if (error != null) {
+                throw new DataReadException("Error reading file: " + filePath, error);
+            }
+            return count;
+        }
+
+        private void fail(Throwable error) {
+            failure.compareAndSet(null, error);
+        }
+    }
+
+    /**
+     * Returns the position after the last line terminator in the buffer. A
+     * trailing carriage return may be the first half of "\r\n" and does not
+     * end a line yet.
+     */
+    private static int lastLineEnd(byte[] buffer, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            byte b = buffer[i];
+            if (b == '\n' || (b == '\r' && i + 1 < length)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Hands the lines of a batch to the handler.
+     */
+    private static void scanBatch(Batch batch, LineHandler handler) {
+        byte[] bytes = batch.bytes;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int lineStart = 0;
+        int i = 0;
+        while (i < batch.length) {
+            i = Swar.indexOfLineEnd(buffer, i, batch.length);
+            if (i == batch.length) break;
+            byte b = bytes[i];
+            handler.onLine(buffer, lineStart, i);
+            i += (b == '\r' && i + 1 < batch.length && bytes[i + 1] == '\n') ? 2 : 1;
+            lineStart = i;
+        }
+        if (lineStart < batch.length) {
+            // Only the last batch may end without terminator
+            handler.onLine(buffer, lineStart, batch.length);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package de.bcxp.challenge.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads a source stream on a background thread, so that producing the data
+ * (e.g. decompressing it) overlaps with consuming it.
+ *
+ * <p>The producer fills fixed-size blocks and hands them over through a
+ * bounded queue; at most {@code depth} blocks are buffered ahead of the
+ * consumer. Errors of the producer are rethrown to the consumer. Closing
+ * the stream stops the producer and closes the source.</p>
+ */
+final class PipelinedInputStream extends InputStream {
+    private static final byte[] END = new byte[0];
+
+    private final BlockingQueue<byte[]> queue;
+    private final Thread producer;
+    private volatile Throwable failure;
+    private volatile boolean closed;
+
+    private byte[] block = new byte[0];
+    private int position;
+    private boolean finished;
+
+    /**
+     * Starts reading the source in the background.
+     *
+     * @param source    the stream to read ahead
+     * @param blockSize the bytes per block
+     * @param depth     the number of blocks buffered ahead
+     */
+    PipelinedInputStream(InputStream source, int blockSize, int depth) {
+        this.queue = new ArrayBlockingQueue<>(depth);
+        this.producer = new Thread(() -> produce(source, blockSize), "pipelined-input");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    private void produce(InputStream source, int blockSize) {
+        try (source) {
+            while (!closed) {
+                byte[] buffer = new byte[blockSize];
+                int filled = 0;
+                int read;
+                while (filled < blockSize && (read = source.read(buffer, filled, blockSize - filled)) > 0) {
+                    filled += read;
+                }
+                if (filled == 0) {
+                    break;
+                }
+                queue.put(filled == blockSize ? buffer : Arrays.copyOf(buffer, filled));
+            }
+        } catch (InterruptedException e) {
+            // Closed by the consumer
+        } catch (Throwable e) {
+            // Includes unchecked decoder errors such as malformed compressed input
+            failure = e;
+        } finally {
+            end();
+        }
+    }
+
+    /**
+     * Queues the end marker, unless the consumer has already left.
+     */
+    private void end() {
+        if (closed) {
+            return;
+        }
+        try {
+            queue.put(END);
+        } catch (InterruptedException e) {
+            // Closed by the consumer
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return block[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = Math.min(len, block.length - position);
+        System.arraycopy(block, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    /**
+     * Ensures the current block has unread bytes.
+     *
+     * @return {@code false} at the end of the source
+     */
+    private boolean fill() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (position == block.length) {
+            if (finished) {
+                return false;
+            }
+            try {
+                block = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for input");
+            }
+            position = 0;
+            if (block == END) {
+                finished = true;
+                if (failure instanceof Error) {
+                    throw (Error) failure;
+                }
+                if (failure != null) {
+                    throw new IOException("Error reading input", failure);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            producer.interrupt();
+        }
+    }
+}
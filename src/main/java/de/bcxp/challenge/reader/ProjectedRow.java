@@ -0,0 +1,67 @@
+package de.bcxp.challenge.reader;
+
+import de.bcxp.challenge.parser.NumberParser;
+
+/**
+ * The requested columns of a data row, addressed by their position in the
+ * {@link CsvSchema} rather than in the file.
+ *
+ * <p>A projected row is a reusable view of the current {@link CsvRow}; it
+ * must not be retained beyond the mapping call.</p>
+ */
+public final class ProjectedRow {
+    private final int[] fields;
+    private final NumberParser[] formats;
+    private CsvRow row;
+
+    ProjectedRow(int[] fields, NumberParser[] formats) {
+        this.fields = fields;
+        this.formats = formats;
+    }
+
+    ProjectedRow bind(CsvRow row) {
+        this.row = row;
+        return this;
+    }
+
+    /**
+     * Returns the number of projected columns.
+     *
+     * @return the column count of the schema
+     */
+    public int columnCount() {
+        return fields.length;
+    }
+
+    /**
+     * Parses the given column as an {@code int}.
+     *
+     * @param column zero-based column in schema order
+     * @return the parsed value
+     * @throws NumberFormatException if the value is not a valid int
+     */
+    public int getInt(int column) {
+        return row.getInt(fields[column]);
+    }
+
+    /**
+     * Parses the given column as a {@code double} in the column's number format.
+     *
+     * @param column zero-based column in schema order
+     * @return the parsed value
+     * @throws NumberFormatException if the value is not a valid number
+     */
+    public double getDouble(int column) {
+        return row.getDouble(fields[column], formats[column]);
+    }
+
+    /**
+     * Decodes the given column as a trimmed string.
+     *
+     * @param column zero-based column in schema order
+     * @return the field text
+     */
+    public String getString(int column) {
+        return row.getString(fields[column]);
+    }
+}
@@ -0,0 +1,126 @@
+package de.bcxp.challenge.reader;
+
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.error.RejectReason;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Tokenizes scanned lines and hands the rows to a {@link RowSink}.
+ *
+ * <p>Rows with too few columns, malformed numbers or values rejected by the
+ * record are skipped and reported to an {@link ErrorSink} with their line
+ * number, matching the behaviour of the line-based readers. Blank lines
+ * are skipped without report.</p>
+ */
+final class RecordEmitter implements LineHandler {
+    private final CsvRow row;
+    private final RowSink sink;
+    private final MappingSink<?> mapping;
+    private final ErrorSink errors;
+    private final long firstLineNumber;
+    private boolean skipHeader;
+    private long count;
+    private long lines;
+
+    /**
+     * Creates an emitter handing rows to the given sink.
+     *
+     * @param row             the reusable row view
+     * @param sink            receives the tokenized rows
+     * @param skipHeader      whether the first line handled is a header
+     * @param errors          receives the skipped rows
+     * @param firstLineNumber the line number of the first line handled
+     */
+    RecordEmitter(CsvRow row, RowSink sink, boolean skipHeader, ErrorSink errors, long firstLineNumber) {
+        this.row = row;
+        this.sink = sink;
+        this.mapping = sink instanceof MappingSink ? (MappingSink<?>) sink : null;
+        this.skipHeader = skipHeader;
+        this.errors = errors;
+        this.firstLineNumber = firstLineNumber;
+    }
+
+    /**
+     * Adapts a mapper and a consumer to a {@link RowSink}. An emitter hands
+     * the mapped record to the consumer only after mapping succeeded, so
+     * exceptions of the consumer propagate instead of rejecting the row.
+     */
+    static <T> RowSink mappingSink(RowMapper<T> mapper, Consumer<? super T> consumer) {
+        return new MappingSink<>(mapper, consumer);
+    }
+
+    @Override
+    public void onLine(ByteBuffer buffer, int start, int end) {
+        long lineNumber = firstLineNumber + lines++;
+        if (skipHeader) {
+            skipHeader = false;
+            return;
+        }
+        if (start == end) return;
+
+        boolean accepted;
+        try {
+            accepted = sink.accept(row.reset(buffer, start, end));
+        } catch (IllegalArgumentException e) {
+            // Malformed numbers, and values the record refuses such as negative populations
+            errors.reject(RejectReason.of(e), lineNumber, row::toString);
+            return;
+        }
+        if (!accepted) {
+            errors.reject(RejectReason.TOO_FEW_COLUMNS, lineNumber, row::toString);
+            return;
+        }
+        if (mapping != null) {
+            mapping.deliver();
+        }
+        count++;
+    }
+
+    /**
+     * Returns the number of rows accepted by the sink so far.
+     *
+     * @return the accepted row count
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of lines handled so far, including header and
+     * blank lines.
+     *
+     * @return the line count
+     */
+    long getLineCount() {
+        return lines;
+    }
+
+    /**
+     * Maps rows on {@link #accept} and holds the record until the emitter
+     * delivers it, outside of the handling of malformed rows.
+     */
+    private static final class MappingSink<T> implements RowSink {
+        private final RowMapper<T> mapper;
+        private final Consumer<? super T> consumer;
+        private T pending;
+
+        MappingSink(RowMapper<T> mapper, Consumer<? super T> consumer) {
+            this.mapper = mapper;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public boolean accept(CsvRow row) {
+            pending = mapper.map(row);
+            return pending != null;
+        }
+
+        void deliver() {
+            T record = pending;
+            pending = null;
+            consumer.accept(record);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package de.bcxp.challenge.reader;
+
+/**
+ * Converts a tokenized {@link CsvRow} into a domain object.
+ *
+ * <p>Mappers decide which columns matter for their model. They return
+ * {@code null} for rows with too few columns, which readers report as
+ * {@link de.bcxp.challenge.error.RejectReason#TOO_FEW_COLUMNS} and skip,
+ * and throw a {@link NumberFormatException} for rows with malformed
+ * values, which readers report and skip as well.</p>
+ *
+ * @param <T> the type of objects produced
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the given row.
+     *
+     * @param row the current row; only valid during this call
+     * @return the mapped object, or {@code null} if the row has too few columns
+     * @throws NumberFormatException if a required value cannot be parsed
+     */
+    T map(CsvRow row);
+}
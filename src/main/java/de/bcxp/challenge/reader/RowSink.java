@@ -0,0 +1,26 @@
+package de.bcxp.challenge.reader;
+
+/**
+ * Receives tokenized rows directly, without an intermediate domain object.
+ *
+ * <p>This is the low-level counterpart of {@link RowMapper}: sinks such as
+ * columnar table builders copy the values they need straight out of the
+ * row. The same skip rules apply: return {@code false} for rows with too
+ * few columns, throw a {@link NumberFormatException} for malformed
+ * numbers and an {@link IllegalArgumentException} for values the record
+ * refuses.</p>
+ */
+@FunctionalInterface
+public interface RowSink {
+
+    /**
+     * Consumes the given row.
+     *
+     * @param row the current row; only valid during this call
+     * @return {@code true} if the row was accepted, {@code false} if it has
+     *         too few columns
+     * @throws NumberFormatException    if a required value cannot be parsed
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    boolean accept(CsvRow row);
+}
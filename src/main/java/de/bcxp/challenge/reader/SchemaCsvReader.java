@@ -0,0 +1,119 @@
+package de.bcxp.challenge.reader;
+
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.exception.DataReadException;
+import de.bcxp.challenge.parser.NumberParser;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Generic {@link StreamingDataReader} configured by a {@link CsvSchema}.
+ *
+ * <p>The header line of every file is used to resolve the schema's column
+ * names to positions; a missing column fails the read. Data rows are then
+ * tokenized only up to the last requested column, and only the requested
+ * fields are parsed, so wide files cost time in proportion to the columns
+ * actually used. Files are memory-mapped, compressed files decompressed as
+ * a stream.</p>
+ *
+ * <p>As with the other readers, rows with too few columns, malformed
+ * numbers or rejected values are skipped and reported to the
+ * {@link ErrorSink}.</p>
+ *
+ * @param <T> the type of objects produced from the file contents
+ */
+public class SchemaCsvReader<T> implements StreamingDataReader<T> {
+    private final CsvSchema<T> schema;
+
+    /**
+     * Creates a reader for the given schema.
+     *
+     * @param schema the requested columns and their mapping
+     */
+    public SchemaCsvReader(CsvSchema<T> schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Reads the given file, pushing every valid record to the sink.
+     *
+     * @param filePath the path to the CSV file
+     * @param sink     receives each parsed record in file order
+     * @param errors   receives each skipped row
+     * @return the number of records passed to the sink
+     * @throws DataReadException if the file cannot be read or its header
+     *                           lacks a requested column
+     */
+    @Override
+    public long readData(String filePath, Consumer<? super T> sink, ErrorSink errors) {
+        HeaderResolver resolver = new HeaderResolver(filePath, sink, errors);
+        MappedCsvReader.scanLines(filePath, MappedLineScanner.DEFAULT_WINDOW_SIZE, resolver);
+        return resolver.getCount();
+    }
+
+    /**
+     * Resolves the header on the first line and maps all further lines.
+     */
+    private final class HeaderResolver implements LineHandler {
+        private final String filePath;
+        private final Consumer<? super T> sink;
+        private final ErrorSink errors;
+        private RecordEmitter emitter;
+
+        HeaderResolver(String filePath, Consumer<? super T> sink, ErrorSink errors) {
+            this.filePath = filePath;
+            this.sink = sink;
+            this.errors = errors;
+        }
+
+        @Override
+        public void onLine(ByteBuffer buffer, int start, int end) {
+            if (emitter == null) {
+                emitter = resolve(new CsvRow(schema.getDelimiter()).reset(buffer, start, end));
+            } else {
+                emitter.onLine(buffer, start, end);
+            }
+        }
+
+        private RecordEmitter resolve(CsvRow header) {
+            List<String> names = schema.getColumnNames();
+            int[] fields = new int[names.size()];
+            int lastField = 0;
+            for (int column = 0; column < fields.length; column++) {
+                fields[column] = indexOf(header, names.get(column));
+                lastField = Math.max(lastField, fields[column]);
+            }
+
+            ProjectedRow projected = new ProjectedRow(fields, schema.getFormats().toArray(new NumberParser[0]));
+            int required = lastField + 1;
+            RowMapper<T> mapper = row -> {
+                if (row.fieldCount() < required) return null;
+                return schema.getMapping().apply(projected.bind(row));
+            };
+            CsvRow row = new CsvRow(schema.getDelimiter(), required);
+            // The header was line 1
+            return new RecordEmitter(row, RecordEmitter.mappingSink(mapper, sink), false, errors, 2);
+        }
+
+        private int indexOf(CsvRow header, String name) {
+            for (int field = 0; field < header.fieldCount(); field++) {
+                String text = header.getString(field);
+                // Tolerate a UTF-8 byte order mark before the first name
+                if (field == 0 && text.startsWith("\uFEFF")) {
+                    text = text.substring(1).trim();
+                }
+                if (text.equals(name)) {
+                    return field;
+                }
+            }
+            throw new DataReadException("Missing column '" + name + "' in header of file: " + filePath);
+        }
+
+        long getCount() {
+            return emitter == null ? 0 : emitter.getCount();
+        }
+    }
+}
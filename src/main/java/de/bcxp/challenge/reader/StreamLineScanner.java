@@ -0,0 +1,92 @@
+package de.bcxp.challenge.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Splits a byte stream into lines, for inputs that cannot be memory-mapped
+ * such as decompressed data.
+ *
+ * <p>Lines are terminated by {@code \n}, {@code \r\n} or a lone {@code \r},
+ * exactly as in {@link MappedLineScanner}. Lines are handed out as ranges of
+ * a reused heap buffer that grows for lines longer than the buffer.</p>
+ */
+final class StreamLineScanner {
+    static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final int bufferSize;
+
+    StreamLineScanner(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Scans all lines of the stream.
+     *
+     * @param in      the stream to read
+     * @param handler receives every line in order
+     * @return the number of lines found
+     * @throws IOException if reading fails
+     */
+    long scan(InputStream in, LineHandler handler) throws IOException {
+        byte[] bytes = new byte[bufferSize];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int length = 0;
+        boolean eof = false;
+        long lines = 0;
+
+        while (!eof || length > 0) {
+            if (!eof) {
+                if (length == bytes.length) {
+                    // A single line fills the buffer
+                    bytes = Arrays.copyOf(bytes, 2 * bytes.length);
+                    buffer = ByteBuffer.wrap(bytes);
+                }
+                int read = in.read(bytes, length, bytes.length - length);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    length += read;
+                }
+            }
+
+            int lineStart = 0;
+            int i = 0;
+            while (i < length) {
+                i = Swar.indexOfLineEnd(buffer, i, length);
+                if (i == length) break;
+                byte b = bytes[i];
+
+                int terminatorLength = 1;
+                if (b == '\r') {
+                    if (i + 1 < length) {
+                        if (bytes[i + 1] == '\n') terminatorLength = 2;
+                    } else if (!eof) {
+                        // The matching "\n" may follow with the next read
+                        break;
+                    }
+                }
+
+                handler.onLine(buffer, lineStart, i);
+                lines++;
+                i += terminatorLength;
+                lineStart = i;
+            }
+
+            if (eof) {
+                // The final line may lack a terminator
+                if (lineStart < length) {
+                    handler.onLine(buffer, lineStart, length);
+                    lines++;
+                }
+                length = 0;
+            } else {
+                System.arraycopy(bytes, lineStart, bytes, 0, length - lineStart);
+                length -= lineStart;
+            }
+        }
+        return lines;
+    }
+}
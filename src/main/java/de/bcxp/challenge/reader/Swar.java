@@ -0,0 +1,99 @@
+package de.bcxp.challenge.reader;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Byte searches that test eight bytes at a time ("SIMD within a register").
+ *
+ * <p>A {@code long} read from the buffer is compared against a pattern with
+ * the same byte in every lane. {@link #matches} sets the high bit of every
+ * lane that equals the pattern without carries between lanes, so a word
+ * holding a match costs a handful of arithmetic instructions instead of
+ * eight compares and branches. Words are normalized so that the first byte
+ * in memory is the lowest lane, whatever the buffer's byte order; the
+ * index of the first match is then its trailing zero count divided by
+ * eight. Ranges shorter than a word are finished byte by byte.</p>
+ */
+final class Swar {
+
+    static final long NEWLINES = broadcast((byte) '\n');
+    static final long RETURNS = broadcast((byte) '\r');
+    static final long QUOTES = broadcast((byte) '"');
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private Swar() {
+    }
+
+    /**
+     * Returns a pattern with the given byte in all eight lanes.
+     *
+     * @param b the byte to search for
+     * @return the pattern for {@link #matches}
+     */
+    static long broadcast(byte b) {
+        return (b & 0xFFL) * ONES;
+    }
+
+    /**
+     * Marks the lanes of a word equal to the pattern.
+     *
+     * @param word    eight bytes of input
+     * @param pattern a pattern from {@link #broadcast}
+     * @return {@code 0x80} in every matching lane, {@code 0} elsewhere
+     */
+    static long matches(long word, long pattern) {
+        long x = word ^ pattern;
+        // Adding 0x7F to the low seven bits sets the high bit of every lane
+        // with a non-zero low part; or-ing in x covers the lane's own high bit
+        return ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+    }
+
+    /**
+     * Reads eight bytes with the first byte in the lowest lane.
+     *
+     * @param buffer the source bytes
+     * @param index  index of the first byte; at least eight bytes must follow
+     * @return the word
+     */
+    static long word(ByteBuffer buffer, int index) {
+        long word = buffer.getLong(index);
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? Long.reverseBytes(word) : word;
+    }
+
+    /**
+     * Returns the lane of the first match in a non-zero result of
+     * {@link #matches}.
+     */
+    static int firstLane(long matches) {
+        return Long.numberOfTrailingZeros(matches) >>> 3;
+    }
+
+    /**
+     * Returns the index of the first {@code \n} or {@code \r} in the range.
+     *
+     * @param buffer the source bytes
+     * @param from   start index (inclusive)
+     * @param to     end index (exclusive)
+     * @return the index of the terminator, or {@code to} if there is none
+     */
+    static int indexOfLineEnd(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        for (; i <= to - Long.BYTES; i += Long.BYTES) {
+            long word = word(buffer, i);
+            long found = matches(word, NEWLINES) | matches(word, RETURNS);
+            if (found != 0) {
+                return i + firstLane(found);
+            }
+        }
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r') {
+                return i;
+            }
+        }
+        return to;
+    }
+}
@@ -0,0 +1,184 @@
+package de.bcxp.challenge.reader;
+
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.exception.DataReadException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Follows a growing CSV file and parses only lines appended since the
+ * previous poll.
+ *
+ * <p>The reader remembers the byte offset after the last complete line it
+ * consumed. A line counts as complete once its line feed has been written,
+ * so a row that is still being appended is picked up by a later poll. A
+ * final line without terminator is therefore never consumed; feeds are
+ * expected to end every row with a line break. The offset advances line
+ * by line, so if the sink throws, the next poll resumes with the line that
+ * failed and earlier lines are not delivered twice.</p>
+ *
+ * <p>Before reading, every poll checks whether the file was truncated
+ * (shorter than the offset), rotated (a different file now lives at the
+ * path) or rewritten (the first bytes changed). In these cases the reader
+ * notifies the caller and rescans the file from the beginning.</p>
+ *
+ * <p>Instances are not thread-safe.</p>
+ *
+ * @param <T> the type of objects produced from the file contents
+ */
+public class TailingCsvReader<T> {
+
+    /** Number of leading bytes compared to detect a rewritten file. */
+    private static final int PREFIX_LENGTH = 4096;
+
+    private static final int BACKWARD_BLOCK_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final CsvFormat<T> format;
+    private final MappedLineScanner scanner = new MappedLineScanner(MappedLineScanner.DEFAULT_WINDOW_SIZE);
+
+    private long offset;
+    private Object fileKey;
+    private int prefixLength;
+    private long prefixChecksum;
+    private long restarts;
+    private long lines;
+
+    /**
+     * Creates a reader following the given file from its beginning.
+     *
+     * @param filePath the path to the CSV file
+     * @param format   the file format
+     */
+    public TailingCsvReader(String filePath, CsvFormat<T> format) {
+        this.path = Path.of(filePath);
+        this.format = format;
+    }
+
+    /**
+     * Parses all complete lines appended since the previous poll.
+     *
+     * @param sink      receives each new record in file order
+     * @param onRestart called before records are pushed if the file was
+     *                  truncated, rotated or rewritten; the records that
+     *                  follow start again at the beginning of the file
+     * @return the number of records passed to the sink
+     */
+    public long poll(Consumer<? super T> sink, Runnable onRestart) {
+        return poll(sink, onRestart, ErrorSink.standardError());
+    }
+
+    /**
+     * Parses all complete lines appended since the previous poll and
+     * reports skipped rows.
+     *
+     * @param sink      receives each new record in file order
+     * @param onRestart called before records are pushed if the file was
+     *                  truncated, rotated or rewritten
+     * @param errors    receives each skipped row; line numbers count from
+     *                  the beginning of the file
+     * @return the number of records passed to the sink
+     * @see #poll(Consumer, Runnable)
+     */
+    public long poll(Consumer<? super T> sink, Runnable onRestart, ErrorSink errors) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Object currentKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+            long size = channel.size();
+
+            if (offset > 0 && (size < offset || !Objects.equals(currentKey, fileKey)
+                    || checksum(channel, prefixLength) != prefixChecksum)) {
+                offset = 0;
+                prefixLength = 0;
+                lines = 0;
+                restarts++;
+                onRestart.run();
+            }
+            fileKey = currentKey;
+
+            long end = endOfCompleteLines(channel, offset, size);
+            if (end <= offset) {
+                return 0;
+            }
+
+            // The prefix only covers complete lines, which stay valid even if the scan below fails
+            if (prefixLength < PREFIX_LENGTH) {
+                prefixLength = (int) Math.min(PREFIX_LENGTH, end);
+                prefixChecksum = checksum(channel, prefixLength);
+            }
+
+            RecordEmitter emitter = new RecordEmitter(format.newRow(),
+                    RecordEmitter.mappingSink(format.getMapper(), sink), offset == 0, errors, lines + 1);
+            scanner.scan(channel, offset, end, emitter, lineEnd -> {
+                offset = lineEnd;
+                lines++;
+            });
+            return emitter.getCount();
+
+        } catch (IOException e) {
+            throw new DataReadException("Error reading file: " + path, e);
+        }
+    }
+
+    /**
+     * Returns the offset after the last consumed line.
+     *
+     * @return the number of bytes consumed
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns how often the file had to be rescanned from the beginning.
+     *
+     * @return the number of detected truncations, rotations and rewrites
+     */
+    public long getRestartCount() {
+        return restarts;
+    }
+
+    /**
+     * Finds the position after the last line feed in {@code [from, size)}.
+     * A trailing carriage return may be the first half of "\r\n" and does not
+     * end a line yet.
+     */
+    private static long endOfCompleteLines(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(BACKWARD_BLOCK_SIZE);
+        long blockEnd = size;
+        while (blockEnd > from) {
+            long blockStart = Math.max(from, blockEnd - BACKWARD_BLOCK_SIZE);
+            block.clear().limit((int) (blockEnd - blockStart));
+            while (block.hasRemaining() && channel.read(block, blockStart + block.position()) >= 0) {
+                // Read the whole block
+            }
+            for (int i = block.position() - 1; i >= 0; i--) {
+                byte b = block.get(i);
+                if (b == '\n' || (b == '\r' && blockStart + i + 1 < size)) {
+                    return blockStart + i + 1;
+                }
+            }
+            blockEnd = blockStart;
+        }
+        return from;
+    }
+
+    private static long checksum(FileChannel channel, int length) throws IOException {
+        ByteBuffer prefix = ByteBuffer.allocate(length);
+        while (prefix.hasRemaining() && channel.read(prefix, prefix.position()) >= 0) {
+            // Read the whole prefix
+        }
+        prefix.flip();
+        CRC32C crc = new CRC32C();
+        crc.update(prefix);
+        return crc.getValue();
+    }
+}
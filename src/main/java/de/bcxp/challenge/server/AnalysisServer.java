@@ -0,0 +1,316 @@
+package de.bcxp.challenge.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.api.Aggregation;
+import de.bcxp.challenge.api.Analyzer;
+import de.bcxp.challenge.cache.CacheStats;
+import de.bcxp.challenge.cache.CachingDataReader;
+import de.bcxp.challenge.exception.DataReadException;
+import de.bcxp.challenge.metrics.MetricsRegistry;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.service.CountryAnalyzer;
+import de.bcxp.challenge.service.WeatherAnalyzer;
+import de.bcxp.challenge.table.CountryTableReader;
+import de.bcxp.challenge.table.WeatherTableReader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Long-running HTTP server answering weather and country queries.
+ *
+ * <p>Unlike a fresh {@code App} launch per query, the server keeps its
+ * readers, analyzers and the JIT-compiled code warm, and parsed datasets
+ * stay in a byte-bounded {@link CachingDataReader} until their file
+ * changes. Requests are handled concurrently on a fixed pool of
+ * threads. All responses are JSON:</p>
+ *
+ * <ul>
+ *   <li>{@code GET /weather/min-spread?file=weather.csv}</li>
+ *   <li>{@code GET /weather/calmest?file=weather.csv&k=3}</li>
+ *   <li>{@code GET /countries/max-density?file=countries.csv}</li>
+ *   <li>{@code GET /countries/densest?file=countries.csv&k=3}</li>
+ *   <li>{@code GET /stats}: cache statistics and phase metrics</li>
+ *   <li>{@code GET /health}</li>
+ * </ul>
+ *
+ * <p>Files are resolved within the data directory; paths leaving it are
+ * rejected, as is a {@code k} above {@link #MAX_K}. The server binds to
+ * the loopback interface by default.</p>
+ *
+ * <p>Without {@code -Dsun.net.httpserver.nodelay=true}, small responses
+ * wait for the client's delayed ACK, about 40 ms per request. The JDK
+ * reads the property once, when the first HTTP server of the process is
+ * created; {@link #main} sets it, applications embedding the server
+ * should set it themselves.</p>
+ */
+public class AnalysisServer implements AutoCloseable {
+
+    /** Default port of {@link #main}. */
+    public static final int DEFAULT_PORT = 8080;
+
+    /** Default cache size per dataset kind. */
+    public static final long DEFAULT_CACHE_BYTES = 256L * 1024 * 1024;
+
+    /** Largest {@code k} accepted by the top-K queries. */
+    public static final int MAX_K = 10_000;
+
+    // Enough runs for the query paths to be compiled before the first request
+    private static final int WARM_UP_ITERATIONS = 10_000;
+
+    // Columnar tables cost about this much per row, see WeatherTable and CountryTable
+    private static final long WEATHER_BYTES_PER_RECORD = 20;
+    private static final long COUNTRY_BYTES_PER_RECORD = 24;
+
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final Path dataDirectory;
+    private final HttpServer server;
+    private final ExecutorService pool;
+    private final MetricsRegistry metrics = new MetricsRegistry(true);
+    private final CachingDataReader<WeatherDay> weather;
+    private final CachingDataReader<Country> countries;
+    private final WeatherAnalyzer weatherAnalyzer = new WeatherAnalyzer();
+    private final CountryAnalyzer countryAnalyzer = new CountryAnalyzer();
+    private final Analyzer<WeatherDay> minSpread = metrics.analyzer("weather.analyze", weatherAnalyzer);
+    private final Analyzer<Country> maxDensity = metrics.analyzer("countries.analyze", countryAnalyzer);
+    private final Map<String, Function<Map<String, String>, String>> routes = new HashMap<>();
+
+    /**
+     * Creates a server; call {@link #start()} to accept requests.
+     *
+     * @param dataDirectory the directory files are resolved in
+     * @param address       the address to bind to; port 0 picks a free port
+     * @param threads       the number of request handling threads
+     * @param cacheBytes    the cache size per dataset kind
+     * @throws IOException if the address cannot be bound
+     */
+    public AnalysisServer(Path dataDirectory, InetSocketAddress address, int threads, long cacheBytes)
+            throws IOException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.dataDirectory = dataDirectory.toAbsolutePath().normalize();
+        this.weather = new CachingDataReader<>(
+                metrics.reader("weather.read", new WeatherTableReader()), cacheBytes, WEATHER_BYTES_PER_RECORD);
+        this.countries = new CachingDataReader<>(
+                metrics.reader("countries.read", new CountryTableReader()), cacheBytes, COUNTRY_BYTES_PER_RECORD);
+
+        routes.put("/weather/min-spread", query -> Json.optional(
+                minSpread.analyze(weather(query)), Json::weatherDay));
+        routes.put("/weather/calmest", query -> Json.array(
+                fold(weatherAnalyzer.calmestDays(k(query)), weather(query)), Json::weatherDay));
+        routes.put("/countries/max-density", query -> Json.optional(
+                maxDensity.analyze(countries(query)), Json::country));
+        routes.put("/countries/densest", query -> Json.array(
+                fold(countryAnalyzer.densestCountries(k(query)), countries(query)), Json::country));
+        routes.put("/stats", query -> "{\"weatherCache\":" + stats(weather.getStats())
+                + ",\"countryCache\":" + stats(countries.getStats())
+                + ",\"metrics\":" + metrics.snapshot().toJson() + '}');
+        routes.put("/health", query -> "{\"status\":\"ok\"}");
+
+        this.server = HttpServer.create(address, 0);
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "analysis-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(pool);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts a server on the loopback interface, warmed up with the default
+     * files if the data directory contains them.
+     *
+     * @param args optional port and data directory
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String... args) throws IOException {
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Path data = Path.of(args.length > 1 ? args[1] : "src/main/resources/de/bcxp/challenge");
+
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        AnalysisServer server = new AnalysisServer(data, address, Runtime.getRuntime().availableProcessors(),
+                DEFAULT_CACHE_BYTES);
+        if (Files.isRegularFile(data.resolve("weather.csv")) && Files.isRegularFile(data.resolve("countries.csv"))) {
+            server.warmUp("weather.csv", "countries.csv", WARM_UP_ITERATIONS);
+        }
+        server.start();
+        System.out.printf("Serving %s on http://localhost:%d/%n", data, server.getPort());
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Runs every query the given number of times in-process, so the first
+     * requests are served by compiled code from a filled cache.
+     *
+     * <p>The cache and phase counters are reset afterwards, so
+     * {@code /stats} only reports requests made by clients; call this
+     * before {@link #start}.</p>
+     *
+     * @param weatherFile the weather file, relative to the data directory
+     * @param countryFile the country file, relative to the data directory
+     * @param iterations  the number of runs per query
+     */
+    public void warmUp(String weatherFile, String countryFile, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            for (Map.Entry<String, Function<Map<String, String>, String>> route : routes.entrySet()) {
+                String file = route.getKey().startsWith("/weather") ? weatherFile : countryFile;
+                route.getValue().apply(Map.of("file", file));
+            }
+        }
+        weather.resetStats();
+        countries.resetStats();
+        metrics.reset();
+    }
+
+    /**
+     * Stops the server immediately; requests in progress are aborted.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        pool.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            Function<Map<String, String>, String> route = routes.get(exchange.getRequestURI().getPath());
+            if (route == null) {
+                respond(exchange, 404, error("Unknown path: " + exchange.getRequestURI().getPath()));
+            } else if (!"GET".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, error("Only GET is supported"));
+            } else {
+                respond(exchange, 200, route.apply(parseQuery(exchange.getRequestURI().getRawQuery())));
+            }
+        } catch (FileNotFound e) {
+            respond(exchange, 404, error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, error(e.getMessage()));
+        } catch (DataReadException | UncheckedIOException e) {
+            respond(exchange, 500, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            // Any other failure still answers the request instead of dropping it
+            respond(exchange, 500, error("Internal error: " + e));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + Json.string(String.valueOf(message)) + '}';
+    }
+
+    private List<WeatherDay> weather(Map<String, String> query) {
+        return weather.readData(resolve(query.getOrDefault("file", "weather.csv")));
+    }
+
+    private List<Country> countries(Map<String, String> query) {
+        return countries.readData(resolve(query.getOrDefault("file", "countries.csv")));
+    }
+
+    /**
+     * Resolves a file within the data directory.
+     */
+    private String resolve(String file) {
+        Path path = dataDirectory.resolve(file).normalize();
+        if (!path.startsWith(dataDirectory)) {
+            throw new IllegalArgumentException("File outside the data directory: " + file);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new FileNotFound("No such file: " + file);
+        }
+        return path.toString();
+    }
+
+    private static int k(Map<String, String> query) {
+        String k = query.getOrDefault("k", "3");
+        int value;
+        try {
+            value = Integer.parseInt(k);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid k: " + k);
+        }
+        if (value > MAX_K) {
+            throw new IllegalArgumentException("k must not exceed " + MAX_K + ": " + k);
+        }
+        return value;
+    }
+
+    private static <T, R> R fold(Aggregation<T, R> aggregation, List<T> data) {
+        Accumulator<T, R> accumulator = aggregation.newAccumulator();
+        data.forEach(accumulator::accept);
+        return accumulator.result();
+    }
+
+    private static String stats(CacheStats stats) {
+        return "{\"hits\":" + stats.getHits()
+                + ",\"misses\":" + stats.getMisses()
+                + ",\"evictions\":" + stats.getEvictions()
+                + ",\"entries\":" + stats.getEntryCount()
+                + ",\"weightedSize\":" + stats.getWeightedSize() + '}';
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) return query;
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    /**
+     * A requested file does not exist.
+     */
+    private static final class FileNotFound extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        FileNotFound(String message) {
+            super(message);
+        }
+    }
+}
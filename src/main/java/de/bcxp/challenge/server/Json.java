@@ -0,0 +1,64 @@
+package de.bcxp.challenge.server;
+
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Renders the server's responses as JSON.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    static String weatherDay(WeatherDay day) {
+        return "{\"day\":" + day.getDay()
+                + ",\"maxTemp\":" + number(day.getMaxTemp())
+                + ",\"minTemp\":" + number(day.getMinTemp())
+                + ",\"spread\":" + number(day.getTemperatureDifference()) + '}';
+    }
+
+    static String country(Country country) {
+        return "{\"name\":" + string(country.getName())
+                + ",\"population\":" + number(country.getPopulation())
+                + ",\"area\":" + number(country.getArea())
+                + ",\"density\":" + number(country.getPopulationDensity()) + '}';
+    }
+
+    static <T> String optional(Optional<T> value, Function<T, String> render) {
+        return value.map(render).orElse("null");
+    }
+
+    static <T> String array(List<T> values, Function<T, String> render) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) json.append(',');
+            json.append(render.apply(values.get(i)));
+        }
+        return json.append(']').toString();
+    }
+
+    static String number(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) return "null";
+        return Double.toString(value);
+    }
+
+    static String string(String value) {
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+}
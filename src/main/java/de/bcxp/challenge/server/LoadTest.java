@@ -0,0 +1,158 @@
+package de.bcxp.challenge.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator measuring request latency of an
+ * {@link AnalysisServer}.
+ *
+ * <p>Each client thread sends its requests one after another, cycling
+ * through the given URIs, and records the latency of each. Every client
+ * first sends unmeasured warm-up requests; then all clients start the
+ * measured phase together. Non-2xx responses and I/O failures count as
+ * errors and are excluded from the latencies.</p>
+ */
+public final class LoadTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<URI> uris;
+    private final int clients;
+    private final int warmUpRequests;
+    private final int requests;
+
+    /**
+     * Creates a load test.
+     *
+     * @param uris           the requests to cycle through
+     * @param clients        the number of concurrent clients
+     * @param warmUpRequests unmeasured requests per client
+     * @param requests       measured requests per client
+     */
+    public LoadTest(List<URI> uris, int clients, int warmUpRequests, int requests) {
+        if (uris.isEmpty() || clients <= 0 || warmUpRequests < 0 || requests <= 0) {
+            throw new IllegalArgumentException("Need URIs, clients and requests");
+        }
+        this.uris = List.copyOf(uris);
+        this.clients = clients;
+        this.warmUpRequests = warmUpRequests;
+        this.requests = requests;
+    }
+
+    /**
+     * Starts a server on a free local port, runs a load test against all
+     * query endpoints and prints the result.
+     *
+     * @param args optional client count, requests per client and data
+     *             directory
+     * @throws Exception if the server cannot be started or the run is
+     *                   interrupted
+     */
+    public static void main(String... args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        Path data = Path.of(args.length > 2 ? args[2] : "src/main/resources/de/bcxp/challenge");
+
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (AnalysisServer server = new AnalysisServer(data, address, Runtime.getRuntime().availableProcessors(),
+                AnalysisServer.DEFAULT_CACHE_BYTES)) {
+            server.start();
+            String base = "http://localhost:" + server.getPort();
+            List<URI> uris = List.of(
+                    URI.create(base + "/weather/min-spread"),
+                    URI.create(base + "/weather/calmest?k=5"),
+                    URI.create(base + "/countries/max-density"),
+                    URI.create(base + "/countries/densest?k=5"));
+
+            LoadTestResult result = new LoadTest(uris, clients, requests / 10, requests).run();
+            System.out.printf("%d clients: %s%n", clients, result);
+        }
+    }
+
+    /**
+     * Runs the test.
+     *
+     * @return the measured latencies
+     * @throws InterruptedException if interrupted while waiting for clients
+     */
+    public LoadTestResult run() throws InterruptedException {
+        long[][] latencies = new long[clients][];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch warmedUp = new CountDownLatch(clients);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < warmUpRequests; i++) {
+                    send(uris.get((client + i) % uris.size()));
+                }
+                warmedUp.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                long[] measured = new long[requests];
+                int ok = 0;
+                for (int i = 0; i < requests; i++) {
+                    long begin = System.nanoTime();
+                    if (send(uris.get((client + i) % uris.size()))) {
+                        measured[ok++] = System.nanoTime() - begin;
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                }
+                latencies[client] = Arrays.copyOf(measured, ok);
+            }, "load-client-" + c);
+            thread.start();
+            threads.add(thread);
+        }
+
+        warmedUp.await();
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        int total = 0;
+        for (long[] client : latencies) {
+            total += client == null ? 0 : client.length;
+        }
+        long[] all = new long[total];
+        int position = 0;
+        for (long[] client : latencies) {
+            if (client == null) continue;
+            System.arraycopy(client, 0, all, position, client.length);
+            position += client.length;
+        }
+        return new LoadTestResult(all, errors.get(), elapsed);
+    }
+
+    private boolean send(URI uri) {
+        try {
+            HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            return response.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package de.bcxp.challenge.server;
+
+import java.util.Arrays;
+
+/**
+ * Latency distribution and throughput of a {@link LoadTest} run.
+ */
+public final class LoadTestResult {
+    private final long[] latencies;
+    private final long errors;
+    private final long elapsedNanos;
+
+    /**
+     * Creates a result.
+     *
+     * @param latencies    latencies of all measured requests in nanoseconds;
+     *                     sorted in place
+     * @param errors       the number of failed requests
+     * @param elapsedNanos the wall-clock time of the measured phase
+     */
+    LoadTestResult(long[] latencies, long errors, long elapsedNanos) {
+        Arrays.sort(latencies);
+        this.latencies = latencies;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the number of successful requests.
+     *
+     * @return the request count
+     */
+    public long getRequests() {
+        return latencies.length;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the latency below which the given fraction of requests
+     * completed, using the nearest-rank method.
+     *
+     * @param percentile between 0 (exclusive) and 100 (inclusive)
+     * @return the latency in nanoseconds, or 0 without requests
+     */
+    public long percentileNanos(double percentile) {
+        if (!(percentile > 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+        }
+        if (latencies.length == 0) return 0;
+        int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+        return latencies[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Returns the number of successful requests per second.
+     *
+     * @return the throughput
+     */
+    public double requestsPerSecond() {
+        return elapsedNanos == 0 ? 0 : latencies.length * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d requests, %d errors, %.0f req/s, p50=%.3f ms, p99=%.3f ms, max=%.3f ms",
+                getRequests(), errors, requestsPerSecond(), percentileNanos(50) / 1e6, percentileNanos(99) / 1e6,
+                percentileNanos(100) / 1e6);
+    }
+}
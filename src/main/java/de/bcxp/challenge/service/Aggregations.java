@@ -0,0 +1,179 @@
+package de.bcxp.challenge.service;
+
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.api.Aggregation;
+
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Factory methods for common, mergeable aggregations over a numeric metric.
+ *
+ * <p>All aggregations ignore {@code null} records. The record-selecting
+ * aggregations resolve ties to the earliest record; the analyzers' own
+ * accumulators are built on them.</p>
+ */
+public final class Aggregations {
+
+    private Aggregations() {
+    }
+
+    /**
+     * Selects the record with the smallest metric.
+     *
+     * @param metric extracts the compared value
+     * @param <T>    the type of records consumed
+     * @return the aggregation
+     */
+    public static <T> Aggregation<T, Optional<T>> minBy(ToDoubleFunction<? super T> metric) {
+        return () -> new SelectAccumulator<>(metric, false);
+    }
+
+    /**
+     * Selects the record with the largest metric.
+     *
+     * @param metric extracts the compared value
+     * @param <T>    the type of records consumed
+     * @return the aggregation
+     */
+    public static <T> Aggregation<T, Optional<T>> maxBy(ToDoubleFunction<? super T> metric) {
+        return () -> new SelectAccumulator<>(metric, true);
+    }
+
+    /**
+     * Computes the arithmetic mean of the metric.
+     *
+     * @param metric extracts the averaged value
+     * @param <T>    the type of records consumed
+     * @return the aggregation, empty if no records were accepted
+     */
+    public static <T> Aggregation<T, OptionalDouble> average(ToDoubleFunction<? super T> metric) {
+        return () -> new AverageAccumulator<>(metric);
+    }
+
+    /**
+     * Counts the records.
+     *
+     * @param <T> the type of records consumed
+     * @return the aggregation
+     */
+    public static <T> Aggregation<T, Long> count() {
+        return CountAccumulator::new;
+    }
+
+    /**
+     * Arg-min or arg-max over a metric.
+     */
+    private static final class SelectAccumulator<T> implements Accumulator<T, Optional<T>> {
+        private final ToDoubleFunction<? super T> metric;
+        private final boolean max;
+        private T best;
+        private double bestValue;
+
+        SelectAccumulator(ToDoubleFunction<? super T> metric, boolean max) {
+            this.metric = metric;
+            this.max = max;
+        }
+
+        @Override
+        public void accept(T item) {
+            if (item == null) return;
+
+            double value = metric.applyAsDouble(item);
+            if (best == null || isBetter(value, bestValue)) {
+                best = item;
+                bestValue = value;
+            }
+        }
+
+        private boolean isBetter(double value, double current) {
+            // Strict comparison keeps the earlier record on ties
+            int cmp = Double.compare(value, current);
+            return max ? cmp > 0 : cmp < 0;
+        }
+
+        @Override
+        public Optional<T> result() {
+            return Optional.ofNullable(best);
+        }
+
+        @Override
+        public boolean isMergeable() {
+            return true;
+        }
+
+        @Override
+        public void merge(Accumulator<T, Optional<T>> other) {
+            SelectAccumulator<T> later = (SelectAccumulator<T>) other;
+            if (later.best != null && (best == null || isBetter(later.bestValue, bestValue))) {
+                best = later.best;
+                bestValue = later.bestValue;
+            }
+        }
+    }
+
+    /**
+     * Running sum and count.
+     */
+    private static final class AverageAccumulator<T> implements Accumulator<T, OptionalDouble> {
+        private final ToDoubleFunction<? super T> metric;
+        private double sum;
+        private long count;
+
+        AverageAccumulator(ToDoubleFunction<? super T> metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        public void accept(T item) {
+            if (item == null) return;
+
+            sum += metric.applyAsDouble(item);
+            count++;
+        }
+
+        @Override
+        public OptionalDouble result() {
+            return count == 0 ? OptionalDouble.empty() : OptionalDouble.of(sum / count);
+        }
+
+        @Override
+        public boolean isMergeable() {
+            return true;
+        }
+
+        @Override
+        public void merge(Accumulator<T, OptionalDouble> other) {
+            AverageAccumulator<T> later = (AverageAccumulator<T>) other;
+            sum += later.sum;
+            count += later.count;
+        }
+    }
+
+    private static final class CountAccumulator<T> implements Accumulator<T, Long> {
+        private long count;
+
+        @Override
+        public void accept(T item) {
+            if (item != null) {
+                count++;
+            }
+        }
+
+        @Override
+        public Long result() {
+            return count;
+        }
+
+        @Override
+        public boolean isMergeable() {
+            return true;
+        }
+
+        @Override
+        public void merge(Accumulator<T, Long> other) {
+            count += ((CountAccumulator<T>) other).count;
+        }
+    }
+}
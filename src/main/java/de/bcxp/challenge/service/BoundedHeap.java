@@ -0,0 +1,153 @@
+package de.bcxp.challenge.service;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity heap keeping the best {@code capacity} entries of a stream
+ * of {@code (key, sequence)} pairs, using primitive arrays only.
+ *
+ * <p>An entry is better if its key is smaller (or larger, for a
+ * {@code largest} heap); equal keys are ordered by sequence number, so the
+ * earlier entry wins and the result is deterministic. The heap root is the
+ * worst kept entry, so a rejected candidate costs a single comparison.</p>
+ *
+ * <p>Entries live in fixed slots; the heap only permutes slot ids. Callers
+ * can therefore keep payloads in their own array indexed by the slot
+ * returned from {@link #offer(double, long)}.</p>
+ *
+ * <p>The arrays start small and grow up to the capacity, so a large K
+ * costs memory only for entries actually kept.</p>
+ */
+final class BoundedHeap {
+    private static final int INITIAL_SLOTS = 16;
+
+    private final int capacity;
+    private final boolean largest;
+    private double[] keys;
+    private long[] sequences;
+    // heap[i] is a slot id; heap[0] is the worst kept entry
+    private int[] heap;
+    private int size;
+
+    BoundedHeap(int capacity, boolean largest) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        this.largest = largest;
+        int slots = Math.min(capacity, INITIAL_SLOTS);
+        this.keys = new double[slots];
+        this.sequences = new long[slots];
+        this.heap = new int[slots];
+    }
+
+    /**
+     * Offers an entry.
+     *
+     * @param key      the ranking key
+     * @param sequence the position of the entry in the input, for ties
+     * @return the slot the entry was stored in, or {@code -1} if it was
+     *         not among the best entries
+     */
+    int offer(double key, long sequence) {
+        if (size < capacity) {
+            if (size == heap.length) {
+                grow();
+            }
+            int slot = size;
+            keys[slot] = key;
+            sequences[slot] = sequence;
+            heap[size] = slot;
+            siftUp(size++);
+            return slot;
+        }
+        if (size == 0 || !isBetter(key, sequence, heap[0])) {
+            return -1;
+        }
+        // Replace the worst entry in place
+        int slot = heap[0];
+        keys[slot] = key;
+        sequences[slot] = sequence;
+        siftDown(heap, 0, size);
+        return slot;
+    }
+
+    private void grow() {
+        int slots = (int) Math.min(capacity, 2L * heap.length);
+        keys = Arrays.copyOf(keys, slots);
+        sequences = Arrays.copyOf(sequences, slots);
+        heap = Arrays.copyOf(heap, slots);
+    }
+
+    int size() {
+        return size;
+    }
+
+    double key(int slot) {
+        return keys[slot];
+    }
+
+    long sequence(int slot) {
+        return sequences[slot];
+    }
+
+    /**
+     * Returns the occupied slots ordered from best to worst.
+     *
+     * @return the slot ids
+     */
+    int[] sortedSlots() {
+        // Heapsort a copy: swapping the worst entry behind the shrinking heap leaves best to worst
+        int[] slots = Arrays.copyOf(heap, size);
+        for (int end = size - 1; end > 0; end--) {
+            int worst = slots[0];
+            slots[0] = slots[end];
+            slots[end] = worst;
+            siftDown(slots, 0, end);
+        }
+        return slots;
+    }
+
+    private boolean isBetter(double key, long sequence, int slot) {
+        int cmp = Double.compare(key, keys[slot]);
+        if (cmp != 0) {
+            return largest ? cmp > 0 : cmp < 0;
+        }
+        return sequence < sequences[slot];
+    }
+
+    private boolean isWorse(int slot, int other) {
+        return isBetter(keys[other], sequences[other], slot);
+    }
+
+    private void siftUp(int index) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isWorse(slot, heap[parent])) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = slot;
+    }
+
+    private void siftDown(int[] heap, int index, int size) {
+        int slot = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && isWorse(heap[right], heap[child])) {
+                child = right;
+            }
+            if (!isWorse(heap[child], slot)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = slot;
+    }
+}
@@ -0,0 +1,228 @@
+package de.bcxp.challenge.service;
+
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.api.Aggregation;
+import de.bcxp.challenge.api.StreamingDataReader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates any number of aggregations in a single traversal of the data.
+ *
+ * <p>Running several analyzers one after another costs one pass over the
+ * list, or one parse of the file, per question. A composite analyzer feeds
+ * every record to all registered accumulators at once, so the data is
+ * touched exactly once. When used with a parallel reader, every chunk gets
+ * its own set of accumulators and the sets are merged member by member.</p>
+ *
+ * <p>Aggregations are registered with a {@link Builder}, which hands out a
+ * typed {@link Slot} per aggregation for retrieving its result:</p>
+ *
+ * <pre>{@code
+ * CompositeAnalyzer.Builder<WeatherDay> builder = CompositeAnalyzer.builder();
+ * Slot<Optional<WeatherDay>> minSpread = builder.add(new WeatherAnalyzer());
+ * Slot<OptionalDouble> meanMax = builder.add(Aggregations.average(WeatherDay::getMaxTemp));
+ * Results results = builder.build().analyze(reader, filePath);
+ * results.get(minSpread);
+ * }</pre>
+ *
+ * @param <T> the type of objects to analyze
+ */
+public final class CompositeAnalyzer<T> implements Aggregation<T, CompositeAnalyzer.Results> {
+
+    private final Builder<T> owner;
+    private final List<Aggregation<T, ?>> aggregations;
+
+    private CompositeAnalyzer(Builder<T> owner, List<Aggregation<T, ?>> aggregations) {
+        this.owner = owner;
+        this.aggregations = List.copyOf(aggregations);
+    }
+
+    /**
+     * Creates a builder for a new composite analyzer.
+     *
+     * @param <T> the type of objects to analyze
+     * @return a new, empty builder
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Evaluates all aggregations over the given list in one pass.
+     *
+     * @param data the data to analyze, may be {@code null}
+     * @return the results of all aggregations
+     */
+    public Results analyze(List<T> data) {
+        Accumulator<T, Results> accumulator = newAccumulator();
+        if (data != null) {
+            for (T item : data) {
+                accumulator.accept(item);
+            }
+        }
+        return accumulator.result();
+    }
+
+    /**
+     * Reads the given file once and evaluates all aggregations while the
+     * records are parsed.
+     *
+     * @param reader   the reader producing the records
+     * @param filePath the path to the file to read
+     * @return the results of all aggregations
+     */
+    public Results analyze(StreamingDataReader<T> reader, String filePath) {
+        return reader.aggregate(filePath, this::newAccumulator);
+    }
+
+    /**
+     * Creates an accumulator feeding every record to one accumulator per
+     * registered aggregation.
+     *
+     * @return a new, empty accumulator
+     */
+    @Override
+    public Accumulator<T, Results> newAccumulator() {
+        List<Accumulator<T, ?>> members = new ArrayList<>(aggregations.size());
+        for (Aggregation<T, ?> aggregation : aggregations) {
+            members.add(aggregation.newAccumulator());
+        }
+        return new CompositeAccumulator<>(owner, members);
+    }
+
+    /**
+     * Collects the aggregations of a {@link CompositeAnalyzer}.
+     *
+     * @param <T> the type of objects to analyze
+     */
+    public static final class Builder<T> {
+        private final List<Aggregation<T, ?>> aggregations = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Registers an aggregation.
+         *
+         * @param aggregation the aggregation to evaluate
+         * @param <R>         the type of its result
+         * @return the slot under which the result is available
+         */
+        public <R> Slot<R> add(Aggregation<T, R> aggregation) {
+            aggregations.add(aggregation);
+            return new Slot<>(this, aggregations.size() - 1);
+        }
+
+        /**
+         * Creates the composite analyzer. The builder may be reused afterwards.
+         *
+         * @return the analyzer
+         */
+        public CompositeAnalyzer<T> build() {
+            return new CompositeAnalyzer<>(this, aggregations);
+        }
+    }
+
+    /**
+     * Typed handle for the result of one registered aggregation.
+     *
+     * <p>A slot belongs to the builder that created it and is valid for the
+     * results of every analyzer built by that builder after the slot was
+     * added.</p>
+     *
+     * @param <R> the type of the result
+     */
+    public static final class Slot<R> {
+        private final Builder<?> owner;
+        private final int index;
+
+        private Slot(Builder<?> owner, int index) {
+            this.owner = owner;
+            this.index = index;
+        }
+    }
+
+    /**
+     * The results of all aggregations of one analysis run.
+     */
+    public static final class Results {
+        private final Builder<?> owner;
+        private final Object[] values;
+
+        private Results(Builder<?> owner, Object[] values) {
+            this.owner = owner;
+            this.values = values;
+        }
+
+        /**
+         * Returns the result of the aggregation registered under the slot.
+         *
+         * @param slot the slot returned by {@link Builder#add(Aggregation)}
+         * @param <R>  the type of the result
+         * @return the result
+         * @throws IllegalArgumentException if the slot was not registered
+         *                                  with the analyzer of these results
+         */
+        @SuppressWarnings("unchecked")
+        public <R> R get(Slot<R> slot) {
+            // Only the owning builder's slots are known to hold a value of type R
+            if (slot.owner != owner || slot.index >= values.length) {
+                throw new IllegalArgumentException("Slot " + slot.index + " was not registered with this analyzer");
+            }
+            return (R) values[slot.index];
+        }
+    }
+
+    private static final class CompositeAccumulator<T> implements Accumulator<T, Results> {
+        private final Builder<T> owner;
+        private final List<Accumulator<T, ?>> members;
+        private final boolean mergeable;
+
+        CompositeAccumulator(Builder<T> owner, List<Accumulator<T, ?>> members) {
+            this.owner = owner;
+            this.members = members;
+            this.mergeable = members.stream().allMatch(Accumulator::isMergeable);
+        }
+
+        @Override
+        public void accept(T item) {
+            for (Accumulator<T, ?> member : members) {
+                member.accept(item);
+            }
+        }
+
+        @Override
+        public Results result() {
+            Object[] values = new Object[members.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = members.get(i).result();
+            }
+            return new Results(owner, values);
+        }
+
+        @Override
+        public boolean isMergeable() {
+            return mergeable;
+        }
+
+        @Override
+        public void merge(Accumulator<T, Results> other) {
+            // Checked before any member is merged, so a failure leaves this accumulator intact
+            if (!mergeable) {
+                throw new UnsupportedOperationException("Composite with a non-mergeable member cannot be merged");
+            }
+            List<Accumulator<T, ?>> later = ((CompositeAccumulator<T>) other).members;
+            for (int i = 0; i < members.size(); i++) {
+                mergeMember(members.get(i), later.get(i));
+            }
+        }
+
+        // Both members were created by the same aggregation, so their types match
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static void mergeMember(Accumulator target, Accumulator other) {
+            target.merge(other);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package de.bcxp.challenge.service;
 
-import de.bcxp.challenge.api.Analyzer;
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.api.Aggregation;
+import de.bcxp.challenge.api.StreamingAnalyzer;
 import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.table.CountryTable;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +17,10 @@ import java.util.Optional;
  * separate from data loading and representation, which supports clean
  * architecture and future extensibility.</p>
  */
-public class CountryAnalyzer implements Analyzer<Country> {
+public class CountryAnalyzer implements StreamingAnalyzer<Country> {
+
+    private static final Aggregation<Country, Optional<Country>> MAX_DENSITY =
+            Aggregations.maxBy(Country::getPopulationDensity);
 
     /**
      * Finds the country with the highest population density.
@@ -29,11 +34,82 @@ public class CountryAnalyzer implements Analyzer<Country> {
      */
     @Override
     public Optional<Country> analyze(List<Country> data) {
-        if (data == null || data.isEmpty()) {
-            return Optional.empty();
+        return StreamingAnalyzer.super.analyze(data);
+    }
+
+    /**
+     * Finds the row with the highest population density in a columnar table.
+     *
+     * @param table the table to scan, may be {@code null}
+     * @return an {@link Optional} containing a view of the resulting row,
+     *         or empty if the table is null or empty
+     */
+    public Optional<Country> analyzeTable(CountryTable table) {
+        int row = maxDensityRow(table);
+        return row < 0 ? Optional.empty() : Optional.of(table.get(row));
+    }
+
+    /**
+     * Scans a columnar table with a primitive loop and returns the index of
+     * the row with the highest population density. On ties the first row wins.
+     *
+     * @param table the table to scan, may be {@code null}
+     * @return the row index, or {@code -1} if the table is null or empty
+     */
+    public int maxDensityRow(CountryTable table) {
+        if (table == null || table.size() == 0) {
+            return -1;
+        }
+
+        int best = 0;
+        double bestValue = table.getPopulationDensity(0);
+        for (int row = 1; row < table.size(); row++) {
+            double value = table.getPopulationDensity(row);
+            if (Double.compare(value, bestValue) > 0) {
+                best = row;
+                bestValue = value;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Creates an aggregation selecting the K countries with the highest
+     * population density, densest first. On ties the earlier country ranks first.
+     *
+     * @param k the number of countries to select
+     * @return the aggregation; usable with streaming and parallel readers
+     */
+    public Aggregation<Country, List<Country>> densestCountries(int k) {
+        return TopK.largest(k, Country::getPopulationDensity);
+    }
+
+    /**
+     * Returns the indices of the K rows with the highest population density
+     * of a columnar table, densest first. On ties the earlier row ranks first.
+     *
+     * @param table the table to scan, may be {@code null}
+     * @param k     the number of rows to select
+     * @return the row indices; empty if the table is null or empty
+     */
+    public int[] maxDensityRows(CountryTable table, int k) {
+        if (table == null) {
+            return new int[0];
         }
+        return TopK.rows(table.size(), k, table::getPopulationDensity, true);
+    }
 
-        return data.stream()
-                .max(Comparator.comparingDouble(Country::getPopulationDensity));
+    /**
+     * Creates an accumulator that tracks the country with the highest
+     * population density seen so far.
+     *
+     * <p>Delegates to {@link Aggregations#maxBy}: on ties the first country
+     * wins, matching {@code Stream.max}.</p>
+     *
+     * @return a new, empty accumulator
+     */
+    @Override
+    public Accumulator<Country, Optional<Country>> newAccumulator() {
+        return MAX_DENSITY.newAccumulator();
     }
 }
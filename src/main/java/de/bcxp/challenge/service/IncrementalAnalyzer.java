@@ -0,0 +1,75 @@
+package de.bcxp.challenge.service;
+
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.api.Aggregation;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.TailingCsvReader;
+
+/**
+ * Keeps the result of an aggregation up to date while rows are appended to
+ * a CSV file.
+ *
+ * <p>Each {@link #update()} parses only the lines appended since the
+ * previous call and folds them into the running accumulator, so the cost of
+ * an update is proportional to the new data, not to the file size. If the
+ * file was truncated, rotated or rewritten, the accumulator is discarded and
+ * the file is folded again from the beginning.</p>
+ *
+ * <p>Any {@link Aggregation} can be followed, including a
+ * {@link CompositeAnalyzer} to keep several results current at once.
+ * Instances are not thread-safe.</p>
+ *
+ * @param <T> the type of objects to analyze
+ * @param <R> the type of the analysis result
+ */
+public class IncrementalAnalyzer<T, R> {
+    private final TailingCsvReader<T> reader;
+    private final Aggregation<T, R> aggregation;
+    private Accumulator<T, R> accumulator;
+
+    /**
+     * Creates an analyzer following the given reader.
+     *
+     * @param reader      the reader following the file
+     * @param aggregation the aggregation to keep up to date
+     */
+    public IncrementalAnalyzer(TailingCsvReader<T> reader, Aggregation<T, R> aggregation) {
+        this.reader = reader;
+        this.aggregation = aggregation;
+        this.accumulator = aggregation.newAccumulator();
+    }
+
+    /**
+     * Creates an analyzer following the given file from its beginning.
+     *
+     * @param filePath    the path to the CSV file
+     * @param format      the file format
+     * @param aggregation the aggregation to keep up to date
+     * @param <T>         the type of objects to analyze
+     * @param <R>         the type of the analysis result
+     * @return the analyzer; call {@link #update()} to read the file
+     */
+    public static <T, R> IncrementalAnalyzer<T, R> follow(String filePath, CsvFormat<T> format,
+                                                          Aggregation<T, R> aggregation) {
+        return new IncrementalAnalyzer<>(new TailingCsvReader<>(filePath, format), aggregation);
+    }
+
+    /**
+     * Folds all rows appended since the previous update.
+     *
+     * @return the result over all rows of the file
+     */
+    public R update() {
+        reader.poll(record -> accumulator.accept(record), () -> accumulator = aggregation.newAccumulator());
+        return accumulator.result();
+    }
+
+    /**
+     * Returns the result as of the last update, without reading the file.
+     *
+     * @return the current result
+     */
+    public R result() {
+        return accumulator.result();
+    }
+}
@@ -0,0 +1,140 @@
+package de.bcxp.challenge.service;
+
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.api.Aggregation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Top-K aggregations over a numeric metric.
+ *
+ * <p>Instead of sorting all records, each accumulator keeps the best K
+ * records in a {@link BoundedHeap}: O(n log K) time and O(K) memory, in a
+ * single streaming pass. Parallel readers fold each chunk into its own heap
+ * and merge the heaps in file order. Equal metrics are ranked by input
+ * position, so the earlier record wins, in sequential and parallel runs
+ * alike.</p>
+ */
+public final class TopK {
+
+    private TopK() {
+    }
+
+    /**
+     * Selects the K records with the smallest metric, best first.
+     *
+     * @param k      the number of records to keep
+     * @param metric extracts the ranking value
+     * @param <T>    the type of records consumed
+     * @return the aggregation
+     */
+    public static <T> Aggregation<T, List<T>> smallest(int k, ToDoubleFunction<? super T> metric) {
+        checkK(k);
+        return () -> new TopKAccumulator<>(k, metric, false);
+    }
+
+    /**
+     * Selects the K records with the largest metric, best first.
+     *
+     * @param k      the number of records to keep
+     * @param metric extracts the ranking value
+     * @param <T>    the type of records consumed
+     * @return the aggregation
+     */
+    public static <T> Aggregation<T, List<T>> largest(int k, ToDoubleFunction<? super T> metric) {
+        checkK(k);
+        return () -> new TopKAccumulator<>(k, metric, true);
+    }
+
+    /**
+     * Ranks rows of a columnar metric without creating record objects.
+     *
+     * @param size    the number of rows
+     * @param k       the number of rows to keep
+     * @param metric  the metric of a row
+     * @param largest whether larger values rank first
+     * @return the indices of the best rows, best first
+     */
+    static int[] rows(int size, int k, IntToDoubleFunction metric, boolean largest) {
+        checkK(k);
+        BoundedHeap heap = new BoundedHeap(Math.min(k, size), largest);
+        for (int row = 0; row < size; row++) {
+            heap.offer(metric.applyAsDouble(row), row);
+        }
+        int[] slots = heap.sortedSlots();
+        int[] rows = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            rows[i] = (int) heap.sequence(slots[i]);
+        }
+        return rows;
+    }
+
+    private static void checkK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+    }
+
+    /**
+     * Bounded heap of records, ranked by metric and input position.
+     */
+    private static final class TopKAccumulator<T> implements Accumulator<T, List<T>> {
+        private final ToDoubleFunction<? super T> metric;
+        private final BoundedHeap heap;
+        private Object[] items;
+        // Records accepted so far; the sequence number of the next record
+        private long seen;
+
+        TopKAccumulator(int k, ToDoubleFunction<? super T> metric, boolean largest) {
+            this.metric = metric;
+            this.heap = new BoundedHeap(k, largest);
+            // Grows with the heap, so a huge k is not allocated up front
+            this.items = new Object[Math.min(k, 16)];
+        }
+
+        @Override
+        public void accept(T item) {
+            if (item == null) return;
+
+            store(heap.offer(metric.applyAsDouble(item), seen++), item);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<T> result() {
+            int[] slots = heap.sortedSlots();
+            List<T> result = new ArrayList<>(slots.length);
+            for (int slot : slots) {
+                result.add((T) items[slot]);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean isMergeable() {
+            return true;
+        }
+
+        @Override
+        public void merge(Accumulator<T, List<T>> other) {
+            TopKAccumulator<T> later = (TopKAccumulator<T>) other;
+            // The later records follow all records seen here
+            for (int slot = 0; slot < later.heap.size(); slot++) {
+                store(heap.offer(later.heap.key(slot), seen + later.heap.sequence(slot)), later.items[slot]);
+            }
+            seen += later.seen;
+        }
+
+        private void store(int slot, Object item) {
+            if (slot < 0) return;
+            if (slot == items.length) {
+                items = Arrays.copyOf(items, 2 * slot);
+            }
+            items[slot] = item;
+        }
+    }
+}
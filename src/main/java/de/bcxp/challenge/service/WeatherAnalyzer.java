@@ -1,9 +1,11 @@
 package de.bcxp.challenge.service;
 
-import de.bcxp.challenge.api.Analyzer;
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.api.Aggregation;
+import de.bcxp.challenge.api.StreamingAnalyzer;
 import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.table.WeatherTable;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +17,10 @@ import java.util.Optional;
  * file I/O and data models, which supports clean architecture, easier testing,
  * and future extensibility.</p>
  */
-public class WeatherAnalyzer implements Analyzer<WeatherDay> {
+public class WeatherAnalyzer implements StreamingAnalyzer<WeatherDay> {
+
+    private static final Aggregation<WeatherDay, Optional<WeatherDay>> MIN_SPREAD =
+            Aggregations.minBy(WeatherDay::getTemperatureDifference);
 
     /**
      * Finds the day with the smallest temperature difference.
@@ -30,11 +35,82 @@ public class WeatherAnalyzer implements Analyzer<WeatherDay> {
      */
     @Override
     public Optional<WeatherDay> analyze(List<WeatherDay> data) {
-        if (data == null || data.isEmpty()) {
-            return Optional.empty();
+        return StreamingAnalyzer.super.analyze(data);
+    }
+
+    /**
+     * Finds the row with the smallest temperature spread in a columnar table.
+     *
+     * @param table the table to scan, may be {@code null}
+     * @return an {@link Optional} containing a view of the resulting row,
+     *         or empty if the table is null or empty
+     */
+    public Optional<WeatherDay> analyzeTable(WeatherTable table) {
+        int row = minSpreadRow(table);
+        return row < 0 ? Optional.empty() : Optional.of(table.get(row));
+    }
+
+    /**
+     * Scans a columnar table with a primitive loop and returns the index of
+     * the row with the smallest temperature spread. On ties the first row wins.
+     *
+     * @param table the table to scan, may be {@code null}
+     * @return the row index, or {@code -1} if the table is null or empty
+     */
+    public int minSpreadRow(WeatherTable table) {
+        if (table == null || table.size() == 0) {
+            return -1;
+        }
+
+        int best = 0;
+        double bestValue = table.getTemperatureDifference(0);
+        for (int row = 1; row < table.size(); row++) {
+            double value = table.getTemperatureDifference(row);
+            if (Double.compare(value, bestValue) < 0) {
+                best = row;
+                bestValue = value;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Creates an aggregation selecting the K days with the smallest
+     * temperature spread, smallest first. On ties the earlier day ranks first.
+     *
+     * @param k the number of days to select
+     * @return the aggregation; usable with streaming and parallel readers
+     */
+    public Aggregation<WeatherDay, List<WeatherDay>> calmestDays(int k) {
+        return TopK.smallest(k, WeatherDay::getTemperatureDifference);
+    }
+
+    /**
+     * Returns the indices of the K rows with the smallest temperature spread
+     * of a columnar table, smallest first. On ties the earlier row ranks first.
+     *
+     * @param table the table to scan, may be {@code null}
+     * @param k     the number of rows to select
+     * @return the row indices; empty if the table is null or empty
+     */
+    public int[] minSpreadRows(WeatherTable table, int k) {
+        if (table == null) {
+            return new int[0];
         }
+        return TopK.rows(table.size(), k, table::getTemperatureDifference, false);
+    }
 
-        return data.stream()
-                .min(Comparator.comparingDouble(WeatherDay::getTemperatureDifference));
+    /**
+     * Creates an accumulator that tracks the day with the smallest
+     * temperature spread seen so far.
+     *
+     * <p>Delegates to {@link Aggregations#minBy}: on ties the earliest day
+     * wins, matching {@code Stream.min}.</p>
+     *
+     * @return a new, empty accumulator
+     */
+    @Override
+    public Accumulator<WeatherDay, Optional<WeatherDay>> newAccumulator() {
+        return MIN_SPREAD.newAccumulator();
     }
 }
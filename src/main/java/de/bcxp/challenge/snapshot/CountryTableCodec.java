@@ -0,0 +1,85 @@
+package de.bcxp.challenge.snapshot;
+
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.index.MetricIndex;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.table.CountryTable;
+import de.bcxp.challenge.table.CountryTableReader;
+import de.bcxp.challenge.table.StringDictionary;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Snapshot codec for {@link CountryTable}: a string table of names plus
+ * fixed-width columns of name ids, populations and areas, followed by the
+ * population density index.
+ */
+public class CountryTableCodec implements TableCodec<CountryTable, Country> {
+    static final int KIND = 2;
+
+    private final CountryTableReader reader;
+
+    /**
+     * Creates a codec parsing sources with the given reader.
+     *
+     * @param reader reads source files into tables
+     */
+    public CountryTableCodec(CountryTableReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public int kind() {
+        return KIND;
+    }
+
+    @Override
+    public CountryTable parse(String filePath, ErrorSink errors) {
+        return reader.readTable(filePath, errors);
+    }
+
+    @Override
+    public int rowCount(CountryTable table) {
+        return table.size();
+    }
+
+    @Override
+    public void write(CountryTable table, SnapshotWriter writer) throws IOException {
+        int size = table.size();
+        int[] nameIds = new int[size];
+        double[] populations = new double[size];
+        double[] areas = new double[size];
+        for (int row = 0; row < size; row++) {
+            nameIds[row] = table.getNameId(row);
+            populations[row] = table.getPopulation(row);
+            areas[row] = table.getArea(row);
+        }
+        writer.writeStrings("names", table.getNames());
+        writer.writeInts("nameId", nameIds);
+        writer.writeDoubles("population", populations);
+        writer.writeDoubles("area", areas);
+
+        MetricIndex density = table.getDensityIndex();
+        writer.writeDoubles("density.keys", density.keys());
+        writer.writeInts("density.rows", density.rows());
+    }
+
+    @Override
+    public CountryTable read(SnapshotFile file) {
+        int[] nameIds = file.readInts("nameId");
+        StringDictionary names = file.readStrings("names");
+        double[] populations = file.readDoubles("population");
+        double[] areas = file.readDoubles("area");
+        if (!file.hasColumn("density.keys")) {
+            return CountryTable.wrap(nameIds, names, populations, areas);
+        }
+        MetricIndex density = MetricIndex.wrap(file.readDoubles("density.keys"), file.readInts("density.rows"));
+        return CountryTable.wrap(nameIds, names, populations, areas, density);
+    }
+
+    @Override
+    public List<Country> asList(CountryTable table) {
+        return table.asList();
+    }
+}
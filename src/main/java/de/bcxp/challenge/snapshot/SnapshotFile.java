@@ -0,0 +1,256 @@
+package de.bcxp.challenge.snapshot;
+
+import de.bcxp.challenge.table.StringDictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileOwnerAttributeView;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A memory-mapped, validated snapshot.
+ *
+ * <p>Opening a snapshot checks magic, version and dataset kind, compares
+ * the stored source fingerprint with the current source file and maps
+ * every column. Column payloads are read with bulk primitive views of the
+ * mapping, i.e. a single block copy per column without decoding individual
+ * values.</p>
+ *
+ * <p>Reloading is therefore not zero-copy: every column is copied once into
+ * a heap array. The tables and their indexes are built on {@code int[]} and
+ * {@code double[]}, and all analyses read them directly. Serving them from
+ * the mapping instead would put a buffer access behind every column read,
+ * and would keep the file mapped until the garbage collector releases the
+ * buffer, since Java 11 cannot unmap explicitly. A block copy costs far
+ * less than parsing, and its cost grows with the snapshot, not with the
+ * text of the source.</p>
+ */
+public final class SnapshotFile {
+    private final int rowCount;
+    private final Map<String, Column> columns;
+
+    private SnapshotFile(int rowCount, Map<String, Column> columns) {
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    /**
+     * Opens the snapshot if it exists, has the expected kind and still
+     * matches the source file.
+     *
+     * @param snapshot       the snapshot file
+     * @param kind           the expected dataset kind
+     * @param source         the source file the snapshot was created from
+     * @param verifyChecksum whether to also compare the checksum of the
+     *                       whole content, in addition to size, modification
+     *                       time and the sampled checksum
+     * @return the snapshot, or empty if it is missing, owned by another
+     *         user, stale or unreadable
+     * @throws IOException if the snapshot or the source file cannot be inspected
+     */
+    public static Optional<SnapshotFile> open(Path snapshot, int kind, Path source, boolean verifyChecksum)
+            throws IOException {
+        if (!Files.isRegularFile(snapshot, LinkOption.NOFOLLOW_LINKS) || !isOwnedByCurrentUser(snapshot)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < SnapshotFormat.HEADER_SIZE) {
+                return Optional.empty();
+            }
+
+            ByteBuffer header = readAt(channel, 0, SnapshotFormat.HEADER_SIZE);
+            byte[] magic = new byte[SnapshotFormat.MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, SnapshotFormat.MAGIC)
+                    || header.getInt() != SnapshotFormat.VERSION
+                    || header.getInt() != kind) {
+                return Optional.empty();
+            }
+
+            long size = header.getLong();
+            long lastModified = header.getLong();
+            long sampledChecksum = header.getLong();
+            long checksum = header.getLong();
+            if (size != Files.size(source)
+                    || lastModified != Files.getLastModifiedTime(source).toMillis()
+                    || sampledChecksum != SourceFingerprint.sampledChecksum(source)
+                    || (verifyChecksum && checksum != SourceFingerprint.checksum(source))) {
+                return Optional.empty();
+            }
+
+            int rowCount = header.getInt();
+            int columnCount = header.getInt();
+            Map<String, Column> columns = new HashMap<>();
+            long position = SnapshotFormat.HEADER_SIZE;
+            for (int i = 0; i < columnCount; i++) {
+                Column column = readColumn(channel, position, fileSize);
+                columns.put(column.name, column);
+                position = SnapshotFormat.align(column.end);
+            }
+            return Optional.of(new SnapshotFile(rowCount, columns));
+
+        } catch (SnapshotFormatException e) {
+            // Truncated or corrupt snapshots are treated like missing ones
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Tells whether the file belongs to the user running this process. File
+     * systems without owners cannot tell users apart and pass the check.
+     */
+    private static boolean isOwnedByCurrentUser(Path file) throws IOException {
+        if (Files.getFileAttributeView(file, FileOwnerAttributeView.class) == null) {
+            return true;
+        }
+        UserPrincipal currentUser = file.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        return currentUser.equals(Files.getOwner(file));
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Tells whether the snapshot contains a column with the given name.
+     *
+     * @param name the column name
+     * @return {@code true} if present
+     */
+    public boolean hasColumn(String name) {
+        return columns.containsKey(name);
+    }
+
+    /**
+     * Reads an {@code int32} column.
+     *
+     * @param name the column name
+     * @return the values
+     * @throws IllegalArgumentException if the column is missing or has another type
+     */
+    public int[] readInts(String name) {
+        Column column = column(name, SnapshotFormat.TYPE_INT);
+        int[] values = new int[column.payload.capacity() / 4];
+        column.payload.duplicate().order(SnapshotFormat.ORDER).asIntBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Reads a {@code float64} column.
+     *
+     * @param name the column name
+     * @return the values
+     * @throws IllegalArgumentException if the column is missing or has another type
+     */
+    public double[] readDoubles(String name) {
+        Column column = column(name, SnapshotFormat.TYPE_DOUBLE);
+        double[] values = new double[column.payload.capacity() / 8];
+        column.payload.duplicate().order(SnapshotFormat.ORDER).asDoubleBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Reads a string table into a dictionary; ids are preserved.
+     *
+     * @param name the column name
+     * @return the dictionary
+     * @throws IllegalArgumentException if the column is missing, has another
+     *                                  type or is malformed
+     */
+    public StringDictionary readStrings(String name) {
+        ByteBuffer payload = column(name, SnapshotFormat.TYPE_STRINGS).payload.duplicate().order(SnapshotFormat.ORDER);
+        int size = payload.capacity();
+        int count = size < 4 ? -1 : payload.getInt(0);
+        long data = 4 + 4 * (count + 1L);
+        if (count < 0 || data > size) {
+            throw new IllegalArgumentException("Malformed string table " + name);
+        }
+
+        StringDictionary dictionary = new StringDictionary();
+        for (int id = 0; id < count; id++) {
+            long from = data + payload.getInt(4 + 4 * id);
+            long to = data + payload.getInt(4 + 4 * (id + 1));
+            if (from < data || to < from || to > size) {
+                throw new IllegalArgumentException("Malformed string table " + name);
+            }
+            if (dictionary.add(payload, (int) from, (int) to) != id) {
+                throw new IllegalArgumentException("Duplicate value in string table " + name);
+            }
+        }
+        return dictionary;
+    }
+
+    private Column column(String name, byte type) {
+        Column column = columns.get(name);
+        if (column == null || column.type != type) {
+            throw new IllegalArgumentException("No column '" + name + "' of type " + type);
+        }
+        return column;
+    }
+
+    private static Column readColumn(FileChannel channel, long position, long fileSize) throws IOException {
+        if (position + 2 > fileSize) {
+            throw new SnapshotFormatException();
+        }
+        int nameLength = readAt(channel, position, 2).getShort() & 0xFFFF;
+        long descriptorSize = SnapshotFormat.align(2 + nameLength + 1);
+        if (position + descriptorSize + 8 > fileSize) {
+            throw new SnapshotFormatException();
+        }
+
+        ByteBuffer descriptor = readAt(channel, position, (int) descriptorSize + 8);
+        descriptor.position(2);
+        byte[] name = new byte[nameLength];
+        descriptor.get(name);
+        byte type = descriptor.get();
+        long length = descriptor.getLong((int) descriptorSize);
+
+        long offset = position + descriptorSize + 8;
+        if (length < 0 || length > Integer.MAX_VALUE || offset + length > fileSize) {
+            throw new SnapshotFormatException();
+        }
+
+        // Each column gets its own mapping, so snapshots may exceed 2 GB in total
+        MappedByteBuffer payload = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        return new Column(new String(name, StandardCharsets.UTF_8), type, payload, offset + length);
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(SnapshotFormat.ORDER);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new SnapshotFormatException();
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static final class Column {
+        final String name;
+        final byte type;
+        final MappedByteBuffer payload;
+        final long end;
+
+        Column(String name, byte type, MappedByteBuffer payload, long end) {
+            this.name = name;
+            this.type = type;
+            this.payload = payload;
+            this.end = end;
+        }
+    }
+}
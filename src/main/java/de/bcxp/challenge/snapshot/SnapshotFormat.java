@@ -0,0 +1,45 @@
+package de.bcxp.challenge.snapshot;
+
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants of the binary snapshot format.
+ *
+ * <p>A snapshot is a little-endian file consisting of a fixed header
+ * followed by named columns. Every column starts on an 8-byte boundary so
+ * its payload can be read with bulk primitive views of the mapped file.</p>
+ *
+ * <pre>
+ * header   magic "BCXPSNAP" | int version | int kind
+ *          long source size | long source mtime
+ *          long sampled source CRC32C | long source CRC32C
+ *          int row count    | int column count
+ * column   short name length | name (UTF-8) | byte type | padding to 8
+ *          long payload length | payload | padding to 8
+ * </pre>
+ *
+ * <p>Payloads are fixed-width {@code int32} or {@code float64} arrays, or a
+ * string table: {@code int count}, {@code int[count + 1]} byte offsets and
+ * the concatenated UTF-8 values.</p>
+ */
+final class SnapshotFormat {
+    static final byte[] MAGIC = "BCXPSNAP".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 2;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final int HEADER_SIZE = 8 + 4 + 4 + 8 + 8 + 8 + 8 + 4 + 4;
+
+    static final byte TYPE_INT = 1;
+    static final byte TYPE_DOUBLE = 2;
+    static final byte TYPE_STRINGS = 3;
+
+    private SnapshotFormat() {
+    }
+
+    /**
+     * Rounds the position up to the next 8-byte boundary.
+     */
+    static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+}
@@ -0,0 +1,19 @@
+package de.bcxp.challenge.snapshot;
+
+import java.io.IOException;
+
+/**
+ * Signals a truncated or otherwise malformed snapshot. Readers treat it
+ * like a missing snapshot and parse the source again.
+ */
+final class SnapshotFormatException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    SnapshotFormatException() {
+        super("Malformed snapshot");
+    }
+
+    SnapshotFormatException(Throwable cause) {
+        super("Inconsistent snapshot content", cause);
+    }
+}
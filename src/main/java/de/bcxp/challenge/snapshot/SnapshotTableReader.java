@@ -0,0 +1,290 @@
+package de.bcxp.challenge.snapshot;
+
+import de.bcxp.challenge.api.DataReader;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.exception.DataReadException;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.table.CountryTable;
+import de.bcxp.challenge.table.CountryTableReader;
+import de.bcxp.challenge.table.WeatherTable;
+import de.bcxp.challenge.table.WeatherTableReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link DataReader} that keeps a binary snapshot of every parsed file and
+ * reloads it instead of parsing the CSV again.
+ *
+ * <p>On the first read, the CSV file is parsed into a columnar table and the
+ * table is written as snapshot. Later reads map the snapshot and restore
+ * the columns with one bulk copy each, see {@link SnapshotFile}. A snapshot
+ * is used only while the source file's size, modification time and the
+ * CRC32C checksum of its first and last bytes still match; otherwise the
+ * file is parsed again and the snapshot replaced. A reload thus reads a
+ * constant amount of the source. Verifying the checksum of the whole
+ * source is optional, as it reads the entire file on every reload.
+ * Failing to open or write a snapshot never fails the read; it is handed
+ * to an optional callback instead. Malformed snapshots are replaced
+ * without a report.</p>
+ *
+ * <p>Files with skipped rows get no snapshot. They are parsed on every read,
+ * so their rejects are reported every time instead of only on the first
+ * read.</p>
+ *
+ * @param <B> the table type
+ * @param <T> the record type exposed by the table's list view
+ */
+public class SnapshotTableReader<B, T> implements DataReader<T> {
+
+    /**
+     * Default location of snapshots, outside the source directories. It is
+     * private to the user, unlike the shared temporary directory, so no
+     * other user can place a snapshot that is loaded as trusted data.
+     */
+    public static final Path DEFAULT_DIRECTORY = Path.of(System.getProperty("user.home"), ".cache", "bcxp-snapshots");
+
+    private final TableCodec<B, T> codec;
+    private final Path directory;
+    private final boolean verifyChecksum;
+    private final BiConsumer<? super Path, ? super IOException> writeFailures;
+
+    /**
+     * Creates a reader that silently reads without a snapshot if one cannot
+     * be written.
+     *
+     * @param codec          parses, stores and restores the table type
+     * @param directory      where snapshots are stored, or {@code null} to
+     *                       store them next to the source file
+     * @param verifyChecksum whether to verify the checksum of the whole
+     *                       source on reload, in addition to size,
+     *                       modification time and the sampled checksum
+     */
+    public SnapshotTableReader(TableCodec<B, T> codec, Path directory, boolean verifyChecksum) {
+        this(codec, directory, verifyChecksum, (snapshot, e) -> {
+        });
+    }
+
+    /**
+     * Creates a reader.
+     *
+     * @param codec          parses, stores and restores the table type
+     * @param directory      where snapshots are stored, or {@code null} to
+     *                       store them next to the source file
+     * @param verifyChecksum whether to verify the checksum of the whole
+     *                       source on reload, in addition to size,
+     *                       modification time and the sampled checksum
+     * @param writeFailures  receives the snapshot path and the cause when a
+     *                       snapshot cannot be opened or written
+     */
+    public SnapshotTableReader(TableCodec<B, T> codec, Path directory, boolean verifyChecksum,
+                               BiConsumer<? super Path, ? super IOException> writeFailures) {
+        this.codec = codec;
+        this.directory = directory;
+        this.verifyChecksum = verifyChecksum;
+        this.writeFailures = writeFailures;
+    }
+
+    /**
+     * Creates a weather reader storing snapshots in {@link #DEFAULT_DIRECTORY},
+     * without verifying the checksum of the whole source.
+     *
+     * @return the reader
+     */
+    public static SnapshotTableReader<WeatherTable, WeatherDay> weather() {
+        return weather((snapshot, e) -> {
+        });
+    }
+
+    /**
+     * Creates a weather reader storing snapshots in {@link #DEFAULT_DIRECTORY},
+     * without verifying the checksum of the whole source.
+     *
+     * @param writeFailures receives the snapshot path and the cause when a
+     *                      snapshot cannot be opened or written
+     * @return the reader
+     */
+    public static SnapshotTableReader<WeatherTable, WeatherDay> weather(
+            BiConsumer<? super Path, ? super IOException> writeFailures) {
+        return weather(DEFAULT_DIRECTORY, writeFailures);
+    }
+
+    /**
+     * Creates a weather reader storing snapshots in the given directory,
+     * without verifying the checksum of the whole source.
+     *
+     * @param directory     where snapshots are stored
+     * @param writeFailures receives the snapshot path and the cause when a
+     *                      snapshot cannot be opened or written
+     * @return the reader
+     */
+    public static SnapshotTableReader<WeatherTable, WeatherDay> weather(
+            Path directory, BiConsumer<? super Path, ? super IOException> writeFailures) {
+        return new SnapshotTableReader<>(new WeatherTableCodec(new WeatherTableReader()), directory, false,
+                writeFailures);
+    }
+
+    /**
+     * Creates a country reader storing snapshots in {@link #DEFAULT_DIRECTORY},
+     * without verifying the checksum of the whole source.
+     *
+     * @return the reader
+     */
+    public static SnapshotTableReader<CountryTable, Country> countries() {
+        return countries((snapshot, e) -> {
+        });
+    }
+
+    /**
+     * Creates a country reader storing snapshots in {@link #DEFAULT_DIRECTORY},
+     * without verifying the checksum of the whole source.
+     *
+     * @param writeFailures receives the snapshot path and the cause when a
+     *                      snapshot cannot be opened or written
+     * @return the reader
+     */
+    public static SnapshotTableReader<CountryTable, Country> countries(
+            BiConsumer<? super Path, ? super IOException> writeFailures) {
+        return countries(DEFAULT_DIRECTORY, writeFailures);
+    }
+
+    /**
+     * Creates a country reader storing snapshots in the given directory,
+     * without verifying the checksum of the whole source.
+     *
+     * @param directory     where snapshots are stored
+     * @param writeFailures receives the snapshot path and the cause when a
+     *                      snapshot cannot be opened or written
+     * @return the reader
+     */
+    public static SnapshotTableReader<CountryTable, Country> countries(
+            Path directory, BiConsumer<? super Path, ? super IOException> writeFailures) {
+        return new SnapshotTableReader<>(new CountryTableCodec(new CountryTableReader()), directory, false,
+                writeFailures);
+    }
+
+    /**
+     * Loads the table from a valid snapshot, or parses the file, printing
+     * the first skipped rows to {@code System.err}, and writes a new
+     * snapshot.
+     *
+     * @param filePath the path to the CSV file
+     * @return the table
+     * @see ErrorSink#standardError()
+     */
+    public B readTable(String filePath) {
+        return readTable(filePath, ErrorSink.standardError());
+    }
+
+    /**
+     * Loads the table from a valid snapshot, or parses the file and writes a
+     * new snapshot if no row was skipped.
+     *
+     * @param filePath the path to the CSV file
+     * @param errors   receives each skipped row if the file is parsed
+     * @return the table
+     */
+    public B readTable(String filePath, ErrorSink errors) {
+        Path source = Path.of(filePath);
+        Path snapshot = snapshotPath(source);
+
+        try {
+            Optional<SnapshotFile> existing = SnapshotFile.open(snapshot, codec.kind(), source, verifyChecksum);
+            if (existing.isPresent()) {
+                return restore(existing.get());
+            }
+        } catch (SnapshotFormatException e) {
+            // Truncated sections, missing columns or an invalid index; rebuild the snapshot
+        } catch (IOException e) {
+            // The snapshot is only a cache: report it and fall back to parsing
+            writeFailures.accept(snapshot, e);
+        }
+
+        SourceFingerprint fingerprint;
+        try {
+            // Fingerprint before parsing, so a concurrent change invalidates the snapshot;
+            // the whole source is only read twice if its checksum is verified on reload
+            fingerprint = SourceFingerprint.of(source, verifyChecksum);
+        } catch (IOException e) {
+            throw new DataReadException("Error reading file: " + filePath, e);
+        }
+
+        long[] rejected = new long[1];
+        B table = codec.parse(filePath, (reason, lineNumber, line) -> {
+            rejected[0]++;
+            errors.reject(reason, lineNumber, line);
+        });
+        if (rejected[0] > 0) {
+            return table;
+        }
+        try (SnapshotWriter writer = new SnapshotWriter(snapshot, codec.kind(), fingerprint, codec.rowCount(table))) {
+            codec.write(table, writer);
+            writer.commit();
+        } catch (IOException e) {
+            writeFailures.accept(snapshot, e);
+        }
+        return table;
+    }
+
+    /**
+     * Restores the table, turning inconsistent content into a format error.
+     */
+    private B restore(SnapshotFile file) throws SnapshotFormatException {
+        try {
+            return codec.read(file);
+        } catch (IllegalArgumentException e) {
+            throw new SnapshotFormatException(e);
+        }
+    }
+
+    /**
+     * Reads the given file and returns a record view of the table.
+     *
+     * @param filePath the path to the CSV file
+     * @return a read-only list backed by the columnar table
+     */
+    @Override
+    public List<T> readData(String filePath) {
+        return codec.asList(readTable(filePath));
+    }
+
+    /**
+     * Returns where the snapshot of the given source file is stored.
+     *
+     * @param source the source file
+     * @return the snapshot path
+     */
+    public Path snapshotPath(Path source) {
+        Path absolute = source.toAbsolutePath().normalize();
+        if (directory == null) {
+            return absolute.resolveSibling(absolute.getFileName() + ".snap");
+        }
+        // Qualify by a digest of the full path, so equally named sources don't collide
+        return directory.resolve(absolute.getFileName() + "-" + pathDigest(absolute) + ".snap");
+    }
+
+    /**
+     * Returns the SHA-256 digest of the path in hexadecimal.
+     */
+    private static String pathDigest(Path path) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(path.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        StringBuilder hex = new StringBuilder(2 * digest.length);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,189 @@
+package de.bcxp.challenge.snapshot;
+
+import de.bcxp.challenge.table.StringDictionary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+
+/**
+ * Writes a snapshot file column by column.
+ *
+ * <p>Content is written to a temporary file next to the target and moved
+ * into place on {@link #commit()}, so concurrent readers never observe a
+ * partially written snapshot. Closing without committing discards the
+ * temporary file.</p>
+ */
+public final class SnapshotWriter implements Closeable {
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private int columnCount;
+    private boolean committed;
+
+    /**
+     * Starts a new snapshot.
+     *
+     * @param target      the snapshot file to create or replace
+     * @param kind        identifies the dataset type stored in the snapshot
+     * @param source      fingerprint of the parsed source file
+     * @param rowCount    number of rows in every row-aligned column
+     * @throws IOException if the file cannot be created
+     */
+    public SnapshotWriter(Path target, int kind, SourceFingerprint source, int rowCount) throws IOException {
+        this.target = target;
+        Path directory = target.toAbsolutePath().getParent();
+        createPrivateDirectories(directory);
+        this.temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        this.channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer header = allocate(SnapshotFormat.HEADER_SIZE);
+        header.put(SnapshotFormat.MAGIC)
+                .putInt(SnapshotFormat.VERSION)
+                .putInt(kind)
+                .putLong(source.getSize())
+                .putLong(source.getLastModified())
+                .putLong(source.getSampledChecksum())
+                .putLong(source.getChecksum())
+                .putInt(rowCount)
+                .putInt(0); // column count, patched on commit
+        header.flip();
+        write(header);
+    }
+
+    /**
+     * Writes an {@code int32} column.
+     *
+     * @param name   the column name
+     * @param values the values
+     * @throws IOException if writing fails
+     */
+    public void writeInts(String name, int[] values) throws IOException {
+        ByteBuffer payload = allocate(4L * values.length);
+        payload.asIntBuffer().put(values);
+        writeColumn(name, SnapshotFormat.TYPE_INT, payload);
+    }
+
+    /**
+     * Writes a {@code float64} column.
+     *
+     * @param name   the column name
+     * @param values the values
+     * @throws IOException if writing fails
+     */
+    public void writeDoubles(String name, double[] values) throws IOException {
+        ByteBuffer payload = allocate(8L * values.length);
+        payload.asDoubleBuffer().put(values);
+        writeColumn(name, SnapshotFormat.TYPE_DOUBLE, payload);
+    }
+
+    /**
+     * Writes a string table holding the dictionary values in id order.
+     *
+     * @param name       the column name
+     * @param dictionary the values
+     * @throws IOException if writing fails
+     */
+    public void writeStrings(String name, StringDictionary dictionary) throws IOException {
+        int count = dictionary.size();
+        long bytes = 0;
+        for (int id = 0; id < count; id++) {
+            bytes += dictionary.getBytes(id).length;
+        }
+
+        ByteBuffer payload = allocate(4L + 4L * (count + 1) + bytes);
+        payload.putInt(count);
+        int offset = 0;
+        for (int id = 0; id < count; id++) {
+            payload.putInt(offset);
+            offset += dictionary.getBytes(id).length;
+        }
+        payload.putInt(offset);
+        for (int id = 0; id < count; id++) {
+            payload.put(dictionary.getBytes(id));
+        }
+        payload.flip();
+        writeColumn(name, SnapshotFormat.TYPE_STRINGS, payload);
+    }
+
+    /**
+     * Finishes the snapshot and atomically moves it into place.
+     *
+     * @throws IOException if finishing fails
+     */
+    public void commit() throws IOException {
+        ByteBuffer count = allocate(4);
+        count.putInt(columnCount).flip();
+        channel.write(count, SnapshotFormat.HEADER_SIZE - 4);
+        channel.force(false);
+        channel.close();
+
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        committed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void writeColumn(String name, byte type, ByteBuffer payload) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        long descriptorSize = SnapshotFormat.align(2 + nameBytes.length + 1);
+
+        ByteBuffer descriptor = allocate(descriptorSize + 8);
+        descriptor.putShort((short) nameBytes.length).put(nameBytes).put(type);
+        descriptor.position((int) descriptorSize);
+        descriptor.putLong(payload.remaining());
+        descriptor.flip();
+        write(descriptor);
+
+        long padding = SnapshotFormat.align(payload.remaining()) - payload.remaining();
+        write(payload);
+        write(allocate(padding));
+        columnCount++;
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer allocate(long size) {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Column too large for a snapshot: " + size + " bytes");
+        }
+        return ByteBuffer.allocate((int) size).order(SnapshotFormat.ORDER);
+    }
+
+    /**
+     * Creates missing directories readable only by the owner where the file
+     * system supports POSIX permissions; existing directories are kept as they are.
+     */
+    private static void createPrivateDirectories(Path directory) throws IOException {
+        if (Files.isDirectory(directory)) {
+            return;
+        }
+        if (directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(directory,
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } else {
+            Files.createDirectories(directory);
+        }
+    }
+}
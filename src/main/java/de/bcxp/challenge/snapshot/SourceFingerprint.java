@@ -0,0 +1,131 @@
+package de.bcxp.challenge.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Identity of a source file at the time a snapshot was taken: size, last
+ * modification time and two CRC32C checksums of the content.
+ *
+ * <p>Size and modification time are cheap to obtain and catch almost all
+ * changes. The sampled checksum covers only the first and last
+ * {@value #SAMPLE_SIZE} bytes, so it costs a constant amount of I/O and
+ * additionally catches rewrites of the header or the tail that keep size
+ * and modification time. The full checksum catches any rewrite, at the
+ * cost of reading the whole file (without parsing it).</p>
+ */
+public final class SourceFingerprint {
+    /** Bytes at the start and at the end of the file covered by the sampled checksum. */
+    static final int SAMPLE_SIZE = 64 * 1024;
+
+    private static final int CHECKSUM_BLOCK_SIZE = 1 << 20;
+
+    private final long size;
+    private final long lastModified;
+    private final long sampledChecksum;
+    private final long checksum;
+
+    SourceFingerprint(long size, long lastModified, long sampledChecksum, long checksum) {
+        this.size = size;
+        this.lastModified = lastModified;
+        this.sampledChecksum = sampledChecksum;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Computes the fingerprint of the given file, including both checksums.
+     *
+     * @param file the source file
+     * @return the fingerprint
+     * @throws IOException if the file cannot be read
+     */
+    public static SourceFingerprint of(Path file) throws IOException {
+        return of(file, true);
+    }
+
+    /**
+     * Computes the fingerprint of the given file. The full checksum reads
+     * the whole file and is only worth computing if it is verified later;
+     * otherwise it is stored as {@code 0}, which a verifying reader treats
+     * like any other mismatch.
+     *
+     * @param file         the source file
+     * @param fullChecksum whether to compute the checksum of the whole content
+     * @return the fingerprint
+     * @throws IOException if the file cannot be read
+     */
+    public static SourceFingerprint of(Path file, boolean fullChecksum) throws IOException {
+        return new SourceFingerprint(Files.size(file), Files.getLastModifiedTime(file).toMillis(),
+                sampledChecksum(file), fullChecksum ? checksum(file) : 0);
+    }
+
+    /**
+     * Computes the CRC32C checksum of the file content.
+     *
+     * @param file the source file
+     * @return the checksum
+     * @throws IOException if the file cannot be read
+     */
+    static long checksum(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHECKSUM_BLOCK_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Computes the CRC32C checksum of the first and last
+     * {@value #SAMPLE_SIZE} bytes; files of up to twice that size are
+     * covered completely.
+     *
+     * @param file the source file
+     * @return the checksum
+     * @throws IOException if the file cannot be read
+     */
+    static long sampledChecksum(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long head = Math.min(size, SAMPLE_SIZE);
+            update(crc, channel, 0, head);
+            update(crc, channel, Math.max(head, size - SAMPLE_SIZE), size);
+        }
+        return crc.getValue();
+    }
+
+    private static void update(CRC32C crc, FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (to - from));
+        while (buffer.hasRemaining() && channel.read(buffer, from + buffer.position()) > 0) {
+            // Reads until the range is complete or the file was truncated meanwhile
+        }
+        buffer.flip();
+        crc.update(buffer);
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public long getSampledChecksum() {
+        return sampledChecksum;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+}
@@ -0,0 +1,67 @@
+package de.bcxp.challenge.snapshot;
+
+import de.bcxp.challenge.error.ErrorSink;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Connects a columnar table type to the snapshot format: how to parse it
+ * from the source file, how to store its columns and how to restore them.
+ *
+ * @param <B> the table type
+ * @param <T> the record type exposed by the table's list view
+ */
+public interface TableCodec<B, T> {
+
+    /**
+     * Identifies the dataset type; snapshots of another kind are ignored.
+     *
+     * @return the kind stored in the snapshot header
+     */
+    int kind();
+
+    /**
+     * Parses the source file into a table.
+     *
+     * @param filePath the path to the source file
+     * @param errors   receives each skipped row
+     * @return the parsed table
+     */
+    B parse(String filePath, ErrorSink errors);
+
+    /**
+     * Returns the number of rows of the table.
+     *
+     * @param table the table
+     * @return the row count
+     */
+    int rowCount(B table);
+
+    /**
+     * Writes all columns of the table.
+     *
+     * @param table  the table
+     * @param writer the snapshot being written
+     * @throws IOException if writing fails
+     */
+    void write(B table, SnapshotWriter writer) throws IOException;
+
+    /**
+     * Restores a table from a snapshot written by {@link #write}.
+     *
+     * @param file the validated snapshot
+     * @return the restored table
+     * @throws IllegalArgumentException if the columns are missing or
+     *                                  inconsistent
+     */
+    B read(SnapshotFile file);
+
+    /**
+     * Returns a record view of the table.
+     *
+     * @param table the table
+     * @return a read-only list backed by the table
+     */
+    List<T> asList(B table);
+}
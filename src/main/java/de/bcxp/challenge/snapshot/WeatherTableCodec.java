@@ -0,0 +1,82 @@
+package de.bcxp.challenge.snapshot;
+
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.index.MetricIndex;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.table.WeatherTable;
+import de.bcxp.challenge.table.WeatherTableReader;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Snapshot codec for {@link WeatherTable}: three fixed-width columns plus
+ * the temperature spread index, so reloaded tables answer range queries
+ * without sorting again.
+ */
+public class WeatherTableCodec implements TableCodec<WeatherTable, WeatherDay> {
+    static final int KIND = 1;
+
+    private final WeatherTableReader reader;
+
+    /**
+     * Creates a codec parsing sources with the given reader.
+     *
+     * @param reader reads source files into tables
+     */
+    public WeatherTableCodec(WeatherTableReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public int kind() {
+        return KIND;
+    }
+
+    @Override
+    public WeatherTable parse(String filePath, ErrorSink errors) {
+        return reader.readTable(filePath, errors);
+    }
+
+    @Override
+    public int rowCount(WeatherTable table) {
+        return table.size();
+    }
+
+    @Override
+    public void write(WeatherTable table, SnapshotWriter writer) throws IOException {
+        int size = table.size();
+        int[] days = new int[size];
+        double[] maxTemps = new double[size];
+        double[] minTemps = new double[size];
+        for (int row = 0; row < size; row++) {
+            days[row] = table.getDay(row);
+            maxTemps[row] = table.getMaxTemp(row);
+            minTemps[row] = table.getMinTemp(row);
+        }
+        writer.writeInts("day", days);
+        writer.writeDoubles("maxTemp", maxTemps);
+        writer.writeDoubles("minTemp", minTemps);
+
+        MetricIndex spread = table.getSpreadIndex();
+        writer.writeDoubles("spread.keys", spread.keys());
+        writer.writeInts("spread.rows", spread.rows());
+    }
+
+    @Override
+    public WeatherTable read(SnapshotFile file) {
+        int[] days = file.readInts("day");
+        double[] maxTemps = file.readDoubles("maxTemp");
+        double[] minTemps = file.readDoubles("minTemp");
+        if (!file.hasColumn("spread.keys")) {
+            return WeatherTable.wrap(days, maxTemps, minTemps);
+        }
+        MetricIndex spread = MetricIndex.wrap(file.readDoubles("spread.keys"), file.readInts("spread.rows"));
+        return WeatherTable.wrap(days, maxTemps, minTemps, spread);
+    }
+
+    @Override
+    public List<WeatherDay> asList(WeatherTable table) {
+        return table.asList();
+    }
+}
@@ -0,0 +1,55 @@
+package de.bcxp.challenge.stats;
+
+/**
+ * Exact moments and approximate quantiles of one numeric column.
+ */
+public final class ColumnStatistics {
+    private final String name;
+    private final Moments moments;
+    private final KllSketch sketch;
+
+    ColumnStatistics(String name, Moments moments, KllSketch sketch) {
+        this.name = name;
+        this.moments = moments;
+        this.sketch = sketch;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Moments getMoments() {
+        return moments;
+    }
+
+    public KllSketch getSketch() {
+        return sketch;
+    }
+
+    /**
+     * Returns the approximate median.
+     *
+     * @return the 0.5 quantile, or {@code NaN} without values
+     */
+    public double getMedian() {
+        return sketch.quantile(0.5);
+    }
+
+    /**
+     * Returns an approximate quantile; see {@link KllSketch#quantile} for
+     * the error bound.
+     *
+     * @param q the quantile between {@code 0} and {@code 1}
+     * @return the value at that quantile, or {@code NaN} without values
+     */
+    public double quantile(double q) {
+        return sketch.quantile(q);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: n=%d, mean=%.4g, sd=%.4g, min=%.4g, p50=%.4g, p95=%.4g, p99=%.4g, max=%.4g",
+                name, moments.getCount(), moments.getMean(), moments.getStandardDeviation(), moments.getMin(),
+                quantile(0.5), quantile(0.95), quantile(0.99), moments.getMax());
+    }
+}
@@ -0,0 +1,336 @@
+package de.bcxp.challenge.stats;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Approximate quantiles of a stream of values in bounded memory, using the
+ * KLL sketch of Karnin, Lang and Liberty.
+ *
+ * <p>The sketch keeps a hierarchy of compactors; an item on level
+ * {@code h} stands for {@code 2^h} input values. When the sketch is full,
+ * the first level at capacity is sorted and every other item, starting at
+ * a random offset, moves up one level with twice the weight. Level
+ * capacities shrink geometrically (factor {@code 2/3}) from the top level
+ * of capacity {@code k}, so about {@code 3k} items are retained regardless
+ * of the input size.</p>
+ *
+ * <p>Error bound: with probability 99 % a quantile query returns a value
+ * whose rank is within {@link #getNormalizedRankError()} {@code · n} of
+ * the requested rank; for the default {@code k = 200} that is about
+ * 1.3 % of the input. The bound uses the empirical constants published with
+ * the Apache DataSketches implementation. Ranks, not values, are bounded:
+ * in a sparse tail a small rank error may still be a large value error.
+ * Until the first compaction, i.e. for up to about {@code k} values, all
+ * answers are exact.</p>
+ *
+ * <p>Sketches with the same {@code k} merge, with the same error bound as
+ * a single sketch over all values, so per-thread or per-file sketches can
+ * be combined. Coin flips use a fixed seed, so the result for a given
+ * input order and merge order is reproducible. {@code NaN} values are
+ * ignored. Instances are not thread-safe.</p>
+ */
+public final class KllSketch {
+
+    /** Default accuracy parameter, as in Apache DataSketches. */
+    public static final int DEFAULT_K = 200;
+
+    /** Smallest supported accuracy parameter. */
+    public static final int MIN_K = 8;
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final long SEED = 0x5EEDL;
+
+    private final int k;
+    private final SplittableRandom random = new SplittableRandom(SEED);
+    private double[][] levels = new double[1][];
+    private int[] sizes = new int[1];
+    private int retained;
+    private int maxRetained;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    // Sorted view for queries, rebuilt after updates
+    private double[] sortedValues;
+    private long[] cumulativeWeights;
+
+    /**
+     * Creates a sketch with {@link #DEFAULT_K}.
+     */
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Creates a sketch with the given accuracy parameter.
+     *
+     * @param k the capacity of the top compactor; the rank error shrinks
+     *          roughly as {@code 1/k}
+     */
+    public KllSketch(int k) {
+        if (k < MIN_K) {
+            throw new IllegalArgumentException("k must be at least " + MIN_K + ": " + k);
+        }
+        this.k = k;
+        levels[0] = new double[capacity(0, 1)];
+        maxRetained = capacity(0, 1);
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value; {@code NaN} is ignored
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) return;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        append(0, value);
+        retained++;
+        sortedValues = null;
+        if (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    /**
+     * Adds the values summarized by another sketch.
+     *
+     * @param other a sketch with the same {@code k}; left unchanged
+     */
+    public void merge(KllSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge sketches with k=" + k + " and k=" + other.k);
+        }
+        if (other.count == 0) return;
+        while (levels.length < other.levels.length) {
+            grow();
+        }
+        for (int level = 0; level < other.levels.length; level++) {
+            for (int i = 0; i < other.sizes[level]; i++) {
+                append(level, other.levels[level][i]);
+            }
+            retained += other.sizes[level];
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sortedValues = null;
+        while (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    /**
+     * Returns an independent copy.
+     *
+     * @return the copy
+     */
+    public KllSketch copy() {
+        KllSketch copy = new KllSketch(k);
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Returns the number of values added.
+     *
+     * @return the count, including merged sketches
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Returns the number of items the sketch currently keeps.
+     *
+     * @return the retained item count
+     */
+    public int getRetainedItems() {
+        return retained;
+    }
+
+    /**
+     * Returns the rank error, as a fraction of the count, that a single
+     * quantile query stays within with 99 % confidence.
+     *
+     * @return the normalized rank error, e.g. about {@code 0.013} for
+     *         {@code k = 200}
+     */
+    public double getNormalizedRankError() {
+        return 2.296 / Math.pow(k, 0.9723);
+    }
+
+    /**
+     * Returns the value at the given quantile: the smallest retained value
+     * whose cumulative weight reaches {@code q · n}.
+     *
+     * @param q the quantile between {@code 0} (minimum) and {@code 1}
+     *          (maximum), e.g. {@code 0.99}
+     * @return the approximate quantile, or {@code NaN} if the sketch is
+     *         empty
+     */
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        if (count == 0) return Double.NaN;
+        if (q == 0) return min;
+        if (q == 1) return max;
+
+        sort();
+        double target = q * count;
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeWeights[middle] >= target) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return sortedValues[low];
+    }
+
+    /**
+     * Returns the approximate fraction of values less than or equal to the
+     * given value.
+     *
+     * @param value the value
+     * @return the normalized rank between {@code 0} and {@code 1}, or
+     *         {@code NaN} if the sketch is empty
+     */
+    public double rank(double value) {
+        if (count == 0) return Double.NaN;
+        sort();
+        int index = Arrays.binarySearch(sortedValues, value);
+        if (index >= 0) {
+            // Include all equal values
+            while (index + 1 < sortedValues.length && sortedValues[index + 1] == value) {
+                index++;
+            }
+        } else {
+            index = -index - 2;
+        }
+        return index < 0 ? 0 : (double) cumulativeWeights[index] / count;
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Capacity of a level in a sketch with the given number of levels: the
+     * top level holds {@code k} items, each level below {@code 2/3} of the
+     * one above, but at least two.
+     */
+    private int capacity(int level, int levelCount) {
+        int depth = levelCount - level - 1;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void append(int level, double value) {
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], Math.max(2, levels[level].length * 2));
+        }
+        levels[level][sizes[level]++] = value;
+    }
+
+    private void grow() {
+        int levelCount = levels.length + 1;
+        levels = Arrays.copyOf(levels, levelCount);
+        sizes = Arrays.copyOf(sizes, levelCount);
+        levels[levelCount - 1] = new double[capacity(levelCount - 1, levelCount)];
+        maxRetained = 0;
+        for (int level = 0; level < levelCount; level++) {
+            maxRetained += capacity(level, levelCount);
+        }
+    }
+
+    /**
+     * Compacts levels from the bottom until the sketch is below its
+     * capacity again.
+     */
+    private void compress() {
+        for (int level = 0; level < levels.length; level++) {
+            if (sizes[level] >= capacity(level, levels.length)) {
+                if (level + 1 == levels.length) {
+                    grow();
+                }
+                compact(level);
+                if (retained < maxRetained) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts a level and promotes every other item, starting at a random
+     * offset, to the next level. With an odd size, the smallest item stays.
+     */
+    private void compact(int level) {
+        double[] items = levels[level];
+        int size = sizes[level];
+        Arrays.sort(items, 0, size);
+        int odd = size & 1;
+        int promoted = 0;
+        for (int i = odd + (random.nextBoolean() ? 1 : 0); i < size; i += 2) {
+            append(level + 1, items[i]);
+            promoted++;
+        }
+        sizes[level] = odd;
+        retained -= size - odd - promoted;
+    }
+
+    /**
+     * Builds the sorted values with their cumulative weights.
+     */
+    private void sort() {
+        if (sortedValues != null) return;
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        int filled = 0;
+        for (int level = 0; level < levels.length; level++) {
+            int size = sizes[level];
+            double[] items = Arrays.copyOf(levels[level], size);
+            Arrays.sort(items);
+            // Merge the sorted level into the sorted prefix, from the back
+            int i = filled - 1;
+            int j = size - 1;
+            int target = filled + size - 1;
+            long weight = 1L << level;
+            while (j >= 0) {
+                if (i >= 0 && values[i] > items[j]) {
+                    values[target] = values[i];
+                    weights[target--] = weights[i--];
+                } else {
+                    values[target] = items[j--];
+                    weights[target--] = weight;
+                }
+            }
+            filled += size;
+        }
+        for (int i = 1; i < filled; i++) {
+            weights[i] += weights[i - 1];
+        }
+        sortedValues = values;
+        cumulativeWeights = weights;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("KLL(k=%d, n=%d, retained=%d)", k, count, retained);
+    }
+}
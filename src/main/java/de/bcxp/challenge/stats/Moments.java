@@ -0,0 +1,137 @@
+package de.bcxp.challenge.stats;
+
+/**
+ * Count, mean, variance, minimum and maximum of a stream of values,
+ * computed in one pass with Welford's algorithm.
+ *
+ * <p>Welford's update keeps the mean and the sum of squared deviations
+ * from it, so the variance does not suffer from the cancellation of the
+ * textbook {@code E[x²] - E[x]²} formula. Two instances over disjoint parts
+ * of a stream are combined exactly with the pairwise update of Chan et al.,
+ * so per-thread or per-file moments merge into those of the whole
+ * input.</p>
+ *
+ * <p>{@code NaN} values are ignored. Instances are not thread-safe.</p>
+ */
+public final class Moments {
+    private long count;
+    private double mean;
+    private double squaredDeviations;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value; {@code NaN} is ignored
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) return;
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the values of another instance.
+     *
+     * @param other moments over other values; left unchanged
+     */
+    public void merge(Moments other) {
+        if (other.count == 0) return;
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            squaredDeviations = other.squaredDeviations;
+            min = other.min;
+            max = other.max;
+            return;
+        }
+
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        squaredDeviations += other.squaredDeviations + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns an independent copy.
+     *
+     * @return the copy
+     */
+    public Moments copy() {
+        Moments copy = new Moments();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the arithmetic mean.
+     *
+     * @return the mean, or {@code NaN} without values
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Returns the population variance {@code Σ(x - mean)² / n}.
+     *
+     * @return the variance, or {@code NaN} without values
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : squaredDeviations / count;
+    }
+
+    /**
+     * Returns the sample variance {@code Σ(x - mean)² / (n - 1)}.
+     *
+     * @return the variance, or {@code NaN} with fewer than two values
+     */
+    public double getSampleVariance() {
+        return count < 2 ? Double.NaN : squaredDeviations / (count - 1);
+    }
+
+    /**
+     * Returns the population standard deviation.
+     *
+     * @return the square root of {@link #getVariance()}
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Returns the smallest value.
+     *
+     * @return the minimum, or {@code NaN} without values
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * Returns the largest value.
+     *
+     * @return the maximum, or {@code NaN} without values
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d, mean=%.4g, sd=%.4g, min=%s, max=%s",
+                count, getMean(), getStandardDeviation(), getMin(), getMax());
+    }
+}
@@ -0,0 +1,176 @@
+package de.bcxp.challenge.stats;
+
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.api.Aggregation;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Computes {@link Moments} and a {@link KllSketch} for numeric columns of a
+ * dataset in a single pass.
+ *
+ * <p>Memory per column is a few fields plus about {@code 3k} sketch items,
+ * independent of the number of rows, and nothing is sorted except the small
+ * sketch levels. Both parts merge, so the aggregation works with parallel
+ * readers, the {@link de.bcxp.challenge.batch.BatchAnalyzer} and the
+ * {@link de.bcxp.challenge.service.CompositeAnalyzer}. Moments are exact up
+ * to floating-point rounding; quantiles carry the sketch's rank error.</p>
+ *
+ * @param <T> the type of records analyzed
+ */
+public final class Statistics<T> implements Aggregation<T, StatisticsResult> {
+    private final List<String> names;
+    private final List<ToDoubleFunction<? super T>> columns;
+    private final int k;
+
+    private Statistics(Builder<T> builder) {
+        this.names = List.copyOf(builder.names);
+        this.columns = List.copyOf(builder.columns);
+        this.k = builder.k;
+    }
+
+    /**
+     * Starts a definition with no columns.
+     *
+     * @param <T> the type of records analyzed
+     * @return a builder
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Statistics of the weather columns {@code MxT}, {@code MnT} and
+     * {@code spread}.
+     *
+     * @return the aggregation
+     */
+    public static Statistics<WeatherDay> weather() {
+        return Statistics.<WeatherDay>builder()
+                .column("MxT", WeatherDay::getMaxTemp)
+                .column("MnT", WeatherDay::getMinTemp)
+                .column("spread", WeatherDay::getTemperatureDifference)
+                .build();
+    }
+
+    /**
+     * Statistics of the country columns {@code population}, {@code area}
+     * and {@code density}.
+     *
+     * @return the aggregation
+     */
+    public static Statistics<Country> countries() {
+        return Statistics.<Country>builder()
+                .column("population", Country::getPopulation)
+                .column("area", Country::getArea)
+                .column("density", Country::getPopulationDensity)
+                .build();
+    }
+
+    @Override
+    public Accumulator<T, StatisticsResult> newAccumulator() {
+        return new StatisticsAccumulator();
+    }
+
+    private final class StatisticsAccumulator implements Accumulator<T, StatisticsResult> {
+        private final Moments[] moments = new Moments[columns.size()];
+        private final KllSketch[] sketches = new KllSketch[columns.size()];
+
+        StatisticsAccumulator() {
+            for (int column = 0; column < moments.length; column++) {
+                moments[column] = new Moments();
+                sketches[column] = new KllSketch(k);
+            }
+        }
+
+        @Override
+        public void accept(T item) {
+            if (item == null) return;
+            for (int column = 0; column < moments.length; column++) {
+                double value = columns.get(column).applyAsDouble(item);
+                moments[column].add(value);
+                sketches[column].add(value);
+            }
+        }
+
+        @Override
+        public boolean isMergeable() {
+            return true;
+        }
+
+        @Override
+        public void merge(Accumulator<T, StatisticsResult> other) {
+            StatisticsAccumulator partial = (StatisticsAccumulator) other;
+            for (int column = 0; column < moments.length; column++) {
+                moments[column].merge(partial.moments[column]);
+                sketches[column].merge(partial.sketches[column]);
+            }
+        }
+
+        @Override
+        public StatisticsResult result() {
+            List<ColumnStatistics> result = new ArrayList<>(moments.length);
+            for (int column = 0; column < moments.length; column++) {
+                result.add(new ColumnStatistics(names.get(column), moments[column].copy(), sketches[column].copy()));
+            }
+            return new StatisticsResult(result);
+        }
+    }
+
+    /**
+     * Configures a {@link Statistics} aggregation.
+     *
+     * @param <T> the type of records analyzed
+     */
+    public static final class Builder<T> {
+        private final List<String> names = new ArrayList<>();
+        private final List<ToDoubleFunction<? super T>> columns = new ArrayList<>();
+        private int k = KllSketch.DEFAULT_K;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a column.
+         *
+         * @param name  the column name
+         * @param value extracts the column's value of a record
+         * @return this builder
+         */
+        public Builder<T> column(String name, ToDoubleFunction<? super T> value) {
+            if (names.contains(name)) {
+                throw new IllegalArgumentException("Duplicate column: " + name);
+            }
+            names.add(name);
+            columns.add(value);
+            return this;
+        }
+
+        /**
+         * Sets the sketch accuracy; see {@link KllSketch#KllSketch(int)}.
+         *
+         * @param k the accuracy parameter
+         * @return this builder
+         */
+        public Builder<T> k(int k) {
+            if (k < KllSketch.MIN_K) {
+                throw new IllegalArgumentException("k must be at least " + KllSketch.MIN_K + ": " + k);
+            }
+            this.k = k;
+            return this;
+        }
+
+        /**
+         * Creates the aggregation. The builder may be reused afterwards.
+         *
+         * @return the aggregation
+         */
+        public Statistics<T> build() {
+            return new Statistics<>(this);
+        }
+    }
+}
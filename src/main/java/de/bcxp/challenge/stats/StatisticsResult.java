@@ -0,0 +1,45 @@
+package de.bcxp.challenge.stats;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The statistics of every column of a {@link Statistics} run.
+ */
+public final class StatisticsResult {
+    private final List<ColumnStatistics> columns;
+
+    StatisticsResult(List<ColumnStatistics> columns) {
+        this.columns = List.copyOf(columns);
+    }
+
+    /**
+     * Returns the statistics of all columns.
+     *
+     * @return the columns, in definition order
+     */
+    public List<ColumnStatistics> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the statistics of a column.
+     *
+     * @param name the column name
+     * @return the column's statistics
+     * @throws IllegalArgumentException if there is no such column
+     */
+    public ColumnStatistics get(String name) {
+        for (ColumnStatistics column : columns) {
+            if (column.getName().equals(name)) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return columns.stream().map(ColumnStatistics::toString).collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,313 @@
+package de.bcxp.challenge.table;
+
+import de.bcxp.challenge.index.MetricIndex;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.parser.NumberParser;
+import de.bcxp.challenge.reader.CsvRow;
+import de.bcxp.challenge.reader.RowSink;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Columnar, immutable storage of country records.
+ *
+ * <p>Population and area are held in primitive arrays; names are
+ * dictionary-encoded, so each row stores a single {@code int} id into a
+ * shared {@link StringDictionary}. {@link #get(int)} and {@link #asList()}
+ * provide {@link Country} views for callers that need objects.</p>
+ */
+public final class CountryTable {
+    private final int size;
+    private final int[] nameIds;
+    private final StringDictionary names;
+    private final double[] populations;
+    private final double[] areas;
+    // Built on first use, or restored from a snapshot
+    private volatile MetricIndex densityIndex;
+
+    private CountryTable(int size, int[] nameIds, StringDictionary names, double[] populations, double[] areas) {
+        this.size = size;
+        this.nameIds = nameIds;
+        this.names = names;
+        this.populations = populations;
+        this.areas = areas;
+    }
+
+    /**
+     * Creates a table on top of the given columns without copying them.
+     *
+     * <p>Ownership of the arrays and the dictionary passes to the table;
+     * callers must not modify them afterwards. Used to load snapshots
+     * without extra copies.</p>
+     *
+     * @param nameIds     dictionary ids of the names
+     * @param names       the name dictionary
+     * @param populations populations (must be >= 0)
+     * @param areas       areas in square kilometers (must be >= 0)
+     * @return the table
+     */
+    public static CountryTable wrap(int[] nameIds, StringDictionary names, double[] populations, double[] areas) {
+        if (nameIds.length != populations.length || nameIds.length != areas.length) {
+            throw new IllegalArgumentException("Columns must have equal length.");
+        }
+        for (int row = 0; row < nameIds.length; row++) {
+            if (nameIds[row] < 0 || nameIds[row] >= names.size()) {
+                throw new IllegalArgumentException("Unknown name id " + nameIds[row] + " in row " + row);
+            }
+            Builder.validate(populations[row], areas[row]);
+        }
+        return new CountryTable(nameIds.length, nameIds, names, populations, areas);
+    }
+
+    /**
+     * Creates a table on top of the given columns without copying them,
+     * reusing a previously built population density index.
+     *
+     * @param nameIds      dictionary ids of the names
+     * @param names        the name dictionary
+     * @param populations  populations (must be >= 0)
+     * @param areas        areas in square kilometers (must be >= 0)
+     * @param densityIndex the index returned by {@link #getDensityIndex()}
+     *                     for the same rows
+     * @return the table
+     */
+    public static CountryTable wrap(int[] nameIds, StringDictionary names, double[] populations, double[] areas,
+                                    MetricIndex densityIndex) {
+        CountryTable table = wrap(nameIds, names, populations, areas);
+        if (densityIndex.size() != table.size) {
+            throw new IllegalArgumentException("Index does not match the table size.");
+        }
+        table.densityIndex = densityIndex;
+        return table;
+    }
+
+    /**
+     * Concatenates tables in the given order.
+     *
+     * @param parts the tables to concatenate
+     * @return a table holding all rows
+     */
+    public static CountryTable concat(List<CountryTable> parts) {
+        Builder builder = new Builder();
+        for (CountryTable part : parts) {
+            builder.addAll(part);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getName(int row) {
+        return names.get(nameIds[checkRow(row)]);
+    }
+
+    /**
+     * Returns the dictionary id of the given row's name.
+     *
+     * @param row zero-based row index
+     * @return the id in {@link #getNames()}
+     */
+    public int getNameId(int row) {
+        return nameIds[checkRow(row)];
+    }
+
+    public StringDictionary getNames() {
+        return names;
+    }
+
+    public double getPopulation(int row) {
+        return populations[checkRow(row)];
+    }
+
+    public double getArea(int row) {
+        return areas[checkRow(row)];
+    }
+
+    /**
+     * Computes the population density of the given row, as
+     * {@link Country#getPopulationDensity()} does.
+     *
+     * @param row zero-based row index
+     * @return population density, or 0 if the area is invalid
+     */
+    public double getPopulationDensity(int row) {
+        checkRow(row);
+        if (areas[row] <= 0) return 0;
+        return populations[row] / areas[row];
+    }
+
+    /**
+     * Returns the sorted index over the population density of all rows,
+     * building it on first use.
+     *
+     * @return the index; shared by all callers
+     */
+    public MetricIndex getDensityIndex() {
+        MetricIndex index = densityIndex;
+        if (index == null) {
+            // Concurrent first calls may build it twice; the results are equal
+            index = MetricIndex.build(size, this::getPopulationDensity);
+            densityIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Creates a {@link Country} holding the values of the given row.
+     *
+     * @param row zero-based row index
+     * @return a new object for the row
+     */
+    public Country get(int row) {
+        checkRow(row);
+        return new Country(names.get(nameIds[row]), populations[row], areas[row]);
+    }
+
+    /**
+     * Returns a read-only list view; elements are created on access.
+     *
+     * @return the list view
+     */
+    public List<Country> asList() {
+        return new View();
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return row;
+    }
+
+    private final class View extends AbstractList<Country> implements RandomAccess {
+        @Override
+        public Country get(int index) {
+            return CountryTable.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Fills a {@link CountryTable} row by row, either programmatically or
+     * directly from a reader as {@link RowSink}.
+     *
+     * <p>Rows follow the country CSV layout: name, population and area in
+     * columns 0, 3 and 4. Negative values are rejected exactly like the
+     * {@link Country} constructor does.</p>
+     */
+    public static final class Builder implements RowSink {
+        private final NumberParser populationFormat;
+        private final NumberParser areaFormat;
+        private final StringDictionary names = new StringDictionary();
+
+        private int size;
+        private int[] nameIds = new int[256];
+        private double[] populations = new double[256];
+        private double[] areas = new double[256];
+
+        /**
+         * Creates a builder for German formatted numbers, like the country
+         * readers.
+         */
+        public Builder() {
+            this(NumberParser.german(), NumberParser.german());
+        }
+
+        /**
+         * Creates a builder with explicit number formats for CSV rows.
+         *
+         * @param populationFormat number format of the population column
+         * @param areaFormat       number format of the area column
+         */
+        public Builder(NumberParser populationFormat, NumberParser areaFormat) {
+            this.populationFormat = populationFormat;
+            this.areaFormat = areaFormat;
+        }
+
+        /**
+         * Appends a row.
+         *
+         * @param name       the country's name
+         * @param population total population (must be >= 0)
+         * @param area       land area in square kilometers (must be >= 0)
+         * @return this builder
+         */
+        public Builder add(String name, double population, double area) {
+            validate(population, area);
+            append(names.add(name), population, area);
+            return this;
+        }
+
+        /**
+         * Appends all rows of the given table.
+         *
+         * @param table the rows to append
+         * @return this builder
+         */
+        public Builder addAll(CountryTable table) {
+            for (int row = 0; row < table.size; row++) {
+                byte[] name = table.names.getBytes(table.nameIds[row]);
+                int id = names.add(ByteBuffer.wrap(name), 0, name.length);
+                append(id, table.populations[row], table.areas[row]);
+            }
+            return this;
+        }
+
+        @Override
+        public boolean accept(CsvRow row) {
+            if (row.fieldCount() < 5) return false;
+
+            double population = row.getDouble(3, populationFormat);
+            double area = row.getDouble(4, areaFormat);
+            validate(population, area);
+            // A quoted name may hold escaped quotes, so only plain names are encoded from the raw bytes
+            int nameId = row.isQuoted(0)
+                    ? names.add(row.getString(0))
+                    : names.add(row.buffer(), row.fieldStart(0), row.fieldEnd(0));
+            append(nameId, population, area);
+            return true;
+        }
+
+        /**
+         * Creates the table; the builder must not be used afterwards.
+         *
+         * @return the table
+         */
+        public CountryTable build() {
+            grow(size);
+            return new CountryTable(size, nameIds, names, populations, areas);
+        }
+
+        private void append(int nameId, double population, double area) {
+            if (size == nameIds.length) {
+                grow(size * 2);
+            }
+            nameIds[size] = nameId;
+            populations[size] = population;
+            areas[size] = area;
+            size++;
+        }
+
+        private void grow(int capacity) {
+            nameIds = Arrays.copyOf(nameIds, capacity);
+            populations = Arrays.copyOf(populations, capacity);
+            areas = Arrays.copyOf(areas, capacity);
+        }
+
+        private static void validate(double population, double area) {
+            if (population < 0 || area < 0) {
+                throw new IllegalArgumentException("Population and area must be non-negative.");
+            }
+        }
+    }
+}
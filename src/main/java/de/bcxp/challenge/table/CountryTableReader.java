@@ -0,0 +1,121 @@
+package de.bcxp.challenge.table;
+
+import de.bcxp.challenge.api.DataReader;
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.error.ReadResult;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.parser.NumberParser;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.reader.ParallelCsvReader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads country CSV files straight into a {@link CountryTable}.
+ *
+ * <p>Rows are parsed with the byte-level readers and copied into primitive
+ * columns without creating a {@link Country} per row. With a parallelism
+ * above one, chunks are parsed into separate tables that are concatenated
+ * in file order.</p>
+ */
+public class CountryTableReader implements DataReader<Country> {
+    // Keeps its worker pool across reads; null when reading sequentially
+    private final ParallelCsvReader<Country> parallel;
+    private final NumberParser populationFormat;
+    private final NumberParser areaFormat;
+
+    /**
+     * Creates a sequential reader.
+     */
+    public CountryTableReader() {
+        this(1);
+    }
+
+    /**
+     * Creates a reader with the given number of worker threads, for German
+     * formatted numbers.
+     *
+     * @param parallelism the number of worker threads; 1 reads sequentially
+     */
+    public CountryTableReader(int parallelism) {
+        this(parallelism, NumberParser.german(), NumberParser.german());
+    }
+
+    /**
+     * Creates a reader with explicit number formats for the numeric columns.
+     *
+     * @param parallelism      the number of worker threads; 1 reads sequentially
+     * @param populationFormat number format of the population column
+     * @param areaFormat       number format of the area column
+     */
+    public CountryTableReader(int parallelism, NumberParser populationFormat, NumberParser areaFormat) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallel = parallelism == 1 ? null : new ParallelCsvReader<>(CsvFormat.countries(), parallelism);
+        this.populationFormat = populationFormat;
+        this.areaFormat = areaFormat;
+    }
+
+    /**
+     * Reads the given file into a columnar table, printing the first skipped
+     * rows to {@code System.err}.
+     *
+     * @param filePath the path to the CSV file
+     * @return the parsed table
+     * @see ErrorSink#standardError()
+     */
+    public CountryTable readTable(String filePath) {
+        return readTable(filePath, ErrorSink.standardError());
+    }
+
+    /**
+     * Reads the given file into a columnar table, reporting skipped rows.
+     *
+     * @param filePath the path to the CSV file
+     * @param errors   receives each skipped row
+     * @return the parsed table
+     */
+    public CountryTable readTable(String filePath, ErrorSink errors) {
+        if (parallel == null) {
+            CountryTable.Builder builder = new CountryTable.Builder(populationFormat, areaFormat);
+            new MappedCsvReader<>(CsvFormat.countries()).scan(filePath, builder, errors);
+            return builder.build();
+        }
+
+        List<CountryTable.Builder> chunks = parallel.scan(filePath,
+                () -> new CountryTable.Builder(populationFormat, areaFormat), errors);
+        List<CountryTable> parts = new ArrayList<>(chunks.size());
+        for (CountryTable.Builder chunk : chunks) {
+            parts.add(chunk.build());
+        }
+        return parts.size() == 1 ? parts.get(0) : CountryTable.concat(parts);
+    }
+
+    /**
+     * Reads the given file into a columnar table and returns it together
+     * with a summary of the skipped rows.
+     *
+     * @param filePath the path to the CSV file
+     * @return the table and an {@link ErrorReport} with the default sample size
+     */
+    public ReadResult<CountryTable> readTableReporting(String filePath) {
+        ErrorReport errors = new ErrorReport();
+        CountryTable table = readTable(filePath, errors);
+        return new ReadResult<>(table, errors);
+    }
+
+    /**
+     * Reads the given file and returns a {@link Country} view of the table.
+     *
+     * @param filePath the path to the CSV file
+     * @return a read-only list backed by the columnar table
+     */
+    @Override
+    public List<Country> readData(String filePath) {
+        return readTable(filePath).asList();
+    }
+}
@@ -0,0 +1,156 @@
+package de.bcxp.challenge.table;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Dictionary encoding of strings to dense integer ids.
+ *
+ * <p>Values are stored once as UTF-8 bytes in an open-addressing hash table
+ * and referenced by id from columnar tables. Lookups work directly on byte
+ * ranges, so a value that is already present costs no allocation; the
+ * {@link String} form is decoded lazily on first access.</p>
+ *
+ * <p>Instances are not thread-safe while being filled.</p>
+ */
+public final class StringDictionary {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private byte[][] values = new byte[INITIAL_CAPACITY][];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private String[] strings = new String[INITIAL_CAPACITY];
+    private int size;
+
+    /** Open-addressing table of {@code id + 1}; zero marks an empty slot. */
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    /**
+     * Returns the id of the given UTF-8 byte range, adding it if absent.
+     *
+     * @param buffer the source bytes
+     * @param from   start index (inclusive)
+     * @param to     end index (exclusive)
+     * @return the value's id
+     */
+    public int add(ByteBuffer buffer, int from, int to) {
+        int hash = hash(buffer, from, to);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        for (int entry = slots[slot]; entry != 0; entry = slots[slot]) {
+            int id = entry - 1;
+            if (hashes[id] == hash && matches(values[id], buffer, from, to)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(from + i);
+        }
+        return insert(bytes, hash, slot);
+    }
+
+    /**
+     * Returns the id of the given string, adding it if absent.
+     *
+     * @param value the value
+     * @return the value's id
+     */
+    public int add(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int id = add(ByteBuffer.wrap(bytes), 0, bytes.length);
+        if (strings[id] == null) strings[id] = value;
+        return id;
+    }
+
+    /**
+     * Returns the string with the given id.
+     *
+     * @param id a value id
+     * @return the decoded value
+     */
+    public String get(int id) {
+        checkId(id);
+        String value = strings[id];
+        if (value == null) {
+            value = new String(values[id], StandardCharsets.UTF_8);
+            strings[id] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the UTF-8 bytes of the value with the given id.
+     *
+     * @param id a value id
+     * @return the encoded value; must not be modified
+     */
+    public byte[] getBytes(int id) {
+        checkId(id);
+        return values[id];
+    }
+
+    /**
+     * Returns the number of distinct values.
+     *
+     * @return the dictionary size
+     */
+    public int size() {
+        return size;
+    }
+
+    private int insert(byte[] bytes, int hash, int slot) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+            strings = Arrays.copyOf(strings, size * 2);
+        }
+        int id = size++;
+        values[id] = bytes;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+
+        // Keep the load factor at or below one half
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        int[] resized = new int[slots.length * 2];
+        int mask = resized.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (resized[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            resized[slot] = id + 1;
+        }
+        slots = resized;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Id " + id + " of " + size);
+        }
+    }
+
+    private static int hash(ByteBuffer buffer, int from, int to) {
+        int hash = 1;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(byte[] value, ByteBuffer buffer, int from, int to) {
+        if (value.length != to - from) return false;
+        for (int i = 0; i < value.length; i++) {
+            if (value[i] != buffer.get(from + i)) return false;
+        }
+        return true;
+    }
+}
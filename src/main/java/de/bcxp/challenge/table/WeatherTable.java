@@ -0,0 +1,260 @@
+package de.bcxp.challenge.table;
+
+import de.bcxp.challenge.index.MetricIndex;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvRow;
+import de.bcxp.challenge.reader.RowSink;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Columnar, immutable storage of weather records.
+ *
+ * <p>Each attribute is held in its own primitive array, so a dataset costs
+ * 20 bytes per row without per-row object headers or references, and
+ * scans over a single derived value such as the temperature spread touch
+ * contiguous memory only. {@link #get(int)} and {@link #asList()} provide
+ * {@link WeatherDay} views for callers that need objects.</p>
+ */
+public final class WeatherTable {
+    private final int size;
+    private final int[] days;
+    private final double[] maxTemps;
+    private final double[] minTemps;
+    // Built on first use, or restored from a snapshot
+    private volatile MetricIndex spreadIndex;
+
+    private WeatherTable(int size, int[] days, double[] maxTemps, double[] minTemps) {
+        this.size = size;
+        this.days = days;
+        this.maxTemps = maxTemps;
+        this.minTemps = minTemps;
+    }
+
+    /**
+     * Creates a table from existing columns, which are copied.
+     *
+     * @param days     day numbers
+     * @param maxTemps maximum temperatures
+     * @param minTemps minimum temperatures
+     * @return the table
+     */
+    public static WeatherTable of(int[] days, double[] maxTemps, double[] minTemps) {
+        if (days.length != maxTemps.length || days.length != minTemps.length) {
+            throw new IllegalArgumentException("Columns must have equal length.");
+        }
+        return new WeatherTable(days.length, days.clone(), maxTemps.clone(), minTemps.clone());
+    }
+
+    /**
+     * Creates a table on top of the given columns without copying them.
+     *
+     * <p>Ownership of the arrays passes to the table; callers must not
+     * modify them afterwards. Used to load snapshots without extra
+     * copies.</p>
+     *
+     * @param days     day numbers
+     * @param maxTemps maximum temperatures
+     * @param minTemps minimum temperatures
+     * @return the table
+     */
+    public static WeatherTable wrap(int[] days, double[] maxTemps, double[] minTemps) {
+        if (days.length != maxTemps.length || days.length != minTemps.length) {
+            throw new IllegalArgumentException("Columns must have equal length.");
+        }
+        return new WeatherTable(days.length, days, maxTemps, minTemps);
+    }
+
+    /**
+     * Creates a table on top of the given columns without copying them,
+     * reusing a previously built temperature spread index.
+     *
+     * @param days        day numbers
+     * @param maxTemps    maximum temperatures
+     * @param minTemps    minimum temperatures
+     * @param spreadIndex the index returned by {@link #getSpreadIndex()}
+     *                    for the same rows
+     * @return the table
+     */
+    public static WeatherTable wrap(int[] days, double[] maxTemps, double[] minTemps, MetricIndex spreadIndex) {
+        WeatherTable table = wrap(days, maxTemps, minTemps);
+        if (spreadIndex.size() != table.size) {
+            throw new IllegalArgumentException("Index does not match the table size.");
+        }
+        table.spreadIndex = spreadIndex;
+        return table;
+    }
+
+    /**
+     * Concatenates tables in the given order.
+     *
+     * @param parts the tables to concatenate
+     * @return a table holding all rows
+     */
+    public static WeatherTable concat(List<WeatherTable> parts) {
+        Builder builder = new Builder();
+        for (WeatherTable part : parts) {
+            builder.addAll(part);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getDay(int row) {
+        return days[checkRow(row)];
+    }
+
+    public double getMaxTemp(int row) {
+        return maxTemps[checkRow(row)];
+    }
+
+    public double getMinTemp(int row) {
+        return minTemps[checkRow(row)];
+    }
+
+    /**
+     * Computes the temperature spread of the given row, as
+     * {@link WeatherDay#getTemperatureDifference()} does.
+     *
+     * @param row zero-based row index
+     * @return the temperature spread
+     */
+    public double getTemperatureDifference(int row) {
+        checkRow(row);
+        return Math.abs(maxTemps[row] - minTemps[row]);
+    }
+
+    /**
+     * Returns the sorted index over the temperature spread of all rows,
+     * building it on first use.
+     *
+     * @return the index; shared by all callers
+     */
+    public MetricIndex getSpreadIndex() {
+        MetricIndex index = spreadIndex;
+        if (index == null) {
+            // Concurrent first calls may build it twice; the results are equal
+            index = MetricIndex.build(size, this::getTemperatureDifference);
+            spreadIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Creates a {@link WeatherDay} holding the values of the given row.
+     *
+     * @param row zero-based row index
+     * @return a new object for the row
+     */
+    public WeatherDay get(int row) {
+        checkRow(row);
+        return new WeatherDay(days[row], maxTemps[row], minTemps[row]);
+    }
+
+    /**
+     * Returns a read-only list view; elements are created on access.
+     *
+     * @return the list view
+     */
+    public List<WeatherDay> asList() {
+        return new View();
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return row;
+    }
+
+    private final class View extends AbstractList<WeatherDay> implements RandomAccess {
+        @Override
+        public WeatherDay get(int index) {
+            return WeatherTable.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Fills a {@link WeatherTable} row by row, either programmatically or
+     * directly from a reader as {@link RowSink}.
+     *
+     * <p>Rows follow the weather CSV layout: day, maximum and minimum
+     * temperature in the first three columns.</p>
+     */
+    public static final class Builder implements RowSink {
+        private int size;
+        private int[] days = new int[1024];
+        private double[] maxTemps = new double[1024];
+        private double[] minTemps = new double[1024];
+
+        /**
+         * Appends a row.
+         *
+         * @param day     the day number
+         * @param maxTemp the maximum temperature
+         * @param minTemp the minimum temperature
+         * @return this builder
+         */
+        public Builder add(int day, double maxTemp, double minTemp) {
+            if (size == days.length) {
+                grow(size * 2);
+            }
+            days[size] = day;
+            maxTemps[size] = maxTemp;
+            minTemps[size] = minTemp;
+            size++;
+            return this;
+        }
+
+        /**
+         * Appends all rows of the given table.
+         *
+         * @param table the rows to append
+         * @return this builder
+         */
+        public Builder addAll(WeatherTable table) {
+            if (size + table.size > days.length) {
+                grow(Math.max(size + table.size, size * 2));
+            }
+            System.arraycopy(table.days, 0, days, size, table.size);
+            System.arraycopy(table.maxTemps, 0, maxTemps, size, table.size);
+            System.arraycopy(table.minTemps, 0, minTemps, size, table.size);
+            size += table.size;
+            return this;
+        }
+
+        @Override
+        public boolean accept(CsvRow row) {
+            if (row.fieldCount() < 3) return false;
+            add(row.getInt(0), row.getDouble(1), row.getDouble(2));
+            return true;
+        }
+
+        /**
+         * Creates the table; the builder must not be used afterwards.
+         *
+         * @return the table
+         */
+        public WeatherTable build() {
+            grow(size);
+            return new WeatherTable(size, days, maxTemps, minTemps);
+        }
+
+        private void grow(int capacity) {
+            days = Arrays.copyOf(days, capacity);
+            maxTemps = Arrays.copyOf(maxTemps, capacity);
+            minTemps = Arrays.copyOf(minTemps, capacity);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package de.bcxp.challenge.table;
+
+import de.bcxp.challenge.api.DataReader;
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.error.ReadResult;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.reader.ParallelCsvReader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads weather CSV files straight into a {@link WeatherTable}.
+ *
+ * <p>Rows are parsed with the byte-level readers and copied into primitive
+ * columns without creating a {@link WeatherDay} per row. With a parallelism
+ * above one, chunks are parsed into separate tables that are concatenated
+ * in file order.</p>
+ */
+public class WeatherTableReader implements DataReader<WeatherDay> {
+    // Keeps its worker pool across reads; null when reading sequentially
+    private final ParallelCsvReader<WeatherDay> parallel;
+
+    /**
+     * Creates a sequential reader.
+     */
+    public WeatherTableReader() {
+        this(1);
+    }
+
+    /**
+     * Creates a reader with the given number of worker threads.
+     *
+     * @param parallelism the number of worker threads; 1 reads sequentially
+     */
+    public WeatherTableReader(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallel = parallelism == 1 ? null : new ParallelCsvReader<>(CsvFormat.weather(), parallelism);
+    }
+
+    /**
+     * Reads the given file into a columnar table, printing the first skipped
+     * rows to {@code System.err}.
+     *
+     * @param filePath the path to the CSV file
+     * @return the parsed table
+     * @see ErrorSink#standardError()
+     */
+    public WeatherTable readTable(String filePath) {
+        return readTable(filePath, ErrorSink.standardError());
+    }
+
+    /**
+     * Reads the given file into a columnar table, reporting skipped rows.
+     *
+     * @param filePath the path to the CSV file
+     * @param errors   receives each skipped row
+     * @return the parsed table
+     */
+    public WeatherTable readTable(String filePath, ErrorSink errors) {
+        if (parallel == null) {
+            WeatherTable.Builder builder = new WeatherTable.Builder();
+            new MappedCsvReader<>(CsvFormat.weather()).scan(filePath, builder, errors);
+            return builder.build();
+        }
+
+        List<WeatherTable.Builder> chunks = parallel.scan(filePath, WeatherTable.Builder::new, errors);
+        List<WeatherTable> parts = new ArrayList<>(chunks.size());
+        for (WeatherTable.Builder chunk : chunks) {
+            parts.add(chunk.build());
+        }
+        return parts.size() == 1 ? parts.get(0) : WeatherTable.concat(parts);
+    }
+
+    /**
+     * Reads the given file into a columnar table and returns it together
+     * with a summary of the skipped rows.
+     *
+     * @param filePath the path to the CSV file
+     * @return the table and an {@link ErrorReport} with the default sample size
+     */
+    public ReadResult<WeatherTable> readTableReporting(String filePath) {
+        ErrorReport errors = new ErrorReport();
+        WeatherTable table = readTable(filePath, errors);
+        return new ReadResult<>(table, errors);
+    }
+
+    /**
+     * Reads the given file and returns a {@link WeatherDay} view of the table.
+     *
+     * @param filePath the path to the CSV file
+     * @return a read-only list backed by the columnar table
+     */
+    @Override
+    public List<WeatherDay> readData(String filePath) {
+        return readTable(filePath).asList();
+    }
+}
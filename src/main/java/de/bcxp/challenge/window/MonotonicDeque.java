@@ -0,0 +1,76 @@
+package de.bcxp.challenge.window;
+
+/**
+ * Minimum or maximum of the last {@code size} values of a stream in
+ * amortized constant time per value.
+ *
+ * <p>The deque holds the values that can still become the extreme of a
+ * later window, in stream order and monotonic by value: a new value removes
+ * every older value it beats, because those leave the window first and can
+ * never be the extreme again. Each value is thus added and removed at most
+ * once, and the head is always the extreme of the current window. Equal
+ * values are kept, so the head is the earliest extreme.</p>
+ *
+ * <p>Values and their stream positions live in primitive ring buffers of
+ * {@code size} slots, which suffices since all entries lie within the
+ * window.</p>
+ */
+final class MonotonicDeque {
+    private final boolean largest;
+    private final int size;
+    private final double[] values;
+    private final long[] positions;
+    private int head;
+    private int count;
+
+    MonotonicDeque(int size, boolean largest) {
+        this.largest = largest;
+        this.size = size;
+        this.values = new double[size];
+        this.positions = new long[size];
+    }
+
+    /**
+     * Adds the value at the given stream position and drops values that
+     * left the window.
+     *
+     * @param value    the next value
+     * @param position the position of the value; one more than the previous
+     */
+    void push(double value, long position) {
+        if (count > 0 && positions[head] <= position - size) {
+            head = (head + 1) % size;
+            count--;
+        }
+        while (count > 0 && beats(value, values[(head + count - 1) % size])) {
+            count--;
+        }
+        int tail = (head + count) % size;
+        values[tail] = value;
+        positions[tail] = position;
+        count++;
+    }
+
+    /**
+     * Returns the extreme of the current window.
+     *
+     * @return the minimum or maximum; undefined if no value was pushed
+     */
+    double peek() {
+        return values[head];
+    }
+
+    /**
+     * Returns the stream position of {@link #peek()}.
+     *
+     * @return the position of the earliest extreme
+     */
+    long peekPosition() {
+        return positions[head];
+    }
+
+    private boolean beats(double value, double other) {
+        int comparison = Double.compare(value, other);
+        return largest ? comparison > 0 : comparison < 0;
+    }
+}
@@ -0,0 +1,49 @@
+package de.bcxp.challenge.window;
+
+/**
+ * Sum of the last {@code size} values of a stream in amortized constant
+ * time per value.
+ *
+ * <p>Each value is added on arrival and subtracted when it leaves the
+ * window. Since floating-point add and subtract do not cancel exactly, the
+ * sum is recomputed from the ring buffer once per {@code size} values; this
+ * costs {@code O(1)} amortized and keeps the rounding error of a window
+ * independent of the stream length.</p>
+ */
+final class RunningSum {
+    private final double[] values;
+    private long count;
+    private double sum;
+
+    RunningSum(int size) {
+        this.values = new double[size];
+    }
+
+    void add(double value) {
+        int slot = (int) (count % values.length);
+        if (count >= values.length) {
+            sum -= values[slot];
+        }
+        values[slot] = value;
+        sum += value;
+        count++;
+
+        if (slot == values.length - 1) {
+            double exact = 0;
+            for (double v : values) {
+                exact += v;
+            }
+            sum = exact;
+        }
+    }
+
+    /**
+     * Returns the sum over the window.
+     *
+     * @return the sum of the last {@code size} values, or of all values if
+     *         fewer were added
+     */
+    double sum() {
+        return sum;
+    }
+}
@@ -0,0 +1,98 @@
+package de.bcxp.challenge.window;
+
+/**
+ * Statistics over a window of consecutive weather rows.
+ *
+ * <p>A window covers {@code size} rows in input order, starting at the row
+ * with index {@link #getPosition()}. Rows are counted, not calendar days, so
+ * gaps in the day numbers do not widen a window.</p>
+ */
+public final class WeatherWindow {
+    private final long position;
+    private final int firstDay;
+    private final int lastDay;
+    private final double minSpread;
+    private final int minSpreadDay;
+    private final double maxSpread;
+    private final int maxSpreadDay;
+    private final double meanSpread;
+    private final double meanMaxTemp;
+    private final double meanMinTemp;
+
+    WeatherWindow(long position, int firstDay, int lastDay, double minSpread, int minSpreadDay,
+                  double maxSpread, int maxSpreadDay, double meanSpread, double meanMaxTemp, double meanMinTemp) {
+        this.position = position;
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.minSpread = minSpread;
+        this.minSpreadDay = minSpreadDay;
+        this.maxSpread = maxSpread;
+        this.maxSpreadDay = maxSpreadDay;
+        this.meanSpread = meanSpread;
+        this.meanMaxTemp = meanMaxTemp;
+        this.meanMinTemp = meanMinTemp;
+    }
+
+    /**
+     * Returns the index of the first row of the window among all rows
+     * analyzed.
+     *
+     * @return the zero-based window position
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    public int getLastDay() {
+        return lastDay;
+    }
+
+    public double getMinSpread() {
+        return minSpread;
+    }
+
+    /**
+     * Returns the day with the smallest spread; on ties the earliest.
+     *
+     * @return the day number
+     */
+    public int getMinSpreadDay() {
+        return minSpreadDay;
+    }
+
+    public double getMaxSpread() {
+        return maxSpread;
+    }
+
+    /**
+     * Returns the day with the largest spread; on ties the earliest.
+     *
+     * @return the day number
+     */
+    public int getMaxSpreadDay() {
+        return maxSpreadDay;
+    }
+
+    public double getMeanSpread() {
+        return meanSpread;
+    }
+
+    public double getMeanMaxTemp() {
+        return meanMaxTemp;
+    }
+
+    public double getMeanMinTemp() {
+        return meanMinTemp;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Days %d-%d [spread min=%s (day %d), max=%s (day %d), mean=%.2f; "
+                        + "mean MxT=%.2f, mean MnT=%.2f]", firstDay, lastDay, minSpread, minSpreadDay,
+                maxSpread, maxSpreadDay, meanSpread, meanMaxTemp, meanMinTemp);
+    }
+}
@@ -0,0 +1,230 @@
+package de.bcxp.challenge.window;
+
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.api.Aggregation;
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.table.WeatherTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Computes rolling statistics over every window of {@code size}
+ * consecutive weather rows.
+ *
+ * <p>For each window position the minimum and maximum temperature spread
+ * and the means of spread, {@code MxT} and {@code MnT} are emitted. Minimum
+ * and maximum come from monotonic deques and the means from running sums,
+ * so every row costs amortized constant time and {@code n} rows yield their
+ * {@code n - size + 1} windows in {@code O(n)} total, independent of the
+ * window size. State is bounded by a few primitive arrays of {@code size}
+ * slots.</p>
+ *
+ * <p>The same engine serves list and table inputs, streaming readers and
+ * {@link de.bcxp.challenge.service.IncrementalAnalyzer}: {@link #emitting}
+ * pushes each completed window to a consumer and {@link #latest()} keeps
+ * only the current one. Windows span chunk boundaries in input order, so
+ * the accumulators are not mergeable; parallel readers detect this and fold
+ * them in file order.</p>
+ */
+public class WeatherWindowAnalyzer {
+    private final int size;
+
+    /**
+     * Creates an analyzer for windows of the given number of rows.
+     *
+     * @param size the number of rows per window, e.g. {@code 7}
+     */
+    public WeatherWindowAnalyzer(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Window size must be positive: " + size);
+        }
+        this.size = size;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Computes all windows of the given list.
+     *
+     * @param data the rows in input order, may be {@code null}
+     * @return one window per position; empty if there are fewer rows than
+     *         the window size
+     */
+    public List<WeatherWindow> analyze(List<WeatherDay> data) {
+        List<WeatherWindow> windows = new ArrayList<>();
+        if (data != null) {
+            Window window = new Window(size, windows::add);
+            data.forEach(window::accept);
+        }
+        return windows;
+    }
+
+    /**
+     * Computes all windows of a columnar table without creating row
+     * objects.
+     *
+     * @param table the table, may be {@code null}
+     * @return one window per position
+     */
+    public List<WeatherWindow> analyzeTable(WeatherTable table) {
+        List<WeatherWindow> windows = new ArrayList<>();
+        if (table != null) {
+            Window window = new Window(size, windows::add);
+            for (int row = 0; row < table.size(); row++) {
+                window.push(table.getDay(row), table.getMaxTemp(row), table.getMinTemp(row));
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * Reads a file and emits each window as soon as its last row is parsed,
+     * without holding the rows or the windows in memory.
+     *
+     * @param reader   a sequential reader
+     * @param filePath the path to the file to read
+     * @param sink     receives the windows in order
+     * @return the number of windows emitted
+     */
+    public long analyze(StreamingDataReader<WeatherDay> reader, String filePath, Consumer<WeatherWindow> sink) {
+        return analyze(reader, filePath, sink, ErrorSink.standardError());
+    }
+
+    /**
+     * Reads a file and emits each window as soon as its last row is parsed,
+     * reporting skipped rows to the given sink.
+     *
+     * @param reader   a sequential reader
+     * @param filePath the path to the file to read
+     * @param sink     receives the windows in order
+     * @param errors   receives the skipped rows
+     * @return the number of windows emitted
+     */
+    public long analyze(StreamingDataReader<WeatherDay> reader, String filePath, Consumer<WeatherWindow> sink,
+            ErrorSink errors) {
+        Window window = new Window(size, sink);
+        reader.readData(filePath, window::accept, errors);
+        return window.windows();
+    }
+
+    /**
+     * Creates an aggregation that emits every window to the given sink; its
+     * result is the most recent window.
+     *
+     * <p>Each accumulator starts a new sequence of windows, e.g. when an
+     * {@link de.bcxp.challenge.service.IncrementalAnalyzer} restarts after
+     * the file was rewritten.</p>
+     *
+     * @param sink receives the windows in order
+     * @return the aggregation; not mergeable
+     */
+    public Aggregation<WeatherDay, Optional<WeatherWindow>> emitting(Consumer<WeatherWindow> sink) {
+        return () -> new Window(size, sink);
+    }
+
+    /**
+     * Creates an aggregation whose result is the most recent window, e.g. a
+     * rolling seven-day view kept current by an incremental analyzer.
+     *
+     * @return the aggregation; not mergeable
+     */
+    public Aggregation<WeatherDay, Optional<WeatherWindow>> latest() {
+        return emitting(window -> { });
+    }
+
+    /**
+     * Creates an aggregation collecting all windows.
+     *
+     * @return the aggregation; not mergeable
+     */
+    public Aggregation<WeatherDay, List<WeatherWindow>> windows() {
+        return () -> new Accumulator<>() {
+            private final List<WeatherWindow> windows = new ArrayList<>();
+            private final Window window = new Window(size, windows::add);
+
+            @Override
+            public void accept(WeatherDay item) {
+                window.accept(item);
+            }
+
+            @Override
+            public List<WeatherWindow> result() {
+                return new ArrayList<>(windows);
+            }
+        };
+    }
+
+    /**
+     * The sliding window state; emits a window per row once full.
+     */
+    private static final class Window implements Accumulator<WeatherDay, Optional<WeatherWindow>> {
+        private final int size;
+        private final Consumer<WeatherWindow> sink;
+        private final int[] days;
+        private final MonotonicDeque minSpread;
+        private final MonotonicDeque maxSpread;
+        private final RunningSum spreads;
+        private final RunningSum maxTemps;
+        private final RunningSum minTemps;
+        private long rows;
+        private WeatherWindow latest;
+
+        Window(int size, Consumer<WeatherWindow> sink) {
+            this.size = size;
+            this.sink = sink;
+            this.days = new int[size];
+            this.minSpread = new MonotonicDeque(size, false);
+            this.maxSpread = new MonotonicDeque(size, true);
+            this.spreads = new RunningSum(size);
+            this.maxTemps = new RunningSum(size);
+            this.minTemps = new RunningSum(size);
+        }
+
+        @Override
+        public void accept(WeatherDay item) {
+            if (item != null) {
+                push(item.getDay(), item.getMaxTemp(), item.getMinTemp());
+            }
+        }
+
+        void push(int day, double maxTemp, double minTemp) {
+            double spread = Math.abs(maxTemp - minTemp);
+            days[(int) (rows % size)] = day;
+            minSpread.push(spread, rows);
+            maxSpread.push(spread, rows);
+            spreads.add(spread);
+            maxTemps.add(maxTemp);
+            minTemps.add(minTemp);
+            rows++;
+
+            if (rows >= size) {
+                long position = rows - size;
+                latest = new WeatherWindow(position, dayAt(position), day,
+                        minSpread.peek(), dayAt(minSpread.peekPosition()),
+                        maxSpread.peek(), dayAt(maxSpread.peekPosition()),
+                        spreads.sum() / size, maxTemps.sum() / size, minTemps.sum() / size);
+                sink.accept(latest);
+            }
+        }
+
+        private int dayAt(long row) {
+            return days[(int) (row % size)];
+        }
+
+        long windows() {
+            return Math.max(0, rows - size + 1);
+        }
+
+        @Override
+        public Optional<WeatherWindow> result() {
+            return Optional.ofNullable(latest);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.server.AnalysisServer;
+import de.bcxp.challenge.server.LoadTest;
+import de.bcxp.challenge.server.LoadTestResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class AnalysisServerTest {
+    private static final Path DATA = Path.of("src/main/resources/de/bcxp/challenge");
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private AnalysisServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new AnalysisServer(DATA, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, 1 << 20);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    private URI uri(String pathAndQuery) {
+        return URI.create("http://localhost:" + server.getPort() + pathAndQuery);
+    }
+
+    private HttpResponse<String> get(String pathAndQuery) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(pathAndQuery)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testAnswersQueries() throws Exception {
+        HttpResponse<String> weather = get("/weather/min-spread");
+        assertEquals(200, weather.statusCode());
+        assertTrue(weather.body().startsWith("{\"day\":14,"), weather.body());
+        assertTrue(weather.headers().firstValue("Content-Type").orElseThrow().startsWith("application/json"));
+
+        HttpResponse<String> country = get("/countries/max-density?file=countries.csv");
+        assertTrue(country.body().startsWith("{\"name\":\"Malta\","), country.body());
+
+        String densest = get("/countries/densest?k=2").body();
+        assertTrue(densest.startsWith("[{\"name\":\"Malta\","), densest);
+        assertEquals(2, densest.split("\"name\"").length - 1);
+
+        String calmest = get("/weather/calmest?k=1").body();
+        assertTrue(calmest.startsWith("[{\"day\":14,"), calmest);
+    }
+
+    @Test
+    void testCachesParsedDatasets() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, get("/weather/min-spread").statusCode());
+        }
+        String stats = get("/stats").body();
+        assertTrue(stats.startsWith("{\"weatherCache\":{\"hits\":4,\"misses\":1,"), stats);
+        assertTrue(stats.contains("\"name\":\"weather.read\",\"calls\":1,"), stats);
+        assertTrue(stats.contains("\"name\":\"weather.analyze\",\"calls\":5,"), stats);
+    }
+
+    @Test
+    void testWarmUpIsNotReportedInStats() throws Exception {
+        server.warmUp("weather.csv", "countries.csv", 10);
+        assertEquals(200, get("/weather/min-spread").statusCode());
+
+        String stats = get("/stats").body();
+        assertTrue(stats.startsWith("{\"weatherCache\":{\"hits\":1,\"misses\":0,"), stats);
+        assertTrue(stats.contains("\"name\":\"weather.analyze\",\"calls\":1,"), stats);
+        assertFalse(stats.contains("\"name\":\"weather.read\""), stats);
+        assertFalse(stats.contains("\"name\":\"countries.analyze\""), stats);
+    }
+
+    @Test
+    void testRejectsInvalidRequests() throws Exception {
+        assertEquals(404, get("/unknown").statusCode());
+        assertEquals(404, get("/weather/min-spread?file=missing.csv").statusCode());
+        assertEquals(400, get("/weather/min-spread?file=../../../../pom.xml").statusCode());
+        assertEquals(400, get("/countries/densest?k=many").statusCode());
+        assertEquals(400, get("/countries/densest?k=-1").statusCode());
+        assertEquals(400, get("/weather/calmest?k=2000000000").statusCode());
+        assertEquals(200, get("/weather/calmest?k=" + AnalysisServer.MAX_K).statusCode());
+
+        HttpResponse<String> post = client.send(HttpRequest.newBuilder(uri("/health"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, post.statusCode());
+        assertEquals("{\"error\":\"Only GET is supported\"}", post.body());
+        assertEquals(200, get("/health").statusCode());
+    }
+
+    @Test
+    void testLoadTestMeasuresConcurrentClients() throws Exception {
+        server.warmUp("weather.csv", "countries.csv", 100);
+        List<URI> uris = List.of(uri("/weather/min-spread"), uri("/countries/densest?k=3"));
+
+        LoadTestResult result = new LoadTest(uris, 4, 10, 50).run();
+
+        assertEquals(200, result.getRequests());
+        assertEquals(0, result.getErrors());
+        assertTrue(result.percentileNanos(50) > 0);
+        assertTrue(result.percentileNanos(50) <= result.percentileNanos(99));
+        assertTrue(result.percentileNanos(99) <= result.percentileNanos(100));
+        assertTrue(result.requestsPerSecond() > 0);
+        assertThrows(IllegalArgumentException.class, () -> result.percentileNanos(0));
+    }
+}
@@ -2,8 +2,18 @@ package de.bcxp.challenge;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Example JUnit 5 test case.
@@ -22,4 +32,52 @@ class AppTest {
         assertEquals("successful", successLabel, "My expectations were not met");
     }
 
+    @Test
+    void invalidWaitRatioPrintsUsage() {
+        for (String ratio : new String[] {"fast", "-1", "NaN", "Infinity"}) {
+            assertTrue(standardError("weather", "missing-directory", ratio).startsWith("Usage: App "), ratio);
+        }
+    }
+
+    @Test
+    void invalidMemoryBudgetPrintsUsage() {
+        for (String budget : new String[] {"64x", "", "-1m"}) {
+            assertTrue(standardError("external", "weather", "missing.csv", budget)
+                    .startsWith("Usage: App external "), budget);
+        }
+        assertTrue(standardError("external", "weather", "missing.csv").startsWith("Usage: App external "));
+        assertTrue(standardError("unknown", "x").contains("external weather|countries"));
+    }
+
+    @Test
+    void snapshotDirectoryIsConfigurable(@TempDir Path tempDir) throws IOException {
+        Path snapshots = tempDir.resolve("snapshots");
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+        try {
+            System.setProperty(App.SNAPSHOTS_PROPERTY, "off");
+            App.main();
+            System.setProperty(App.SNAPSHOTS_PROPERTY, snapshots.toString());
+            App.main();
+        } finally {
+            System.clearProperty(App.SNAPSHOTS_PROPERTY);
+            System.setOut(out);
+        }
+        try (Stream<Path> files = Files.list(snapshots)) {
+            assertEquals(2, files.filter(file -> file.toString().endsWith(".snap")).count());
+        }
+    }
+
+    private static String standardError(String... args) {
+        PrintStream err = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            App.main(args);
+        } finally {
+            System.setErr(err);
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,185 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.api.Aggregation;
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.batch.BatchAnalyzer;
+import de.bcxp.challenge.batch.BatchFiles;
+import de.bcxp.challenge.batch.BatchResult;
+import de.bcxp.challenge.batch.FileResult;
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.exception.DataReadException;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.service.Aggregations;
+import de.bcxp.challenge.service.WeatherAnalyzer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class BatchAnalyzerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<Path> writeStations(int count) throws IOException {
+        Path stations = Files.createDirectories(tempDir.resolve("stations"));
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Path file = stations.resolve(String.format("station-%02d.csv", i));
+            new WeatherDataGenerator(i, 0.05).generate(file, 50 + 40 * i);
+            files.add(file);
+        }
+        return files;
+    }
+
+    @Test
+    void testPerFileAndGlobalResultsMatchSequentialReads() throws IOException {
+        List<Path> files = writeStations(12);
+        MappedCsvReader<WeatherDay> reader = new MappedCsvReader<>(CsvFormat.weather());
+
+        BatchResult<Optional<WeatherDay>> result = BatchAnalyzer.builder(reader, new WeatherAnalyzer())
+                .threads(3)
+                .groupBytes(1)
+                .build()
+                .analyze(tempDir.resolve("stations").toString());
+
+        assertEquals(12, result.getTasks());
+        List<WeatherDay> all = new ArrayList<>();
+        long rejected = 0;
+        for (int i = 0; i < files.size(); i++) {
+            FileResult<Optional<WeatherDay>> file = result.getFiles().get(i);
+            ErrorReport errors = new ErrorReport();
+            List<WeatherDay> days = reader.readData(files.get(i).toString(), errors);
+            all.addAll(days);
+            assertEquals(files.get(i), file.getPath());
+            assertEquals(days.size(), file.getRecords());
+            assertEquals(new WeatherAnalyzer().analyze(days).toString(), file.getResult().toString());
+            assertEquals(errors.getTotal(), file.getErrors().getTotal());
+            rejected += file.getErrors().getTotal();
+        }
+        assertEquals(all.size(), result.getRecords());
+        assertEquals(rejected, result.getRejectedRows());
+        assertTrue(rejected > 0);
+        // The first occurrence wins across files, as in a single sequential pass
+        assertEquals(new WeatherAnalyzer().analyze(all).toString(), result.getGlobal().toString());
+    }
+
+    @Test
+    void testSmallFilesAreGrouped() throws IOException {
+        writeStations(10);
+        String input = tempDir.resolve("stations").toString();
+        BatchAnalyzer.Builder<WeatherDay, Long> builder =
+                BatchAnalyzer.builder(new MappedCsvReader<>(CsvFormat.weather()), Aggregations.count());
+
+        BatchResult<Long> oneTask = builder.groupBytes(Long.MAX_VALUE).build().analyze(input);
+        BatchResult<Long> grouped = builder.groupBytes(8 * 1024).build().analyze(input);
+
+        assertEquals(1, oneTask.getTasks());
+        assertTrue(grouped.getTasks() > 1 && grouped.getTasks() < 10, "tasks: " + grouped.getTasks());
+        assertEquals(oneTask.getRecords(), oneTask.getGlobal());
+        assertEquals(oneTask.getGlobal(), grouped.getGlobal());
+    }
+
+    @Test
+    void testUnreadableFileDoesNotFailTheBatch() throws IOException {
+        writeStations(3);
+        Files.createFile(tempDir.resolve("stations/station-01b.csv"));
+
+        BatchResult<Long> result = BatchAnalyzer
+                .builder(new MappedCsvReader<>(CsvFormat.weather()), Aggregations.<WeatherDay>count())
+                .ioWaitRatio(1.5)
+                .build()
+                .analyze(tempDir.resolve("stations").toString());
+
+        assertEquals(4, result.getFiles().size());
+        assertEquals(1, result.getFailedFiles());
+        FileResult<Long> failed = result.getFiles().get(2);
+        assertTrue(failed.isFailed());
+        assertNull(failed.getResult());
+        assertTrue(failed.getFailure().getMessage().startsWith("Empty file"));
+        assertEquals(result.getRecords(), result.getGlobal());
+    }
+
+    @Test
+    void testFailingReaderDoesNotFailTheBatch() throws IOException {
+        List<Path> files = writeStations(3);
+        MappedCsvReader<WeatherDay> delegate = new MappedCsvReader<>(CsvFormat.weather());
+        StreamingDataReader<WeatherDay> reader = (filePath, sink, errors) -> {
+            if (filePath.equals(files.get(1).toString())) {
+                throw new IllegalStateException("broken reader");
+            }
+            return delegate.readData(filePath, sink, errors);
+        };
+
+        // A single task holds all files, so the failure must not drop its neighbours
+        BatchResult<Long> result = BatchAnalyzer.builder(reader, Aggregations.<WeatherDay>count())
+                .threads(1)
+                .build()
+                .analyze(files);
+
+        assertEquals(3, result.getFiles().size());
+        assertEquals(1, result.getFailedFiles());
+        FileResult<Long> failed = result.getFiles().get(1);
+        assertNull(failed.getResult());
+        assertTrue(failed.getFailure().getMessage().startsWith("Error analyzing file: "));
+        assertInstanceOf(IllegalStateException.class, failed.getFailure().getCause());
+        assertEquals(result.getRecords(), result.getGlobal());
+    }
+
+    @Test
+    void testNonMergeableAggregationIsRejectedUpFront() {
+        Aggregation<WeatherDay, Long> unmergeable = () -> new Accumulator<>() {
+            @Override
+            public void accept(WeatherDay day) {
+            }
+
+            @Override
+            public Long result() {
+                return 0L;
+            }
+        };
+        BatchAnalyzer.Builder<WeatherDay, Long> builder =
+                BatchAnalyzer.builder(new MappedCsvReader<>(CsvFormat.weather()), unmergeable);
+
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    void testResolvesGlobPatterns() throws IOException {
+        List<Path> files = writeStations(3);
+        Files.writeString(tempDir.resolve("stations/readme.txt"), "not a csv");
+        Path nested = Files.createDirectories(tempDir.resolve("stations/archive"));
+        Files.copy(files.get(0), nested.resolve("old.csv"));
+
+        assertEquals(files, BatchFiles.resolve(tempDir + "/stations/*.csv"));
+        assertEquals(List.of(nested.resolve("old.csv")), BatchFiles.resolve(tempDir + "/**/archive/*.csv"));
+        assertEquals(4, BatchFiles.resolve(tempDir + "/stations/**.csv").size());
+        assertEquals(4, BatchFiles.resolve(tempDir.resolve("stations").toString()).size());
+        assertEquals(List.of(files.get(1)), BatchFiles.resolve(files.get(1).toString()));
+        assertTrue(BatchFiles.resolve(tempDir + "/stations/*.json").isEmpty());
+        assertThrows(DataReadException.class, () -> BatchFiles.resolve(tempDir.resolve("missing").toString()));
+    }
+
+    @Test
+    void testRejectsInvalidConfiguration() {
+        BatchAnalyzer.Builder<WeatherDay, Long> builder =
+                BatchAnalyzer.builder(new MappedCsvReader<>(CsvFormat.weather()), Aggregations.count());
+        assertThrows(IllegalArgumentException.class, () -> builder.threads(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.ioWaitRatio(-1));
+        assertThrows(IllegalArgumentException.class, () -> builder.groupBytes(0));
+        // Huge ratios saturate instead of overflowing the thread count
+        assertDoesNotThrow(() -> builder.ioWaitRatio(1e12));
+    }
+}
@@ -0,0 +1,168 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.api.DataReader;
+import de.bcxp.challenge.cache.CacheStats;
+import de.bcxp.challenge.cache.CachingDataReader;
+import de.bcxp.challenge.exception.DataReadException;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvWeatherReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class CachingDataReaderTest {
+    private static final String WEATHER = "src/main/resources/de/bcxp/challenge/weather.csv";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRepeatedReadIsServedFromCache() {
+        CountingReader counting = new CountingReader(new CsvWeatherReader());
+        CachingDataReader<WeatherDay> cache = new CachingDataReader<>(counting, 1 << 20, 64);
+
+        List<WeatherDay> first = cache.readData(WEATHER);
+        List<WeatherDay> second = cache.readData(WEATHER);
+
+        assertSame(first, second);
+        assertEquals(1, counting.calls.get());
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getLoadCount());
+        assertEquals(30 * 64, stats.getWeightedSize());
+        assertThrows(UnsupportedOperationException.class, () -> first.remove(0));
+    }
+
+    @Test
+    void testChangedFileIsReloaded() throws IOException {
+        Path file = Files.copy(Path.of(WEATHER), tempDir.resolve("weather.csv"));
+        CountingReader counting = new CountingReader(new CsvWeatherReader());
+        CachingDataReader<WeatherDay> cache = new CachingDataReader<>(counting, 1 << 20, 64);
+
+        assertEquals(30, cache.readData(file.toString()).size());
+        Files.writeString(file, "\n31,70,50,1,1,1,1,1,1,1,1,1,1,1", StandardOpenOption.APPEND);
+
+        assertEquals(31, cache.readData(file.toString()).size());
+        assertEquals(2, counting.calls.get());
+        assertEquals(1, cache.getStats().getEntryCount());
+        assertEquals(31 * 64, cache.getStats().getWeightedSize());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() throws IOException {
+        Path a = Files.copy(Path.of(WEATHER), tempDir.resolve("a.csv"));
+        Path b = Files.copy(Path.of(WEATHER), tempDir.resolve("b.csv"));
+        Path c = Files.copy(Path.of(WEATHER), tempDir.resolve("c.csv"));
+        CountingReader counting = new CountingReader(new CsvWeatherReader());
+        // Room for two files of 30 records
+        CachingDataReader<WeatherDay> cache = new CachingDataReader<>(counting, 2 * 30 * 64, 64);
+
+        cache.readData(a.toString());
+        cache.readData(b.toString());
+        cache.readData(a.toString());
+        cache.readData(c.toString());
+
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(2, cache.getStats().getEntryCount());
+        cache.readData(a.toString());
+        assertEquals(3, counting.calls.get());
+        cache.readData(b.toString());
+        assertEquals(4, counting.calls.get());
+    }
+
+    @Test
+    void testConcurrentRequestsShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountingReader counting = new CountingReader(path -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new CsvWeatherReader().readData(path);
+        });
+        CachingDataReader<WeatherDay> cache = new CachingDataReader<>(counting, 1 << 20, 64);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<WeatherDay>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.readData(WEATHER)));
+            }
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<List<WeatherDay>> result : results) {
+                assertEquals(30, result.get(5, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, counting.calls.get());
+        assertEquals(7, cache.getStats().getHits());
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        CachingDataReader<WeatherDay> cache = new CachingDataReader<>(new CsvWeatherReader(), 1 << 20, 64);
+
+        assertThrows(DataReadException.class, () -> cache.readData("missing.csv"));
+        assertEquals(0, cache.getStats().getEntryCount());
+    }
+
+    @Test
+    void testFailingWeigherAndErrorsDoNotLeaveEntriesBehind() {
+        AtomicInteger weighed = new AtomicInteger();
+        CachingDataReader<WeatherDay> cache = new CachingDataReader<>(new CsvWeatherReader(), 1 << 20, data -> {
+            if (weighed.getAndIncrement() == 0) {
+                throw new IllegalStateException("weigher failed");
+            }
+            return data.size();
+        });
+
+        assertThrows(IllegalStateException.class, () -> cache.readData(WEATHER));
+        assertEquals(0, cache.getStats().getEntryCount());
+        // The key is not poisoned: the next read loads again instead of waiting forever
+        assertEquals(30, assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> cache.readData(WEATHER)).size());
+
+        CachingDataReader<WeatherDay> failing = new CachingDataReader<>(path -> {
+            throw new AssertionError("boom");
+        }, 1 << 20, 64);
+        assertThrows(AssertionError.class, () -> failing.readData(WEATHER));
+        assertEquals(0, failing.getStats().getEntryCount());
+        assertEquals(1, failing.getStats().getLoadFailures());
+    }
+
+    private static final class CountingReader implements DataReader<WeatherDay> {
+        private final DataReader<WeatherDay> delegate;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingReader(DataReader<WeatherDay> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public List<WeatherDay> readData(String filePath) {
+            calls.incrementAndGet();
+            return delegate.readData(filePath);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.generator.CountryDataGenerator;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvCountryReader;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.CsvWeatherReader;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.service.CountryAnalyzer;
+import de.bcxp.challenge.service.WeatherAnalyzer;
+import de.bcxp.challenge.table.CountryTable;
+import de.bcxp.challenge.table.CountryTableReader;
+import de.bcxp.challenge.table.StringDictionary;
+import de.bcxp.challenge.table.WeatherTable;
+import de.bcxp.challenge.table.WeatherTableReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class ColumnarTableTest {
+    private static final String WEATHER = "src/main/resources/de/bcxp/challenge/weather.csv";
+    private static final String COUNTRIES = "src/main/resources/de/bcxp/challenge/countries.csv";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWeatherTableMatchesObjectReader() {
+        WeatherTable table = new WeatherTableReader().readTable(WEATHER);
+        List<WeatherDay> expected = new CsvWeatherReader().readData(WEATHER);
+
+        assertEquals(expected.size(), table.size());
+        assertEquals(expected.toString(), table.asList().toString());
+        assertEquals(14, new WeatherAnalyzer().analyzeTable(table).get().getDay());
+    }
+
+    @Test
+    void testCountryTableMatchesObjectReader() {
+        CountryTable table = new CountryTableReader().readTable(COUNTRIES);
+        List<Country> expected = new CsvCountryReader().readData(COUNTRIES);
+
+        assertEquals(expected.toString(), table.asList().toString());
+        assertEquals("Croatia", table.getName(3));
+        assertEquals(4036355.0, table.getPopulation(3), 0);
+        assertEquals("Malta", new CountryAnalyzer().analyzeTable(table).get().getName());
+    }
+
+    @Test
+    void testParallelTablesMatchSequentialTables() {
+        Path weather = tempDir.resolve("weather.csv");
+        Path countries = tempDir.resolve("countries.csv");
+        long malformed = new WeatherDataGenerator(5, 0.02).generate(weather, 20_000);
+        new CountryDataGenerator(5, 0.02).generate(countries, 20_000);
+        ErrorReport sequentialErrors = new ErrorReport();
+        ErrorReport parallelErrors = new ErrorReport();
+
+        WeatherTable sequentialDays = new WeatherTableReader().readTable(weather.toString(), sequentialErrors);
+        WeatherTable parallelDays = new WeatherTableReader(4).readTable(weather.toString(), parallelErrors);
+        CountryTable sequentialCountries = new CountryTableReader().readTable(countries.toString(), ErrorSink.ignore());
+        CountryTable parallelCountries = new CountryTableReader(4).readTable(countries.toString(), ErrorSink.ignore());
+
+        assertEquals(malformed, sequentialErrors.getTotal());
+        assertEquals(malformed, parallelErrors.getTotal());
+        assertEquals(sequentialDays.asList().toString(), parallelDays.asList().toString());
+        assertEquals(sequentialCountries.asList().toString(), parallelCountries.asList().toString());
+    }
+
+    @Test
+    void testTableScanMatchesListAnalysis() {
+        Path weather = tempDir.resolve("weather.csv");
+        new WeatherDataGenerator(9, 0.0).generate(weather, 5_000);
+        WeatherTable table = new WeatherTableReader().readTable(weather.toString());
+        WeatherAnalyzer analyzer = new WeatherAnalyzer();
+
+        Optional<WeatherDay> fromTable = analyzer.analyzeTable(table);
+        Optional<WeatherDay> fromList = analyzer.analyze(new CsvWeatherReader().readData(weather.toString()));
+
+        assertEquals(fromList.get().toString(), fromTable.get().toString());
+    }
+
+    @Test
+    void testEmptyTables() {
+        assertTrue(new WeatherAnalyzer().analyzeTable(new WeatherTable.Builder().build()).isEmpty());
+        assertEquals(-1, new CountryAnalyzer().maxDensityRow(null));
+    }
+
+    @Test
+    void testDictionaryEncodesRepeatedNames() {
+        CountryTable table = new CountryTable.Builder()
+                .add("A", 10, 1)
+                .add("B", 20, 1)
+                .add("A", 30, 1)
+                .build();
+
+        assertEquals(2, table.getNames().size());
+        assertEquals(table.getNameId(0), table.getNameId(2));
+        assertEquals("A", table.getName(2));
+    }
+
+    @Test
+    void testQuotedNamesMatchRowReader() throws IOException {
+        Path file = tempDir.resolve("quoted.csv");
+        Files.writeString(file, "Name;Capital;Accession;Population;Area (km²)\n"
+                + "\"Foo \"\"Bar\"\"\";X;1995;1.000;10\n"
+                + "\"Foo \"\"Bar\"\"\";X;1995;2.000;10\n"
+                + " \"Baz; Qux \" ;Y;1995;3.000;10\n"
+                + "Plain;Z;1995;4.000;10\n", StandardCharsets.UTF_8);
+
+        List<Country> expected = new MappedCsvReader<>(CsvFormat.countries()).readData(file.toString());
+        CountryTable table = new CountryTableReader().readTable(file.toString());
+
+        assertEquals(expected.toString(), table.asList().toString());
+        assertEquals("Foo \"Bar\"", table.getName(0));
+        assertEquals("Baz; Qux ", table.getName(2));
+        // Both rows of the escaped name share one dictionary entry
+        assertEquals(table.getNameId(0), table.getNameId(1));
+        assertEquals(3, table.getNames().size());
+    }
+
+    @Test
+    void testDictionaryGrowsBeyondInitialCapacity() {
+        StringDictionary dictionary = new StringDictionary();
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, dictionary.add("name-" + i));
+        }
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, dictionary.add("name-" + i));
+        }
+        assertEquals("name-777", dictionary.get(777));
+    }
+
+    @Test
+    void testBuilderRejectsNegativeValues() {
+        assertThrows(IllegalArgumentException.class, () -> new CountryTable.Builder().add("Bad", -1, 10));
+    }
+}
@@ -0,0 +1,104 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.CsvWeatherReader;
+import de.bcxp.challenge.reader.ParallelCsvReader;
+import de.bcxp.challenge.service.Aggregations;
+import de.bcxp.challenge.service.CompositeAnalyzer.Slot;
+import de.bcxp.challenge.service.CompositeAnalyzer;
+import de.bcxp.challenge.service.WeatherAnalyzer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class CompositeAnalyzerTest {
+    private static final String WEATHER = "src/main/resources/de/bcxp/challenge/weather.csv";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAllResultsFromOnePass() {
+        CompositeAnalyzer.Builder<WeatherDay> builder = CompositeAnalyzer.builder();
+        Slot<Optional<WeatherDay>> minSpread = builder.add(new WeatherAnalyzer());
+        Slot<Optional<WeatherDay>> maxSpread = builder.add(Aggregations.maxBy(WeatherDay::getTemperatureDifference));
+        Slot<OptionalDouble> meanMax = builder.add(Aggregations.average(WeatherDay::getMaxTemp));
+        Slot<Long> count = builder.add(Aggregations.count());
+
+        List<WeatherDay> data = new CsvWeatherReader().readData(WEATHER);
+        CompositeAnalyzer.Results results = builder.build().analyze(data);
+
+        assertEquals(14, results.get(minSpread).get().getDay());
+        assertEquals(9, results.get(maxSpread).get().getDay());
+        double expectedMean = data.stream().mapToDouble(WeatherDay::getMaxTemp).average().getAsDouble();
+        assertEquals(expectedMean, results.get(meanMax).getAsDouble(), 1e-9);
+        assertEquals(30L, results.get(count));
+    }
+
+    @Test
+    void testEmptyInput() {
+        CompositeAnalyzer.Builder<WeatherDay> builder = CompositeAnalyzer.builder();
+        Slot<Optional<WeatherDay>> minSpread = builder.add(new WeatherAnalyzer());
+        Slot<OptionalDouble> mean = builder.add(Aggregations.average(WeatherDay::getMaxTemp));
+
+        CompositeAnalyzer.Results results = builder.build().analyze((List<WeatherDay>) null);
+
+        assertTrue(results.get(minSpread).isEmpty());
+        assertTrue(results.get(mean).isEmpty());
+    }
+
+    @Test
+    void testSlotsOfOtherBuildersAreRejected() {
+        CompositeAnalyzer.Builder<WeatherDay> builder = CompositeAnalyzer.builder();
+        Slot<Long> count = builder.add(Aggregations.count());
+        CompositeAnalyzer<WeatherDay> early = builder.build();
+        Slot<OptionalDouble> mean = builder.add(Aggregations.average(WeatherDay::getMaxTemp));
+
+        CompositeAnalyzer.Builder<WeatherDay> other = CompositeAnalyzer.builder();
+        Slot<Optional<WeatherDay>> foreign = other.add(new WeatherAnalyzer());
+
+        List<WeatherDay> data = new CsvWeatherReader().readData(WEATHER);
+        CompositeAnalyzer.Results results = builder.build().analyze(data);
+        assertEquals(30L, results.get(count));
+        assertThrows(IllegalArgumentException.class, () -> results.get(foreign));
+        // A slot added after the analyzer was built has no value in its results
+        assertThrows(IllegalArgumentException.class, () -> early.analyze(data).get(mean));
+    }
+
+    @Test
+    void testParallelScanMatchesSequentialScan() {
+        Path file = tempDir.resolve("weather.csv");
+        long malformed = new WeatherDataGenerator(11, 0.01).generate(file, 50_000);
+
+        CompositeAnalyzer.Builder<WeatherDay> builder = CompositeAnalyzer.builder();
+        Slot<Optional<WeatherDay>> minSpread = builder.add(new WeatherAnalyzer());
+        Slot<Optional<WeatherDay>> maxSpread = builder.add(Aggregations.maxBy(WeatherDay::getTemperatureDifference));
+        Slot<Optional<WeatherDay>> coldest = builder.add(Aggregations.minBy(WeatherDay::getMinTemp));
+        Slot<Long> count = builder.add(Aggregations.count());
+        CompositeAnalyzer<WeatherDay> analyzer = builder.build();
+
+        ErrorReport sequentialErrors = new ErrorReport();
+        ErrorReport parallelErrors = new ErrorReport();
+        CompositeAnalyzer.Results sequential = new CsvWeatherReader()
+                .aggregate(file.toString(), analyzer::newAccumulator, sequentialErrors);
+        CompositeAnalyzer.Results parallel = new ParallelCsvReader<>(CsvFormat.weather(), 4, 64 * 1024)
+                .aggregate(file.toString(), analyzer::newAccumulator, parallelErrors);
+
+        assertEquals(sequential.get(minSpread).get().toString(), parallel.get(minSpread).get().toString());
+        assertEquals(sequential.get(maxSpread).get().toString(), parallel.get(maxSpread).get().toString());
+        assertEquals(sequential.get(coldest).get().toString(), parallel.get(coldest).get().toString());
+        assertEquals(sequential.get(count), parallel.get(count));
+        assertEquals(malformed, sequentialErrors.getTotal());
+        assertEquals(malformed, parallelErrors.getTotal());
+    }
+}
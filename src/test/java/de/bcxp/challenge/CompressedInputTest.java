@@ -0,0 +1,150 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.exception.DataReadException;
+import de.bcxp.challenge.generator.CountryDataGenerator;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.Compression;
+import de.bcxp.challenge.reader.CsvCountryReader;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.CsvWeatherReader;
+import de.bcxp.challenge.reader.InputFiles;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.reader.ParallelCsvReader;
+import io.airlift.compress.zstd.ZstdOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class CompressedInputTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testDetectionByMagicBytes() throws IOException {
+        Path plain = tempDir.resolve("weather.csv");
+        new WeatherDataGenerator(1, 0).generate(plain, 100);
+
+        assertEquals(Compression.NONE, Compression.detect(plain));
+        // The extension is irrelevant
+        assertEquals(Compression.GZIP, Compression.detect(gzip(plain, tempDir.resolve("a.csv"))));
+        assertEquals(Compression.ZSTD, Compression.detect(zstd(plain, tempDir.resolve("b.csv"))));
+    }
+
+    @Test
+    void testCompressedWeatherMatchesPlain() throws IOException {
+        Path plain = tempDir.resolve("weather.csv");
+        long malformed = new WeatherDataGenerator(2, 0.01).generate(plain, 30_000);
+        String expected = new CsvWeatherReader().readData(plain.toString(), ErrorSink.ignore()).toString();
+
+        for (Path compressed : List.of(gzip(plain, tempDir.resolve("weather.csv.gz")),
+                zstd(plain, tempDir.resolve("weather.csv.zst")))) {
+            String file = compressed.toString();
+            for (StreamingDataReader<WeatherDay> reader : List.of(new CsvWeatherReader(),
+                    new MappedCsvReader<>(CsvFormat.weather()), new ParallelCsvReader<>(CsvFormat.weather(), 4, 1024))) {
+                ErrorReport errors = new ErrorReport();
+                assertEquals(expected, reader.readData(file, errors).toString());
+                assertEquals(malformed, errors.getTotal());
+            }
+        }
+    }
+
+    @Test
+    void testCompressedCountriesMatchPlain() throws IOException {
+        Path plain = tempDir.resolve("countries.csv");
+        new CountryDataGenerator(2, 0.01).generate(plain, 10_000);
+        List<Country> expected = new CsvCountryReader().readData(plain.toString(), ErrorSink.ignore());
+
+        Path compressed = gzip(plain, tempDir.resolve("countries.csv.gz"));
+        assertEquals(expected.toString(),
+                new CsvCountryReader().readData(compressed.toString(), ErrorSink.ignore()).toString());
+        assertEquals(expected.toString(), new MappedCsvReader<>(CsvFormat.countries())
+                .readData(compressed.toString(), ErrorSink.ignore()).toString());
+    }
+
+    @Test
+    void testPipelinedAndInlineDecompressionAgree() throws IOException {
+        Path plain = tempDir.resolve("weather.csv");
+        new WeatherDataGenerator(3, 0).generate(plain, 20_000);
+        Path compressed = zstd(plain, tempDir.resolve("weather.zst"));
+
+        try (InputStream pipelined = InputFiles.open(compressed, true);
+             InputStream inline = InputFiles.open(compressed, false)) {
+            byte[] expected = Files.readAllBytes(plain);
+            assertArrayEquals(expected, pipelined.readAllBytes());
+            assertArrayEquals(expected, inline.readAllBytes());
+        }
+    }
+
+    @Test
+    void testCorruptCompressedFileFails() throws IOException {
+        Path plain = tempDir.resolve("weather.csv");
+        new WeatherDataGenerator(4, 0).generate(plain, 20_000);
+        Path compressed = gzip(plain, tempDir.resolve("weather.csv.gz"));
+        byte[] bytes = Files.readAllBytes(compressed);
+        Files.write(compressed, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThrows(DataReadException.class, () -> new CsvWeatherReader().readData(compressed.toString()));
+        assertThrows(DataReadException.class, () -> new MappedCsvReader<>(CsvFormat.weather()).readData(compressed.toString()));
+    }
+
+    @Test
+    void testCorruptZstdFileFailsInsteadOfHanging() throws IOException {
+        Path plain = tempDir.resolve("weather.csv");
+        new WeatherDataGenerator(5, 0).generate(plain, 20_000);
+        Path compressed = zstd(plain, tempDir.resolve("weather.csv.zst"));
+        byte[] bytes = Files.readAllBytes(compressed);
+        // Garbage after a valid frame header makes the decoder throw an unchecked exception
+        for (int i = bytes.length / 4; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        Files.write(compressed, bytes);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            assertThrows(RuntimeException.class, () -> new CsvWeatherReader().readData(compressed.toString()));
+            try (InputStream in = InputFiles.open(compressed, true)) {
+                assertThrows(IOException.class, in::readAllBytes);
+            }
+        });
+    }
+
+    @Test
+    void testEmptyCompressedFileIsRejected() throws IOException {
+        Path empty = Files.createFile(tempDir.resolve("empty.csv"));
+        Path compressed = gzip(empty, tempDir.resolve("empty.csv.gz"));
+
+        assertThrows(DataReadException.class, () -> new CsvWeatherReader().readData(compressed.toString()));
+        assertThrows(DataReadException.class, () -> new MappedCsvReader<>(CsvFormat.weather()).readData(compressed.toString()));
+    }
+
+    private static Path gzip(Path source, Path target) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(target))) {
+            Files.copy(source, out);
+        }
+        return target;
+    }
+
+    private static Path zstd(Path source, Path target) throws IOException {
+        try (OutputStream out = new ZstdOutputStream(Files.newOutputStream(target))) {
+            Files.copy(source, out);
+        }
+        return target;
+    }
+}
@@ -1,6 +1,8 @@
 package de.bcxp.challenge;
 
+import de.bcxp.challenge.api.Accumulator;
 import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.reader.CsvCountryReader;
 import de.bcxp.challenge.service.CountryAnalyzer;
 import org.junit.jupiter.api.Test;
 
@@ -100,4 +102,26 @@ public class CountryAnalyzerTest {
         assertTrue(result.isPresent());
         assertEquals("Solo", result.get().getName());
     }
+
+    @Test
+    void testAccumulatorKeepsFirstOnTie() {
+        Accumulator<Country, Optional<Country>> accumulator = analyzer.newAccumulator();
+        accumulator.accept(new Country("Germany", 10_000_000, 100_000)); // 100
+        accumulator.accept(null);
+        accumulator.accept(new Country("Italia", 5_000_000, 50_000));    // 100
+
+        assertEquals("Germany", accumulator.result().get().getName());
+    }
+
+    @Test
+    void testStreamingAnalysisOfResourceFile() {
+        String path = "src/main/resources/de/bcxp/challenge/countries.csv";
+        CsvCountryReader reader = new CsvCountryReader();
+
+        Optional<Country> streamed = analyzer.analyze(reader, path);
+
+        assertTrue(streamed.isPresent());
+        assertEquals("Malta", streamed.get().getName());
+        assertEquals(analyzer.analyze(reader.readData(path)).get().getName(), streamed.get().getName());
+    }
 }
@@ -0,0 +1,160 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.parser.NumberParser;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.CsvRow;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.reader.PipelinedCsvReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class CsvTokenizerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMatchesStringSplitOnRandomLines() {
+        Random random = new Random(7);
+        for (char delimiter : new char[] {',', ';'}) {
+            CsvRow row = new CsvRow((byte) delimiter);
+            for (int n = 0; n < 5_000; n++) {
+                String line = randomLine(random, delimiter);
+                String[] expected = line.split(String.valueOf(delimiter));
+
+                // Odd offsets and both byte orders move the fields across word boundaries
+                int offset = random.nextInt(9);
+                for (ByteBuffer buffer : buffers(line, offset)) {
+                    row.reset(buffer, offset, offset + line.length());
+                    assertEquals(expected.length, row.fieldCount(), line);
+                    for (int i = 0; i < expected.length; i++) {
+                        assertEquals(expected[i].trim(), row.getString(i), line);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testQuotedFields() {
+        String line = "1,\"Berlin, Germany\" , \"say \"\"hi\"\"\",\"4.036.355,00\",\"\",x\"y,z\"";
+        CsvRow row = reset(new CsvRow((byte) ','), line);
+
+        assertEquals(7, row.fieldCount());
+        assertEquals("1", row.getString(0));
+        assertEquals("Berlin, Germany", row.getString(1));
+        assertEquals("say \"hi\"", row.getString(2));
+        assertEquals(4036355.0, row.getDouble(3, NumberParser.german()), 0);
+        assertEquals("", row.getString(4));
+        // Quotes inside a field are content and do not protect delimiters
+        assertEquals("x\"y", row.getString(5));
+        assertEquals("z\"", row.getString(6));
+
+        // A quoted empty field is not a trailing empty field
+        assertEquals(2, reset(new CsvRow((byte) ';'), "a;\"\"").fieldCount());
+        assertEquals(1, reset(new CsvRow((byte) ';'), "a;;").fieldCount());
+        // An unterminated quote runs to the end of the line
+        CsvRow open = reset(new CsvRow((byte) ','), "a,\"b,c,d");
+        assertEquals(2, open.fieldCount());
+        assertEquals("\"b,c,d", open.getString(1));
+    }
+
+    @Test
+    void testQuotesFollowRfc4180() {
+        // A quote opens a quoted field only at its start
+        CsvRow inch = reset(new CsvRow((byte) ','), "a,5\" x,b");
+        assertEquals(3, inch.fieldCount());
+        assertEquals("5\" x", inch.getString(1));
+        assertEquals("b", inch.getString(2));
+
+        // Quoted content is not trimmed, blanks around the quotes are
+        CsvRow padded = reset(new CsvRow((byte) ';'), " \" a \" ;\"\"\"\"; \"\"\"x\"\"\" ");
+        assertEquals(3, padded.fieldCount());
+        assertEquals(" a ", padded.getString(0));
+        assertEquals(3, padded.fieldEnd(0) - padded.fieldStart(0));
+        assertEquals("\"", padded.getString(1));
+        assertEquals("\"x\"", padded.getString(2));
+
+        // Content after the closing quote keeps the field as it is
+        CsvRow trailing = reset(new CsvRow((byte) ','), "\"a\"b,\"c\" \"d\",e");
+        assertEquals(3, trailing.fieldCount());
+        assertEquals("\"a\"b", trailing.getString(0));
+        assertEquals("\"c\" \"d\"", trailing.getString(1));
+        assertEquals("e", trailing.getString(2));
+    }
+
+    @Test
+    void testFieldLimitStopsAfterQuotedField() {
+        CsvRow row = reset(new CsvRow((byte) ',', 2), "\"a,b\",c,\"d");
+
+        assertEquals(2, row.fieldCount());
+        assertEquals("a,b", row.getString(0));
+        assertEquals("c", row.getString(1));
+    }
+
+    @Test
+    void testLineTerminatorsAcrossWordAndWindowBoundaries() throws IOException {
+        StringBuilder text = new StringBuilder("Day,MxT,MnT,Comment\r\n");
+        List<String> expected = new ArrayList<>();
+        String[] terminators = {"\n", "\r\n", "\r"};
+        for (int i = 0; i < 200; i++) {
+            String comment = "\"note " + "x".repeat(i % 13) + ", done\"";
+            text.append(i).append(',').append(10 + i % 7).append(',').append(i % 5).append(',').append(comment)
+                    .append(terminators[i % 3]);
+            expected.add(i + "|note " + "x".repeat(i % 13) + ", done");
+        }
+        Path file = tempDir.resolve("weather.csv");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+
+        for (int window : new int[] {13, 64, 1 << 20}) {
+            List<String> rows = new ArrayList<>();
+            new MappedCsvReader<>(CsvFormat.weather(), window).scan(file.toString(), row -> {
+                assertEquals(4, row.fieldCount());
+                return rows.add(row.getString(0) + "|" + row.getString(3));
+            });
+            assertEquals(expected, rows, "window " + window);
+        }
+        assertEquals(200, new PipelinedCsvReader<>(CsvFormat.weather(), 2, 37).readData(file.toString()).size());
+    }
+
+    private static CsvRow reset(CsvRow row, String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return row.reset(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    private static List<ByteBuffer> buffers(String line, int offset) {
+        byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer heap = ByteBuffer.allocate(offset + bytes.length);
+        ByteBuffer direct = ByteBuffer.allocateDirect(offset + bytes.length).order(ByteOrder.LITTLE_ENDIAN);
+        for (ByteBuffer buffer : List.of(heap, direct)) {
+            buffer.position(offset);
+            buffer.put(bytes);
+            buffer.clear();
+        }
+        return List.of(heap, direct);
+    }
+
+    private static String randomLine(Random random, char delimiter) {
+        // Bytes one off the delimiter must not match in any lane
+        char[] alphabet = {'a', '7', '.', '-', ' ', (char) (delimiter + 1), (char) (delimiter - 1), delimiter};
+        StringBuilder line = new StringBuilder();
+        int length = 1 + random.nextInt(40);
+        for (int i = 0; i < length; i++) {
+            line.append(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.generator.CountryDataGenerator;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.parser.AmbiguityPolicy;
+import de.bcxp.challenge.parser.NumberParser;
+import de.bcxp.challenge.reader.CsvCountryReader;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.CsvWeatherReader;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class DataGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWeatherFileHasAllColumnsAndParses() throws IOException {
+        Path file = tempDir.resolve("weather.csv");
+        long malformed = new WeatherDataGenerator(7, 0.0).generate(file, 1_000);
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        List<WeatherDay> days = new CsvWeatherReader().readData(file.toString());
+
+        assertEquals(0, malformed);
+        assertEquals(1_001, lines.size());
+        assertTrue(lines.stream().allMatch(line -> line.split(",").length == 14));
+        assertEquals(1_000, days.size());
+        assertEquals(1_000, days.get(999).getDay());
+    }
+
+    @Test
+    void testCountryFileWithMixedLocalesParses() {
+        Path file = tempDir.resolve("countries.csv");
+        new CountryDataGenerator(7, 0.0).generate(file, 1_000);
+
+        NumberParser mixed = NumberParser.mixed(AmbiguityPolicy.REJECT);
+        List<Country> lineBased = new CsvCountryReader(mixed, mixed).readData(file.toString());
+        List<Country> mapped = new MappedCsvReader<>(CsvFormat.countries(mixed, mixed)).readData(file.toString());
+
+        assertEquals(1_000, lineBased.size());
+        assertEquals(lineBased.toString(), mapped.toString());
+        assertTrue(lineBased.stream().allMatch(c -> c.getPopulation() >= 100_000 && c.getArea() >= 300));
+    }
+
+    @Test
+    void testMalformedRowsAreSkippedByReaders() {
+        Path weather = tempDir.resolve("weather.csv");
+        Path countries = tempDir.resolve("countries.csv");
+
+        long badDays = new WeatherDataGenerator(3, 0.1).generate(weather, 5_000);
+        long badCountries = new CountryDataGenerator(3, 0.1).generate(countries, 5_000);
+
+        assertTrue(badDays > 300 && badDays < 700);
+        ErrorReport dayErrors = new ErrorReport();
+        assertEquals(5_000 - badDays,
+                new MappedCsvReader<>(CsvFormat.weather()).readData(weather.toString(), dayErrors).size());
+        assertEquals(badDays, dayErrors.getTotal());
+        NumberParser mixed = NumberParser.mixed(AmbiguityPolicy.REJECT);
+        ErrorReport countryErrors = new ErrorReport();
+        assertEquals(5_000 - badCountries, new MappedCsvReader<>(CsvFormat.countries(mixed, mixed))
+                .readData(countries.toString(), countryErrors).size());
+        assertEquals(badCountries, countryErrors.getTotal());
+    }
+
+    @Test
+    void testSameSeedProducesIdenticalFiles() throws IOException {
+        Path first = tempDir.resolve("a.csv");
+        Path second = tempDir.resolve("b.csv");
+        Path other = tempDir.resolve("c.csv");
+
+        new CountryDataGenerator(11, 0.05).generate(first, 2_000);
+        new CountryDataGenerator(11, 0.05).generate(second, 2_000);
+        new CountryDataGenerator(12, 0.05).generate(other, 2_000);
+
+        assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+        assertFalse(Arrays.equals(Files.readAllBytes(first), Files.readAllBytes(other)));
+    }
+
+    @Test
+    void testWriteFailureIsNotReportedAsReadError() {
+        // A directory cannot be opened for writing
+        UncheckedIOException error = assertThrows(UncheckedIOException.class,
+                () -> new WeatherDataGenerator(1, 0).generate(tempDir, 10));
+        assertTrue(error.getMessage().startsWith("Error writing file: "), error.getMessage());
+    }
+}
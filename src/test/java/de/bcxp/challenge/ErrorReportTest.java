@@ -0,0 +1,247 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.error.ReadResult;
+import de.bcxp.challenge.error.RejectReason;
+import de.bcxp.challenge.generator.CountryDataGenerator;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.parser.AmbiguityPolicy;
+import de.bcxp.challenge.parser.NumberParser;
+import de.bcxp.challenge.reader.CsvCountryReader;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.CsvSchema;
+import de.bcxp.challenge.reader.CsvWeatherReader;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.reader.ParallelCsvReader;
+import de.bcxp.challenge.reader.PipelinedCsvReader;
+import de.bcxp.challenge.reader.SchemaCsvReader;
+import de.bcxp.challenge.reader.TailingCsvReader;
+import de.bcxp.challenge.service.Aggregations;
+import de.bcxp.challenge.table.CountryTable;
+import de.bcxp.challenge.table.CountryTableReader;
+import de.bcxp.challenge.table.WeatherTableReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class ErrorReportTest {
+    private static final NumberParser MIXED = NumberParser.mixed(AmbiguityPolicy.REJECT);
+
+    @TempDir
+    Path tempDir;
+
+    private Path writeCountries() throws IOException {
+        Path file = tempDir.resolve("countries.csv");
+        Files.writeString(file, "Name;Capital;Accession;Population;Area (km²);GDP (US$ M);HDI;MEPs\n"
+                + "Austria;Vienna;1995;8926000;83855;447718;0.922;19\n"
+                + "Nowhere;Nil\n"
+                + "Badland;Bad;2004;unknown;1000;1;0.9;6\n"
+                + "\n"
+                + "Vague;Vag;2004;1.234;1000;1;0.9;6\n"
+                + "Minus;Min;2004;-5000;1000;1;0.9;6\n"
+                + "Malta;Valletta;2004;516100;316;17270;0.918;6\n");
+        return file;
+    }
+
+    @Test
+    void testCountsRejectsByReasonWithLineNumbers() throws IOException {
+        ErrorReport errors = new ErrorReport();
+        long count = new CsvCountryReader(MIXED, MIXED).readData(writeCountries().toString(), country -> { }, errors);
+
+        assertEquals(2, count);
+        assertEquals(4, errors.getTotal());
+        assertEquals(1, errors.getCount(RejectReason.TOO_FEW_COLUMNS));
+        assertEquals(1, errors.getCount(RejectReason.MALFORMED_NUMBER));
+        assertEquals(1, errors.getCount(RejectReason.AMBIGUOUS_NUMBER));
+        assertEquals(1, errors.getCount(RejectReason.INVALID_VALUE));
+
+        List<ErrorReport.Sample> samples = errors.getSamples();
+        assertEquals(List.of(3L, 4L, 6L, 7L),
+                samples.stream().map(ErrorReport.Sample::getLineNumber).collect(Collectors.toList()));
+        assertEquals("Nowhere;Nil", samples.get(0).getLine());
+        assertEquals(RejectReason.INVALID_VALUE, samples.get(3).getReason());
+        assertEquals("4 rejected rows (TOO_FEW_COLUMNS=1, MALFORMED_NUMBER=1, AMBIGUOUS_NUMBER=1, INVALID_VALUE=1)",
+                errors.toString());
+    }
+
+    @Test
+    void testAllCountryReadersReportTheSameRows() throws IOException {
+        String file = writeCountries().toString();
+        String expected = report(new CsvCountryReader(MIXED, MIXED), file);
+
+        assertEquals(expected, report(new MappedCsvReader<>(CsvFormat.countries(MIXED, MIXED)), file));
+        assertEquals(expected, report(new ParallelCsvReader<>(CsvFormat.countries(MIXED, MIXED), 3, 1), file));
+        assertEquals(expected, report(new PipelinedCsvReader<>(CsvFormat.countries(MIXED, MIXED), 2, 16), file));
+        assertEquals(expected, report(new SchemaCsvReader<>(CsvSchema.countries(MIXED, MIXED)), file));
+
+        ErrorReport tableErrors = new ErrorReport();
+        assertEquals(2, new CountryTableReader(2, MIXED, MIXED).readTable(file, tableErrors).size());
+        assertEquals(expected, tableErrors.getSamples().toString());
+    }
+
+    @Test
+    void testDefaultCountryReadersReadGermanNumbers() throws IOException {
+        String file = writeCountries().toString();
+        String expected = report(new CsvCountryReader(), file);
+
+        // 1.234 is a German thousands separator, not ambiguous
+        assertFalse(expected.contains("AMBIGUOUS_NUMBER"));
+        assertEquals(expected, report(new MappedCsvReader<>(CsvFormat.countries()), file));
+        assertEquals(expected, report(new SchemaCsvReader<>(CsvSchema.countries()), file));
+
+        ErrorReport tableErrors = new ErrorReport();
+        CountryTable table = new CountryTableReader(2).readTable(file, tableErrors);
+        assertEquals(3, table.size());
+        assertEquals(1234, table.getPopulation(1));
+        assertEquals(expected, tableErrors.getSamples().toString());
+    }
+
+    @Test
+    void testGeneratedRejectsMatchAcrossReaders() {
+        Path countries = tempDir.resolve("generated-countries.csv");
+        Path weather = tempDir.resolve("generated-weather.csv");
+        long malformedCountries = new CountryDataGenerator(5, 0.1).generate(countries, 5_000);
+        long malformedWeather = new WeatherDataGenerator(5, 0.1).generate(weather, 5_000);
+
+        ErrorReport errors = new ErrorReport(ErrorReport.DEFAULT_MAX_SAMPLES);
+        new CsvCountryReader(MIXED, MIXED).readData(countries.toString(), country -> { }, errors);
+        assertEquals(malformedCountries, errors.getTotal());
+        assertTrue(errors.getCount(RejectReason.INVALID_VALUE) > 0);
+        assertEquals(ErrorReport.DEFAULT_MAX_SAMPLES, errors.getSamples().size());
+
+        // Generated files mix German and English numbers
+        CsvFormat<Country> mixed = CsvFormat.countries(MIXED, MIXED);
+        String expected = report(new CsvCountryReader(MIXED, MIXED), countries.toString());
+        assertEquals(expected, report(new ParallelCsvReader<>(mixed, 4, 4096), countries.toString()));
+        assertEquals(expected, report(new PipelinedCsvReader<>(mixed, 3, 4096), countries.toString()));
+
+        String expectedWeather = report(new CsvWeatherReader(), weather.toString());
+        assertEquals(expectedWeather, report(new MappedCsvReader<>(CsvFormat.weather()), weather.toString()));
+        assertEquals(expectedWeather, report(new ParallelCsvReader<>(CsvFormat.weather(), 4, 4096), weather.toString()));
+
+        ErrorReport weatherErrors = new ErrorReport(0);
+        new ParallelCsvReader<>(CsvFormat.weather(), 4, 4096).readData(weather.toString(), day -> { }, weatherErrors);
+        assertEquals(malformedWeather, weatherErrors.getTotal());
+        assertTrue(weatherErrors.getSamples().isEmpty());
+    }
+
+    @Test
+    void testAggregateReportingReturnsResultWithSummary() throws IOException {
+        ReadResult<Long> result = new MappedCsvReader<>(CsvFormat.countries(MIXED, MIXED))
+                .aggregateReporting(writeCountries().toString(), Aggregations.<Country>count()::newAccumulator);
+
+        assertEquals(2L, result.getResult());
+        assertEquals(4, result.getErrors().getTotal());
+    }
+
+    @Test
+    void testTailingReaderNumbersLinesAcrossPolls() throws IOException {
+        Path file = tempDir.resolve("feed.csv");
+        Files.writeString(file, "Day,MxT,MnT\n1,80,60\nbad,1,2\n");
+        TailingCsvReader<WeatherDay> tail = new TailingCsvReader<>(file.toString(), CsvFormat.weather());
+        ErrorReport errors = new ErrorReport();
+
+        assertEquals(1, tail.poll(day -> { }, () -> { }, errors));
+        Files.writeString(file, "2,81,61\n3\n", StandardOpenOption.APPEND);
+        assertEquals(1, tail.poll(day -> { }, () -> { }, errors));
+
+        assertEquals("[Line 3 (MALFORMED_NUMBER): bad,1,2, Line 5 (TOO_FEW_COLUMNS): 3]",
+                errors.getSamples().toString());
+    }
+
+    @Test
+    void testSampleSizeIsBounded() {
+        ErrorReport errors = new ErrorReport(2);
+        for (int line = 1; line <= 5; line++) {
+            errors.reject(RejectReason.MALFORMED_NUMBER, line, () -> "x");
+        }
+
+        assertEquals(5, errors.getCount(RejectReason.MALFORMED_NUMBER));
+        assertEquals(2, errors.getSamples().size());
+        assertEquals("0 rejected rows", new ErrorReport().toString());
+        assertThrows(IllegalArgumentException.class, () -> new ErrorReport(-1));
+    }
+
+    @Test
+    void testOverloadsWithoutSinkPrintBoundedRejects() throws IOException {
+        StringBuilder text = new StringBuilder("Day,MxT,MnT\n1,80,60\n");
+        for (int i = 0; i < 30; i++) {
+            text.append("bad\n");
+        }
+        Path file = tempDir.resolve("dirty.csv");
+        Files.writeString(file, text);
+
+        PrintStream err = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            assertEquals(1, new WeatherTableReader().readTable(file.toString()).size());
+        } finally {
+            System.setErr(err);
+        }
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        assertEquals(ErrorReport.DEFAULT_MAX_SAMPLES + 1, lines.size());
+        assertEquals("Skipping invalid line 3 (TOO_FEW_COLUMNS): bad", lines.get(0));
+        assertEquals("Skipping further invalid lines without printing them", lines.get(lines.size() - 1));
+    }
+
+    @Test
+    void testRejectsWithoutRetainedTextAreMarked() {
+        PrintStream err = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            ErrorSink.standardError().reject(RejectReason.TOO_FEW_COLUMNS, 7, () -> null);
+        } finally {
+            System.setErr(err);
+        }
+
+        assertEquals("Skipping invalid line 7 (TOO_FEW_COLUMNS): (text not retained)",
+                output.toString(StandardCharsets.UTF_8).trim());
+    }
+
+    @Test
+    void testConsumerFailuresAreNotTakenForRejects() throws IOException {
+        String countries = writeCountries().toString();
+        String weather = "src/main/resources/de/bcxp/challenge/weather.csv";
+
+        assertConsumerFailurePropagates(new CsvCountryReader(MIXED, MIXED), countries);
+        assertConsumerFailurePropagates(new CsvWeatherReader(), weather);
+        assertConsumerFailurePropagates(new MappedCsvReader<>(CsvFormat.countries(MIXED, MIXED)), countries);
+        assertConsumerFailurePropagates(new ParallelCsvReader<>(CsvFormat.countries(MIXED, MIXED), 3, 1), countries);
+        assertConsumerFailurePropagates(new PipelinedCsvReader<>(CsvFormat.countries(MIXED, MIXED), 2, 16), countries);
+        assertConsumerFailurePropagates(new SchemaCsvReader<>(CsvSchema.countries(MIXED, MIXED)), countries);
+    }
+
+    private static <T> void assertConsumerFailurePropagates(StreamingDataReader<T> reader, String file) {
+        ErrorReport errors = new ErrorReport();
+        assertThrows(NumberFormatException.class, () -> reader.readData(file, record -> {
+            throw new NumberFormatException("consumer bug");
+        }, errors));
+        // The first data row is valid, so the failure precedes any reject
+        assertEquals(0, errors.getTotal(), reader.getClass().getSimpleName());
+    }
+
+    private static <T> String report(StreamingDataReader<T> reader, String file) {
+        ErrorReport errors = new ErrorReport();
+        reader.readData(file, record -> { }, errors);
+        return errors.getSamples().toString();
+    }
+}
@@ -0,0 +1,228 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.group.Group;
+import de.bcxp.challenge.group.GroupBy;
+import de.bcxp.challenge.group.GroupByResult;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.parser.AmbiguityPolicy;
+import de.bcxp.challenge.parser.NumberParser;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.CsvSchema;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.reader.ParallelCsvReader;
+import de.bcxp.challenge.reader.SchemaCsvReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class GroupByTest {
+    private static final String COUNTRIES = "src/main/resources/de/bcxp/challenge/countries.csv";
+
+    @TempDir
+    Path tempDir;
+
+    private static GroupBy.Builder<WeatherDay, Long> byMonth() {
+        return GroupBy.byLong((WeatherDay day) -> (day.getDay() - 1) / 30)
+                .measure("spread", WeatherDay::getTemperatureDifference)
+                .measure("MxT", WeatherDay::getMaxTemp);
+    }
+
+    @Test
+    void testMatchesNaiveGrouping() {
+        Path file = tempDir.resolve("weather.csv");
+        new WeatherDataGenerator(22, 0.0).generate(file, 20_000);
+        List<WeatherDay> days = new MappedCsvReader<>(CsvFormat.weather()).readData(file.toString());
+
+        Map<Long, List<WeatherDay>> expected = new TreeMap<>();
+        for (WeatherDay day : days) {
+            expected.computeIfAbsent((long) (day.getDay() - 1) / 30, key -> new ArrayList<>()).add(day);
+        }
+
+        GroupBy<WeatherDay, Long> groupBy = byMonth().build();
+        List<Group<Long>> groups = new MappedCsvReader<>(CsvFormat.weather())
+                .aggregate(file.toString(), groupBy::newAccumulator).toList();
+
+        assertEquals(expected.size(), groups.size());
+        int i = 0;
+        for (Map.Entry<Long, List<WeatherDay>> entry : expected.entrySet()) {
+            Group<Long> group = groups.get(i++);
+            List<WeatherDay> members = entry.getValue();
+            assertEquals(entry.getKey(), group.getKey());
+            assertEquals(members.size(), group.getCount());
+            double sum = members.stream().mapToDouble(WeatherDay::getTemperatureDifference).sum();
+            assertEquals(sum, group.getSum(0), 1e-9);
+            assertEquals(sum / members.size(), group.getMean(0), 1e-9);
+            assertEquals(members.stream().mapToDouble(WeatherDay::getTemperatureDifference).min().orElseThrow(),
+                    group.getMin(0));
+            assertEquals(members.stream().mapToDouble(WeatherDay::getMaxTemp).max().orElseThrow(), group.getMax(1));
+        }
+    }
+
+    @Test
+    void testParallelPartialsAreMerged() {
+        Path file = tempDir.resolve("weather.csv");
+        long malformed = new WeatherDataGenerator(5, 0.01).generate(file, 100_000);
+        GroupBy<WeatherDay, Long> groupBy = byMonth().build();
+
+        ErrorReport errors = new ErrorReport();
+        GroupByResult<Long> sequential = new MappedCsvReader<>(CsvFormat.weather())
+                .aggregate(file.toString(), groupBy::newAccumulator, ErrorSink.ignore());
+        GroupByResult<Long> parallel = new ParallelCsvReader<>(CsvFormat.weather(), 4, 64 * 1024)
+                .aggregate(file.toString(), groupBy::newAccumulator, errors);
+
+        assertSameGroups(sequential.toList(), parallel.toList(), 2);
+        assertEquals(malformed, errors.getTotal());
+    }
+
+    @Test
+    void testSpillsWhenGroupsExceedBudget() throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            for (int key = 0; key < 5_000; key++) {
+                rows.add(new String[]{"key-" + key, String.valueOf(key * round)});
+            }
+        }
+        GroupBy.Builder<String[], String> builder = GroupBy.byString((String[] row) -> row[0])
+                .measure("value", row -> Double.parseDouble(row[1]));
+        Path spill = Files.createDirectories(tempDir.resolve("spill"));
+        GroupBy<String[], String> bounded = builder.memoryBudget(100 * 72).spillDirectory(spill).build();
+        assertEquals(100, bounded.getMaxGroups());
+
+        List<Group<String>> expected = fold(builder.memoryBudget(Long.MAX_VALUE).build(), rows, 1).toList();
+        try (GroupByResult<String> result = fold(bounded, rows, 4)) {
+            assertTrue(result.isSpilled());
+            assertSameGroups(expected, result.toList(), 1);
+
+            // Streaming visits every group once, partition by partition
+            List<String> visited = new ArrayList<>();
+            result.forEach(group -> visited.add(group.getKey()));
+            assertEquals(5_000, visited.size());
+            assertEquals(5_000, visited.stream().distinct().count());
+            // Partitions over the budget are split, so no partition combines more groups than fit
+            assertTrue(longestSortedRun(visited) <= bounded.getMaxGroups(), "longest run " + longestSortedRun(visited));
+            // "key-999" sorts last
+            Group<String> last = result.toList().get(4_999);
+            assertEquals("key-999", last.getKey());
+            assertEquals(3, last.getCount());
+            assertEquals(2 * 999, last.getMax(0));
+        }
+        try (Stream<Path> files = Files.list(spill)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testBudgetCountsStringKeys() {
+        List<String[]> rows = new ArrayList<>();
+        for (int key = 0; key < 50; key++) {
+            rows.add(new String[]{key + "x".repeat(1_000), "1"});
+        }
+        // 100 groups with short keys fit, 50 with keys of 1000 characters do not
+        GroupBy<String[], String> bounded = GroupBy.byString((String[] row) -> row[0])
+                .measure("value", row -> Double.parseDouble(row[1]))
+                .memoryBudget(100 * 72)
+                .spillDirectory(tempDir)
+                .build();
+
+        try (GroupByResult<String> result = fold(bounded, rows, 1)) {
+            assertTrue(result.isSpilled());
+            assertEquals(50, result.toList().size());
+        }
+    }
+
+    private static int longestSortedRun(List<String> keys) {
+        int longest = 0;
+        int run = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            run = i > 0 && keys.get(i - 1).compareTo(keys.get(i)) < 0 ? run + 1 : 1;
+            longest = Math.max(longest, run);
+        }
+        return longest;
+    }
+
+    /**
+     * Folds the rows in the given number of consecutive partials merged in
+     * order, as a parallel reader does.
+     */
+    private static <K extends Comparable<K>> GroupByResult<K> fold(GroupBy<String[], K> groupBy, List<String[]> rows,
+                                                                  int partials) {
+        Accumulator<String[], GroupByResult<K>> result = groupBy.newAccumulator();
+        int size = (rows.size() + partials - 1) / partials;
+        for (int from = 0; from < rows.size(); from += size) {
+            Accumulator<String[], GroupByResult<K>> partial = groupBy.newAccumulator();
+            rows.subList(from, Math.min(rows.size(), from + size)).forEach(partial::accept);
+            result.merge(partial);
+        }
+        return result.result();
+    }
+
+    @Test
+    void testGroupsSchemaColumnsByAccession() {
+        NumberParser mixed = NumberParser.mixed(AmbiguityPolicy.REJECT);
+        // The accession column takes the place of the name
+        CsvSchema<Country> schema = CsvSchema.builder(';')
+                .column("Accession")
+                .column("Population", mixed)
+                .column("Area (km²)", mixed)
+                .mapping(row -> new Country(row.getString(0), row.getDouble(1), row.getDouble(2)));
+        GroupBy<Country, String> byAccession = GroupBy.byString(Country::getName)
+                .measure("Population", Country::getPopulation)
+                .measure("Area", Country::getArea)
+                .build();
+
+        GroupByResult<String> result = new SchemaCsvReader<>(schema).aggregate(COUNTRIES, byAccession::newAccumulator);
+        Map<String, Group<String>> groups = new TreeMap<>();
+        result.forEach(group -> groups.put(group.getKey(), group));
+
+        Group<String> founders = groups.get("Founder");
+        assertEquals(6, founders.getCount());
+        assertEquals(11566041 + 67439614 + 83120520 + 59862348 + 633347 + 17614840,
+                founders.getSum(result.measure("Population")));
+        assertEquals(2586, founders.getMin(result.measure("Area")));
+        assertEquals(10, groups.get("2004").getCount());
+        assertEquals(List.of("1973", "1981", "1986", "1995", "2004", "2007", "2013", "Founder"),
+                new ArrayList<>(groups.keySet()));
+        assertFalse(result.isSpilled());
+    }
+
+    @Test
+    void testRejectsInvalidConfiguration() {
+        GroupBy.Builder<WeatherDay, Long> builder = byMonth();
+        assertThrows(IllegalArgumentException.class, () -> builder.measure("spread", WeatherDay::getMinTemp));
+        assertThrows(IllegalArgumentException.class, () -> builder.memoryBudget(0));
+        GroupByResult<Long> empty = builder.build().newAccumulator().result();
+        assertTrue(empty.toList().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> empty.measure("missing"));
+    }
+
+    private static <K> void assertSameGroups(List<Group<K>> expected, List<Group<K>> actual, int measures) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Group<K> e = expected.get(i);
+            Group<K> a = actual.get(i);
+            assertEquals(e.getKey(), a.getKey());
+            assertEquals(e.getCount(), a.getCount());
+            for (int m = 0; m < measures; m++) {
+                assertEquals(e.getSum(m), a.getSum(m), 1e-6 * Math.abs(e.getSum(m)));
+                assertEquals(e.getMin(m), a.getMin(m));
+                assertEquals(e.getMax(m), a.getMax(m));
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.TailingCsvReader;
+import de.bcxp.challenge.service.IncrementalAnalyzer;
+import de.bcxp.challenge.service.WeatherAnalyzer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class IncrementalAnalyzerTest {
+    private static final String HEADER = "Day,MxT,MnT,AvT,AvDP,1HrP TPcpn,PDir,AvSp,Dir,MxS,SkyC,MxR,Mn,R AvSLP\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAppendedRowsUpdateResult() throws IOException {
+        Path file = tempDir.resolve("feed.csv");
+        Files.writeString(file, HEADER + row(1, 80, 60) + row(2, 75, 65));
+        IncrementalAnalyzer<WeatherDay, Optional<WeatherDay>> analyzer =
+                IncrementalAnalyzer.follow(file.toString(), CsvFormat.weather(), new WeatherAnalyzer());
+
+        assertEquals(2, analyzer.update().get().getDay());
+
+        append(file, row(3, 70, 68));
+        assertEquals(3, analyzer.update().get().getDay());
+
+        // Nothing new: the result stays
+        assertEquals(3, analyzer.update().get().getDay());
+    }
+
+    @Test
+    void testOnlyNewLinesAreParsed() throws IOException {
+        Path file = tempDir.resolve("feed.csv");
+        Files.writeString(file, HEADER + row(1, 80, 60));
+        TailingCsvReader<WeatherDay> reader = new TailingCsvReader<>(file.toString(), CsvFormat.weather());
+        List<Integer> days = new ArrayList<>();
+
+        assertEquals(1, reader.poll(day -> days.add(day.getDay()), () -> fail("no restart expected")));
+
+        // The partial row is consumed only once its line break arrives
+        append(file, row(2, 75, 65) + "3,70");
+        assertEquals(1, reader.poll(day -> days.add(day.getDay()), () -> fail("no restart expected")));
+        append(file, ",68,1,1,1,1,1,1,1,1,1,1,1\r\n");
+        assertEquals(1, reader.poll(day -> days.add(day.getDay()), () -> fail("no restart expected")));
+
+        assertEquals(List.of(1, 2, 3), days);
+        assertEquals(Files.size(file), reader.getOffset());
+    }
+
+    @Test
+    void testFailingSinkResumesWithTheFailedLine() throws IOException {
+        Path file = tempDir.resolve("feed.csv");
+        Files.writeString(file, HEADER + row(1, 80, 60) + row(2, 75, 65) + row(3, 70, 68) + row(4, 90, 50));
+        TailingCsvReader<WeatherDay> reader = new TailingCsvReader<>(file.toString(), CsvFormat.weather());
+        List<Integer> days = new ArrayList<>();
+
+        assertThrows(IllegalStateException.class, () -> reader.poll(day -> {
+            if (day.getDay() == 3) {
+                throw new IllegalStateException("sink failed");
+            }
+            days.add(day.getDay());
+        }, () -> fail("no restart expected")));
+        assertEquals(HEADER.length() + 2 * row(1, 80, 60).length(), reader.getOffset());
+
+        assertEquals(2, reader.poll(day -> days.add(day.getDay()), () -> fail("no restart expected")));
+        assertEquals(List.of(1, 2, 3, 4), days);
+        assertEquals(Files.size(file), reader.getOffset());
+    }
+
+    @Test
+    void testTruncationTriggersRescan() throws IOException {
+        Path file = tempDir.resolve("feed.csv");
+        Files.writeString(file, HEADER + row(1, 80, 60) + row(2, 75, 74));
+        IncrementalAnalyzer<WeatherDay, Optional<WeatherDay>> analyzer =
+                IncrementalAnalyzer.follow(file.toString(), CsvFormat.weather(), new WeatherAnalyzer());
+        assertEquals(2, analyzer.update().get().getDay());
+
+        Files.writeString(file, HEADER + row(5, 80, 70));
+        assertEquals(5, analyzer.update().get().getDay());
+    }
+
+    @Test
+    void testRotationAndRewriteTriggerRescan() throws IOException {
+        Path file = tempDir.resolve("feed.csv");
+        Files.writeString(file, HEADER + row(1, 80, 60));
+        TailingCsvReader<WeatherDay> reader = new TailingCsvReader<>(file.toString(), CsvFormat.weather());
+        IncrementalAnalyzer<WeatherDay, Optional<WeatherDay>> analyzer = new IncrementalAnalyzer<>(reader, new WeatherAnalyzer());
+        analyzer.update();
+
+        // Rotation: a new, longer file replaces the old one
+        Path rotated = tempDir.resolve("next.csv");
+        Files.writeString(rotated, HEADER + row(7, 90, 50) + row(8, 90, 40));
+        Files.move(rotated, file, StandardCopyOption.REPLACE_EXISTING);
+        assertEquals(7, analyzer.update().get().getDay());
+        assertEquals(1, reader.getRestartCount());
+
+        // Rewrite in place: same length, different content
+        Files.writeString(file, HEADER + row(7, 90, 89) + row(8, 90, 40));
+        assertEquals(7, analyzer.update().get().getDay());
+        assertEquals(2, reader.getRestartCount());
+    }
+
+    private static String row(int day, int max, int min) {
+        return day + "," + max + "," + min + ",1,1,1,1,1,1,1,1,1,1,1\n";
+    }
+
+    private static void append(Path file, String text) throws IOException {
+        Files.writeString(file, text, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,104 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.exception.DataReadException;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvCountryReader;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.CsvWeatherReader;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class MappedCsvReaderTest {
+    private static final String WEATHER = "src/main/resources/de/bcxp/challenge/weather.csv";
+    private static final String COUNTRIES = "src/main/resources/de/bcxp/challenge/countries.csv";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWeatherMatchesLineBasedReader() {
+        List<WeatherDay> expected = new CsvWeatherReader().readData(WEATHER);
+        List<WeatherDay> actual = new MappedCsvReader<>(CsvFormat.weather()).readData(WEATHER);
+
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(30, actual.size());
+    }
+
+    @Test
+    void testCountriesMatchLineBasedReader() {
+        List<Country> expected = new CsvCountryReader().readData(COUNTRIES);
+        List<Country> actual = new MappedCsvReader<>(CsvFormat.countries()).readData(COUNTRIES);
+
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(4036355.0, actual.get(3).getPopulation(), 0);
+    }
+
+    @Test
+    void testSmallWindowsRemapAcrossLineBoundaries() {
+        List<WeatherDay> expected = new CsvWeatherReader().readData(WEATHER);
+        List<WeatherDay> actual = new MappedCsvReader<>(CsvFormat.weather(), 7).readData(WEATHER);
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void testCrlfAndMalformedLines() throws IOException {
+        Path file = write("Day,MxT,MnT\r\n1,10,5\r\n2,x,1\r\n3,4\r\n 4 , 8.5 , -1.25 \r\n5,7,6");
+
+        ErrorReport errors = new ErrorReport();
+        List<WeatherDay> days = new MappedCsvReader<>(CsvFormat.weather(), 4).readData(file.toString(), errors);
+
+        assertEquals(2, errors.getTotal());
+        assertEquals(List.of(1, 4, 5), days.stream().map(WeatherDay::getDay).collect(Collectors.toList()));
+        assertEquals(8.5, days.get(1).getMaxTemp(), 0);
+        assertEquals(-1.25, days.get(1).getMinTemp(), 0);
+    }
+
+    @Test
+    void testGermanNumbersAndNames() throws IOException {
+        Path file = write("Name;Capital;Accession;Population;Area\nKöln Land;K;2000;1.000,50;2,5\nBad;B;2000;1,2,3;1\n");
+
+        ErrorReport errors = new ErrorReport();
+        List<Country> countries = new MappedCsvReader<>(CsvFormat.countries()).readData(file.toString(), errors);
+
+        assertEquals(1, errors.getTotal());
+        assertEquals(1, countries.size());
+        assertEquals("Köln Land", countries.get(0).getName());
+        assertEquals(1000.5, countries.get(0).getPopulation(), 0);
+        assertEquals(2.5, countries.get(0).getArea(), 0);
+    }
+
+    @Test
+    void testEmptyFileIsRejected() throws IOException {
+        Path file = write("");
+        MappedCsvReader<WeatherDay> reader = new MappedCsvReader<>(CsvFormat.weather());
+
+        assertThrows(DataReadException.class, () -> reader.readData(file.toString()));
+    }
+
+    @Test
+    void testMissingFileIsRejected() {
+        MappedCsvReader<WeatherDay> reader = new MappedCsvReader<>(CsvFormat.weather());
+
+        assertThrows(DataReadException.class, () -> reader.readData(tempDir.resolve("missing.csv").toString()));
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = Files.createTempFile(tempDir, "data", ".csv");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,95 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.generator.CountryDataGenerator;
+import de.bcxp.challenge.index.MetricIndex;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.snapshot.CountryTableCodec;
+import de.bcxp.challenge.snapshot.SnapshotTableReader;
+import de.bcxp.challenge.table.CountryTable;
+import de.bcxp.challenge.table.CountryTableReader;
+import de.bcxp.challenge.table.WeatherTable;
+import de.bcxp.challenge.table.WeatherTableReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class MetricIndexTest {
+    private static final String WEATHER = "src/main/resources/de/bcxp/challenge/weather.csv";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testQueriesMatchLinearScan() {
+        WeatherTable table = new WeatherTableReader().readTable(WEATHER);
+        MetricIndex index = table.getSpreadIndex();
+
+        assertArrayEquals(scan(table, 10, 20), sorted(table, index.between(10, 20)));
+        assertArrayEquals(scan(table, Double.NEGATIVE_INFINITY, 4.999), sorted(table, index.lessThan(5)));
+        assertArrayEquals(scan(table, Double.NEGATIVE_INFINITY, 12), sorted(table, index.atMost(12)));
+        assertArrayEquals(scan(table, 30.001, Double.POSITIVE_INFINITY), sorted(table, index.greaterThan(30)));
+        assertArrayEquals(scan(table, 30, Double.POSITIVE_INFINITY), sorted(table, index.atLeast(30)));
+        assertEquals(0, index.between(20, 10).length);
+    }
+
+    @Test
+    void testRankAndNearest() {
+        MetricIndex index = MetricIndex.build(6, row -> new double[] { 5, 1, 3, 3, 9, 1 }[row]);
+
+        assertArrayEquals(new int[] { 1, 5, 2, 3, 0, 4 }, IntStream.range(0, 6).map(index::row).toArray());
+        assertEquals(2, index.rank(3));
+        assertEquals(4, index.rank(4));
+        assertEquals(6, index.rank(10));
+        assertEquals(2, index.nearest(3.4));
+        assertEquals(2, index.nearest(4));
+        assertEquals(0, index.nearest(4.1));
+        assertEquals(1, index.nearest(-7));
+        assertEquals(4, index.nearest(100));
+        assertEquals(-1, MetricIndex.build(0, row -> 0).nearest(1));
+    }
+
+    @Test
+    void testWrapRejectsUnsortedKeys() {
+        assertThrows(IllegalArgumentException.class, () -> MetricIndex.wrap(new double[] { 2, 1 }, new int[] { 0, 1 }));
+        assertThrows(IllegalArgumentException.class, () -> MetricIndex.wrap(new double[] { 1 }, new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> MetricIndex.wrap(new double[] { 1, 2 }, new int[] { 0, 0 }));
+        assertThrows(IllegalArgumentException.class, () -> MetricIndex.wrap(new double[] { 1, 2 }, new int[] { 0, 2 }));
+        assertThrows(IllegalArgumentException.class, () -> MetricIndex.wrap(new double[] { 1 }, new int[] { -1 }));
+    }
+
+    @Test
+    void testIndexIsPersistedWithSnapshot() {
+        Path file = tempDir.resolve("countries.csv");
+        new CountryDataGenerator(23, 0).generate(file, 10_000);
+        SnapshotTableReader<CountryTable, Country> reader =
+                new SnapshotTableReader<>(new CountryTableCodec(new CountryTableReader()), tempDir, true);
+
+        MetricIndex built = reader.readTable(file.toString(), ErrorSink.ignore()).getDensityIndex();
+        MetricIndex reloaded = reader.readTable(file.toString(), ErrorSink.ignore()).getDensityIndex();
+
+        assertNotSame(built, reloaded);
+        assertArrayEquals(built.keys(), reloaded.keys());
+        assertArrayEquals(built.rows(), reloaded.rows());
+        assertArrayEquals(built.between(100, 200), reloaded.between(100, 200));
+    }
+
+    private static int[] scan(WeatherTable table, double from, double to) {
+        return IntStream.range(0, table.size())
+                .filter(row -> table.getTemperatureDifference(row) >= from && table.getTemperatureDifference(row) <= to)
+                .toArray();
+    }
+
+    private static int[] sorted(WeatherTable table, int[] rows) {
+        // Results are in metric order; compare as row sets
+        int[] copy = rows.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,165 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.api.DataReader;
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.exception.DataReadException;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.metrics.MetricsRegistry;
+import de.bcxp.challenge.metrics.MetricsSnapshot;
+import de.bcxp.challenge.metrics.PhaseSnapshot;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.reader.ParallelCsvReader;
+import de.bcxp.challenge.service.CountryAnalyzer;
+import de.bcxp.challenge.service.WeatherAnalyzer;
+import de.bcxp.challenge.table.CountryTableReader;
+import de.bcxp.challenge.table.WeatherTableReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class MetricsRegistryTest {
+    private static final String COUNTRIES = "src/main/resources/de/bcxp/challenge/countries.csv";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testStreamingReaderRecordsRowsRejectsAndBytes() throws Exception {
+        Path file = tempDir.resolve("weather.csv");
+        long malformed = new WeatherDataGenerator(3, 0.1).generate(file, 2_000);
+        MetricsRegistry metrics = new MetricsRegistry(true);
+        StreamingDataReader<WeatherDay> reader =
+                metrics.reader("weather.read", new MappedCsvReader<>(CsvFormat.weather()));
+
+        ErrorReport errors = new ErrorReport();
+        long count = reader.readData(file.toString(), day -> { }, errors);
+
+        PhaseSnapshot phase = metrics.snapshot().get("weather.read").orElseThrow();
+        assertEquals(1, phase.getCalls());
+        assertEquals(count, phase.getRecords());
+        assertEquals(malformed, phase.getRejectedRows());
+        assertEquals(malformed, errors.getTotal());
+        assertEquals(Files.size(file), phase.getBytesRead());
+        assertTrue(phase.getNanos() > 0);
+        assertTrue(phase.getNanosPerRecord() > 0);
+    }
+
+    @Test
+    void testParallelAggregationKeepsResultAndCountsRecords() {
+        Path file = tempDir.resolve("weather.csv");
+        new WeatherDataGenerator(4, 0.0).generate(file, 50_000);
+        MetricsRegistry metrics = new MetricsRegistry(true);
+        StreamingDataReader<WeatherDay> plain = new ParallelCsvReader<>(CsvFormat.weather(), 4, 64 * 1024);
+        StreamingDataReader<WeatherDay> instrumented = metrics.reader("weather.read", plain);
+
+        Optional<WeatherDay> expected = plain.aggregate(file.toString(), new WeatherAnalyzer()::newAccumulator);
+        Optional<WeatherDay> actual = instrumented.aggregate(file.toString(), new WeatherAnalyzer()::newAccumulator);
+
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(50_000, metrics.snapshot().get("weather.read").orElseThrow().getRecords());
+    }
+
+    @Test
+    void testListReaderCountsRejectsThroughErrorSink() {
+        Path file = tempDir.resolve("weather.csv");
+        long malformed = new WeatherDataGenerator(5, 0.1).generate(file, 2_000);
+        MetricsRegistry metrics = new MetricsRegistry(true);
+        WeatherTableReader tables = new WeatherTableReader();
+
+        ErrorReport errors = new ErrorReport();
+        ErrorSink counted = metrics.errors("weather.read", errors);
+        DataReader<WeatherDay> reader = path -> tables.readTable(path, counted).asList();
+        metrics.reader("weather.read", reader).readData(file.toString());
+
+        PhaseSnapshot phase = metrics.snapshot().get("weather.read").orElseThrow();
+        assertEquals(1, phase.getCalls());
+        assertEquals(malformed, phase.getRejectedRows());
+        assertEquals(malformed, errors.getTotal());
+    }
+
+    @Test
+    void testListReaderAndAnalyzer() {
+        MetricsRegistry metrics = new MetricsRegistry(true);
+        List<Country> countries = metrics.reader("countries.read", new CountryTableReader()).readData(COUNTRIES);
+        Optional<Country> densest = metrics.analyzer("countries.analyze", new CountryAnalyzer()).analyze(countries);
+
+        assertEquals("Malta", densest.orElseThrow().getName());
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(List.of("countries.read", "countries.analyze"),
+                List.of(snapshot.getPhases().get(0).getName(), snapshot.getPhases().get(1).getName()));
+        assertEquals(countries.size(), snapshot.get("countries.read").orElseThrow().getRecords());
+        assertEquals(countries.size(), snapshot.get("countries.analyze").orElseThrow().getRecords());
+        assertEquals(0, snapshot.get("countries.analyze").orElseThrow().getBytesRead());
+    }
+
+    @Test
+    void testDisabledRegistryPassesThrough() {
+        MetricsRegistry metrics = new MetricsRegistry(false);
+        StreamingDataReader<Country> reader =
+                metrics.reader("countries.read", new MappedCsvReader<>(CsvFormat.countries()));
+
+        assertEquals(new MappedCsvReader<>(CsvFormat.countries()).readData(COUNTRIES).toString(),
+                reader.readData(COUNTRIES).toString());
+        assertEquals(42, metrics.time("work", 1, () -> 42));
+        assertTrue(metrics.snapshot().getPhases().isEmpty());
+
+        metrics.setEnabled(true);
+        reader.readData(COUNTRIES);
+        assertEquals(1, metrics.snapshot().getPhases().size());
+    }
+
+    @Test
+    void testFailedCallsAreTimedAndCounted() {
+        MetricsRegistry metrics = new MetricsRegistry(true);
+        StreamingDataReader<Country> reader =
+                metrics.reader("countries.read", new MappedCsvReader<>(CsvFormat.countries()));
+        String missing = tempDir.resolve("missing.csv").toString();
+
+        assertThrows(DataReadException.class, () -> reader.readData(missing));
+        assertThrows(DataReadException.class, () -> reader.aggregate(missing, new CountryAnalyzer()::newAccumulator));
+        reader.readData(COUNTRIES);
+        assertThrows(IllegalStateException.class, () -> metrics.time("work", 1, () -> {
+            throw new IllegalStateException("work failed");
+        }));
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        PhaseSnapshot read = snapshot.get("countries.read").orElseThrow();
+        assertEquals(3, read.getCalls());
+        assertEquals(2, read.getFailures());
+        assertEquals(new MappedCsvReader<>(CsvFormat.countries()).readData(COUNTRIES).size(), read.getRecords());
+        PhaseSnapshot work = snapshot.get("work").orElseThrow();
+        assertEquals(1, work.getCalls());
+        assertEquals(1, work.getFailures());
+        assertEquals(0, work.getRecords());
+        assertTrue(snapshot.toPrometheus().contains("bcxp_phase_failures_total{phase=\"work\"} 1\n"));
+    }
+
+    @Test
+    void testExportFormats() {
+        MetricsRegistry metrics = new MetricsRegistry(true);
+        metrics.time("load \"x\"", 10, () -> null);
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        String json = snapshot.toJson();
+        assertTrue(json.startsWith("{\"phases\":[{\"name\":\"load \\\"x\\\"\",\"calls\":1,\"records\":10,"), json);
+        assertTrue(json.endsWith("}]}"), json);
+
+        String prometheus = snapshot.toPrometheus();
+        assertTrue(prometheus.contains("# TYPE bcxp_phase_records_total counter\n"
+                + "bcxp_phase_records_total{phase=\"load \\\"x\\\"\"} 10\n"), prometheus);
+        assertTrue(prometheus.contains("bcxp_phase_duration_seconds_total{phase=\"load \\\"x\\\"\"} 0."), prometheus);
+        assertTrue(prometheus.endsWith("\n"));
+    }
+}
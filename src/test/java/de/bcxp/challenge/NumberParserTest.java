@@ -0,0 +1,92 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.parser.AmbiguityPolicy;
+import de.bcxp.challenge.parser.AmbiguousNumberException;
+import de.bcxp.challenge.parser.NumberParser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class NumberParserTest {
+    private final NumberParser mixed = NumberParser.mixed(AmbiguityPolicy.REJECT);
+
+    @Test
+    void testPlainMatchesDoubleParseDouble() {
+        String[] values = {"0", "-0", "1004.5", " 88 ", "+3.25", ".5", "5.", "1e3", "-2.5E-3",
+                "123456789012345678901234", "0.1", "9007199254740993", "1.7976931348623157E308"};
+
+        for (String value : values) {
+            assertEquals(Double.parseDouble(value.trim()), NumberParser.plain().parse(value), value);
+            assertEquals(Double.parseDouble(value.trim()), NumberParser.plain().parse(bytes(value), 0, value.length()), value);
+        }
+    }
+
+    @Test
+    void testPlainRejectsWhatDoubleParseDoubleRejects() {
+        for (String value : new String[]{"", " ", "-", "1.2.3", "abc", "1,5"}) {
+            assertThrows(NumberFormatException.class, () -> NumberParser.plain().parse(value), value);
+        }
+    }
+
+    @Test
+    void testGermanAndEnglishProfiles() {
+        assertEquals(4036355.0, NumberParser.german().parse("4.036.355,00"), 0);
+        assertEquals(4036355.0, NumberParser.english().parse("4,036,355.00"), 0);
+        assertEquals(1234.0, NumberParser.german().parse("1.234"), 0);
+        assertEquals(1.25, NumberParser.of('\'', '.').parse("1.25"), 0);
+        assertEquals(1234567.5, NumberParser.of('\'', '.').parse("1'234'567.5"), 0);
+    }
+
+    @Test
+    void testMixedProfileDetectsFormatPerValue() {
+        assertEquals(4036355.0, mixed.parse("4.036.355,00"), 0);
+        assertEquals(4036355.0, mixed.parse("4,036,355.00"), 0);
+        assertEquals(4036355.0, mixed.parse("4.036.355"), 0);
+        assertEquals(8926000.0, mixed.parse("8926000"), 0);
+        assertEquals(1.5, mixed.parse("1,5"), 0);
+        assertEquals(1.5, mixed.parse("1.5"), 0);
+        assertEquals(0.922, mixed.parse("0.922"), 0);
+        assertEquals(12345.678, mixed.parse("12345.678"), 0);
+    }
+
+    @Test
+    void testMixedProfileRejectsMalformedGrouping() {
+        for (String value : new String[]{"1,2,3", "1.2.3", "1234.567.890", "1.234.56", "1.23,5", "1.2345,5"}) {
+            assertThrows(NumberFormatException.class, () -> mixed.parse(value), value);
+        }
+    }
+
+    @Test
+    void testAmbiguousValuesAreReportedExplicitly() {
+        assertTrue(mixed.isAmbiguous("1.234", 0, 5));
+        assertTrue(mixed.isAmbiguous("-12,345", 0, 7));
+        assertFalse(mixed.isAmbiguous("1.2345", 0, 6));
+        assertFalse(NumberParser.german().isAmbiguous("1.234", 0, 5));
+
+        assertThrows(AmbiguousNumberException.class, () -> mixed.parse("1.234"));
+        assertEquals(1234.0, NumberParser.mixed(AmbiguityPolicy.AS_GROUPING).parse("1.234"), 0);
+        assertEquals(1.234, NumberParser.mixed(AmbiguityPolicy.AS_DECIMAL).parse("1,234"), 0);
+    }
+
+    @Test
+    void testByteRangeInsideLargerBuffer() {
+        ByteBuffer buffer = bytes("Croatia;4.036.355,00;56594");
+
+        assertEquals(4036355.0, mixed.parse(buffer, 8, 20), 0);
+        assertEquals(56594.0, mixed.parse(buffer, 21, 26), 0);
+    }
+
+    @Test
+    void testInvalidSeparatorsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> NumberParser.of('.', '.'));
+        assertThrows(IllegalArgumentException.class, () -> NumberParser.of('1', '.'));
+    }
+
+    private static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
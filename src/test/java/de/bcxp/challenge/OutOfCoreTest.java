@@ -0,0 +1,173 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.api.StreamingDataReader;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.generator.CountryDataGenerator;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.group.Group;
+import de.bcxp.challenge.group.GroupBy;
+import de.bcxp.challenge.group.GroupByResult;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.outofcore.MemoryBudget;
+import de.bcxp.challenge.outofcore.OutOfCoreExecutor;
+import de.bcxp.challenge.outofcore.RecordCodec;
+import de.bcxp.challenge.outofcore.SortedRecords;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.service.CountryAnalyzer;
+import de.bcxp.challenge.service.WeatherAnalyzer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class OutOfCoreTest {
+    private static final Comparator<WeatherDay> BY_SPREAD =
+            Comparator.comparingDouble(WeatherDay::getTemperatureDifference);
+
+    @TempDir
+    Path tempDir;
+
+    private Path weather(int rows) {
+        Path file = tempDir.resolve("weather.csv");
+        new WeatherDataGenerator(24, 0.01).generate(file, rows);
+        return file;
+    }
+
+    private OutOfCoreExecutor<WeatherDay> executor(MemoryBudget budget) throws IOException {
+        return new OutOfCoreExecutor<>(quiet(new MappedCsvReader<>(CsvFormat.weather())), budget,
+                Files.createDirectories(tempDir.resolve("spill")));
+    }
+
+    /**
+     * Drops the rejects of the generated malformed rows instead of printing them.
+     */
+    private static <T> StreamingDataReader<T> quiet(StreamingDataReader<T> reader) {
+        return (path, sink, errors) -> reader.readData(path, sink, ErrorSink.ignore());
+    }
+
+    @Test
+    void testExternalSortIsStableAcrossMergePasses() throws IOException {
+        Path file = weather(50_000);
+        List<WeatherDay> expected = new MappedCsvReader<>(CsvFormat.weather()).readData(file.toString(), ErrorSink.ignore());
+        // Stable, so equal spreads keep file order
+        expected.sort(BY_SPREAD);
+
+        List<WeatherDay> actual = new ArrayList<>();
+        try (SortedRecords<WeatherDay> sorted = executor(MemoryBudget.parse("64k"))
+                .sort(file.toString(), RecordCodec.weather(), BY_SPREAD)) {
+            assertEquals(expected.size(), sorted.getCount());
+            assertTrue(sorted.getMergePasses() > 0);
+            assertTrue(sorted.getRunCount() <= 2);
+            sorted.forEach(actual::add);
+        }
+
+        assertEquals(expected.toString(), actual.toString());
+        try (Stream<Path> files = Files.walk(tempDir.resolve("spill"))) {
+            assertEquals(1, files.count(), "spill directory is empty");
+        }
+    }
+
+    @Test
+    void testFailedSortDeletesItsRuns() throws IOException {
+        Path file = weather(20_000);
+        Path spill = Files.createDirectories(tempDir.resolve("spill"));
+        MappedCsvReader<WeatherDay> mapped = new MappedCsvReader<>(CsvFormat.weather());
+        // Fails after enough records for several runs
+        StreamingDataReader<WeatherDay> failing = (path, sink, errors) -> mapped.readData(path, day -> {
+            if (day.getDay() == 15_000) {
+                throw new IllegalStateException("read failed");
+            }
+            sink.accept(day);
+        }, ErrorSink.ignore());
+        OutOfCoreExecutor<WeatherDay> executor = new OutOfCoreExecutor<>(failing, MemoryBudget.parse("64k"), spill);
+
+        assertThrows(IllegalStateException.class,
+                () -> executor.sort(file.toString(), RecordCodec.weather(), BY_SPREAD));
+        assertThrows(IllegalStateException.class,
+                () -> executor.quantiles(file.toString(), WeatherDay::getTemperatureDifference, 0.5));
+        try (Stream<Path> files = Files.walk(spill)) {
+            assertEquals(1, files.count(), "spill directory is empty");
+        }
+    }
+
+    @Test
+    void testQuantilesMatchInMemoryNearestRank() throws IOException {
+        Path file = weather(20_000);
+        double[] spreads = new MappedCsvReader<>(CsvFormat.weather()).readData(file.toString(), ErrorSink.ignore()).stream()
+                .mapToDouble(WeatherDay::getTemperatureDifference).sorted().toArray();
+        double[] quantiles = {0.5, 0, 0.01, 0.99, 1};
+
+        for (String budget : new String[]{"16k", "1m", "1g"}) {
+            double[] actual = executor(MemoryBudget.parse(budget))
+                    .quantiles(file.toString(), WeatherDay::getTemperatureDifference, quantiles);
+            for (int i = 0; i < quantiles.length; i++) {
+                int rank = Math.max(1, (int) Math.ceil(quantiles[i] * spreads.length));
+                assertEquals(spreads[rank - 1], actual[i], "q=" + quantiles[i] + " within " + budget);
+            }
+        }
+    }
+
+    @Test
+    void testAggregationsAndGroupsMatchInMemoryResults() throws IOException {
+        Path file = weather(30_000);
+        List<WeatherDay> days = new MappedCsvReader<>(CsvFormat.weather()).readData(file.toString(), ErrorSink.ignore());
+        OutOfCoreExecutor<WeatherDay> executor = executor(MemoryBudget.parse("8k"));
+
+        assertEquals(new WeatherAnalyzer().analyze(days).toString(),
+                executor.aggregate(file.toString(), new WeatherAnalyzer()).toString());
+
+        GroupBy.Builder<WeatherDay, Long> byDay = GroupBy.byLong(WeatherDay::getDay)
+                .measure("spread", WeatherDay::getTemperatureDifference);
+        List<Group<Long>> expected = new MappedCsvReader<>(CsvFormat.weather())
+                .aggregate(file.toString(), byDay.build()::newAccumulator, ErrorSink.ignore()).toList();
+        try (GroupByResult<Long> groups = executor.groupBy(file.toString(), byDay)) {
+            assertTrue(groups.isSpilled());
+            assertEquals(expected.toString(), groups.toList().toString());
+        }
+    }
+
+    @Test
+    void testCountriesSortWithinBudget() throws IOException {
+        Path file = tempDir.resolve("countries.csv");
+        new CountryDataGenerator(3, 0.0).generate(file, 5_000);
+        OutOfCoreExecutor<Country> executor = new OutOfCoreExecutor<>(
+                quiet(new MappedCsvReader<>(CsvFormat.countries())), MemoryBudget.of(10_000), tempDir);
+        Comparator<Country> densest = Comparator.comparingDouble(Country::getPopulationDensity).reversed();
+
+        List<Country> expected = new MappedCsvReader<>(CsvFormat.countries()).readData(file.toString(), ErrorSink.ignore());
+        expected.sort(densest);
+        List<Country> actual = new ArrayList<>();
+        try (SortedRecords<Country> sorted = executor.sort(file.toString(), RecordCodec.countries(), densest)) {
+            assertTrue(sorted.getRunCount() > 0);
+            sorted.forEach(actual::add);
+        }
+
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(new CountryAnalyzer().analyze(expected).orElseThrow().getName(), actual.get(0).getName());
+    }
+
+    @Test
+    void testParsesMemoryBudget() {
+        assertEquals(512 * 1024, MemoryBudget.parse("512k").getBytes());
+        assertEquals(64L << 20, MemoryBudget.parse(" 64M ").getBytes());
+        assertEquals(2L << 30, MemoryBudget.parse("2g").getBytes());
+        assertEquals(1000, MemoryBudget.parse("1000").getBytes());
+        assertEquals("64 MiB", MemoryBudget.parse("64m").toString());
+        assertEquals(25, MemoryBudget.of(1000).items(40));
+        assertThrows(IllegalArgumentException.class, () -> MemoryBudget.parse("lots"));
+        assertThrows(IllegalArgumentException.class, () -> MemoryBudget.parse("0m"));
+        assertThrows(IllegalArgumentException.class, () -> MemoryBudget.parse("99999999999g"));
+        assertTrue(MemoryBudget.fractionOfHeap(0.5).getBytes() > 0);
+    }
+}
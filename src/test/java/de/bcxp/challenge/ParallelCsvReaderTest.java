@@ -0,0 +1,201 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.exception.DataReadException;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvCountryReader;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.CsvWeatherReader;
+import de.bcxp.challenge.reader.ParallelCsvReader;
+import de.bcxp.challenge.reader.RowMapper;
+import de.bcxp.challenge.service.CompositeAnalyzer.Slot;
+import de.bcxp.challenge.service.CompositeAnalyzer;
+import de.bcxp.challenge.service.CountryAnalyzer;
+import de.bcxp.challenge.service.WeatherAnalyzer;
+import de.bcxp.challenge.window.WeatherWindow;
+import de.bcxp.challenge.window.WeatherWindowAnalyzer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class ParallelCsvReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRecordsMatchSequentialReaderInFileOrder() throws IOException {
+        Path file = writeWeather(5_000, "\n");
+
+        ErrorReport errors = new ErrorReport();
+        List<WeatherDay> expected = new CsvWeatherReader().readData(file.toString(), ErrorSink.ignore());
+        List<WeatherDay> actual = new ParallelCsvReader<>(CsvFormat.weather(), 4, 1024).readData(file.toString(), errors);
+
+        assertEquals(5_000 - expected.size(), errors.getTotal());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void testNonMergeableAggregationIsFoldedInFileOrder() throws IOException {
+        Path file = writeWeather(5_000, "\n");
+        CompositeAnalyzer.Builder<WeatherDay> analyses = CompositeAnalyzer.builder();
+        Slot<Optional<WeatherDay>> minSpread = analyses.add(new WeatherAnalyzer());
+        Slot<List<WeatherWindow>> windows = analyses.add(new WeatherWindowAnalyzer(7).windows());
+        CompositeAnalyzer<WeatherDay> analyzer = analyses.build();
+        assertFalse(analyzer.newAccumulator().isMergeable());
+
+        CompositeAnalyzer.Results expected = new CsvWeatherReader().aggregate(file.toString(), analyzer::newAccumulator,
+                ErrorSink.ignore());
+        CompositeAnalyzer.Results actual = new ParallelCsvReader<>(CsvFormat.weather(), 4, 1024)
+                .aggregate(file.toString(), analyzer::newAccumulator, ErrorSink.ignore());
+
+        assertEquals(expected.get(minSpread).toString(), actual.get(minSpread).toString());
+        assertEquals(expected.get(windows).toString(), actual.get(windows).toString());
+    }
+
+    @Test
+    void testStreamingReadHoldsOnlyAWindowOfChunks() throws IOException {
+        Path file = writeWeather(5_000, "\n");
+        AtomicLong parsed = new AtomicLong();
+        RowMapper<WeatherDay> weather = CsvFormat.weather().getMapper();
+        CsvFormat<WeatherDay> counting = new CsvFormat<>(',', row -> {
+            parsed.incrementAndGet();
+            return weather.map(row);
+        });
+
+        List<Long> parsedAtDelivery = new ArrayList<>();
+        long count = new ParallelCsvReader<>(counting, 2, 1024).readData(file.toString(),
+                day -> parsedAtDelivery.add(parsed.get()), ErrorSink.ignore());
+
+        assertEquals(new CsvWeatherReader().readData(file.toString(), ErrorSink.ignore()).size(), count);
+        // Four chunks of about 1 KiB are parsed ahead of the first delivered record, not the whole file
+        assertTrue(parsedAtDelivery.get(0) < 500, "parsed before first record: " + parsedAtDelivery.get(0));
+    }
+
+    @Test
+    void testRejectsAreReportedWithTheirChunk() throws IOException {
+        Path file = writeWeather(5_000, "\n");
+        List<Long> sequential = new ArrayList<>();
+        new CsvWeatherReader().readData(file.toString(), day -> { }, (reason, line, text) -> sequential.add(line));
+
+        // Records as their day, rejects as their negated line number
+        List<Long> events = new ArrayList<>();
+        new ParallelCsvReader<>(CsvFormat.weather(), 2, 1024).readData(file.toString(),
+                day -> events.add((long) day.getDay()), (reason, line, text) -> events.add(-line));
+
+        List<Long> rejects = new ArrayList<>();
+        long lastDay = 0;
+        for (long event : events) {
+            if (event < 0) {
+                rejects.add(-event);
+                // Reported after the records of its chunk of about 60 lines, not after the whole file
+                assertTrue(lastDay >= -event - 2 && lastDay < -event + 100,
+                        "reject of line " + -event + " after day " + lastDay);
+            } else {
+                lastDay = event;
+            }
+        }
+        assertEquals(sequential, rejects);
+    }
+
+        @Test
+    void testCrlfLinesAreNotSplitAcrossChunks() throws IOException {
+        Path file = writeWeather(3_000, "\r\n");
+
+        List<WeatherDay> expected = new CsvWeatherReader().readData(file.toString(), ErrorSink.ignore());
+
+        for (long chunk = 17; chunk < 2_000; chunk += 331) {
+            ErrorReport errors = new ErrorReport();
+            List<WeatherDay> actual = new ParallelCsvReader<>(CsvFormat.weather(), 3, chunk)
+                    .readData(file.toString(), errors);
+            assertEquals(expected.toString(), actual.toString(), "chunk size " + chunk);
+            assertEquals(3_000 - expected.size(), errors.getTotal(), "chunk size " + chunk);
+        }
+    }
+
+    @Test
+    void testParallelAnalysisResolvesTiesToFirstOccurrence() throws IOException {
+        Path file = writeWeather(5_000, "\n");
+        ParallelCsvReader<WeatherDay> reader = new ParallelCsvReader<>(CsvFormat.weather(), 4, 512);
+
+        Optional<WeatherDay> parallel = new WeatherAnalyzer().analyze(reader, file.toString(), ErrorSink.ignore());
+        Optional<WeatherDay> sequential = new WeatherAnalyzer()
+                .analyze(new CsvWeatherReader(), file.toString(), ErrorSink.ignore());
+
+        assertTrue(parallel.isPresent());
+        assertEquals(sequential.get().getDay(), parallel.get().getDay());
+        assertEquals(5, parallel.get().getDay());
+    }
+
+    @Test
+    void testCountryAnalysisOnResourceFile() {
+        String path = "src/main/resources/de/bcxp/challenge/countries.csv";
+        ParallelCsvReader<Country> reader = new ParallelCsvReader<>(CsvFormat.countries(), 4, 64);
+
+        Optional<Country> result = new CountryAnalyzer().analyze(reader, path);
+
+        assertEquals("Malta", result.get().getName());
+        assertEquals(new CsvCountryReader().readData(path).toString(), reader.readData(path).toString());
+    }
+
+    @Test
+    void testSharedPoolIsReusedAndLeftRunning() throws IOException {
+        Path file = writeWeather(5_000, "\n");
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            ParallelCsvReader<WeatherDay> reader = new ParallelCsvReader<>(CsvFormat.weather(), pool, 1024);
+            String expected = new CsvWeatherReader().readData(file.toString(), ErrorSink.ignore()).toString();
+
+            assertEquals(expected, reader.readData(file.toString(), ErrorSink.ignore()).toString());
+            assertEquals(expected, reader.readData(file.toString(), ErrorSink.ignore()).toString());
+            assertFalse(pool.isShutdown());
+            assertTrue(pool.getPoolSize() <= 3, "workers: " + pool.getPoolSize());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testEmptyFileIsRejected() throws IOException {
+        Path file = Files.createFile(tempDir.resolve("empty.csv"));
+        ParallelCsvReader<WeatherDay> reader = new ParallelCsvReader<>(CsvFormat.weather());
+
+        assertThrows(DataReadException.class, () -> reader.readData(file.toString()));
+    }
+
+    /**
+     * Writes days whose spread cycles through 3..9, so the minimum spread of
+     * 3 occurs many times; malformed rows are mixed in regularly.
+     */
+    private Path writeWeather(int rows, String newline) throws IOException {
+        StringBuilder csv = new StringBuilder("Day,MxT,MnT,AvT").append(newline);
+        for (int day = 1; day <= rows; day++) {
+            if (day % 97 == 0) {
+                csv.append(day).append(",n/a,1,2").append(newline);
+            } else if (day % 89 == 0) {
+                csv.append(day).append(",1").append(newline);
+            } else {
+                int spread = 3 + (day + 2) % 7;
+                csv.append(day).append(',').append(50 + spread).append(",50,").append(day % 60).append(newline);
+            }
+        }
+        Path file = tempDir.resolve("weather-" + rows + ".csv");
+        Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
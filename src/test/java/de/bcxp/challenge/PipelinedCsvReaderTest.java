@@ -0,0 +1,133 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.exception.DataReadException;
+import de.bcxp.challenge.generator.CountryDataGenerator;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.reader.PipelineStats;
+import de.bcxp.challenge.reader.PipelinedCsvReader;
+import de.bcxp.challenge.service.WeatherAnalyzer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class PipelinedCsvReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMatchesMappedReaderForAnyBatchSize() {
+        Path weather = tempDir.resolve("weather.csv");
+        Path countries = tempDir.resolve("countries.csv");
+        long malformed = new WeatherDataGenerator(31, 0.02).generate(weather, 20_000);
+        new CountryDataGenerator(31, 0.02).generate(countries, 20_000);
+        String expectedWeather = new MappedCsvReader<>(CsvFormat.weather())
+                .readData(weather.toString(), ErrorSink.ignore()).toString();
+        String expectedCountries = new MappedCsvReader<>(CsvFormat.countries())
+                .readData(countries.toString(), ErrorSink.ignore()).toString();
+
+        for (int batchSize : new int[] { 17, 1000, 1 << 20 }) {
+            for (int workers : new int[] { 1, 3 }) {
+                ErrorReport errors = new ErrorReport();
+                assertEquals(expectedWeather, new PipelinedCsvReader<>(CsvFormat.weather(), workers, batchSize)
+                        .readData(weather.toString(), errors).toString());
+                assertEquals(malformed, errors.getTotal());
+                assertEquals(expectedCountries, new PipelinedCsvReader<>(CsvFormat.countries(), workers, batchSize)
+                        .readData(countries.toString(), ErrorSink.ignore()).toString());
+            }
+        }
+    }
+
+    @Test
+    void testLineEndingsAcrossBatchBoundaries() throws IOException {
+        Path file = tempDir.resolve("crlf.csv");
+        StringBuilder content = new StringBuilder("Day,MxT,MnT\r\n");
+        for (int day = 1; day <= 500; day++) {
+            content.append(day).append(',').append(60 + day % 30).append(',').append(40 + day % 7)
+                    .append(day % 3 == 0 ? "\r" : "\r\n");
+        }
+        Files.writeString(file, content);
+
+        String expected = new MappedCsvReader<>(CsvFormat.weather()).readData(file.toString()).toString();
+        for (int batchSize = 1; batchSize < 40; batchSize++) {
+            assertEquals(expected, new PipelinedCsvReader<>(CsvFormat.weather(), 2, batchSize)
+                    .readData(file.toString()).toString(), "batch size " + batchSize);
+        }
+    }
+
+    @Test
+    void testStatisticsAndAggregation() throws IOException {
+        Path plain = tempDir.resolve("weather.csv");
+        new WeatherDataGenerator(5, 0).generate(plain, 50_000);
+        Path file = tempDir.resolve("weather.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            Files.copy(plain, out);
+        }
+        PipelinedCsvReader<WeatherDay> reader = new PipelinedCsvReader<>(CsvFormat.weather(), 2, 64 * 1024);
+
+        WeatherDay expected = new WeatherAnalyzer().analyze(new MappedCsvReader<>(CsvFormat.weather()), plain.toString()).get();
+        assertEquals(expected.toString(), new WeatherAnalyzer().analyze(reader, file.toString()).get().toString());
+
+        PipelineStats stats = reader.getLastStats();
+        assertEquals(Files.size(plain), stats.getRead().getBytes());
+        assertEquals(stats.getRead().getBatches(), stats.getParse().getBatches());
+        assertEquals(50_000, stats.getParse().getRecords());
+        assertEquals(50_000, stats.getAggregate().getRecords());
+        assertTrue(stats.getRawQueue().getMaxDepth() <= stats.getRawQueue().getCapacity());
+    }
+
+    @Test
+    void testErrorsPropagate() throws IOException {
+        Path empty = Files.createFile(tempDir.resolve("empty.csv"));
+        Path file = tempDir.resolve("weather.csv");
+        new WeatherDataGenerator(6, 0).generate(file, 10_000);
+        PipelinedCsvReader<WeatherDay> reader = new PipelinedCsvReader<>(CsvFormat.weather(), 2, 1024);
+
+        assertThrows(DataReadException.class, () -> reader.readData(empty.toString()));
+        assertThrows(DataReadException.class, () -> reader.readData(tempDir.resolve("missing.csv").toString()));
+        assertThrows(IllegalStateException.class, () -> reader.readData(file.toString(), day -> {
+            throw new IllegalStateException("sink failed");
+        }));
+        assertEquals(10_000, reader.readData(file.toString()).size());
+    }
+
+    @Test
+    void testErrorInParserStageFailsInsteadOfHanging() {
+        Path file = tempDir.resolve("weather.csv");
+        new WeatherDataGenerator(6, 0).generate(file, 10_000);
+        CsvFormat<WeatherDay> failing = new CsvFormat<>(',', row -> {
+            if (row.getInt(0) == 5_000) {
+                throw new AssertionError("mapper failed");
+            }
+            return new WeatherDay(row.getInt(0), row.getDouble(1), row.getDouble(2));
+        });
+
+        for (int workers : new int[] { 1, 3 }) {
+            PipelinedCsvReader<WeatherDay> reader = new PipelinedCsvReader<>(failing, workers, 1024);
+            AssertionError error = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> assertThrows(AssertionError.class, () -> reader.readData(file.toString())));
+            assertEquals("mapper failed", error.getMessage());
+        }
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new PipelinedCsvReader<>(CsvFormat.weather(), 0, 1024));
+        assertThrows(IllegalArgumentException.class, () -> new PipelinedCsvReader<>(CsvFormat.weather(), 1, 0));
+        assertNull(new PipelinedCsvReader<>(CsvFormat.weather()).getLastStats());
+    }
+}
@@ -0,0 +1,92 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.exception.DataReadException;
+import de.bcxp.challenge.generator.CountryDataGenerator;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.reader.CsvCountryReader;
+import de.bcxp.challenge.reader.CsvSchema;
+import de.bcxp.challenge.reader.CsvWeatherReader;
+import de.bcxp.challenge.reader.SchemaCsvReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class SchemaCsvReaderTest {
+    private static final String WEATHER = "src/main/resources/de/bcxp/challenge/weather.csv";
+    private static final String COUNTRIES = "src/main/resources/de/bcxp/challenge/countries.csv";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testShippedFilesMatchDedicatedReaders() {
+        assertEquals(new CsvWeatherReader().readData(WEATHER).toString(),
+                new SchemaCsvReader<>(CsvSchema.weather()).readData(WEATHER).toString());
+        assertEquals(new CsvCountryReader().readData(COUNTRIES).toString(),
+                new SchemaCsvReader<>(CsvSchema.countries()).readData(COUNTRIES).toString());
+    }
+
+    @Test
+    void testGeneratedFilesWithMalformedRowsMatchDedicatedReaders() {
+        Path weather = tempDir.resolve("weather.csv");
+        Path countries = tempDir.resolve("countries.csv");
+        long malformed = new WeatherDataGenerator(9, 0.05).generate(weather, 10_000);
+        new CountryDataGenerator(9, 0.05).generate(countries, 10_000);
+        ErrorReport errors = new ErrorReport();
+
+        assertEquals(new CsvWeatherReader().readData(weather.toString(), ErrorSink.ignore()).toString(),
+                new SchemaCsvReader<>(CsvSchema.weather()).readData(weather.toString(), errors).toString());
+        assertEquals(malformed, errors.getTotal());
+        assertEquals(new CsvCountryReader().readData(countries.toString(), ErrorSink.ignore()).toString(),
+                new SchemaCsvReader<>(CsvSchema.countries()).readData(countries.toString(), ErrorSink.ignore()).toString());
+    }
+
+    @Test
+    void testColumnsAreResolvedByHeaderName() throws IOException {
+        Path file = tempDir.resolve("reordered.csv");
+        Files.writeString(file, "MnT, Note ,Day,MxT\n59,sunny,1,88\n63,rain,2,79\n");
+
+        assertEquals(new CsvWeatherReader().readData(WEATHER).subList(0, 2).toString(),
+                new SchemaCsvReader<>(CsvSchema.weather()).readData(file.toString()).toString());
+    }
+
+    @Test
+    void testNewDatasetNeedsOnlyASchema() {
+        CsvSchema<String> schema = CsvSchema.builder(',')
+                .column("Day")
+                .column("AvT")
+                .mapping(row -> row.getInt(0) + ":" + row.getDouble(1));
+
+        List<String> values = new SchemaCsvReader<>(schema).readData(WEATHER);
+
+        assertEquals(30, values.size());
+        assertEquals("1:74.0", values.get(0));
+    }
+
+    @Test
+    void testUnusedTrailingColumnsAreNotParsed() throws IOException {
+        Path file = tempDir.resolve("wide.csv");
+        Files.writeString(file, "Day,MxT,MnT,Comment\n1,88,59,\"quoted, with ;delimiters\",x,y,z\n2,79,63\n");
+
+        assertEquals(2, new SchemaCsvReader<>(CsvSchema.weather()).readData(file.toString()).size());
+    }
+
+    @Test
+    void testMissingColumnFails() throws IOException {
+        Path file = tempDir.resolve("missing.csv");
+        Files.writeString(file, "Day,MxT\n1,88\n");
+
+        DataReadException e = assertThrows(DataReadException.class,
+                () -> new SchemaCsvReader<>(CsvSchema.weather()).readData(file.toString()));
+        assertTrue(e.getMessage().contains("MnT"));
+    }
+}
@@ -0,0 +1,250 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.generator.CountryDataGenerator;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.parser.AmbiguityPolicy;
+import de.bcxp.challenge.parser.NumberParser;
+import de.bcxp.challenge.snapshot.CountryTableCodec;
+import de.bcxp.challenge.snapshot.SnapshotFile;
+import de.bcxp.challenge.snapshot.SnapshotTableReader;
+import de.bcxp.challenge.snapshot.WeatherTableCodec;
+import de.bcxp.challenge.table.CountryTable;
+import de.bcxp.challenge.table.CountryTableReader;
+import de.bcxp.challenge.table.WeatherTable;
+import de.bcxp.challenge.table.WeatherTableReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class SnapshotTest {
+    private static final String WEATHER = "src/main/resources/de/bcxp/challenge/weather.csv";
+    private static final NumberParser MIXED = NumberParser.mixed(AmbiguityPolicy.REJECT);
+
+    @TempDir
+    Path tempDir;
+
+    private SnapshotTableReader<WeatherTable, WeatherDay> weatherReader() {
+        return new SnapshotTableReader<>(new WeatherTableCodec(new WeatherTableReader()), tempDir.resolve("snapshots"), true);
+    }
+
+    @Test
+    void testWeatherSnapshotRoundTrip() {
+        Path source = copy(WEATHER);
+        SnapshotTableReader<WeatherTable, WeatherDay> reader = weatherReader();
+
+        WeatherTable parsed = reader.readTable(source.toString());
+        assertTrue(Files.exists(reader.snapshotPath(source)));
+
+        WeatherTable reloaded = reader.readTable(source.toString());
+        assertEquals(parsed.asList().toString(), reloaded.asList().toString());
+    }
+
+    @Test
+    void testCountrySnapshotRoundTrip() {
+        Path source = tempDir.resolve("countries.csv");
+        new CountryDataGenerator(3, 0).generate(source, 5_000);
+        SnapshotTableReader<CountryTable, Country> reader =
+                new SnapshotTableReader<>(new CountryTableCodec(new CountryTableReader(1, MIXED, MIXED)), null, true);
+
+        CountryTable parsed = reader.readTable(source.toString());
+        assertEquals(tempDir.resolve("countries.csv.snap"), reader.snapshotPath(source));
+        assertTrue(Files.exists(reader.snapshotPath(source)));
+
+        CountryTable reloaded = reader.readTable(source.toString());
+        assertEquals(parsed.asList().toString(), reloaded.asList().toString());
+        assertEquals(parsed.getNames().size(), reloaded.getNames().size());
+    }
+
+    @Test
+    void testSnapshotInvalidatedByChangedContent() throws IOException {
+        Path source = copy(WEATHER);
+        SnapshotTableReader<WeatherTable, WeatherDay> reader = weatherReader();
+        reader.readTable(source.toString());
+
+        // Same size and modification time, only the checksum differs
+        FileTime modified = Files.getLastModifiedTime(source);
+        String content = Files.readString(source);
+        Files.writeString(source, content.replaceFirst("\n1,88,59", "\n1,89,59"));
+        Files.setLastModifiedTime(source, modified);
+
+        assertEquals(89, reader.readTable(source.toString()).getMaxTemp(0), 0);
+    }
+
+    @Test
+    void testSampledChecksumCoversHeadAndTail() throws IOException {
+        Path source = tempDir.resolve("large.csv");
+        new WeatherDataGenerator(11, 0).generate(source, 50_000);
+        assertTrue(Files.size(source) > 4 * 64 * 1024);
+        SnapshotTableReader<WeatherTable, WeatherDay> sampled = new SnapshotTableReader<>(
+                new WeatherTableCodec(new WeatherTableReader()), tempDir.resolve("sampled"), false);
+        SnapshotTableReader<WeatherTable, WeatherDay> verified = weatherReader();
+        String original = sampled.readTable(source.toString()).asList().toString();
+        verified.readTable(source.toString());
+
+        // Same size and modification time; only the full checksum sees a change in the middle
+        rewriteDigit(source, Files.size(source) / 2);
+        assertEquals(original, sampled.readTable(source.toString()).asList().toString());
+        assertNotEquals(original, verified.readTable(source.toString()).asList().toString());
+
+        // A change in the last bytes is seen without reading the whole file
+        rewriteDigit(source, Files.size(source) - 10);
+        assertNotEquals(original, sampled.readTable(source.toString()).asList().toString());
+    }
+
+    @Test
+    void testSnapshotInvalidatedByChangedSize() throws IOException {
+        Path source = copy(WEATHER);
+        SnapshotTableReader<WeatherTable, WeatherDay> reader = weatherReader();
+        int size = reader.readTable(source.toString()).size();
+
+        Files.writeString(source, "\n31,70,50,1,1,1,1,1,1,1,1,1,1,1", StandardOpenOption.APPEND);
+
+        assertEquals(size + 1, reader.readTable(source.toString()).size());
+    }
+
+    @Test
+    void testCorruptSnapshotIsReplaced() throws IOException {
+        Path source = copy(WEATHER);
+        SnapshotTableReader<WeatherTable, WeatherDay> reader = weatherReader();
+        WeatherTable parsed = reader.readTable(source.toString());
+
+        Path snapshot = reader.snapshotPath(source);
+        Files.write(snapshot, new byte[] { 'B', 'C', 'X', 'P', 1, 2, 3 });
+
+        assertEquals(parsed.asList().toString(), reader.readTable(source.toString()).asList().toString());
+        assertTrue(Files.size(snapshot) > 7);
+    }
+
+    @Test
+    void testDamagedColumnContentIsReplaced() throws IOException {
+        Path weather = copy(WEATHER);
+        Path countries = tempDir.resolve("countries.csv");
+        new CountryDataGenerator(5, 0).generate(countries, 100);
+        // Without checksums only the content itself reveals the damage
+        SnapshotTableReader<WeatherTable, WeatherDay> weatherReader =
+                new SnapshotTableReader<>(new WeatherTableCodec(new WeatherTableReader()), null, false);
+        SnapshotTableReader<CountryTable, Country> countryReader =
+                new SnapshotTableReader<>(new CountryTableCodec(new CountryTableReader(1, MIXED, MIXED)), null, false);
+        String expectedWeather = weatherReader.readTable(weather.toString()).asList().toString();
+        String expectedCountries = countryReader.readTable(countries.toString()).asList().toString();
+
+        // A row id outside the table
+        overwritePayload(weatherReader.snapshotPath(weather), "spread.rows", 4, 1_000_000);
+        WeatherTable table = weatherReader.readTable(weather.toString());
+        assertEquals(expectedWeather, table.asList().toString());
+        assertArrayEquals(IntStream.range(0, 30).toArray(), IntStream.of(table.getSpreadIndex().rows()).sorted().toArray());
+
+        // A string count far beyond the table
+        overwritePayload(countryReader.snapshotPath(countries), "names", 0, 1_000_000);
+        assertEquals(expectedCountries, countryReader.readTable(countries.toString()).asList().toString());
+    }
+
+    @Test
+    void testRestoreBugsAreNotTakenForCorruption() {
+        Path source = copy(WEATHER);
+        SnapshotTableReader<WeatherTable, WeatherDay> reader = new SnapshotTableReader<>(
+                new WeatherTableCodec(new WeatherTableReader()) {
+                    @Override
+                    public WeatherTable read(SnapshotFile file) {
+                        throw new IllegalStateException("codec bug");
+                    }
+                }, tempDir.resolve("snapshots"), false);
+        reader.readTable(source.toString());
+
+        assertThrows(IllegalStateException.class, () -> reader.readTable(source.toString()));
+    }
+
+    @Test
+    void testWriteFailureIsReportedToCallback() throws IOException {
+        Path source = copy(WEATHER);
+        // A regular file where the snapshot directory should be
+        Path blocked = Files.createFile(tempDir.resolve("blocked"));
+        List<Path> failures = new ArrayList<>();
+        SnapshotTableReader<WeatherTable, WeatherDay> reader = new SnapshotTableReader<>(
+                new WeatherTableCodec(new WeatherTableReader()), blocked, true, (snapshot, e) -> failures.add(snapshot));
+
+        assertEquals(30, reader.readTable(source.toString()).size());
+        assertEquals(List.of(reader.snapshotPath(source)), failures);
+    }
+
+    @Test
+    void testFileWithRejectsGetsNoSnapshot() throws IOException {
+        Path source = copy(WEATHER);
+        Files.writeString(source, "\n31,broken\n", StandardOpenOption.APPEND);
+        SnapshotTableReader<WeatherTable, WeatherDay> reader = weatherReader();
+
+        // Every read parses the file again, so every read reports the reject
+        for (int read = 0; read < 2; read++) {
+            ErrorReport errors = new ErrorReport();
+            assertEquals(30, reader.readTable(source.toString(), errors).size());
+            assertEquals(1, errors.getTotal());
+            assertEquals(32, errors.getSamples().get(0).getLineNumber());
+            assertFalse(Files.exists(reader.snapshotPath(source)));
+        }
+    }
+
+    /**
+     * Replaces the first digit at or after the position by another digit,
+     * keeping size and modification time.
+     */
+    private static void rewriteDigit(Path file, long position) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(file);
+        byte[] bytes = Files.readAllBytes(file);
+        int i = (int) position;
+        while (bytes[i] < '0' || bytes[i] > '8') {
+            i++;
+        }
+        bytes[i]++;
+        Files.write(file, bytes);
+        Files.setLastModifiedTime(file, modified);
+    }
+
+    /**
+     * Overwrites an int inside the payload of the named snapshot column.
+     */
+    private static void overwritePayload(Path snapshot, String column, int offset, int value) throws IOException {
+        byte[] bytes = Files.readAllBytes(snapshot);
+        byte[] name = column.getBytes(StandardCharsets.UTF_8);
+        int descriptor = indexOf(bytes, name) - 2;
+        int payload = descriptor + (int) (((2 + name.length + 1) + 7) & ~7L) + 8;
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(payload + offset, value);
+        Files.write(snapshot, bytes);
+    }
+
+    private static int indexOf(byte[] bytes, byte[] pattern) {
+        for (int i = 0; i <= bytes.length - pattern.length; i++) {
+            if (Arrays.equals(bytes, i, i + pattern.length, pattern, 0, pattern.length)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Column not found");
+    }
+
+    private Path copy(String resource) {
+        try {
+            Path target = tempDir.resolve(Path.of(resource).getFileName());
+            return Files.copy(Path.of(resource), target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.reader.ParallelCsvReader;
+import de.bcxp.challenge.stats.ColumnStatistics;
+import de.bcxp.challenge.stats.KllSketch;
+import de.bcxp.challenge.stats.Moments;
+import de.bcxp.challenge.stats.Statistics;
+import de.bcxp.challenge.stats.StatisticsResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class StatisticsTest {
+    private static final double[] QUANTILES = {0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99};
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMomentsAreStableAndMergeExactly() {
+        Random random = new Random(23);
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // A large offset breaks the naive E[x²] - E[x]² formula
+            values[i] = 1e9 + random.nextGaussian() * 3;
+        }
+        double mean = Arrays.stream(values).average().orElseThrow();
+        double variance = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum() / values.length;
+
+        Moments all = new Moments();
+        Moments merged = new Moments();
+        for (int part = 0; part < 7; part++) {
+            Moments partial = new Moments();
+            for (int i = part; i < values.length; i += 7) {
+                partial.add(values[i]);
+                all.add(values[i]);
+            }
+            merged.merge(partial);
+        }
+
+        for (Moments moments : new Moments[]{all, merged}) {
+            assertEquals(values.length, moments.getCount());
+            assertEquals(mean, moments.getMean(), 1e-5);
+            assertEquals(variance, moments.getVariance(), 1e-6 * variance);
+            assertEquals(Arrays.stream(values).min().orElseThrow(), moments.getMin());
+        }
+        assertTrue(Double.isNaN(new Moments().getMean()));
+    }
+
+    @Test
+    void testSketchIsExactForSmallInputs() {
+        KllSketch sketch = new KllSketch();
+        double[] values = new Random(1).doubles(150, 0, 100).toArray();
+        for (double value : values) {
+            sketch.add(value);
+        }
+        sketch.add(Double.NaN);
+        Arrays.sort(values);
+
+        assertEquals(150, sketch.getCount());
+        for (double q : QUANTILES) {
+            // Nearest rank
+            assertEquals(values[(int) Math.ceil(q * values.length) - 1], sketch.quantile(q));
+        }
+        assertEquals(values[0], sketch.quantile(0));
+        assertEquals(values[149], sketch.quantile(1));
+        assertEquals(0.5, sketch.rank(values[74]));
+        assertTrue(Double.isNaN(new KllSketch().quantile(0.5)));
+    }
+
+    @Test
+    void testRankErrorStaysWithinBound() {
+        int n = 1_000_000;
+        double[] values = new double[n];
+        Random random = new Random(99);
+        for (int i = 0; i < n; i++) {
+            // Skewed values with many duplicates
+            values[i] = Math.floor(Math.exp(random.nextGaussian() * 2) * 100);
+        }
+
+        KllSketch single = new KllSketch();
+        KllSketch merged = new KllSketch();
+        KllSketch[] parts = new KllSketch[8];
+        for (int p = 0; p < parts.length; p++) {
+            parts[p] = new KllSketch();
+        }
+        for (int i = 0; i < n; i++) {
+            single.add(values[i]);
+            parts[i * parts.length / n].add(values[i]);
+        }
+        for (KllSketch part : parts) {
+            merged.merge(part);
+        }
+        Arrays.sort(values);
+
+        for (KllSketch sketch : new KllSketch[]{single, merged}) {
+            assertEquals(n, sketch.getCount());
+            assertTrue(sketch.getRetainedItems() < 3 * sketch.getK() + 100, sketch.toString());
+            for (double q : QUANTILES) {
+                double estimate = sketch.quantile(q);
+                // The estimate is correct if q lies within the rank range of its value
+                double lowRank = (double) lowerBound(values, estimate) / n;
+                double highRank = (double) upperBound(values, estimate) / n;
+                double error = Math.max(0, Math.max(lowRank - q, q - highRank));
+                assertTrue(error <= sketch.getNormalizedRankError(),
+                        "q=" + q + ": rank error " + error + " in " + sketch);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> single.merge(new KllSketch(100)));
+        assertThrows(IllegalArgumentException.class, () -> single.quantile(1.5));
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) return -index - 1;
+        while (index > 0 && sorted[index - 1] == value) index--;
+        return index;
+    }
+
+    private static int upperBound(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) return -index - 1;
+        while (index + 1 < sorted.length && sorted[index + 1] == value) index++;
+        return index + 1;
+    }
+
+    @Test
+    void testParallelRunMatchesSequentialRun() {
+        Path file = tempDir.resolve("weather.csv");
+        new WeatherDataGenerator(8, 0.0).generate(file, 200_000);
+        Statistics<WeatherDay> statistics = Statistics.weather();
+
+        StatisticsResult sequential = new MappedCsvReader<>(CsvFormat.weather())
+                .aggregate(file.toString(), statistics::newAccumulator);
+        StatisticsResult parallel = new ParallelCsvReader<>(CsvFormat.weather(), 4, 256 * 1024)
+                .aggregate(file.toString(), statistics::newAccumulator);
+
+        for (String column : new String[]{"MxT", "MnT", "spread"}) {
+            ColumnStatistics expected = sequential.get(column);
+            ColumnStatistics actual = parallel.get(column);
+            assertEquals(200_000, actual.getMoments().getCount());
+            assertEquals(expected.getMoments().getMean(), actual.getMoments().getMean(), 1e-9);
+            assertEquals(expected.getMoments().getVariance(), actual.getMoments().getVariance(), 1e-6);
+            assertEquals(expected.getMoments().getMax(), actual.getMoments().getMax());
+            double tolerance = 2 * actual.getSketch().getNormalizedRankError();
+            // Values repeat, so 0.5 must lie within the rank range of the median
+            double median = expected.getMedian();
+            assertTrue(actual.getSketch().rank(median) >= 0.5 - tolerance);
+            assertTrue(actual.getSketch().rank(Math.nextDown(median)) <= 0.5 + tolerance);
+        }
+        assertThrows(IllegalArgumentException.class, () -> sequential.get("missing"));
+        assertThrows(IllegalArgumentException.class, () -> Statistics.builder().k(4));
+    }
+}
@@ -0,0 +1,135 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.api.Accumulator;
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.generator.CountryDataGenerator;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.model.Country;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvCountryReader;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.CsvWeatherReader;
+import de.bcxp.challenge.reader.ParallelCsvReader;
+import de.bcxp.challenge.service.CountryAnalyzer;
+import de.bcxp.challenge.service.TopK;
+import de.bcxp.challenge.service.WeatherAnalyzer;
+import de.bcxp.challenge.table.CountryTable;
+import de.bcxp.challenge.table.CountryTableReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class TopKTest {
+    private static final String WEATHER = "src/main/resources/de/bcxp/challenge/weather.csv";
+    private static final String COUNTRIES = "src/main/resources/de/bcxp/challenge/countries.csv";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCalmestDaysMatchStableSort() {
+        List<WeatherDay> data = new CsvWeatherReader().readData(WEATHER);
+        List<WeatherDay> expected = data.stream()
+                .sorted(Comparator.comparingDouble(WeatherDay::getTemperatureDifference))
+                .limit(5)
+                .collect(Collectors.toList());
+
+        List<WeatherDay> actual = fold(new WeatherAnalyzer().calmestDays(5).newAccumulator(), data);
+
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(14, actual.get(0).getDay());
+    }
+
+    @Test
+    void testDensestCountries() {
+        List<Country> data = new CsvCountryReader().readData(COUNTRIES);
+        List<Country> actual = fold(new CountryAnalyzer().densestCountries(3).newAccumulator(), data);
+
+        assertEquals(List.of("Malta", "Netherlands", "Belgium"),
+                actual.stream().map(Country::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testKLargerThanInputAndZero() {
+        List<WeatherDay> data = new CsvWeatherReader().readData(WEATHER);
+
+        assertEquals(30, fold(TopK.<WeatherDay>largest(100, WeatherDay::getMaxTemp).newAccumulator(), data).size());
+        assertTrue(fold(TopK.<WeatherDay>largest(0, WeatherDay::getMaxTemp).newAccumulator(), data).isEmpty());
+        // Storage grows with the kept records, not with k
+        List<WeatherDay> all = fold(TopK.<WeatherDay>smallest(Integer.MAX_VALUE, WeatherDay::getMaxTemp)
+                .newAccumulator(), data);
+        assertEquals(30, all.size());
+        assertEquals(data.stream().mapToDouble(WeatherDay::getMaxTemp).min().orElseThrow(), all.get(0).getMaxTemp());
+        assertThrows(IllegalArgumentException.class, () -> TopK.smallest(-1, WeatherDay::getMaxTemp));
+    }
+
+    @Test
+    void testLargeKMatchesStableSort() {
+        Path file = tempDir.resolve("weather.csv");
+        new WeatherDataGenerator(23, 0).generate(file, 20_000);
+        List<WeatherDay> data = new CsvWeatherReader().readData(file.toString());
+
+        for (int k : new int[] {1, 2, 3, 1_000, 19_999, 20_000}) {
+            List<WeatherDay> expected = data.stream()
+                    .sorted(Comparator.comparingDouble(WeatherDay::getTemperatureDifference).reversed())
+                    .limit(k)
+                    .collect(Collectors.toList());
+            List<WeatherDay> actual =
+                    fold(TopK.<WeatherDay>largest(k, WeatherDay::getTemperatureDifference).newAccumulator(), data);
+            assertEquals(expected.toString(), actual.toString(), "k=" + k);
+        }
+    }
+
+    @Test
+    void testParallelMatchesSequentialWithTies() {
+        // Integer temperatures produce many equal spreads
+        Path file = tempDir.resolve("weather.csv");
+        long malformed = new WeatherDataGenerator(17, 0.01).generate(file, 40_000);
+        WeatherAnalyzer analyzer = new WeatherAnalyzer();
+        ErrorReport errors = new ErrorReport();
+
+        List<WeatherDay> sequential = new CsvWeatherReader()
+                .aggregate(file.toString(), () -> analyzer.calmestDays(50).newAccumulator(), errors);
+        List<WeatherDay> parallel = new ParallelCsvReader<>(CsvFormat.weather(), 4, 32 * 1024)
+                .aggregate(file.toString(), () -> analyzer.calmestDays(50).newAccumulator(), ErrorSink.ignore());
+        List<WeatherDay> sorted = new CsvWeatherReader().readData(file.toString(), ErrorSink.ignore()).stream()
+                .sorted(Comparator.comparingDouble(WeatherDay::getTemperatureDifference))
+                .limit(50)
+                .collect(Collectors.toList());
+
+        assertEquals(malformed, errors.getTotal());
+        assertEquals(sorted.toString(), sequential.toString());
+        assertEquals(sequential.toString(), parallel.toString());
+    }
+
+    @Test
+    void testTableRowsMatchRecords() {
+        Path file = tempDir.resolve("countries.csv");
+        new CountryDataGenerator(17, 0).generate(file, 20_000);
+        CountryAnalyzer analyzer = new CountryAnalyzer();
+
+        // The generated English-formatted numbers are rejected by the default German parsing
+        CountryTable table = new CountryTableReader().readTable(file.toString(), ErrorSink.ignore());
+        int[] rows = analyzer.maxDensityRows(table, 10);
+        List<Country> records = fold(analyzer.densestCountries(10).newAccumulator(), table.asList());
+
+        assertEquals(10, rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            assertEquals(records.get(i).toString(), table.get(rows[i]).toString());
+        }
+        assertEquals(0, analyzer.maxDensityRows(null, 10).length);
+    }
+
+    private static <T> List<T> fold(Accumulator<T, List<T>> accumulator, List<T> data) {
+        data.forEach(accumulator::accept);
+        return accumulator.result();
+    }
+}
@@ -1,6 +1,8 @@
 package de.bcxp.challenge;
 
+import de.bcxp.challenge.api.Accumulator;
 import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvWeatherReader;
 import de.bcxp.challenge.service.WeatherAnalyzer;
 import org.junit.jupiter.api.Test;
 
@@ -91,4 +93,36 @@ public class WeatherAnalyzerTest {
         assertTrue(result.isPresent());
         assertEquals(2, result.get().getDay());
     }
+
+    @Test
+    void testAccumulatorMatchesListAnalysis() {
+        List<WeatherDay> days = List.of(
+                new WeatherDay(1, 90, 80), // spread = 10
+                new WeatherDay(2, 85, 83), // spread = 2
+                new WeatherDay(3, 70, 68)  // spread = 2
+        );
+
+        Accumulator<WeatherDay, Optional<WeatherDay>> accumulator = analyzer.newAccumulator();
+        days.forEach(accumulator::accept);
+
+        assertEquals(analyzer.analyze(days), accumulator.result());
+        assertEquals(2, accumulator.result().get().getDay());
+    }
+
+    @Test
+    void testEmptyAccumulatorHasNoResult() {
+        assertTrue(analyzer.newAccumulator().result().isEmpty());
+    }
+
+    @Test
+    void testStreamingAnalysisOfResourceFile() {
+        String path = "src/main/resources/de/bcxp/challenge/weather.csv";
+        CsvWeatherReader reader = new CsvWeatherReader();
+
+        Optional<WeatherDay> streamed = analyzer.analyze(reader, path);
+
+        assertTrue(streamed.isPresent());
+        assertEquals(analyzer.analyze(reader.readData(path)).get().getDay(), streamed.get().getDay());
+        assertEquals(14, streamed.get().getDay());
+    }
 }
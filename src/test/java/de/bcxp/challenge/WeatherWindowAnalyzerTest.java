@@ -0,0 +1,148 @@
+package de.bcxp.challenge;
+
+import de.bcxp.challenge.error.ErrorReport;
+import de.bcxp.challenge.error.ErrorSink;
+import de.bcxp.challenge.generator.WeatherDataGenerator;
+import de.bcxp.challenge.model.WeatherDay;
+import de.bcxp.challenge.reader.CsvFormat;
+import de.bcxp.challenge.reader.MappedCsvReader;
+import de.bcxp.challenge.service.IncrementalAnalyzer;
+import de.bcxp.challenge.table.WeatherTable;
+import de.bcxp.challenge.table.WeatherTableReader;
+import de.bcxp.challenge.window.WeatherWindow;
+import de.bcxp.challenge.window.WeatherWindowAnalyzer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class WeatherWindowAnalyzerTest {
+    private static final String HEADER = "Day,MxT,MnT,AvT,AvDP,1HrP TPcpn,PDir,AvSp,Dir,MxS,SkyC,MxR,Mn,R AvSLP\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMatchesNaiveRecomputation() {
+        Random random = new Random(21);
+        List<WeatherDay> days = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            // Few distinct values, so ties are frequent
+            double min = random.nextInt(20);
+            days.add(new WeatherDay(i + 1, min + random.nextInt(10), min));
+        }
+
+        for (int size : new int[]{1, 2, 7, 30, 2_000}) {
+            List<WeatherWindow> windows = new WeatherWindowAnalyzer(size).analyze(days);
+            assertEquals(days.size() - size + 1, windows.size());
+            for (int position = 0; position < windows.size(); position++) {
+                assertWindow(days.subList(position, position + size), position, windows.get(position));
+            }
+        }
+    }
+
+    private static void assertWindow(List<WeatherDay> rows, long position, WeatherWindow window) {
+        WeatherDay min = rows.get(0);
+        WeatherDay max = rows.get(0);
+        double spread = 0;
+        double maxTemp = 0;
+        double minTemp = 0;
+        for (WeatherDay day : rows) {
+            if (day.getTemperatureDifference() < min.getTemperatureDifference()) min = day;
+            if (day.getTemperatureDifference() > max.getTemperatureDifference()) max = day;
+            spread += day.getTemperatureDifference();
+            maxTemp += day.getMaxTemp();
+            minTemp += day.getMinTemp();
+        }
+
+        assertEquals(position, window.getPosition());
+        assertEquals(rows.get(0).getDay(), window.getFirstDay());
+        assertEquals(rows.get(rows.size() - 1).getDay(), window.getLastDay());
+        assertEquals(min.getTemperatureDifference(), window.getMinSpread());
+        assertEquals(min.getDay(), window.getMinSpreadDay());
+        assertEquals(max.getTemperatureDifference(), window.getMaxSpread());
+        assertEquals(max.getDay(), window.getMaxSpreadDay());
+        assertEquals(spread / rows.size(), window.getMeanSpread(), 1e-9);
+        assertEquals(maxTemp / rows.size(), window.getMeanMaxTemp(), 1e-9);
+        assertEquals(minTemp / rows.size(), window.getMeanMinTemp(), 1e-9);
+    }
+
+    @Test
+    void testRunningSumsDoNotDrift() {
+        WeatherWindowAnalyzer analyzer = new WeatherWindowAnalyzer(3);
+        List<WeatherDay> days = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            days.add(i % 2 == 0 ? new WeatherDay(i, 1e12, 0) : new WeatherDay(i, 0.1, 0.1));
+        }
+        days.add(new WeatherDay(-1, 0.3, 0.3));
+        days.add(new WeatherDay(-2, 0.3, 0.3));
+        days.add(new WeatherDay(-3, 0.3, 0.3));
+
+        WeatherWindow last = analyzer.analyze(days).get(days.size() - 3);
+        assertEquals(0.3, last.getMeanMaxTemp(), 1e-12);
+    }
+
+    @Test
+    void testStreamingTableAndBatchPathsAgree() {
+        Path file = tempDir.resolve("weather.csv");
+        long malformed = new WeatherDataGenerator(7, 0.02).generate(file, 5_000);
+        WeatherWindowAnalyzer analyzer = new WeatherWindowAnalyzer(7);
+        ErrorReport errors = new ErrorReport();
+        List<WeatherDay> days = new MappedCsvReader<>(CsvFormat.weather()).readData(file.toString(), errors);
+        List<WeatherWindow> expected = analyzer.analyze(days);
+
+        List<WeatherWindow> streamed = new ArrayList<>();
+        long count = analyzer.analyze(new MappedCsvReader<>(CsvFormat.weather()), file.toString(), streamed::add,
+                ErrorSink.ignore());
+        WeatherTable table = new WeatherTableReader().readTable(file.toString(), ErrorSink.ignore());
+
+        assertEquals(malformed, errors.getTotal());
+        assertEquals(expected.size(), count);
+        assertEquals(expected.toString(), streamed.toString());
+        assertEquals(expected.toString(), analyzer.analyzeTable(table).toString());
+        assertEquals(expected.toString(), new MappedCsvReader<>(CsvFormat.weather())
+                .aggregate(file.toString(), analyzer.windows()::newAccumulator, ErrorSink.ignore()).toString());
+        assertTrue(analyzer.analyze(days.subList(0, 6)).isEmpty());
+        assertTrue(analyzer.analyze((List<WeatherDay>) null).isEmpty());
+    }
+
+    @Test
+    void testIncrementalAnalyzerKeepsRollingWindowCurrent() throws IOException {
+        Path file = tempDir.resolve("weather.csv");
+        Files.writeString(file, HEADER + row(1, 80, 60) + row(2, 75, 65));
+        List<WeatherWindow> emitted = new ArrayList<>();
+        IncrementalAnalyzer<WeatherDay, Optional<WeatherWindow>> rolling = IncrementalAnalyzer.follow(
+                file.toString(), CsvFormat.weather(), new WeatherWindowAnalyzer(3).emitting(emitted::add));
+
+        assertEquals(Optional.empty(), rolling.update());
+
+        Files.writeString(file, row(3, 70, 69) + row(4, 90, 50), StandardOpenOption.APPEND);
+        WeatherWindow current = rolling.update().orElseThrow();
+        assertEquals(2, emitted.size());
+        assertEquals(2, current.getFirstDay());
+        assertEquals(4, current.getLastDay());
+        assertEquals(1, current.getMinSpread());
+        assertEquals(3, current.getMinSpreadDay());
+        assertEquals(40, current.getMaxSpread());
+        assertEquals(235 / 3.0, current.getMeanMaxTemp(), 1e-9);
+    }
+
+    @Test
+    void testRejectsInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new WeatherWindowAnalyzer(0));
+    }
+
+    private static String row(int day, int max, int min) {
+        return day + "," + max + "," + min + ",1,1,1,1,1,1,1,1,1,1,1\n";
+    }
+}